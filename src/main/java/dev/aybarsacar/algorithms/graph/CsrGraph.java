@@ -0,0 +1,107 @@
+package dev.aybarsacar.algorithms.graph;
+
+/**
+ * An immutable directed weighted graph in compressed sparse row (CSR) form
+ * <p>
+ * The outgoing edges of node u are the edges [offsets[u], offsets[u + 1]) of the targets and
+ * weights arrays, so the whole graph is three primitive arrays and iterating the neighbours of a
+ * node is a sequential scan with no allocation:
+ * <pre>
+ *   for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) visit(graph.target(e), graph.weight(e));
+ * </pre>
+ * Nodes are the integers [0, n)
+ */
+public class CsrGraph
+{
+  private final int n;
+  private final int[] offsets;
+  private final int[] targets;
+  private final double[] weights;
+
+  /**
+   * builds the graph from an edge list in O(n + m) with a counting sort on the source node
+   * the edge e goes from[e] -> to[e] with weight weights[e]
+   *
+   * @param n       number of nodes
+   * @param from
+   * @param to
+   * @param weights
+   */
+  public CsrGraph(int n, int[] from, int[] to, double[] weights)
+  {
+    if (n <= 0) throw new IllegalArgumentException("n cannot be less than or equal to zero");
+    if (from.length != to.length || from.length != weights.length)
+      throw new IllegalArgumentException("from, to and weights must have the same length");
+
+    int m = from.length;
+    this.n = n;
+    offsets = new int[n + 1];
+    targets = new int[m];
+    this.weights = new double[m];
+
+    for (int e = 0; e < m; e++)
+    {
+      nodeInBoundsOrThrow(from[e]);
+      nodeInBoundsOrThrow(to[e]);
+      if (!(weights[e] >= 0)) throw new IllegalArgumentException("Edge weights must be non negative; received: " + weights[e]);
+
+      offsets[from[e] + 1]++;
+    }
+
+//    prefix sums turn the out degrees into the start offset of every node
+    for (int u = 0; u < n; u++) offsets[u + 1] += offsets[u];
+
+    int[] next = new int[n];
+    System.arraycopy(offsets, 0, next, 0, n);
+
+    for (int e = 0; e < m; e++)
+    {
+      int slot = next[from[e]]++;
+      targets[slot] = to[e];
+      this.weights[slot] = weights[e];
+    }
+  }
+
+  public int nodeCount()
+  {
+    return n;
+  }
+
+  public int edgeCount()
+  {
+    return targets.length;
+  }
+
+  /**
+   * @param u
+   * @return the first edge of node u
+   */
+  public int edgeStart(int u)
+  {
+    return offsets[u];
+  }
+
+  /**
+   * @param u
+   * @return one past the last edge of node u
+   */
+  public int edgeEnd(int u)
+  {
+    return offsets[u + 1];
+  }
+
+  public int target(int e)
+  {
+    return targets[e];
+  }
+
+  public double weight(int e)
+  {
+    return weights[e];
+  }
+
+  private void nodeInBoundsOrThrow(int u)
+  {
+    if (u < 0 || u >= n) throw new IllegalArgumentException("Node out of bounds; received: " + u);
+  }
+}
@@ -0,0 +1,181 @@
+package dev.aybarsacar.algorithms.graph;
+
+import dev.aybarsacar.datastructures.priorityqueue.ipq.MinIndexedDoubleDHeap;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra and A* shortest path search over a CsrGraph driven by a MinIndexedDoubleDHeap
+ * <p>
+ * The search state (distances, predecessors and the heap) is allocated once per engine and reused
+ * by every query, and the heap keeps primitive doubles, so a query does not allocate. Instead of resetting the distance array, every node is stamped with the id of the
+ * query which last reached it, so starting a query is O(1) no matter how large the graph is.
+ * <p>
+ * Point to point queries stop as soon as the target is settled.
+ * An engine is not thread safe, use one engine per thread over the same shared graph.
+ */
+public class ShortestPathEngine
+{
+  /**
+   * A* heuristic, a lower bound of the distance from node to target
+   * it must be consistent: h(u) <= w(u, v) + h(v) for every edge, so nodes are settled once
+   */
+  public interface Heuristic
+  {
+    double estimate(int node, int target);
+  }
+
+  private static final Heuristic NONE = (node, target) -> 0;
+
+  private final CsrGraph graph;
+  private final MinIndexedDoubleDHeap heap;
+
+  //  dist[u] and prev[u] are only valid when stamp[u] == query
+  private final double[] dist;
+  private final int[] prev;
+  private final int[] stamp;
+  private int query;
+
+  //  the source of the last query
+  private int source = -1;
+
+  /**
+   * @param graph
+   * @param degree the degree D of the MinIndexedDoubleDHeap
+   */
+  public ShortestPathEngine(CsrGraph graph, int degree)
+  {
+    this.graph = graph;
+    int n = graph.nodeCount();
+
+    heap = new MinIndexedDoubleDHeap(degree, n);
+    dist = new double[n];
+    prev = new int[n];
+    stamp = new int[n];
+  }
+
+  public ShortestPathEngine(CsrGraph graph)
+  {
+    this(graph, 4);
+  }
+
+  /**
+   * computes the shortest distance from source to every node
+   *
+   * @param source
+   */
+  public void shortestPaths(int source)
+  {
+    search(source, -1, NONE);
+  }
+
+  /**
+   * Dijkstra from source which stops as soon as target is settled
+   *
+   * @param source
+   * @param target
+   * @return the shortest distance or Double.POSITIVE_INFINITY if target is unreachable
+   */
+  public double shortestPath(int source, int target)
+  {
+    return shortestPath(source, target, NONE);
+  }
+
+  /**
+   * A* from source to target guided by the heuristic
+   *
+   * @param source
+   * @param target
+   * @param heuristic
+   * @return the shortest distance or Double.POSITIVE_INFINITY if target is unreachable
+   */
+  public double shortestPath(int source, int target, Heuristic heuristic)
+  {
+    nodeInBoundsOrThrow(target);
+    search(source, target, heuristic);
+    return distanceTo(target);
+  }
+
+  /**
+   * nodes not settled before a point to point query stopped early only have a tentative distance
+   *
+   * @param node
+   * @return the distance of node found by the last query, Double.POSITIVE_INFINITY if it was not reached
+   */
+  public double distanceTo(int node)
+  {
+    nodeInBoundsOrThrow(node);
+    return stamp[node] == query ? dist[node] : Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * @param node
+   * @return the nodes of the path from the source of the last query to node, or an empty array
+   */
+  public int[] pathTo(int node)
+  {
+    if (distanceTo(node) == Double.POSITIVE_INFINITY) return new int[0];
+
+    int length = 1;
+    for (int u = node; u != source; u = prev[u]) length++;
+
+    int[] path = new int[length];
+    for (int u = node, i = length - 1; i >= 0; u = prev[u], i--) path[i] = u;
+    return path;
+  }
+
+  private void search(int source, int target, Heuristic heuristic)
+  {
+    nodeInBoundsOrThrow(source);
+
+    heap.clear();
+    this.source = source;
+
+//    start a new query, on overflow the stamps have to be reset once
+    if (++query == 0)
+    {
+      Arrays.fill(stamp, 0);
+      query = 1;
+    }
+
+    reach(source, 0, source);
+    heap.insert(source, heuristic.estimate(source, target));
+
+    while (!heap.isEmpty())
+    {
+      int u = heap.pollMinKeyIndex();
+      if (u == target) return;
+
+      double du = dist[u];
+
+      for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++)
+      {
+        int v = graph.target(e);
+        double dv = du + graph.weight(e);
+
+        if (stamp[v] != query)
+        {
+          reach(v, dv, u);
+          heap.insert(v, dv + heuristic.estimate(v, target));
+        }
+        else if (dv < dist[v] && heap.contains(v))
+        {
+          reach(v, dv, u);
+          heap.decrease(v, dv + heuristic.estimate(v, target));
+        }
+      }
+    }
+  }
+
+  private void reach(int v, double d, int from)
+  {
+    stamp[v] = query;
+    dist[v] = d;
+    prev[v] = from;
+  }
+
+  private void nodeInBoundsOrThrow(int u)
+  {
+    if (u < 0 || u >= graph.nodeCount()) throw new IllegalArgumentException("Node out of bounds; received: " + u);
+  }
+}
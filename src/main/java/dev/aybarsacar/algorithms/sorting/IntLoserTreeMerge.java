@@ -0,0 +1,118 @@
+package dev.aybarsacar.algorithms.sorting;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * K-way merge of sorted primitive int arrays using a tournament tree of losers,
+ * see LoserTreeMerge for how the tree works
+ * <p>
+ * The heads of the runs are kept in a primitive array so merging never boxes
+ */
+public class IntLoserTreeMerge implements PrimitiveIterator.OfInt
+{
+  private final int k;
+  private final int[][] runs;
+
+  //  position of the next element of every run, the run is exhausted when pos[i] == runs[i].length
+  private final int[] pos;
+  private final int[] heads;
+
+  //  tree[0] is the winner, tree[1..k) are the losers of the internal nodes
+  private final int[] tree;
+
+  /**
+   * merges the given sorted runs into a single sorted array
+   *
+   * @param runs
+   * @return
+   */
+  public static int[] merge(int[][] runs)
+  {
+    int n = 0;
+    for (int[] run : runs) n += run.length;
+
+    int[] merged = new int[n];
+    IntLoserTreeMerge merge = new IntLoserTreeMerge(runs);
+    for (int i = 0; i < n; i++) merged[i] = merge.nextInt();
+    return merged;
+  }
+
+  /**
+   * @param runs every run must be sorted in ascending order
+   */
+  public IntLoserTreeMerge(int[][] runs)
+  {
+    if (runs == null || runs.length == 0) throw new IllegalArgumentException("runs cannot be empty");
+
+    k = runs.length;
+    this.runs = runs;
+    pos = new int[k];
+    heads = new int[k];
+    tree = new int[k];
+
+    for (int i = 0; i < k; i++) if (runs[i].length > 0) heads[i] = runs[i][0];
+
+    tree[0] = build(1);
+  }
+
+  private int build(int node)
+  {
+    if (node >= k) return node - k;
+
+    int left = build(2 * node);
+    int right = build(2 * node + 1);
+
+    if (beats(left, right))
+    {
+      tree[node] = right;
+      return left;
+    }
+
+    tree[node] = left;
+    return right;
+  }
+
+  @Override
+  public boolean hasNext()
+  {
+    return !exhausted(tree[0]);
+  }
+
+  @Override
+  public int nextInt()
+  {
+    if (!hasNext()) throw new NoSuchElementException();
+
+    int winner = tree[0];
+    int elem = heads[winner];
+
+    if (++pos[winner] < runs[winner].length) heads[winner] = runs[winner][pos[winner]];
+
+    for (int node = (winner + k) / 2; node > 0; node /= 2)
+    {
+      if (beats(tree[node], winner))
+      {
+        int temp = tree[node];
+        tree[node] = winner;
+        winner = temp;
+      }
+    }
+
+    tree[0] = winner;
+    return elem;
+  }
+
+  private boolean exhausted(int run)
+  {
+    return pos[run] == runs[run].length;
+  }
+
+  private boolean beats(int i, int j)
+  {
+    if (exhausted(i)) return false;
+    if (exhausted(j)) return true;
+
+    return heads[i] < heads[j] || (heads[i] == heads[j] && i < j);
+  }
+}
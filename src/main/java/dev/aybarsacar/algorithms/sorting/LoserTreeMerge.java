@@ -0,0 +1,173 @@
+package dev.aybarsacar.algorithms.sorting;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * K-way merge of sorted runs using a tournament tree of losers
+ * <p>
+ * The tree has k leaves, one for the head of each run, and every internal node stores the run which
+ * lost the match played at that node, tree[0] stores the overall winner. After the winner is output
+ * only its own path to the root needs to be replayed against the stored losers, which costs exactly
+ * one comparison per level, log(k) in total, instead of the ~2 log(k) of a binary heap sift down.
+ * <p>
+ * The merge is stable: equal elements are output in the order of the runs they come from.
+ * Runs are consumed lazily, so runs can be iterators over files, which makes this the merge stage
+ * of an external sort.
+ *
+ * @param <T>
+ */
+@SuppressWarnings("unchecked")
+public class LoserTreeMerge<T> implements Iterator<T>
+{
+  private final int k;
+  private final Comparator<? super T> comparator;
+  private final Iterator<? extends T>[] runs;
+
+  //  the current head of every run, only valid when exhausted[i] is false
+  private final Object[] heads;
+  private final boolean[] exhausted;
+
+  //  tree[0] is the winner, tree[1..k) are the losers of the internal nodes
+  //  the leaf of run i is the implicit node k + i
+  private final int[] tree;
+
+  /**
+   * merges runs sorted by the natural order of their elements
+   *
+   * @param runs
+   * @param <T>
+   * @return
+   */
+  public static <T extends Comparable<? super T>> LoserTreeMerge<T> of(List<? extends Iterator<? extends T>> runs)
+  {
+    return new LoserTreeMerge<>(runs, Comparator.naturalOrder());
+  }
+
+  /**
+   * merges all the elements of the given runs into a single sorted list
+   *
+   * @param runs
+   * @param comparator
+   * @param <T>
+   * @return
+   */
+  public static <T> List<T> merge(List<? extends Iterator<? extends T>> runs, Comparator<? super T> comparator)
+  {
+    List<T> merged = new ArrayList<>();
+    LoserTreeMerge<T> merge = new LoserTreeMerge<>(runs, comparator);
+    while (merge.hasNext()) merged.add(merge.next());
+    return merged;
+  }
+
+  /**
+   * @param runs       every run must be sorted by the comparator
+   * @param comparator
+   */
+  public LoserTreeMerge(List<? extends Iterator<? extends T>> runs, Comparator<? super T> comparator)
+  {
+    if (runs == null || runs.isEmpty()) throw new IllegalArgumentException("runs cannot be empty");
+    if (comparator == null) throw new IllegalArgumentException("comparator cannot be null");
+
+    this.comparator = comparator;
+    k = runs.size();
+    this.runs = runs.toArray(new Iterator[k]);
+    heads = new Object[k];
+    exhausted = new boolean[k];
+    tree = new int[k];
+
+    for (int i = 0; i < k; i++) advance(i);
+
+    tree[0] = build(1);
+  }
+
+  /**
+   * plays the initial tournament of the subtree rooted at node and returns its winner
+   *
+   * @param node
+   * @return
+   */
+  private int build(int node)
+  {
+    if (node >= k) return node - k;
+
+    int left = build(2 * node);
+    int right = build(2 * node + 1);
+
+    if (beats(left, right))
+    {
+      tree[node] = right;
+      return left;
+    }
+
+    tree[node] = left;
+    return right;
+  }
+
+  @Override
+  public boolean hasNext()
+  {
+    return !exhausted[tree[0]];
+  }
+
+  /**
+   * returns the smallest remaining head and replays its path to the root
+   * O(log(k)) comparisons
+   *
+   * @return
+   */
+  @Override
+  public T next()
+  {
+    if (!hasNext()) throw new NoSuchElementException();
+
+    int winner = tree[0];
+    T elem = (T) heads[winner];
+    advance(winner);
+
+    for (int node = (winner + k) / 2; node > 0; node /= 2)
+    {
+      if (beats(tree[node], winner))
+      {
+        int temp = tree[node];
+        tree[node] = winner;
+        winner = temp;
+      }
+    }
+
+    tree[0] = winner;
+    return elem;
+  }
+
+  private void advance(int run)
+  {
+    if (runs[run].hasNext())
+    {
+      heads[run] = runs[run].next();
+    }
+    else
+    {
+      heads[run] = null;
+      exhausted[run] = true;
+    }
+  }
+
+  /**
+   * an exhausted run loses against everything, ties are won by the lower run for stability
+   *
+   * @param i
+   * @param j
+   * @return true if run i should be output before run j
+   */
+  private boolean beats(int i, int j)
+  {
+    if (exhausted[i]) return false;
+    if (exhausted[j]) return true;
+
+    int comparison = comparator.compare((T) heads[i], (T) heads[j]);
+    return comparison < 0 || (comparison == 0 && i < j);
+  }
+}
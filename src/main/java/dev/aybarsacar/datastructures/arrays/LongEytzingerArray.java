@@ -0,0 +1,252 @@
+package dev.aybarsacar.datastructures.arrays;
+
+import java.util.Arrays;
+
+/**
+ * Read only sorted set of longs laid out in Eytzinger (breadth first) order, for data which is
+ * built once and searched many times
+ * <p>
+ * the keys are stored as a complete binary search tree in a flat array: node k has children 2k and
+ * 2k + 1, the root is node 1. A search reads one element per level and the first levels are shared
+ * by every search so they stay in cache, while the 8 descendants three levels below a node are
+ * adjacent and usually share one cache line. A binary search over a sorted array instead jumps
+ * half the array on its first probes and touches a new cache line on almost every level.
+ * <p>
+ * the tree is padded to 2^h - 1 nodes with Long.MAX_VALUE, so every search runs exactly h
+ * iterations and the loop body compiles to a conditional move instead of a branch the CPU has to
+ * guess; padding comes after every real key in order, which keeps equal real keys first.
+ * The padding also makes the rank of a node a closed form of its position, so no rank array is
+ * stored. Memory is at most 16 bytes per key, 8 when size is just under a power of two.
+ * <p>
+ * construction is O(n log(n)) for the sort, every search O(log(n))
+ */
+public class LongEytzingerArray
+{
+  //  2^30 nodes is the largest power of two an array can hold
+  private static final int MAX_HEIGHT = 30;
+
+  //  a 64 byte cache line holds the 8 descendants 3 levels below a node
+  private static final int LOOK_AHEAD = 3;
+
+  private final long[] tree;          // tree[1 .. 2^height - 1] in Eytzinger order, tree[0] unused
+  private final int n, height;
+
+  /**
+   * O(n log(n))
+   *
+   * @param values copied and sorted, duplicates are kept
+   */
+  public LongEytzingerArray(long[] values)
+  {
+    if (values == null) throw new IllegalArgumentException("Null values");
+
+    n = values.length;
+
+    int height = 0;
+    while ((1L << height) - 1 < n) height++;
+    if (height > MAX_HEIGHT) throw new IllegalArgumentException("Too many values; received: " + n);
+    this.height = height;
+
+    long[] sorted = values.clone();
+    Arrays.sort(sorted);
+
+    tree = new long[1 << height];
+    fill(sorted, 0, 1);
+  }
+
+  /**
+   * fills the subtree rooted at node k with the sorted values in order starting with sorted[i]
+   * recursing height deep
+   *
+   * @return the index of the next sorted value
+   */
+  private int fill(long[] sorted, int i, int k)
+  {
+    if (k >= tree.length) return i;
+
+    i = fill(sorted, i, 2 * k);
+    tree[k] = i < sorted.length ? sorted[i] : Long.MAX_VALUE;
+    return fill(sorted, i + 1, 2 * k + 1);
+  }
+
+  public int size()
+  {
+    return n;
+  }
+
+  public boolean isEmpty()
+  {
+    return n == 0;
+  }
+
+  /**
+   * the value with the given rank, rank 0 being the minimum
+   * O(1)
+   *
+   * @param rank in [0, size)
+   * @return
+   */
+  public long get(int rank)
+  {
+    rankInBoundsOrThrow(rank);
+    return tree[nodeOf(rank)];
+  }
+
+  /**
+   * index of the first value >= key in sorted order, the std::lower_bound of the values
+   * O(log(n))
+   *
+   * @param key
+   * @return in [0, size], size when every value is less than key
+   */
+  public int lowerBound(long key)
+  {
+    int k = 1, level = 0;
+    long touched = 0;
+
+//    Java has no prefetch instruction, so a plain load of the 8 descendants 3 levels down
+//    stands in for one: nothing waits for it until the end, so the miss overlaps the next levels
+    for (; level < height - LOOK_AHEAD; level++)
+    {
+      touched |= tree[k << LOOK_AHEAD];
+      k = 2 * k + (tree[k] < key ? 1 : 0);
+    }
+    for (; level < height; level++) k = 2 * k + (tree[k] < key ? 1 : 0);
+
+    return rankOfLeafExit(k, touched);
+  }
+
+  /**
+   * index of the first value > key in sorted order, the std::upper_bound of the values
+   * O(log(n))
+   *
+   * @param key
+   * @return in [0, size], size when no value is greater than key
+   */
+  public int upperBound(long key)
+  {
+    int k = 1, level = 0;
+    long touched = 0;
+
+    for (; level < height - LOOK_AHEAD; level++)
+    {
+      touched |= tree[k << LOOK_AHEAD];
+      k = 2 * k + (tree[k] <= key ? 1 : 0);
+    }
+    for (; level < height; level++) k = 2 * k + (tree[k] <= key ? 1 : 0);
+
+    return rankOfLeafExit(k, touched);
+  }
+
+  /**
+   * number of values strictly less than key
+   * O(log(n))
+   *
+   * @param key does not need to be in the array
+   * @return
+   */
+  public int rank(long key)
+  {
+    return lowerBound(key);
+  }
+
+  /**
+   * O(log(n))
+   *
+   * @param key
+   * @return
+   */
+  public boolean contains(long key)
+  {
+    int rank = lowerBound(key);
+    return rank < n && get(rank) == key;
+  }
+
+  /**
+   * number of values within [lo, hi]
+   * O(log(n))
+   *
+   * @param lo inclusive lower bound
+   * @param hi inclusive upper bound
+   * @return
+   */
+  public int countRange(long lo, long hi)
+  {
+    if (lo > hi) return 0;
+    return upperBound(hi) - lowerBound(lo);
+  }
+
+  /* Layout helpers */
+
+  /**
+   * a search leaves the tree below node k at a leaf position 2^height + j, the node it last went
+   * left at is the answer, found by dropping the trailing right turns (1 bits) and the left turn
+   *
+   * @param touched the look ahead loads, consumed by a branch that is never taken so the JIT
+   *                cannot drop them as dead code. A shared field as the sink would work too, but
+   *                every search writing it would bounce its cache line between searching threads
+   * @return the rank of that node, size if the search only went right
+   */
+  private int rankOfLeafExit(int k, long touched)
+  {
+//    k is a positive node index, so this never throws
+    if (k < 0 && touched == 0) throw new IllegalStateException();
+
+    k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+    return k == 0 ? n : Math.min(rankOf(k), n);
+  }
+
+  /**
+   * node k = 2^d + p sits at depth d, its in order rank in the complete tree is (2p + 1) * 2^(height - d - 1) - 1
+   */
+  private int rankOf(int k)
+  {
+    int depth = 31 - Integer.numberOfLeadingZeros(k);
+    int p = k - (1 << depth);
+    return ((2 * p + 1) << (height - depth - 1)) - 1;
+  }
+
+  /**
+   * the inverse of rankOf
+   */
+  private int nodeOf(int rank)
+  {
+    int shift = Integer.numberOfTrailingZeros(rank + 1);
+    int depth = height - 1 - shift;
+    return (1 << depth) + ((rank + 1) >>> (shift + 1));
+  }
+
+  /* Error Helper Functions */
+
+  private void rankInBoundsOrThrow(int rank)
+  {
+    if (rank < 0 || rank >= n) throw new IllegalArgumentException("Rank out of bounds; received: " + rank);
+  }
+
+  @Override
+  public String toString()
+  {
+    long[] values = new long[n];
+    for (int i = 0; i < n; i++) values[i] = get(i);
+    return Arrays.toString(values);
+  }
+
+  /* Test functions */
+
+  /**
+   * checks the layout is a binary search tree whose in order walk is sorted, with padding only after
+   * the real values
+   *
+   * @return
+   */
+  public boolean isValidEytzinger()
+  {
+    for (int i = 0; i < tree.length - 1; i++)
+    {
+      if (rankOf(nodeOf(i)) != i) return false;
+      if (i > 0 && tree[nodeOf(i - 1)] > tree[nodeOf(i)]) return false;
+      if (i >= n && tree[nodeOf(i)] != Long.MAX_VALUE) return false;
+    }
+    return true;
+  }
+}
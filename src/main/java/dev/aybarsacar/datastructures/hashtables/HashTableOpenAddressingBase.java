@@ -182,7 +182,7 @@ public abstract class HashTableOpenAddressingBase<K, V> implements Iterable<K>
 //    reinsert the key-value pairs to the new resized backing array
     for (int i = 0; i < oldKeyTable.length; i++)
     {
-      if (oldKeyTable[i] != null || oldKeyTable[i] != TOMBSTONE)
+      if (oldKeyTable[i] != null && oldKeyTable[i] != TOMBSTONE)
       {
         insert(oldKeyTable[i], oldValueTable[i]);
       }
@@ -0,0 +1,23 @@
+package dev.aybarsacar.datastructures.lsm;
+
+import java.util.Comparator;
+
+/**
+ * a key with its value, or with a tombstone which records that the key was removed and hides any
+ * older value of the key in older memtables and runs
+ */
+final class Entry
+{
+  static final Comparator<Entry> BY_KEY = (a, b) -> Long.compare(a.key, b.key);
+
+  final long key;
+  final long value;
+  final boolean tombstone;
+
+  Entry(long key, long value, boolean tombstone)
+  {
+    this.key = key;
+    this.value = value;
+    this.tombstone = tombstone;
+  }
+}
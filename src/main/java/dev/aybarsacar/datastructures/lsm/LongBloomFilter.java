@@ -0,0 +1,137 @@
+package dev.aybarsacar.datastructures.lsm;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Bloom filter over long keys: a set which can answer "definitely not present" without storing
+ * the keys, at the cost of a small rate of false "maybe present" answers
+ * <p>
+ * every key sets hashes bits chosen by double hashing (Kirsch and Mitzenmacher): two 32 bit halves
+ * of one 64 bit mix give the i-th bit as h1 + i * h2, which is as good as independent hash
+ * functions for a Bloom filter. With 10 bits per key and 7 hashes about 1% of absent keys pass.
+ * <p>
+ * not thread safe while keys are added, safe to query from any number of threads afterwards
+ */
+public class LongBloomFilter
+{
+  private final long[] words;
+  private final int bits;
+  private final int hashes;
+
+  /**
+   * @param expectedKeys number of keys that will be added
+   * @param bitsPerKey   at least 1, the false positive rate is about 0.6185^bitsPerKey
+   */
+  public LongBloomFilter(long expectedKeys, int bitsPerKey)
+  {
+    if (expectedKeys < 0) throw new IllegalArgumentException("expectedKeys cannot be negative; received: " + expectedKeys);
+    if (bitsPerKey < 1) throw new IllegalArgumentException("bitsPerKey cannot be less than 1; received: " + bitsPerKey);
+
+    long bits = Math.max(64, expectedKeys * bitsPerKey);
+    if (bits > Integer.MAX_VALUE - 63) throw new IllegalArgumentException("Too many keys; received: " + expectedKeys);
+
+    words = new long[(int) ((bits + 63) / 64)];
+    this.bits = 64 * words.length;
+
+//    the optimal number of hashes is bitsPerKey * ln(2)
+    hashes = (int) Math.max(1, Math.min(30, Math.round(bitsPerKey * Math.log(2))));
+  }
+
+  private LongBloomFilter(long[] words, int hashes)
+  {
+    this.words = words;
+    this.bits = 64 * words.length;
+    this.hashes = hashes;
+  }
+
+  public void add(long key)
+  {
+    long hash = mix(key);
+    int h1 = (int) hash, h2 = (int) (hash >>> 32);
+
+    for (int i = 0; i < hashes; i++)
+    {
+      int bit = index(h1 + i * h2);
+      words[bit >>> 6] |= 1L << bit;
+    }
+  }
+
+  /**
+   * @param key
+   * @return false if key was definitely never added, true if it probably was
+   */
+  public boolean mightContain(long key)
+  {
+    long hash = mix(key);
+    int h1 = (int) hash, h2 = (int) (hash >>> 32);
+
+    for (int i = 0; i < hashes; i++)
+    {
+      int bit = index(h1 + i * h2);
+      if ((words[bit >>> 6] & 1L << bit) == 0) return false;
+    }
+    return true;
+  }
+
+  /**
+   * maps a 32 bit hash onto [0, bits) with a multiply instead of a modulo
+   */
+  private int index(int hash)
+  {
+    return (int) (((hash & 0xFFFFFFFFL) * bits) >>> 32);
+  }
+
+  /**
+   * the finaliser of MurmurHash3, every input bit affects every output bit
+   */
+  private static long mix(long key)
+  {
+    key ^= key >>> 33;
+    key *= 0xFF51AFD7ED558CCDL;
+    key ^= key >>> 33;
+    key *= 0xC4CEB9FE1A85EC53L;
+    key ^= key >>> 33;
+    return key;
+  }
+
+  public int hashes()
+  {
+    return hashes;
+  }
+
+  /**
+   * @return the size of the filter in bytes as written by writeTo
+   */
+  public int byteSize()
+  {
+    return 8 * words.length;
+  }
+
+  public int wordCount()
+  {
+    return words.length;
+  }
+
+  /**
+   * writes the bits at the position of buffer, which must have byteSize() bytes remaining
+   */
+  public void writeTo(ByteBuffer buffer)
+  {
+    for (long word : words) buffer.putLong(word);
+  }
+
+  /**
+   * reads a filter written by writeTo from the position of buffer
+   *
+   * @param buffer
+   * @param wordCount the wordCount() of the filter that was written
+   * @param hashes    the hashes() of the filter that was written
+   * @return
+   */
+  public static LongBloomFilter readFrom(ByteBuffer buffer, int wordCount, int hashes)
+  {
+    long[] words = new long[wordCount];
+    for (int i = 0; i < wordCount; i++) words[i] = buffer.getLong();
+    return new LongBloomFilter(words, hashes);
+  }
+}
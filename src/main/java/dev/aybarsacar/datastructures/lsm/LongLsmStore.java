@@ -0,0 +1,841 @@
+package dev.aybarsacar.datastructures.lsm;
+
+import dev.aybarsacar.algorithms.sorting.LoserTreeMerge;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Log structured merge (LSM) store from primitive long keys to long values, for write heavy
+ * workloads: every write goes to memory and the disk only sees large sequential writes
+ * <p>
+ * Writes go into the memtable, a LockFreeSkipListMap, and a remove writes a tombstone. A full
+ * memtable becomes immutable and a background thread flushes it into a SortedRun, an immutable
+ * file of sorted blocks with a sparse index and a Bloom filter. A read looks at the memtable, the
+ * immutable memtables and then the runs from newest to oldest and stops at the first entry of the
+ * key, the Bloom filters let it skip almost every run which does not hold the key.
+ * <p>
+ * Runs are compacted size tiered: a flush writes a run of level 0, and once a level holds fanout
+ * runs the background thread merges them with a LoserTreeMerge into one run of the next level,
+ * keeping only the newest entry of every key. Every entry is rewritten about once per level, so
+ * with n entries the write amplification is about log_fanout(n / memtableEntries) and a read
+ * checks at most fanout - 1 runs per level. Tombstones are dropped once a merge reaches the oldest
+ * run, as there is nothing older left for them to hide.
+ * <p>
+ * Any number of threads can read and write at once. When flushes fall behind, writers stall until
+ * the number of immutable memtables is below MAX_IMMUTABLE_MEMTABLES.
+ * <p>
+ * A run is durable once its rename and the directory are forced to disk, there is no write ahead
+ * log, so a crash loses the writes still in memtables, flush() or close() make every write durable.
+ */
+public class LongLsmStore implements Closeable
+{
+  public static final int DEFAULT_MEMTABLE_ENTRIES = 1 << 16;
+  public static final int DEFAULT_FANOUT = 4;
+
+  //  writers stall once this many memtables wait for their flush
+  static final int MAX_IMMUTABLE_MEMTABLES = 2;
+
+  //  bytes a put or remove asks to store, a key, a value and the tombstone flag
+  private static final int ENTRY_BYTES = 17;
+
+  private final Path dir;
+  private final int memtableEntries;
+  private final int fanout;
+
+  //  writers and readers share the read lock, switching memtables and installing runs take the write lock
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Condition flushed = lock.writeLock().newCondition();
+
+  //  flushes and compactions run one at a time on this thread, so only it changes runs
+  private final ExecutorService background = Executors.newSingleThreadExecutor(runnable ->
+  {
+    Thread thread = new Thread(runnable, "lsm-compaction");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private Memtable memtable;
+  private List<Memtable> immutables = new ArrayList<>();      // newest first
+  private List<SortedRun> runs = new ArrayList<>();           // newest first
+  private long nextSequence;
+  private boolean closed;
+
+  //  the first failure of the background thread, rethrown to the caller of every later operation
+  private volatile Throwable failure;
+
+  //  statistics
+  private final LongAdder userBytesWritten = new LongAdder();
+  private final LongAdder diskBytesWritten = new LongAdder();
+  private final LongAdder blocksRead = new LongAdder();
+  private final LongAdder bloomNegatives = new LongAdder();
+  private final LongAdder compactions = new LongAdder();
+
+  /**
+   * opens the store kept in dir with the default memtable size and fanout, creating it if needed
+   *
+   * @param dir
+   * @return
+   * @throws IOException
+   */
+  public static LongLsmStore open(Path dir) throws IOException
+  {
+    return open(dir, DEFAULT_MEMTABLE_ENTRIES, DEFAULT_FANOUT);
+  }
+
+  /**
+   * @param dir
+   * @param memtableEntries number of entries a memtable holds before it is flushed, at least 1
+   * @param fanout          number of runs of a level merged into one run of the next, at least 2
+   * @return
+   * @throws IOException
+   */
+  public static LongLsmStore open(Path dir, int memtableEntries, int fanout) throws IOException
+  {
+    if (memtableEntries < 1)
+      throw new IllegalArgumentException("memtableEntries cannot be less than 1; received: " + memtableEntries);
+    if (fanout < 2) throw new IllegalArgumentException("fanout cannot be less than 2; received: " + fanout);
+
+    Files.createDirectories(dir);
+    LongLsmStore store = new LongLsmStore(dir, memtableEntries, fanout);
+
+    try
+    {
+      store.recover();
+      return store;
+    }
+    catch (IOException | RuntimeException e)
+    {
+      for (SortedRun run : store.runs) run.close();
+      store.background.shutdown();
+      throw e;
+    }
+  }
+
+  private LongLsmStore(Path dir, int memtableEntries, int fanout)
+  {
+    this.dir = dir;
+    this.memtableEntries = memtableEntries;
+    this.fanout = fanout;
+  }
+
+  /**
+   * reopens the runs in dir, deleting the temporary files of interrupted writes and the inputs of
+   * an interrupted compaction, which are covered by its output
+   */
+  private void recover() throws IOException
+  {
+    List<SortedRun> found = new ArrayList<>();
+
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(dir))
+    {
+      for (Path file : files)
+      {
+        String name = file.getFileName().toString();
+
+        if (name.endsWith(SortedRun.TEMPORARY_SUFFIX)) Files.delete(file);
+        else if (name.endsWith(SortedRun.SUFFIX)) found.add(SortedRun.open(file, blocksRead));
+      }
+    }
+
+//    newest first, the output of a compaction covers the sequence numbers of its inputs and has a
+//    higher level than an input with the same sequence numbers
+    found.sort((a, b) -> a.maxSequence != b.maxSequence ? Long.compare(b.maxSequence, a.maxSequence)
+        : a.minSequence != b.minSequence ? Long.compare(a.minSequence, b.minSequence)
+        : Integer.compare(b.level, a.level));
+
+    for (SortedRun run : found)
+    {
+      SortedRun last = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+
+      if (last != null && run.minSequence >= last.minSequence) run.release();
+      else runs.add(run);
+    }
+
+    nextSequence = runs.isEmpty() ? 0 : runs.get(0).maxSequence + 1;
+    memtable = new Memtable(nextSequence++);
+  }
+
+  /**
+   * O(log(m)) for m entries in the memtable, may stall while flushes catch up
+   *
+   * @param key
+   * @param value
+   */
+  public void put(long key, long value)
+  {
+    write(new Entry(key, value, false));
+  }
+
+  /**
+   * writes a tombstone, which hides the older values of key until compaction drops both
+   *
+   * @param key
+   */
+  public void remove(long key)
+  {
+    write(new Entry(key, 0, true));
+  }
+
+  private void write(Entry entry)
+  {
+    Memtable target;
+    boolean full;
+
+    lock.readLock().lock();
+    try
+    {
+      checkOpen();
+      target = memtable;
+      target.put(entry);
+      full = target.size() >= memtableEntries;
+    }
+    finally
+    {
+      lock.readLock().unlock();
+    }
+
+    userBytesWritten.add(ENTRY_BYTES);
+    if (full) rotate(target);
+  }
+
+  /**
+   * makes full the newest immutable memtable and schedules its flush
+   * does nothing if another writer already rotated it
+   */
+  private void rotate(Memtable full)
+  {
+    lock.writeLock().lock();
+    try
+    {
+//      the wait releases the lock, so another stalled writer may have rotated full meanwhile
+      while (memtable == full && immutables.size() >= MAX_IMMUTABLE_MEMTABLES && failure == null)
+        flushed.awaitUninterruptibly();
+
+      if (memtable != full) return;
+      checkOpen();
+
+      List<Memtable> next = new ArrayList<>(immutables.size() + 1);
+      next.add(full);
+      next.addAll(immutables);
+      immutables = next;
+      memtable = new Memtable(nextSequence++);
+
+      background.execute(this::flushAndCompact);
+    }
+    finally
+    {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public boolean containsKey(long key)
+  {
+    Entry entry = find(key);
+    return entry != null && !entry.tombstone;
+  }
+
+  /**
+   * O(log(m)) in memory, then at most one block read per run whose Bloom filter passes the key
+   *
+   * @param key
+   * @param defaultValue
+   * @return the value associated with key or defaultValue if key is not in the store
+   */
+  public long get(long key, long defaultValue)
+  {
+    Entry entry = find(key);
+    return entry != null && !entry.tombstone ? entry.value : defaultValue;
+  }
+
+  /**
+   * @return the newest entry of key, possibly a tombstone, or null
+   */
+  private Entry find(long key)
+  {
+    lock.readLock().lock();
+    try
+    {
+      checkOpen();
+
+      Entry entry = memtable.get(key);
+      if (entry != null) return entry;
+
+      for (Memtable immutable : immutables)
+      {
+        entry = immutable.get(key);
+        if (entry != null) return entry;
+      }
+
+      for (SortedRun run : runs)
+      {
+        if (!run.mightContain(key))
+        {
+          bloomNegatives.increment();
+          continue;
+        }
+
+        entry = run.get(key);
+        if (entry != null) return entry;
+      }
+      return null;
+    }
+    finally
+    {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return a cursor over every entry in ascending key order
+   */
+  public Cursor cursor()
+  {
+    return new Cursor(Long.MIN_VALUE, Long.MAX_VALUE);
+  }
+
+  /**
+   * a cursor over the entries with keys in [lo, hi] in ascending order
+   * merges the memtables and every run, reading each run one block at a time
+   *
+   * @param lo inclusive lower bound
+   * @param hi inclusive upper bound
+   * @return
+   */
+  public Cursor range(long lo, long hi)
+  {
+    return new Cursor(lo, hi);
+  }
+
+  /**
+   * A forward cursor over a snapshot of the runs
+   * call next() to move onto each entry, then read it with key() and value()
+   * <p>
+   * The cursor keeps the runs it reads from on disk until it is exhausted or closed, so close a
+   * cursor which is abandoned early. Writes into the memtables made while iterating may or may
+   * not be seen.
+   */
+  public final class Cursor implements Closeable
+  {
+    private final List<SortedRun> retained;
+    private final Iterator<Entry> merge;
+
+    private long key, value;
+    private boolean started;          // key holds the last key the merge returned
+    private boolean done;
+
+    private Cursor(long lo, long hi)
+    {
+      lock.readLock().lock();
+      try
+      {
+        checkOpen();
+
+        List<Iterator<Entry>> sources = new ArrayList<>();
+        sources.add(memtable.iterator(lo, hi));
+        for (Memtable immutable : immutables) sources.add(immutable.iterator(lo, hi));
+
+//        the runs cannot be released while the read lock is held
+        retained = new ArrayList<>(runs);
+        for (SortedRun run : retained) run.retain();
+
+        try
+        {
+          for (SortedRun run : retained) sources.add(run.iterator(lo, hi));
+        }
+        catch (RuntimeException e)
+        {
+          close();
+          throw e;
+        }
+
+//        the merge is stable and the sources are newest first, so the first entry of a key is its newest
+        merge = new LoserTreeMerge<>(sources, Entry.BY_KEY);
+      }
+      finally
+      {
+        lock.readLock().unlock();
+      }
+    }
+
+    /**
+     * advances the cursor to the next entry, skipping older versions and removed keys
+     *
+     * @return false once there are no more entries in the range
+     */
+    public boolean next()
+    {
+      if (done) return false;
+
+      while (merge.hasNext())
+      {
+        Entry entry = merge.next();
+
+//        an older version of the key just returned or skipped
+        if (started && entry.key == key) continue;
+
+        started = true;
+        key = entry.key;
+        if (entry.tombstone) continue;
+
+        value = entry.value;
+        return true;
+      }
+
+      close();
+      return false;
+    }
+
+    public long key()
+    {
+      return key;
+    }
+
+    public long value()
+    {
+      return value;
+    }
+
+    /**
+     * releases the runs held by the cursor, later calls to next() return false
+     */
+    @Override
+    public void close()
+    {
+      if (done) return;
+
+      done = true;
+      for (SortedRun run : retained) run.release();
+    }
+  }
+
+  /**
+   * flushes every memtable into runs and waits for the compactions this triggers
+   *
+   * @throws IOException if a flush or compaction failed
+   */
+  public void flush() throws IOException
+  {
+    Memtable current;
+    lock.readLock().lock();
+    try
+    {
+      checkOpen();
+      current = memtable;
+    }
+    finally
+    {
+      lock.readLock().unlock();
+    }
+
+    if (!current.isEmpty()) rotate(current);
+    await(background.submit(() -> {}));
+  }
+
+  /**
+   * major compaction, flushes and then merges every run into one, which drops every tombstone and
+   * every overwritten value
+   * a single run written by a merge has nothing left to drop and is kept as it is
+   *
+   * @throws IOException if a flush or compaction failed
+   */
+  public void compact() throws IOException
+  {
+    flush();
+    await(background.submit(() ->
+    {
+      try
+      {
+        if (runs.size() > 1 || runs.size() == 1 && runs.get(0).level == 0)
+        {
+          int level = 1;
+          for (SortedRun run : runs) level = Math.max(level, run.level);
+          merge(0, runs.size(), level);
+        }
+      }
+      catch (IOException e)
+      {
+        throw new UncheckedIOException(e);
+      }
+    }));
+  }
+
+  private void await(Future<?> task) throws IOException
+  {
+    try
+    {
+      task.get();
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for the background thread", e);
+    }
+    catch (ExecutionException e)
+    {
+      throw new IOException("Background flush or compaction failed", e.getCause());
+    }
+
+    if (failure != null) throw new IOException("Background flush or compaction failed", failure);
+  }
+
+  /**
+   * flushes the memtables, closes the runs and stops the background thread
+   * the store cannot be used afterwards
+   *
+   * @throws IOException
+   */
+  @Override
+  public void close() throws IOException
+  {
+    lock.readLock().lock();
+    try
+    {
+      if (closed) return;
+    }
+    finally
+    {
+      lock.readLock().unlock();
+    }
+
+    try
+    {
+      if (failure == null) flush();
+    }
+    finally
+    {
+      lock.writeLock().lock();
+      try
+      {
+        closed = true;
+      }
+      finally
+      {
+        lock.writeLock().unlock();
+      }
+
+      background.shutdown();
+      try
+      {
+        background.awaitTermination(1, TimeUnit.MINUTES);
+      }
+      catch (InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+      }
+
+      for (SortedRun run : runs) run.close();
+    }
+  }
+
+  /* Background work */
+
+  /**
+   * flushes the oldest immutable memtable, then compacts every level which is full
+   */
+  private void flushAndCompact()
+  {
+    if (failure != null) return;
+
+    try
+    {
+      Memtable oldest;
+      lock.readLock().lock();
+      try
+      {
+        oldest = immutables.get(immutables.size() - 1);
+      }
+      finally
+      {
+        lock.readLock().unlock();
+      }
+
+      SortedRun run = SortedRun.write(dir, runName(oldest.sequence, oldest.sequence, 0),
+          oldest.iterator(Long.MIN_VALUE, Long.MAX_VALUE), oldest.size(), 0, oldest.sequence, oldest.sequence,
+          blocksRead);
+      if (run != null) diskBytesWritten.add(run.fileSize);
+
+      lock.writeLock().lock();
+      try
+      {
+        List<SortedRun> nextRuns = new ArrayList<>(runs.size() + 1);
+        if (run != null) nextRuns.add(run);
+        nextRuns.addAll(runs);
+        runs = nextRuns;
+
+        immutables = new ArrayList<>(immutables.subList(0, immutables.size() - 1));
+        flushed.signalAll();
+      }
+      finally
+      {
+        lock.writeLock().unlock();
+      }
+
+      compactFullLevels();
+    }
+    catch (IOException | RuntimeException e)
+    {
+      fail(e);
+    }
+  }
+
+  /**
+   * merges the runs of the lowest level holding fanout runs into one run of the next level, until
+   * no level is full
+   * the levels of the newest first runs never decrease, so the runs of a level are contiguous
+   */
+  private void compactFullLevels() throws IOException
+  {
+    while (true)
+    {
+      int from = 0;
+      boolean merged = false;
+
+      while (from < runs.size())
+      {
+        int level = runs.get(from).level;
+        int to = from;
+        while (to < runs.size() && runs.get(to).level == level) to++;
+
+        if (to - from >= fanout)
+        {
+          merge(from, to, level + 1);
+          merged = true;
+          break;
+        }
+        from = to;
+      }
+
+      if (!merged) return;
+    }
+  }
+
+  /**
+   * k way merge of runs[from, to) into one run of the given level, which takes their place
+   * only called from the background thread, which is the only one changing runs
+   */
+  private void merge(int from, int to, int level) throws IOException
+  {
+    List<SortedRun> inputs = new ArrayList<>(runs.subList(from, to));
+    boolean dropTombstones = to == runs.size();
+
+    List<Iterator<Entry>> sources = new ArrayList<>(inputs.size());
+    long expectedEntries = 0;
+    for (SortedRun input : inputs)
+    {
+      sources.add(input.iterator(Long.MIN_VALUE, Long.MAX_VALUE));
+      expectedEntries += input.entryCount;
+    }
+
+    long minSequence = inputs.get(inputs.size() - 1).minSequence;
+    long maxSequence = inputs.get(0).maxSequence;
+
+    Iterator<Entry> newest = newestEntries(new LoserTreeMerge<>(sources, Entry.BY_KEY), dropTombstones);
+    SortedRun output = SortedRun.write(dir, runName(minSequence, maxSequence, level), newest, expectedEntries, level,
+        minSequence, maxSequence, blocksRead);
+    if (output != null) diskBytesWritten.add(output.fileSize);
+
+    lock.writeLock().lock();
+    try
+    {
+      List<SortedRun> nextRuns = new ArrayList<>(runs.subList(0, from));
+      if (output != null) nextRuns.add(output);
+      nextRuns.addAll(runs.subList(to, runs.size()));
+      runs = nextRuns;
+    }
+    finally
+    {
+      lock.writeLock().unlock();
+    }
+
+//    the files go once the cursors reading them are done, oldest first so that a crash part way
+//    through leaves the newest inputs, whose tombstones still hide the same keys
+    for (int i = inputs.size() - 1; i >= 0; i--) inputs.get(i).release();
+    compactions.increment();
+  }
+
+  /**
+   * keeps the first, newest, entry of every key of a stable merge of newest first sources
+   */
+  private static Iterator<Entry> newestEntries(Iterator<Entry> merge, boolean dropTombstones)
+  {
+    return new Iterator<>()
+    {
+      private Entry previous;
+      private Entry next = advance();
+
+      private Entry advance()
+      {
+        while (merge.hasNext())
+        {
+          Entry entry = merge.next();
+          if (previous != null && previous.key == entry.key) continue;
+
+          previous = entry;
+          if (!(dropTombstones && entry.tombstone)) return entry;
+        }
+        return null;
+      }
+
+      @Override
+      public boolean hasNext()
+      {
+        return next != null;
+      }
+
+      @Override
+      public Entry next()
+      {
+        if (next == null) throw new NoSuchElementException();
+
+        Entry entry = next;
+        next = advance();
+        return entry;
+      }
+    };
+  }
+
+  /**
+   * the level tells apart a run from the output of a major compaction of just that run, every
+   * other merge covers more sequence numbers than any of its inputs
+   */
+  private static String runName(long minSequence, long maxSequence, int level)
+  {
+    return String.format("%016x-%016x-%02d", minSequence, maxSequence, level);
+  }
+
+  private void fail(Throwable e)
+  {
+    lock.writeLock().lock();
+    try
+    {
+      if (failure == null) failure = e;
+      flushed.signalAll();
+    }
+    finally
+    {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /* Statistics */
+
+  /**
+   * @return the number of runs on disk
+   */
+  public int runCount()
+  {
+    lock.readLock().lock();
+    try
+    {
+      return runs.size();
+    }
+    finally
+    {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return the bytes passed to put and remove, 17 per call
+   */
+  public long userBytesWritten()
+  {
+    return userBytesWritten.sum();
+  }
+
+  /**
+   * @return the bytes of every run written by flushes and compactions
+   */
+  public long diskBytesWritten()
+  {
+    return diskBytesWritten.sum();
+  }
+
+  /**
+   * @return diskBytesWritten / userBytesWritten
+   */
+  public double writeAmplification()
+  {
+    long user = userBytesWritten.sum();
+    return user == 0 ? 0 : diskBytesWritten.sum() / (double) user;
+  }
+
+  public long blocksRead()
+  {
+    return blocksRead.sum();
+  }
+
+  /**
+   * @return the number of runs a point read skipped without reading a block
+   */
+  public long bloomNegatives()
+  {
+    return bloomNegatives.sum();
+  }
+
+  public long compactions()
+  {
+    return compactions.sum();
+  }
+
+  /* Error Helper Functions */
+
+  private void checkOpen()
+  {
+    if (closed) throw new IllegalStateException("Store is closed");
+    if (failure != null) throw new IllegalStateException("Background flush or compaction failed", failure);
+  }
+
+  /* Test functions */
+
+  /**
+   * checks that the runs are newest first with disjoint sequence numbers, that the levels never
+   * decrease from newest to oldest, and that no level holds fanout runs once compaction is idle
+   * this method is for testing purposes to make sure flushes and compactions keep the invariants
+   *
+   * @return
+   */
+  public boolean isValidLsmStore()
+  {
+    lock.readLock().lock();
+    try
+    {
+      for (int i = 1; i < runs.size(); i++)
+      {
+        SortedRun newer = runs.get(i - 1), older = runs.get(i);
+        if (older.maxSequence >= newer.minSequence) return false;
+        if (older.level < newer.level) return false;
+      }
+
+      for (int from = 0; from < runs.size(); )
+      {
+        int to = from;
+        while (to < runs.size() && runs.get(to).level == runs.get(from).level) to++;
+        if (immutables.isEmpty() && to - from >= fanout) return false;
+        from = to;
+      }
+      return true;
+    }
+    finally
+    {
+      lock.readLock().unlock();
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package dev.aybarsacar.datastructures.lsm;
+
+import dev.aybarsacar.datastructures.skiplist.LockFreeSkipListMap;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * the in memory part of the store, a LockFreeSkipListMap so any number of threads can write into
+ * it at once, which becomes read only once it is full and waits to be flushed into a run
+ */
+final class Memtable
+{
+  private final LockFreeSkipListMap<Long, Entry> map = new LockFreeSkipListMap<>();
+
+  //  the order of the memtable among all memtables, runs inherit it to tell newer data from older
+  final long sequence;
+
+  Memtable(long sequence)
+  {
+    this.sequence = sequence;
+  }
+
+  void put(Entry entry)
+  {
+    map.put(entry.key, entry);
+  }
+
+  /**
+   * @return the entry of key, possibly a tombstone, or null if key was not written here
+   */
+  Entry get(long key)
+  {
+    return map.get(key);
+  }
+
+  int size()
+  {
+    return map.size();
+  }
+
+  boolean isEmpty()
+  {
+    return map.isEmpty();
+  }
+
+  /**
+   * weakly consistent like the iterators of LockFreeSkipListMap
+   *
+   * @return the entries with keys in [lo, hi] in ascending order
+   */
+  Iterator<Entry> iterator(long lo, long hi)
+  {
+    Iterator<Map.Entry<Long, Entry>> entries = map.entryIterator(lo, hi);
+
+    return new Iterator<>()
+    {
+      @Override
+      public boolean hasNext()
+      {
+        return entries.hasNext();
+      }
+
+      @Override
+      public Entry next()
+      {
+        return entries.next().getValue();
+      }
+    };
+  }
+}
@@ -0,0 +1,431 @@
+package dev.aybarsacar.datastructures.lsm;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * An immutable file of entries sorted by key, written once by a flush or a compaction and never
+ * modified, which is what lets the store read it without locks
+ * <p>
+ * The file is a sequence of fixed size data blocks followed by the sparse index, the Bloom filter
+ * and a footer. A block holds up to BLOCK_ENTRIES entries as a count, the keys, the values and the
+ * tombstone flags, so a point read binary searches the in memory index for the one block which
+ * can hold the key and reads just that block. The index keeps only the first key of every block,
+ * 8 bytes per 240 entries, and the filter 10 bits per entry, so both stay in memory.
+ * <p>
+ * A run is written to a temporary file which is forced and then renamed, so a crash never leaves
+ * a half written run under a run name, and the directory is forced so the rename survives a
+ * power loss. A run never replaces an existing run file.
+ */
+final class SortedRun implements Closeable
+{
+  static final String SUFFIX = ".run";
+  static final String TEMPORARY_SUFFIX = ".tmp";
+
+  static final int BLOCK_SIZE = 4096;
+  static final int BLOCK_ENTRIES = 240;
+  static final int BLOOM_BITS_PER_KEY = 10;
+
+  //  "LSMSORUN"
+  private static final long MAGIC = 0x4C534D534F52554EL;
+
+  //  block layout
+  private static final int COUNT = 0;
+  private static final int KEYS = 8;
+  private static final int VALUES = KEYS + 8 * BLOCK_ENTRIES;
+  private static final int FLAGS = VALUES + 8 * BLOCK_ENTRIES;
+
+  //  footer layout
+  private static final int MAGIC_OFFSET = 0;
+  private static final int ENTRY_COUNT_OFFSET = 8;
+  private static final int BLOCK_COUNT_OFFSET = 16;
+  private static final int LEVEL_OFFSET = 20;
+  private static final int MIN_SEQUENCE_OFFSET = 24;
+  private static final int MAX_SEQUENCE_OFFSET = 32;
+  private static final int BLOOM_WORDS_OFFSET = 40;
+  private static final int BLOOM_HASHES_OFFSET = 44;
+  private static final int MAX_KEY_OFFSET = 48;
+  private static final int FOOTER_SIZE = 56;
+
+  final Path path;
+  final int level;
+
+  //  the sequence numbers of the oldest and newest memtables merged into this run
+  final long minSequence, maxSequence;
+
+  final long entryCount;
+  final long fileSize;
+
+  private final FileChannel channel;
+  private final long[] firstKeys;           // the sparse index, the first key of every block
+  private final long maxKey;
+  private final LongBloomFilter bloom;
+  private final LongAdder blocksRead;
+
+  //  one reference for the store and one for every open cursor, the last release deletes the file
+  private final AtomicInteger references = new AtomicInteger(1);
+
+  /**
+   * writes the entries into a new run file in dir
+   *
+   * @param dir
+   * @param name            file name without the suffix
+   * @param entries         sorted by key, without duplicate keys
+   * @param expectedEntries upper bound on the number of entries, sizes the Bloom filter
+   * @param level
+   * @param minSequence
+   * @param maxSequence
+   * @param blocksRead      counter shared with the store
+   * @return the opened run, or null if entries was empty
+   * @throws IOException
+   */
+  static SortedRun write(Path dir, String name, Iterator<Entry> entries, long expectedEntries, int level,
+                         long minSequence, long maxSequence, LongAdder blocksRead) throws IOException
+  {
+    if (!entries.hasNext()) return null;
+
+    Path temporary = dir.resolve(name + TEMPORARY_SUFFIX);
+    Path path = dir.resolve(name + SUFFIX);
+
+    LongBloomFilter bloom = new LongBloomFilter(expectedEntries, BLOOM_BITS_PER_KEY);
+    long[] firstKeys = new long[16];
+    int blockCount = 0;
+    long entryCount = 0, maxKey = 0;
+
+    try (FileChannel out = FileChannel.open(temporary, CREATE_NEW, WRITE))
+    {
+      ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+
+      while (entries.hasNext())
+      {
+//        fill one block
+        int count = 0;
+        Arrays.fill(block.array(), (byte) 0);
+
+        while (count < BLOCK_ENTRIES && entries.hasNext())
+        {
+          Entry entry = entries.next();
+          block.putLong(KEYS + 8 * count, entry.key);
+          block.putLong(VALUES + 8 * count, entry.value);
+          block.put(FLAGS + count, (byte) (entry.tombstone ? 1 : 0));
+          bloom.add(entry.key);
+          maxKey = entry.key;
+          count++;
+        }
+        block.putInt(COUNT, count);
+
+        if (blockCount == firstKeys.length) firstKeys = Arrays.copyOf(firstKeys, 2 * blockCount);
+        firstKeys[blockCount++] = block.getLong(KEYS);
+        entryCount += count;
+
+        block.clear();
+        writeFully(out, block);
+      }
+
+      ByteBuffer tail = ByteBuffer.allocate(8 * blockCount + bloom.byteSize() + FOOTER_SIZE);
+      for (int i = 0; i < blockCount; i++) tail.putLong(firstKeys[i]);
+      bloom.writeTo(tail);
+
+      int footer = tail.position();
+      tail.putLong(footer + MAGIC_OFFSET, MAGIC);
+      tail.putLong(footer + ENTRY_COUNT_OFFSET, entryCount);
+      tail.putInt(footer + BLOCK_COUNT_OFFSET, blockCount);
+      tail.putInt(footer + LEVEL_OFFSET, level);
+      tail.putLong(footer + MIN_SEQUENCE_OFFSET, minSequence);
+      tail.putLong(footer + MAX_SEQUENCE_OFFSET, maxSequence);
+      tail.putInt(footer + BLOOM_WORDS_OFFSET, bloom.wordCount());
+      tail.putInt(footer + BLOOM_HASHES_OFFSET, bloom.hashes());
+      tail.putLong(footer + MAX_KEY_OFFSET, maxKey);
+
+      tail.clear();
+      writeFully(out, tail);
+      out.force(true);
+    }
+    catch (IOException | RuntimeException e)
+    {
+      Files.deleteIfExists(temporary);
+      throw e;
+    }
+
+//    an atomic rename may silently replace an existing file, which could be a live run
+    if (Files.exists(path))
+    {
+      Files.delete(temporary);
+      throw new FileAlreadyExistsException(path.toString());
+    }
+
+    Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+    forceDirectory(dir);
+
+    return new SortedRun(path, FileChannel.open(path, READ), Arrays.copyOf(firstKeys, blockCount), bloom,
+        entryCount, maxKey, level, minSequence, maxSequence, blocksRead);
+  }
+
+  /**
+   * opens a run written by write, reading its index and Bloom filter into memory
+   *
+   * @param path
+   * @param blocksRead counter shared with the store
+   * @return
+   * @throws IOException if the file is not a complete run
+   */
+  static SortedRun open(Path path, LongAdder blocksRead) throws IOException
+  {
+    FileChannel channel = FileChannel.open(path, READ);
+
+    try
+    {
+      long size = channel.size();
+      if (size < FOOTER_SIZE) throw new IOException("Truncated run: " + path);
+
+      ByteBuffer footer = readFully(channel, size - FOOTER_SIZE, FOOTER_SIZE);
+      if (footer.getLong(MAGIC_OFFSET) != MAGIC) throw new IOException("Not a run file: " + path);
+
+      int blockCount = footer.getInt(BLOCK_COUNT_OFFSET);
+      int bloomWords = footer.getInt(BLOOM_WORDS_OFFSET);
+      long indexOffset = (long) blockCount * BLOCK_SIZE;
+      if (indexOffset + 8L * blockCount + 8L * bloomWords + FOOTER_SIZE != size)
+        throw new IOException("Corrupt run: " + path);
+
+      ByteBuffer tail = readFully(channel, indexOffset, 8 * blockCount + 8 * bloomWords);
+      long[] firstKeys = new long[blockCount];
+      for (int i = 0; i < blockCount; i++) firstKeys[i] = tail.getLong();
+      LongBloomFilter bloom = LongBloomFilter.readFrom(tail, bloomWords, footer.getInt(BLOOM_HASHES_OFFSET));
+
+      return new SortedRun(path, channel, firstKeys, bloom, footer.getLong(ENTRY_COUNT_OFFSET),
+          footer.getLong(MAX_KEY_OFFSET), footer.getInt(LEVEL_OFFSET), footer.getLong(MIN_SEQUENCE_OFFSET),
+          footer.getLong(MAX_SEQUENCE_OFFSET), blocksRead);
+    }
+    catch (IOException | RuntimeException e)
+    {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private SortedRun(Path path, FileChannel channel, long[] firstKeys, LongBloomFilter bloom, long entryCount,
+                    long maxKey, int level, long minSequence, long maxSequence, LongAdder blocksRead) throws IOException
+  {
+    this.path = path;
+    this.channel = channel;
+    this.firstKeys = firstKeys;
+    this.bloom = bloom;
+    this.entryCount = entryCount;
+    this.maxKey = maxKey;
+    this.level = level;
+    this.minSequence = minSequence;
+    this.maxSequence = maxSequence;
+    this.blocksRead = blocksRead;
+    this.fileSize = channel.size();
+  }
+
+  /**
+   * @param key
+   * @return false if the Bloom filter or the key range rule key out, no disk access
+   */
+  boolean mightContain(long key)
+  {
+    return key >= firstKeys[0] && key <= maxKey && bloom.mightContain(key);
+  }
+
+  /**
+   * one block read, call mightContain first to skip runs which cannot hold the key
+   *
+   * @param key
+   * @return the entry of key, possibly a tombstone, or null if key is not in the run
+   */
+  Entry get(long key)
+  {
+    int blockIndex = blockOf(key);
+    if (blockIndex < 0) return null;
+
+    ByteBuffer block = readBlock(blockIndex);
+    int i = search(block, key);
+    return i >= 0 ? entryAt(block, i) : null;
+  }
+
+  /**
+   * reads the blocks which overlap [lo, hi] one at a time
+   *
+   * @return the entries with keys in [lo, hi] in ascending order
+   */
+  Iterator<Entry> iterator(long lo, long hi)
+  {
+    return new Iterator<>()
+    {
+      private int blockIndex = Math.max(0, blockOf(lo)) - 1;    // the block read last
+      private ByteBuffer block;
+      private int index, count;
+      private Entry next = advance();
+
+      private Entry advance()
+      {
+        while (index == count)
+        {
+          blockIndex++;
+          if (lo > maxKey || blockIndex >= firstKeys.length || firstKeys[blockIndex] > hi) return null;
+
+          block = readBlock(blockIndex);
+          count = block.getInt(COUNT);
+
+//          only the first block can hold keys below lo, in the others this finds 0
+          int i = search(block, lo);
+          index = i >= 0 ? i : -i - 1;
+        }
+
+        Entry entry = entryAt(block, index++);
+        return entry.key <= hi ? entry : null;
+      }
+
+      @Override
+      public boolean hasNext()
+      {
+        return next != null;
+      }
+
+      @Override
+      public Entry next()
+      {
+        if (next == null) throw new NoSuchElementException();
+
+        Entry entry = next;
+        next = advance();
+        return entry;
+      }
+    };
+  }
+
+  /**
+   * @return the index of the only block which can hold key, or -1 if key is before the first block
+   */
+  private int blockOf(long key)
+  {
+    int i = Arrays.binarySearch(firstKeys, key);
+    return i >= 0 ? i : -i - 2;
+  }
+
+  private ByteBuffer readBlock(int blockIndex)
+  {
+    try
+    {
+      blocksRead.increment();
+      return readFully(channel, (long) blockIndex * BLOCK_SIZE, BLOCK_SIZE);
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * binary search over the keys of a block
+   *
+   * @return the index of key, or -(insertion point) - 1 if it is not in the block
+   */
+  private static int search(ByteBuffer block, long key)
+  {
+    int lo = 0, hi = block.getInt(COUNT) - 1;
+
+    while (lo <= hi)
+    {
+      int mid = (lo + hi) >>> 1;
+      long midKey = block.getLong(KEYS + 8 * mid);
+
+      if (midKey < key) lo = mid + 1;
+      else if (midKey > key) hi = mid - 1;
+      else return mid;
+    }
+    return -lo - 1;
+  }
+
+  private static Entry entryAt(ByteBuffer block, int i)
+  {
+    return new Entry(block.getLong(KEYS + 8 * i), block.getLong(VALUES + 8 * i), block.get(FLAGS + i) != 0);
+  }
+
+  /* Reference counting */
+
+  /**
+   * @return false if the run was already released by the store and must not be read
+   */
+  boolean retain()
+  {
+    while (true)
+    {
+      int count = references.get();
+      if (count == 0) return false;
+      if (references.compareAndSet(count, count + 1)) return true;
+    }
+  }
+
+  /**
+   * drops a reference, the last one closes and deletes the file
+   */
+  void release()
+  {
+    if (references.decrementAndGet() != 0) return;
+
+    try
+    {
+      channel.close();
+      Files.deleteIfExists(path);
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * closes the file but keeps it on disk, used when the store is closed
+   */
+  @Override
+  public void close() throws IOException
+  {
+    channel.close();
+  }
+
+  /* File helpers */
+
+  private static ByteBuffer readFully(FileChannel channel, long position, int bytes) throws IOException
+  {
+    ByteBuffer buffer = ByteBuffer.allocate(bytes);
+    while (buffer.hasRemaining())
+      if (channel.read(buffer, position + buffer.position()) < 0) throw new IOException("Unexpected end of file");
+
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * makes the renames in dir durable, opening a directory for reading works on POSIX systems
+   */
+  private static void forceDirectory(Path dir) throws IOException
+  {
+    try (FileChannel channel = FileChannel.open(dir, READ))
+    {
+      channel.force(true);
+    }
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException
+  {
+    while (buffer.hasRemaining()) channel.write(buffer);
+  }
+}
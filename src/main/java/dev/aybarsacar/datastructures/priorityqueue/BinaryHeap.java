@@ -10,6 +10,9 @@ public class BinaryHeap<T extends Comparable<T>>
   //  A dynamic list to store the binary head
   private List<T> heap = null;
 
+  //  operation counters, only allocated when instrumentation is switched on
+  private final HeapStats stats = HeapStats.ENABLED ? new HeapStats() : null;
+
 //  to store the values and the indices so searching will be O(1)
 //  and removal will be done in O(log(n))
 //  private Map<T, TreeSet<Integer>> map = new HashMap<>();
@@ -38,8 +41,7 @@ public class BinaryHeap<T extends Comparable<T>>
 //    place all elements
     for (int i = 0; i < heapSize; i++) heap.add(elems[i]);
 
-//    Heapify O(n)
-    for (int i = Math.max(0, (heapSize / 2) - 1); i >= 0; i--) sink(i);
+    heapify();
   }
 
   public boolean isEmpty()
@@ -61,6 +63,14 @@ public class BinaryHeap<T extends Comparable<T>>
     return heap.size();
   }
 
+  /**
+   * @return the instrumentation counters of this heap or null if HeapStats.ENABLED is false
+   */
+  public HeapStats getStats()
+  {
+    return stats;
+  }
+
   /**
    * returns the value of the element with the lowest priority in this priority queue
    * if the pq is empty returns null
@@ -81,6 +91,7 @@ public class BinaryHeap<T extends Comparable<T>>
    */
   public T poll()
   {
+    if (HeapStats.ENABLED) stats.operation(HeapStats.Operation.POLL);
     return removeAt(0);
   }
 
@@ -105,12 +116,85 @@ public class BinaryHeap<T extends Comparable<T>>
   {
     if (elem == null) throw new IllegalArgumentException("Cannot add a null element to the heap");
 
+    if (HeapStats.ENABLED) stats.operation(HeapStats.Operation.INSERT);
+
     heap.add(elem);
 
     int indexOfLastElem = size() - 1;
     swim(indexOfLastElem);
   }
 
+  /**
+   * adds a batch of elements to the priority queue
+   * when the batch is large relative to the heap the elements are appended and the whole heap is
+   * re-heapified bottom up in O(n + k) instead of paying O(log(n)) per element
+   *
+   * @param elems
+   */
+  public void addAll(T[] elems)
+  {
+    addAll(Arrays.asList(elems));
+  }
+
+  /**
+   * adds a batch of elements to the priority queue, see addAll(T[])
+   *
+   * @param elems
+   */
+  public void addAll(Collection<? extends T> elems)
+  {
+    for (T elem : elems)
+      if (elem == null) throw new IllegalArgumentException("Cannot add a null element to the heap");
+
+    if (!isBulkCheaper(size(), elems.size()))
+    {
+      for (T elem : elems) add(elem);
+      return;
+    }
+
+    if (HeapStats.ENABLED) stats.operations(HeapStats.Operation.INSERT, elems.size());
+
+    heap.addAll(elems);
+    heapify();
+  }
+
+  /**
+   * moves every element of other into this heap and leaves other empty
+   * O(n + k) or O(k * log(n)) whichever is cheaper
+   *
+   * @param other
+   */
+  public void meld(BinaryHeap<T> other)
+  {
+    if (other == this) return;
+
+    addAll(other.heap);
+    other.heap.clear();
+  }
+
+  /**
+   * adding k elements one by one costs about k * log(n + k) while re-heapifying costs about n + k
+   *
+   * @param n current size of the heap
+   * @param k size of the batch
+   * @return
+   */
+  private static boolean isBulkCheaper(int n, int k)
+  {
+    int total = n + k;
+    int log = 32 - Integer.numberOfLeadingZeros(total);
+    return (long) k * log > total;
+  }
+
+  /**
+   * restores the heap invariant over the whole heap with bottom up sinks
+   * O(n)
+   */
+  private void heapify()
+  {
+    for (int i = Math.max(0, (size() / 2) - 1); i >= 0; i--) sink(i);
+  }
+
   /**
    * tests if the value of node i <= node j
    * this method assumes i and j are valid indices
@@ -122,6 +206,8 @@ public class BinaryHeap<T extends Comparable<T>>
    */
   private boolean less(int i, int j)
   {
+    if (HeapStats.ENABLED) stats.comparison();
+
     T node1 = heap.get(i);
     T node2 = heap.get(j);
 
@@ -138,6 +224,7 @@ public class BinaryHeap<T extends Comparable<T>>
   {
 //    Grab the index of the next parent node WRT to k
     int parent = (k - 1) / 2;
+    int depth = 0;
 
 //    keep swimming while we have not reached the root and while we are less than our parent
     while (k > 0 && less(k, parent))
@@ -145,10 +232,13 @@ public class BinaryHeap<T extends Comparable<T>>
 //      Exchange k wiht the parent
       swap(parent, k);
       k = parent;
+      depth++;
 
 //      Grab the index of the next parent node WRT to k
       parent = (k - 1) / 2;
     }
+
+    if (HeapStats.ENABLED) stats.sift(depth);
   }
 
   /**
@@ -160,6 +250,7 @@ public class BinaryHeap<T extends Comparable<T>>
   private void sink(int k)
   {
     int heapSize = size();
+    int depth = 0;
     while (true)
     {
       int left = 2 * k + 1;         // left child
@@ -177,7 +268,10 @@ public class BinaryHeap<T extends Comparable<T>>
 //      move down the tree following the smallest node
       swap(smallest, k);
       k = smallest;
+      depth++;
     }
+
+    if (HeapStats.ENABLED) stats.sift(depth);
   }
 
   /**
@@ -189,6 +283,8 @@ public class BinaryHeap<T extends Comparable<T>>
    */
   private void swap(int i, int j)
   {
+    if (HeapStats.ENABLED) stats.swap();
+
     T elemI = heap.get(i);
     T elemJ = heap.get(j);
 
@@ -209,6 +305,8 @@ public class BinaryHeap<T extends Comparable<T>>
   {
     if (element == null) return false;
 
+    if (HeapStats.ENABLED) stats.operation(HeapStats.Operation.REMOVE);
+
 //    linear removal via search
     for (int i = 0; i < size(); i++)
     {
@@ -0,0 +1,173 @@
+package dev.aybarsacar.datastructures.priorityqueue;
+
+import java.util.Arrays;
+
+/**
+ * Counters of the work done by a heap: comparisons, swaps, sift depth and operations per type
+ * <p>
+ * Instrumentation is switched on for the whole JVM with -Dheapstats.enabled=true. ENABLED is a
+ * static final field so when it is false the JIT removes every guarded call and the heaps run
+ * exactly the same code as without instrumentation. When it is true every heap owns a HeapStats
+ * which can be read through its getStats() method.
+ * <p>
+ * Like the heaps themselves the counters are not thread safe.
+ */
+public final class HeapStats
+{
+  public static final boolean ENABLED = Boolean.getBoolean("heapstats.enabled");
+
+  public enum Operation
+  {
+    INSERT,
+    POLL,
+    REMOVE,
+    UPDATE,
+    DECREASE,
+    INCREASE,
+
+    //  an offer a bounded heap turned down without changing the heap
+    REJECT
+  }
+
+  private long comparisons, swaps, sifts, siftLevels;
+  private int maxSiftDepth;
+  private final long[] operations = new long[Operation.values().length];
+
+  public void comparison()
+  {
+    comparisons++;
+  }
+
+  public void swap()
+  {
+    swaps++;
+  }
+
+  /**
+   * records a swim or sink which moved an element down or up by depth levels
+   *
+   * @param depth
+   */
+  public void sift(int depth)
+  {
+    sifts++;
+    siftLevels += depth;
+    if (depth > maxSiftDepth) maxSiftDepth = depth;
+  }
+
+  public void operation(Operation operation)
+  {
+    operations[operation.ordinal()]++;
+  }
+
+  /**
+   * records count operations of the same type done as one batch
+   *
+   * @param operation
+   * @param count
+   */
+  public void operations(Operation operation, int count)
+  {
+    operations[operation.ordinal()] += count;
+  }
+
+  public void reset()
+  {
+    comparisons = swaps = sifts = siftLevels = 0;
+    maxSiftDepth = 0;
+    Arrays.fill(operations, 0);
+  }
+
+  /**
+   * @return an immutable copy of the current counters
+   */
+  public Snapshot snapshot()
+  {
+    return new Snapshot(this);
+  }
+
+  @Override
+  public String toString()
+  {
+    return snapshot().toString();
+  }
+
+  /**
+   * an immutable copy of the counters at the time it was taken
+   */
+  public static final class Snapshot
+  {
+    private final long comparisons, swaps, sifts, siftLevels;
+    private final int maxSiftDepth;
+    private final long[] operations;
+
+    private Snapshot(HeapStats stats)
+    {
+      comparisons = stats.comparisons;
+      swaps = stats.swaps;
+      sifts = stats.sifts;
+      siftLevels = stats.siftLevels;
+      maxSiftDepth = stats.maxSiftDepth;
+      operations = stats.operations.clone();
+    }
+
+    public long getComparisons()
+    {
+      return comparisons;
+    }
+
+    public long getSwaps()
+    {
+      return swaps;
+    }
+
+    public long getSifts()
+    {
+      return sifts;
+    }
+
+    /**
+     * @return the average number of levels an element moved per swim or sink
+     */
+    public double getAverageSiftDepth()
+    {
+      return sifts == 0 ? 0 : (double) siftLevels / sifts;
+    }
+
+    public int getMaxSiftDepth()
+    {
+      return maxSiftDepth;
+    }
+
+    public long getOperations(Operation operation)
+    {
+      return operations[operation.ordinal()];
+    }
+
+    /**
+     * @return the average number of comparisons per operation of any type
+     */
+    public double getComparisonsPerOperation()
+    {
+      long total = 0;
+      for (long count : operations) total += count;
+      return total == 0 ? 0 : (double) comparisons / total;
+    }
+
+    @Override
+    public String toString()
+    {
+      StringBuilder sb = new StringBuilder();
+      sb.append("comparisons=").append(comparisons)
+          .append(", swaps=").append(swaps)
+          .append(", sifts=").append(sifts)
+          .append(", averageSiftDepth=").append(String.format("%.2f", getAverageSiftDepth()))
+          .append(", maxSiftDepth=").append(maxSiftDepth);
+
+      for (Operation operation : Operation.values())
+        sb.append(", ").append(operation.name().toLowerCase()).append('=').append(getOperations(operation));
+
+      return sb.toString();
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package dev.aybarsacar.datastructures.priorityqueue;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A bounded heap of (id, score) pairs with primitive double scores which keeps the K pairs
+ * with the greatest scores, see TopKHeap
+ * <p>
+ * ids and scores are stored in parallel primitive arrays, so offering a pair never allocates
+ */
+public class TopKDoubleHeap
+{
+  private final int K;
+
+  //  min heap on the scores, ids[i] belongs to scores[i]
+  private final long[] ids;
+  private final double[] scores;
+  private int sz;
+
+  public TopKDoubleHeap(int k)
+  {
+    if (k <= 0) throw new IllegalArgumentException("k cannot be less than or equal to zero");
+
+    K = k;
+    ids = new long[k];
+    scores = new double[k];
+  }
+
+  public int size()
+  {
+    return sz;
+  }
+
+  public boolean isEmpty()
+  {
+    return sz == 0;
+  }
+
+  public boolean isFull()
+  {
+    return sz == K;
+  }
+
+  public void clear()
+  {
+    sz = 0;
+  }
+
+  /**
+   * the smallest kept score, which is the score a new pair has to beat
+   *
+   * @return
+   */
+  public double peekThreshold()
+  {
+    if (isEmpty()) throw new NoSuchElementException("Priority queue underflow");
+    return scores[0];
+  }
+
+  /**
+   * offers a pair to the heap
+   * O(1) when rejected, O(log(K)) when accepted
+   *
+   * @param id
+   * @param score
+   * @return true if the pair was kept
+   */
+  public boolean offer(long id, double score)
+  {
+    if (Double.isNaN(score)) throw new IllegalArgumentException("score cannot be NaN");
+
+    if (sz < K)
+    {
+      swim(sz++, id, score);
+      return true;
+    }
+
+    if (score <= scores[0]) return false;
+
+    sink(0, sz, id, score);
+    return true;
+  }
+
+  /**
+   * merges the partial result of another heap into this one, other is left unchanged
+   *
+   * @param other
+   */
+  public void merge(TopKDoubleHeap other)
+  {
+    for (int i = 0; i < other.sz; i++) offer(other.ids[i], other.scores[i]);
+  }
+
+  /**
+   * writes the kept pairs into the given arrays sorted from the greatest to the smallest score
+   * O(K * log(K)) and allocation free
+   *
+   * @param outIds    must have room for size() elements
+   * @param outScores must have room for size() elements
+   * @return the number of pairs written
+   */
+  public int sortedInto(long[] outIds, double[] outScores)
+  {
+    System.arraycopy(ids, 0, outIds, 0, sz);
+    System.arraycopy(scores, 0, outScores, 0, sz);
+
+//    heap sort of a min heap: moving the root to the end leaves the array in descending order
+    for (int end = sz - 1; end > 0; end--)
+    {
+      long id = outIds[end];
+      double score = outScores[end];
+
+      outIds[end] = outIds[0];
+      outScores[end] = outScores[0];
+
+      sink(outIds, outScores, 0, end, id, score);
+    }
+
+    return sz;
+  }
+
+  /**
+   * @return the kept ids sorted from the greatest to the smallest score
+   */
+  public long[] sortedIds()
+  {
+    long[] outIds = new long[sz];
+    sortedInto(outIds, new double[sz]);
+    return outIds;
+  }
+
+  private void swim(int k, long id, double score)
+  {
+    while (k > 0)
+    {
+      int parent = (k - 1) / 2;
+      if (scores[parent] <= score) break;
+
+      ids[k] = ids[parent];
+      scores[k] = scores[parent];
+      k = parent;
+    }
+
+    ids[k] = id;
+    scores[k] = score;
+  }
+
+  private void sink(int k, int n, long id, double score)
+  {
+    sink(ids, scores, k, n, id, score);
+  }
+
+  /**
+   * places (id, score) at position k of the min heap of size n stored in the given arrays
+   * and sinks it down to where it belongs
+   */
+  private static void sink(long[] ids, double[] scores, int k, int n, long id, double score)
+  {
+    while (true)
+    {
+      int left = 2 * k + 1;
+      if (left >= n) break;
+
+      int smallest = left + 1 < n && scores[left + 1] < scores[left] ? left + 1 : left;
+      if (scores[smallest] >= score) break;
+
+      ids[k] = ids[smallest];
+      scores[k] = scores[smallest];
+      k = smallest;
+    }
+
+    ids[k] = id;
+    scores[k] = score;
+  }
+}
@@ -0,0 +1,224 @@
+package dev.aybarsacar.datastructures.priorityqueue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A bounded heap which keeps only the K greatest elements offered to it
+ * <p>
+ * Internally this is a min heap of at most K elements whose root is the smallest element kept.
+ * A new element only enters the heap when it is greater than the root, in which case it replaces
+ * the root and sinks, so memory is O(K) regardless of how many elements are offered and each offer
+ * costs O(1) for rejected elements and O(log(K)) for accepted ones.
+ * <p>
+ * To keep the K smallest elements instead pass Comparator.reverseOrder()
+ *
+ * @param <T>
+ */
+@SuppressWarnings("unchecked")
+public class TopKHeap<T>
+{
+  private final int K;
+  private final Comparator<? super T> comparator;
+
+  //  min heap of the kept elements, heap[0] is the smallest kept element
+  private final Object[] heap;
+  private int sz;
+
+  //  operation counters, only allocated when instrumentation is switched on
+  private final HeapStats stats = HeapStats.ENABLED ? new HeapStats() : null;
+
+  /**
+   * keeps the K greatest elements by their natural order
+   *
+   * @param k
+   */
+  public TopKHeap(int k)
+  {
+    this(k, (Comparator<? super T>) Comparator.naturalOrder());
+  }
+
+  /**
+   * keeps the K greatest elements by the given comparator
+   *
+   * @param k
+   * @param comparator
+   */
+  public TopKHeap(int k, Comparator<? super T> comparator)
+  {
+    if (k <= 0) throw new IllegalArgumentException("k cannot be less than or equal to zero");
+    if (comparator == null) throw new IllegalArgumentException("comparator cannot be null");
+
+    K = k;
+    this.comparator = comparator;
+    heap = new Object[k];
+  }
+
+  public int size()
+  {
+    return sz;
+  }
+
+  public boolean isEmpty()
+  {
+    return sz == 0;
+  }
+
+  /**
+   * @return the instrumentation counters of this heap or null if HeapStats.ENABLED is false
+   */
+  public HeapStats getStats()
+  {
+    return stats;
+  }
+
+  /**
+   * @return true if K elements have been kept and new elements need to beat the root
+   */
+  public boolean isFull()
+  {
+    return sz == K;
+  }
+
+  public void clear()
+  {
+    Arrays.fill(heap, 0, sz, null);
+    sz = 0;
+  }
+
+  /**
+   * the smallest of the kept elements, which is the element a new element has to beat
+   *
+   * @return
+   * @throws NoSuchElementException if the heap is empty, like TopKLongHeap and TopKDoubleHeap
+   */
+  public T peekThreshold()
+  {
+    isNotEmptyOrThrow();
+    return (T) heap[0];
+  }
+
+  /**
+   * offers an element to the heap
+   * O(1) when rejected, O(log(K)) when accepted
+   *
+   * @param elem
+   * @return true if the element was kept
+   */
+  public boolean offer(T elem)
+  {
+    if (elem == null) throw new IllegalArgumentException("Cannot add a null element to the heap");
+
+    if (sz < K)
+    {
+      if (HeapStats.ENABLED) stats.operation(HeapStats.Operation.INSERT);
+
+      heap[sz] = elem;
+      swim(sz++);
+      return true;
+    }
+
+//    replace the root only if the new element beats it
+    if (!less(heap[0], elem))
+    {
+      if (HeapStats.ENABLED) stats.operation(HeapStats.Operation.REJECT);
+      return false;
+    }
+
+    if (HeapStats.ENABLED) stats.operation(HeapStats.Operation.INSERT);
+
+    heap[0] = elem;
+    sink(0);
+    return true;
+  }
+
+  /**
+   * merges the partial result of another heap into this one, other is left unchanged
+   * this is how results computed by several threads on their own heaps are combined
+   * O(K * log(K))
+   *
+   * @param other
+   */
+  public void merge(TopKHeap<? extends T> other)
+  {
+    for (int i = 0; i < other.sz; i++) offer((T) other.heap[i]);
+  }
+
+  /**
+   * @return the kept elements sorted from the greatest to the smallest
+   */
+  public List<T> toSortedList()
+  {
+    Object[] sorted = Arrays.copyOf(heap, sz);
+    Arrays.sort(sorted, (a, b) -> comparator.compare((T) b, (T) a));
+
+    List<T> lst = new ArrayList<>(sz);
+    for (Object elem : sorted) lst.add((T) elem);
+    return lst;
+  }
+
+  private void swim(int k)
+  {
+    Object elem = heap[k];
+    int depth = 0;
+
+    while (k > 0)
+    {
+      int parent = (k - 1) / 2;
+      if (!less(elem, heap[parent])) break;
+
+      heap[k] = heap[parent];
+      k = parent;
+      depth++;
+    }
+
+    heap[k] = elem;
+
+    if (HeapStats.ENABLED) stats.sift(depth);
+  }
+
+  private void sink(int k)
+  {
+    Object elem = heap[k];
+    int depth = 0;
+
+    while (true)
+    {
+      int left = 2 * k + 1;
+      if (left >= sz) break;
+
+      int smallest = left + 1 < sz && less(heap[left + 1], heap[left]) ? left + 1 : left;
+      if (!less(heap[smallest], elem)) break;
+
+      heap[k] = heap[smallest];
+      k = smallest;
+      depth++;
+    }
+
+    heap[k] = elem;
+
+    if (HeapStats.ENABLED) stats.sift(depth);
+  }
+
+  private boolean less(Object o1, Object o2)
+  {
+    if (HeapStats.ENABLED) stats.comparison();
+    return comparator.compare((T) o1, (T) o2) < 0;
+  }
+
+  @Override
+  public String toString()
+  {
+    return Arrays.toString(Arrays.copyOf(heap, sz));
+  }
+
+  /* Error Helper Functions */
+
+  private void isNotEmptyOrThrow()
+  {
+    if (isEmpty()) throw new NoSuchElementException("Priority queue underflow");
+  }
+}
@@ -0,0 +1,20 @@
+package dev.aybarsacar.datastructures.priorityqueue.concurrent;
+
+/**
+ * A min priority queue that can be shared between threads
+ *
+ * @param <T>
+ */
+public interface ConcurrentPriorityQueue<T extends Comparable<T>>
+{
+  public void add(T elem);
+
+  /**
+   * @return a small element of the queue or null if the queue is empty
+   */
+  public T poll();
+
+  public int size();
+
+  public boolean isEmpty();
+}
@@ -0,0 +1,91 @@
+package dev.aybarsacar.datastructures.priorityqueue.concurrent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A strictly ordered lock-free concurrent min priority queue backed by a skip list
+ * <p>
+ * poll() always returns the current minimum, which makes the head of the skip list a contention
+ * point for every thread. It is the strict counterpart to compare MultiQueue against.
+ * <p>
+ * Equal elements are allowed, each element is tagged with a unique sequence number
+ * so the skip list never sees two equal entries.
+ *
+ * @param <T>
+ */
+public class ConcurrentSkipListPriorityQueue<T extends Comparable<T>> implements ConcurrentPriorityQueue<T>
+{
+  //  a map rather than a set because firstEntry() and pollFirstEntry() return null when empty
+  private final ConcurrentSkipListMap<Entry<T>, Boolean> map = new ConcurrentSkipListMap<>();
+
+  //  tie breaker for equal elements
+  private final AtomicLong sequence = new AtomicLong();
+
+  //  ConcurrentSkipListMap.size() is O(n) so we count separately
+  private final LongAdder count = new LongAdder();
+
+  @Override
+  public int size()
+  {
+    return count.intValue();
+  }
+
+  @Override
+  public boolean isEmpty()
+  {
+    return map.isEmpty();
+  }
+
+  @Override
+  public void add(T elem)
+  {
+    if (elem == null) throw new IllegalArgumentException("Cannot add a null element to the heap");
+
+    map.put(new Entry<>(elem, sequence.getAndIncrement()), Boolean.TRUE);
+    count.increment();
+  }
+
+  /**
+   * @return the minimum element or null if the queue is empty
+   */
+  @Override
+  public T poll()
+  {
+    Map.Entry<Entry<T>, Boolean> entry = map.pollFirstEntry();
+    if (entry == null) return null;
+
+    count.decrement();
+    return entry.getKey().value;
+  }
+
+  /**
+   * @return the minimum element or null if the queue is empty
+   */
+  public T peek()
+  {
+    Map.Entry<Entry<T>, Boolean> entry = map.firstEntry();
+    return entry == null ? null : entry.getKey().value;
+  }
+
+  private static final class Entry<T extends Comparable<T>> implements Comparable<Entry<T>>
+  {
+    final T value;
+    final long seq;
+
+    Entry(T value, long seq)
+    {
+      this.value = value;
+      this.seq = seq;
+    }
+
+    @Override
+    public int compareTo(Entry<T> other)
+    {
+      int comparison = value.compareTo(other.value);
+      return comparison != 0 ? comparison : Long.compare(seq, other.seq);
+    }
+  }
+}
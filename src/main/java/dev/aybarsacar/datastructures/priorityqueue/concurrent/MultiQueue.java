@@ -0,0 +1,238 @@
+package dev.aybarsacar.datastructures.priorityqueue.concurrent;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A relaxed concurrent min priority queue built from many independently locked d-ary heaps
+ * <p>
+ * add() pushes into a random heap and poll() peeks the minimum of two random heaps and removes
+ * from the smaller one ("power of two choices"). Locks are only ever acquired with tryLock, a thread
+ * which loses the race simply picks two other heaps, so no thread ever waits on another one.
+ * <p>
+ * The ordering is relaxed: poll() does not always return the global minimum, but with c heaps per
+ * thread the returned element is expected to be among the O(c * threads) smallest elements.
+ * In exchange throughput scales close to linearly with the number of threads.
+ *
+ * @param <T>
+ */
+public class MultiQueue<T extends Comparable<T>> implements ConcurrentPriorityQueue<T>
+{
+  private static final int DEFAULT_QUEUES_PER_THREAD = 2;
+
+  //  the striped heaps, each guarded by its own lock
+  private final LockedHeap<T>[] queues;
+
+  //  number of elements, a LongAdder so counting does not become a contention point itself
+  private final LongAdder count = new LongAdder();
+
+  public MultiQueue(int threads)
+  {
+    this(threads, DEFAULT_QUEUES_PER_THREAD);
+  }
+
+  @SuppressWarnings("unchecked")
+  public MultiQueue(int threads, int queuesPerThread)
+  {
+    if (threads <= 0) throw new IllegalArgumentException("threads cannot be less than or equal to zero");
+    if (queuesPerThread <= 0)
+      throw new IllegalArgumentException("queuesPerThread cannot be less than or equal to zero");
+
+    queues = new LockedHeap[Math.max(2, threads * queuesPerThread)];
+    for (int i = 0; i < queues.length; i++) queues[i] = new LockedHeap<>();
+  }
+
+  @Override
+  public int size()
+  {
+    return count.intValue();
+  }
+
+  @Override
+  public boolean isEmpty()
+  {
+    return size() == 0;
+  }
+
+  /**
+   * adds an element into a random heap whose lock is free
+   *
+   * @param elem
+   */
+  @Override
+  public void add(T elem)
+  {
+    if (elem == null) throw new IllegalArgumentException("Cannot add a null element to the heap");
+
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+
+    while (true)
+    {
+      LockedHeap<T> q = queues[random.nextInt(queues.length)];
+      if (!q.lock.tryLock()) continue;
+
+      try
+      {
+        q.add(elem);
+        count.increment();
+      }
+      finally
+      {
+        q.lock.unlock();
+      }
+
+      return;
+    }
+  }
+
+  /**
+   * removes the smaller top of two random heaps
+   *
+   * @return a small element or null if every heap is empty
+   */
+  @Override
+  public T poll()
+  {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+
+    while (true)
+    {
+      LockedHeap<T> q1 = queues[random.nextInt(queues.length)];
+      LockedHeap<T> q2 = queues[random.nextInt(queues.length)];
+
+//      the tops are read without locking, they are only a hint of which heap to poll
+      T top1 = q1.top, top2 = q2.top;
+      LockedHeap<T> q;
+
+      if (top1 == null && top2 == null)
+      {
+//        both heaps were empty, fall back to scanning in case the whole queue is empty
+        q = anyNonEmpty();
+        if (q == null) return null;
+      }
+      else if (top2 == null || (top1 != null && top1.compareTo(top2) <= 0)) q = q1;
+      else q = q2;
+
+      if (!q.lock.tryLock()) continue;
+
+      T elem;
+      try
+      {
+        elem = q.poll();
+      }
+      finally
+      {
+        q.lock.unlock();
+      }
+
+      if (elem != null)
+      {
+        count.decrement();
+        return elem;
+      }
+    }
+  }
+
+  private LockedHeap<T> anyNonEmpty()
+  {
+    for (LockedHeap<T> q : queues)
+      if (q.top != null) return q;
+
+    return null;
+  }
+
+  /**
+   * a 4-ary min heap over an array guarded by a lock, which publishes its minimum through
+   * a volatile field so other threads can compare heaps without locking them
+   * all methods other than reading top must be called holding the lock
+   *
+   * @param <T>
+   */
+  @SuppressWarnings("unchecked")
+  private static final class LockedHeap<T extends Comparable<T>>
+  {
+    private static final int D = 4;
+
+    final ReentrantLock lock = new ReentrantLock();
+
+    volatile T top;
+
+    private Object[] heap = new Object[16];
+    private int sz;
+
+    void add(T elem)
+    {
+      if (sz == heap.length) heap = Arrays.copyOf(heap, sz * 2);
+
+      heap[sz] = elem;
+      swim(sz++);
+
+      top = (T) heap[0];
+    }
+
+    T poll()
+    {
+      if (sz == 0) return null;
+
+      T min = (T) heap[0];
+      heap[0] = heap[--sz];
+      heap[sz] = null;
+      sink(0);
+
+      top = sz == 0 ? null : (T) heap[0];
+      return min;
+    }
+
+    private void swim(int i)
+    {
+      Object elem = heap[i];
+
+      while (i > 0)
+      {
+        int parent = (i - 1) / D;
+        if (!less(elem, heap[parent])) break;
+
+        heap[i] = heap[parent];
+        i = parent;
+      }
+
+      heap[i] = elem;
+    }
+
+    private void sink(int i)
+    {
+      if (sz == 0) return;
+
+      Object elem = heap[i];
+
+      while (true)
+      {
+        int from = i * D + 1, to = Math.min(sz, from + D), smallest = -1;
+        Object min = elem;
+
+        for (int j = from; j < to; j++)
+        {
+          if (less(heap[j], min))
+          {
+            min = heap[j];
+            smallest = j;
+          }
+        }
+
+        if (smallest == -1) break;
+
+        heap[i] = min;
+        i = smallest;
+      }
+
+      heap[i] = elem;
+    }
+
+    private boolean less(Object o1, Object o2)
+    {
+      return ((T) o1).compareTo((T) o2) < 0;
+    }
+  }
+}
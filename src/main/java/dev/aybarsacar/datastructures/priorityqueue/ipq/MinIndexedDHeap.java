@@ -1,5 +1,7 @@
 package dev.aybarsacar.datastructures.priorityqueue.ipq;
 
+import dev.aybarsacar.datastructures.priorityqueue.HeapStats;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -45,6 +47,9 @@ public class MinIndexedDHeap<T extends Comparable<T>>
   //  indexed by the key indexes (ki)
   public final Object[] values;
 
+  //  operation counters, only allocated when instrumentation is switched on
+  private final HeapStats stats = HeapStats.ENABLED ? new HeapStats() : null;
+
   /**
    * Initializes a D-ary heap with a maximum capacity of maxSize
    *
@@ -83,6 +88,29 @@ public class MinIndexedDHeap<T extends Comparable<T>>
     return sz == 0;
   }
 
+  /**
+   * removes every key from the heap
+   * O(size) so a heap can be reused between searches without reallocating
+   */
+  public void clear()
+  {
+    for (int i = 0; i < sz; i++)
+    {
+      values[im[i]] = null;
+      pm[im[i]] = -1;
+      im[i] = -1;
+    }
+    sz = 0;
+  }
+
+  /**
+   * @return the instrumentation counters of this heap or null if HeapStats.ENABLED is false
+   */
+  public HeapStats getStats()
+  {
+    return stats;
+  }
+
   /**
    * @param ki key index
    * @return
@@ -102,7 +130,8 @@ public class MinIndexedDHeap<T extends Comparable<T>>
   public int pollMinKeyIndex()
   {
     int minKi = peekMinKeyIndex();
-    delete(minKi);
+    if (HeapStats.ENABLED) stats.operation(HeapStats.Operation.POLL);
+    remove(minKi);
     return minKi;
   }
 
@@ -115,7 +144,8 @@ public class MinIndexedDHeap<T extends Comparable<T>>
   public T pollMinValue()
   {
     T minValue = peekMinValue();
-    delete(peekMinKeyIndex());
+    if (HeapStats.ENABLED) stats.operation(HeapStats.Operation.POLL);
+    remove(peekMinKeyIndex());
     return minValue;
   }
 
@@ -125,6 +155,8 @@ public class MinIndexedDHeap<T extends Comparable<T>>
 
     valueNotNullOrThrow(value);
 
+    if (HeapStats.ENABLED) stats.operation(HeapStats.Operation.INSERT);
+
     pm[ki] = sz;
     im[sz] = ki;
     values[ki] = value;
@@ -132,6 +164,87 @@ public class MinIndexedDHeap<T extends Comparable<T>>
     swim(sz++);
   }
 
+  /**
+   * inserts a batch of key indexes with their values, kis[i] is associated with values[i]
+   * when the batch is large relative to the heap the keys are appended and the whole heap is
+   * re-heapified bottom up in O(n + k) instead of paying O(log(n)) per key
+   *
+   * @param kis
+   * @param values
+   */
+  public void insertAll(int[] kis, T[] values)
+  {
+    if (kis.length != values.length)
+      throw new IllegalArgumentException("kis and values must have the same length");
+
+//    validate the whole batch first so a bad key leaves the heap untouched, keys are temporarily
+//    marked as contained so a key repeated within the batch is caught as well
+    int i = 0;
+    try
+    {
+      for (; i < kis.length; i++)
+      {
+        if (contains(kis[i])) throw new IllegalArgumentException("index already exists; received: " + kis[i]);
+        valueNotNullOrThrow(values[i]);
+        pm[kis[i]] = -2;
+      }
+    }
+    finally
+    {
+      if (i < kis.length) for (int j = 0; j < i; j++) pm[kis[j]] = -1;
+    }
+
+    if (!isBulkCheaper(sz, kis.length))
+    {
+      for (int ki : kis) pm[ki] = -1;
+      for (int j = 0; j < kis.length; j++) insert(kis[j], values[j]);
+      return;
+    }
+
+    if (HeapStats.ENABLED) stats.operations(HeapStats.Operation.INSERT, kis.length);
+
+    for (int j = 0; j < kis.length; j++)
+    {
+      pm[kis[j]] = sz;
+      im[sz] = kis[j];
+      this.values[kis[j]] = values[j];
+      sz++;
+    }
+
+    heapify();
+  }
+
+  /**
+   * moves every key of other into this heap and leaves other empty
+   * the key indexes of both heaps must be disjoint
+   * O(n + k) or O(k * log(n)) whichever is cheaper
+   *
+   * @param other
+   */
+  public void meld(MinIndexedDHeap<T> other)
+  {
+    if (other == this) return;
+
+    int[] kis = new int[other.sz];
+    T[] values = (T[]) new Comparable[other.sz];
+
+    for (int i = 0; i < other.sz; i++)
+    {
+      kis[i] = other.im[i];
+      values[i] = (T) other.values[kis[i]];
+    }
+
+    insertAll(kis, values);
+
+    for (int ki : kis)
+    {
+      other.values[ki] = null;
+      other.pm[ki] = -1;
+    }
+    for (int i = 0; i < kis.length; i++) other.im[i] = -1;
+    other.sz = 0;
+  }
+
   public T valueOf(int ki)
   {
     keyExistsOrThrow(ki);
@@ -142,6 +255,13 @@ public class MinIndexedDHeap<T extends Comparable<T>>
   {
     keyExistsOrThrow(ki);
 
+    if (HeapStats.ENABLED) stats.operation(HeapStats.Operation.REMOVE);
+
+    return remove(ki);
+  }
+
+  private T remove(int ki)
+  {
     final int i = pm[ki];
 
     swap(i, --sz);
@@ -164,6 +284,8 @@ public class MinIndexedDHeap<T extends Comparable<T>>
 
     final int i = pm[ki];
 
+    if (HeapStats.ENABLED) stats.operation(HeapStats.Operation.UPDATE);
+
     T oldValue = (T) values[ki];
     values[ki] = value;
 
@@ -183,6 +305,8 @@ public class MinIndexedDHeap<T extends Comparable<T>>
   {
     keyExistsAndValueNotNullOrThrow(ki, value);
 
+    if (HeapStats.ENABLED) stats.operation(HeapStats.Operation.DECREASE);
+
     if (less(value, values[ki]))
     {
       values[ki] = value;
@@ -200,6 +324,8 @@ public class MinIndexedDHeap<T extends Comparable<T>>
   {
     keyExistsAndValueNotNullOrThrow(ki, value);
 
+    if (HeapStats.ENABLED) stats.operation(HeapStats.Operation.INCREASE);
+
     if (less(values[ki], value))
     {
       values[ki] = value;
@@ -207,23 +333,55 @@ public class MinIndexedDHeap<T extends Comparable<T>>
     }
   }
 
+  /**
+   * adding k keys one by one costs about k * log(n + k) while re-heapifying costs about n + k
+   *
+   * @param n current size of the heap
+   * @param k size of the batch
+   * @return
+   */
+  private static boolean isBulkCheaper(int n, int k)
+  {
+    int total = n + k;
+    int log = 32 - Integer.numberOfLeadingZeros(total);
+    return (long) k * log > total;
+  }
+
+  /**
+   * restores the heap invariant over the whole heap with bottom up sinks
+   * O(n)
+   */
+  private void heapify()
+  {
+    if (sz == 0) return;
+    for (int i = parent[sz - 1]; i >= 0; i--) sink(i);
+  }
+
   private void sink(int i)
   {
+    int depth = 0;
     for (int j = minChild(i); j != -1; )
     {
       swap(i, j);
       i = j;
       j = minChild(i);
+      depth++;
     }
+
+    if (HeapStats.ENABLED) stats.sift(depth);
   }
 
   private void swim(int i)
   {
+    int depth = 0;
     while (less(i, parent[i]))
     {
       swap(i, parent[i]);
       i = parent[i];
+      depth++;
     }
+
+    if (HeapStats.ENABLED) stats.sift(depth);
   }
 
   /**
@@ -252,6 +410,8 @@ public class MinIndexedDHeap<T extends Comparable<T>>
    */
   private void swap(int i, int j)
   {
+    if (HeapStats.ENABLED) stats.swap();
+
     pm[im[j]] = i;
     pm[im[i]] = j;
 
@@ -263,11 +423,13 @@ public class MinIndexedDHeap<T extends Comparable<T>>
 
   private boolean less(int i, int j)
   {
+    if (HeapStats.ENABLED) stats.comparison();
     return ((Comparable<? super T>) values[im[i]]).compareTo((T) values[im[j]]) < 0;
   }
 
   private boolean less(Object o1, Object o2)
   {
+    if (HeapStats.ENABLED) stats.comparison();
     return ((Comparable<? super T>) o1).compareTo((T) o2) < 0;
   }
 
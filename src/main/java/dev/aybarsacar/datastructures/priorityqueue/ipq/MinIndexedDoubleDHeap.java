@@ -0,0 +1,288 @@
+package dev.aybarsacar.datastructures.priorityqueue.ipq;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An implementation of an indexed min D-ary heap with primitive double values
+ * <p>
+ * Same operations and key index convention 'ki' in [0, N) as MinIndexedDHeap, but the values are
+ * kept in a double[] so inserting or decreasing a key never boxes a Double. A search which reuses
+ * the heap through clear() does not allocate at all.
+ * <p>
+ * Children and parents are computed instead of looked up, which saves two int arrays of size N.
+ */
+public class MinIndexedDoubleDHeap
+{
+  //  current number of elements in the heap
+  private int sz;
+
+  //  maximum number of elements in the heap
+  private final int N;
+
+  //  the degree of every node in the heap
+  private final int D;
+
+  //  the position map (pm) and its inverse (im), pm[im[i]] == im[pm[i]] == i
+  private final int[] pm, im;
+
+  //  the values associated with the keys, indexed by the key indexes (ki)
+  private final double[] values;
+
+  /**
+   * Initializes a D-ary heap with a maximum capacity of maxSize
+   *
+   * @param degree
+   * @param maxSize
+   */
+  public MinIndexedDoubleDHeap(int degree, int maxSize)
+  {
+    if (maxSize <= 0) throw new IllegalArgumentException("maxSize cannot be less than or equal to zero");
+
+    D = Math.max(2, degree);
+    N = maxSize;
+
+    pm = new int[N];
+    im = new int[N];
+    values = new double[N];
+
+    for (int i = 0; i < N; i++) pm[i] = im[i] = -1;
+  }
+
+  public int size()
+  {
+    return sz;
+  }
+
+  public boolean isEmpty()
+  {
+    return sz == 0;
+  }
+
+  /**
+   * removes every key from the heap
+   * O(size) so a heap can be reused between searches without reallocating
+   */
+  public void clear()
+  {
+    for (int i = 0; i < sz; i++)
+    {
+      pm[im[i]] = -1;
+      im[i] = -1;
+    }
+    sz = 0;
+  }
+
+  /**
+   * @param ki key index
+   * @return
+   */
+  public boolean contains(int ki)
+  {
+    keyInBoundsOrThrow(ki);
+    return pm[ki] != -1;
+  }
+
+  public int peekMinKeyIndex()
+  {
+    isNotEmptyOrThrow();
+    return im[0];
+  }
+
+  public int pollMinKeyIndex()
+  {
+    int minKi = peekMinKeyIndex();
+    remove(minKi);
+    return minKi;
+  }
+
+  public double peekMinValue()
+  {
+    return values[peekMinKeyIndex()];
+  }
+
+  public double pollMinValue()
+  {
+    return values[pollMinKeyIndex()];
+  }
+
+  /**
+   * O(log_D(n))
+   *
+   * @param ki
+   * @param value cannot be NaN
+   */
+  public void insert(int ki, double value)
+  {
+    if (contains(ki)) throw new IllegalArgumentException("index already exists; received: " + ki);
+
+    valueNotNaNOrThrow(value);
+
+    pm[ki] = sz;
+    im[sz] = ki;
+    values[ki] = value;
+
+    swim(sz++);
+  }
+
+  public double valueOf(int ki)
+  {
+    keyExistsOrThrow(ki);
+    return values[ki];
+  }
+
+  public double delete(int ki)
+  {
+    keyExistsOrThrow(ki);
+    return remove(ki);
+  }
+
+  private double remove(int ki)
+  {
+    final int i = pm[ki];
+
+    swap(i, --sz);
+
+    sink(i);
+    swim(i);
+
+    pm[ki] = -1;
+    im[sz] = -1;
+
+    return values[ki];
+  }
+
+  /**
+   * Strictly decreases the value associated with 'ki' to 'value'
+   * does nothing if value is not less than the current value
+   *
+   * @param ki
+   * @param value cannot be NaN
+   */
+  public void decrease(int ki, double value)
+  {
+    keyExistsOrThrow(ki);
+    valueNotNaNOrThrow(value);
+
+    if (value < values[ki])
+    {
+      values[ki] = value;
+      swim(pm[ki]);
+    }
+  }
+
+  /**
+   * Strictly increases the value associated with 'ki' to 'value'
+   * does nothing if value is not greater than the current value
+   *
+   * @param ki
+   * @param value cannot be NaN
+   */
+  public void increase(int ki, double value)
+  {
+    keyExistsOrThrow(ki);
+    valueNotNaNOrThrow(value);
+
+    if (value > values[ki])
+    {
+      values[ki] = value;
+      sink(pm[ki]);
+    }
+  }
+
+  private void sink(int i)
+  {
+    for (int j = minChild(i); j != -1; j = minChild(i))
+    {
+      swap(i, j);
+      i = j;
+    }
+  }
+
+  private void swim(int i)
+  {
+    while (i > 0 && less(i, (i - 1) / D))
+    {
+      int parent = (i - 1) / D;
+      swap(i, parent);
+      i = parent;
+    }
+  }
+
+  /**
+   * from the parent node at index i find the minimum child below it
+   *
+   * @param i
+   * @return the position of the minimum child if it is less than i, otherwise -1
+   */
+  private int minChild(int i)
+  {
+    int index = -1, from = i * D + 1, to = Math.min(sz, from + D);
+
+    for (int j = from; j < to; j++)
+    {
+      if (less(j, i)) index = i = j;
+    }
+
+    return index;
+  }
+
+  private void swap(int i, int j)
+  {
+    pm[im[j]] = i;
+    pm[im[i]] = j;
+
+    int temp = im[i];
+
+    im[i] = im[j];
+    im[j] = temp;
+  }
+
+  private boolean less(int i, int j)
+  {
+    return values[im[i]] < values[im[j]];
+  }
+
+  @Override
+  public String toString()
+  {
+    List<Integer> lst = new ArrayList<>(sz);
+    for (int i = 0; i < sz; i++) lst.add(im[i]);
+    return lst.toString();
+  }
+
+  /* Error Helper Functions */
+
+  private void isNotEmptyOrThrow()
+  {
+    if (isEmpty()) throw new NoSuchElementException("Priority queue underflow");
+  }
+
+  private void keyExistsOrThrow(int ki)
+  {
+    if (!contains(ki)) throw new NoSuchElementException("Index does not exist; received: " + ki);
+  }
+
+  private void valueNotNaNOrThrow(double value)
+  {
+    if (Double.isNaN(value)) throw new IllegalArgumentException("value cannot be NaN");
+  }
+
+  private void keyInBoundsOrThrow(int ki)
+  {
+    if (ki < 0 || ki >= N)
+      throw new IllegalArgumentException("Key index out of bounds; received: " + ki);
+  }
+
+  /* Test functions */
+
+  // Checks if this heap is a min heap. This method is used
+  // for testing purposes to validate the heap invariant.
+  public boolean isMinHeap()
+  {
+    for (int i = 1; i < sz; i++)
+      if (less(i, (i - 1) / D)) return false;
+    return true;
+  }
+}
@@ -0,0 +1,302 @@
+package dev.aybarsacar.datastructures.priorityqueue.ipq;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An implementation of an indexed monotone radix heap with long keys
+ * <p>
+ * A radix heap is a monotone priority queue, every value inserted must be greater than or equal to
+ * the last value polled from the heap. This is exactly the access pattern of Dijkstra's algorithm
+ * with non negative edge weights, where it beats any comparison based heap.
+ * <p>
+ * Values are distributed into 65 buckets by the highest bit in which they differ from the last
+ * polled value. Bucket 0 holds the values equal to the last polled value, bucket b holds the values
+ * whose highest differing bit is b - 1. Each value is moved to a strictly lower bucket every time it
+ * is redistributed, so every element is touched at most O(log(C)) times over its lifetime.
+ * <p>
+ * The key index convention 'ki' in [0, N) is the same as the one used by MinIndexedDHeap
+ */
+public class RadixHeap
+{
+  //  number of buckets, one for equal values and one for each bit of a long
+  private static final int B = Long.SIZE + 1;
+
+  //  current number of elements in the heap
+  private int sz;
+
+  //  maximum number of elements in the heap
+  private final int N;
+
+  //  the last value polled from the heap, every value in the heap is >= last
+  private long last;
+
+  //  head[b] is the first key index in bucket b or -1 if the bucket is empty
+  private final int[] head = new int[B];
+
+  //  intrusive doubly linked lists threading the key indexes of each bucket
+  //  so buckets can be updated without allocating
+  private final int[] next, prev;
+
+  //  bucket[ki] is the bucket key index ki is stored in or -1 if ki is not in the heap
+  private final int[] bucket;
+
+  //  the values associated with the keys, indexed by the key indexes (ki)
+  private final long[] values;
+
+  /**
+   * Initializes a radix heap with a maximum capacity of maxSize
+   *
+   * @param maxSize
+   */
+  public RadixHeap(int maxSize)
+  {
+    if (maxSize <= 0) throw new IllegalArgumentException("maxSize cannot be less than or equal to zero");
+
+    N = maxSize;
+
+    next = new int[N];
+    prev = new int[N];
+    bucket = new int[N];
+    values = new long[N];
+
+    clear();
+  }
+
+  public int size()
+  {
+    return sz;
+  }
+
+  public boolean isEmpty()
+  {
+    return sz == 0;
+  }
+
+  /**
+   * removes every key and resets the monotone lower bound to Long.MIN_VALUE
+   */
+  public void clear()
+  {
+    for (int i = 0; i < N; i++) bucket[i] = -1;
+    for (int b = 0; b < B; b++) head[b] = -1;
+
+    sz = 0;
+    last = Long.MIN_VALUE;
+  }
+
+  /**
+   * @return the smallest value that can currently be inserted
+   */
+  public long lastPolledValue()
+  {
+    return last;
+  }
+
+  /**
+   * @param ki key index
+   * @return
+   */
+  public boolean contains(int ki)
+  {
+    keyInBoundsOrThrow(ki);
+    return bucket[ki] != -1;
+  }
+
+  /**
+   * does not change lastPolledValue(), so values below the peeked minimum can still be inserted
+   * O(1) if the minimum equals the last polled value, otherwise a scan of the bucket holding it
+   *
+   * @return
+   */
+  public int peekMinKeyIndex()
+  {
+    isNotEmptyOrThrow();
+    if (head[0] != -1) return head[0];
+
+//    the minimum is in the lowest non empty bucket, which is left as it is for poll to redistribute
+    int b = 1;
+    while (head[b] == -1) b++;
+
+    int minKi = head[b];
+    for (int ki = next[minKi]; ki != -1; ki = next[ki])
+      if (values[ki] < values[minKi]) minKi = ki;
+
+    return minKi;
+  }
+
+  public int pollMinKeyIndex()
+  {
+    isNotEmptyOrThrow();
+
+    int minKi = head[settle()];
+    unlink(minKi);
+    return minKi;
+  }
+
+  public long peekMinValue()
+  {
+    return values[peekMinKeyIndex()];
+  }
+
+  public long pollMinValue()
+  {
+    return values[pollMinKeyIndex()];
+  }
+
+  /**
+   * inserts the key index ki with the given value
+   * O(1)
+   *
+   * @param ki
+   * @param value must be >= lastPolledValue()
+   */
+  public void insert(int ki, long value)
+  {
+    if (contains(ki)) throw new IllegalArgumentException("index already exists; received: " + ki);
+
+    monotoneOrThrow(value);
+
+    values[ki] = value;
+    link(ki, bucketOf(value));
+  }
+
+  public long valueOf(int ki)
+  {
+    keyExistsOrThrow(ki);
+    return values[ki];
+  }
+
+  public long delete(int ki)
+  {
+    keyExistsOrThrow(ki);
+    unlink(ki);
+    return values[ki];
+  }
+
+  /**
+   * Strictly decreases the value associated with 'ki' to 'value'
+   * O(1)
+   *
+   * @param ki
+   * @param value must be >= lastPolledValue()
+   */
+  public void decrease(int ki, long value)
+  {
+    keyExistsOrThrow(ki);
+    monotoneOrThrow(value);
+
+    if (value < values[ki])
+    {
+      unlink(ki);
+      values[ki] = value;
+      link(ki, bucketOf(value));
+    }
+  }
+
+  /**
+   * makes sure bucket 0 is non empty by redistributing the first non empty bucket
+   * around its minimum value
+   * amortised O(log(C))
+   *
+   * @return the bucket holding the minimum, which is always bucket 0
+   */
+  private int settle()
+  {
+    if (head[0] != -1) return 0;
+
+    int b = 1;
+    while (head[b] == -1) b++;
+
+//    the minimum of the bucket becomes the new lower bound
+    long min = Long.MAX_VALUE;
+    for (int ki = head[b]; ki != -1; ki = next[ki])
+      if (values[ki] < min) min = values[ki];
+
+    last = min;
+
+//    detach the bucket and move every element into a strictly lower bucket
+    int ki = head[b];
+    head[b] = -1;
+
+    while (ki != -1)
+    {
+      int nextKi = next[ki];
+      sz--;
+      link(ki, bucketOf(values[ki]));
+      ki = nextKi;
+    }
+
+    return 0;
+  }
+
+  /**
+   * the bucket is the position of the highest bit in which value differs from the last polled value
+   *
+   * @param value
+   * @return
+   */
+  private int bucketOf(long value)
+  {
+    return value == last ? 0 : Long.SIZE - Long.numberOfLeadingZeros(value ^ last);
+  }
+
+  private void link(int ki, int b)
+  {
+    bucket[ki] = b;
+    prev[ki] = -1;
+    next[ki] = head[b];
+
+    if (head[b] != -1) prev[head[b]] = ki;
+    head[b] = ki;
+
+    sz++;
+  }
+
+  private void unlink(int ki)
+  {
+    int b = bucket[ki];
+
+    if (prev[ki] != -1) next[prev[ki]] = next[ki];
+    else head[b] = next[ki];
+
+    if (next[ki] != -1) prev[next[ki]] = prev[ki];
+
+    bucket[ki] = -1;
+    sz--;
+  }
+
+  @Override
+  public String toString()
+  {
+    List<Integer> lst = new ArrayList<>(sz);
+    for (int b = 0; b < B; b++)
+      for (int ki = head[b]; ki != -1; ki = next[ki]) lst.add(ki);
+    return lst.toString();
+  }
+
+  /* Error Helper Functions */
+
+  private void isNotEmptyOrThrow()
+  {
+    if (isEmpty()) throw new NoSuchElementException("Priority queue underflow");
+  }
+
+  private void keyExistsOrThrow(int ki)
+  {
+    if (!contains(ki)) throw new NoSuchElementException("Index does not exist; received: " + ki);
+  }
+
+  private void monotoneOrThrow(long value)
+  {
+    if (value < last)
+      throw new IllegalArgumentException("value cannot be less than the last polled value " + last + "; received: " + value);
+  }
+
+  private void keyInBoundsOrThrow(int ki)
+  {
+    if (ki < 0 || ki >= N)
+      throw new IllegalArgumentException("Key index out of bounds; received: " + ki);
+  }
+}
@@ -0,0 +1,304 @@
+package dev.aybarsacar.datastructures.scheduling;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A self resizing calendar queue of events with primitive double timestamps
+ * <p>
+ * Like a desk calendar the time line is split into days of equal width and the days are mapped onto
+ * a year of nBuckets buckets, every bucket holding a sorted list of its events. Dequeue walks the
+ * buckets day by day from the current one, so when the day width matches the spacing of the events
+ * both enqueue and dequeue are O(1) expected. The number of buckets doubles or halves as the queue
+ * grows or shrinks and the day width is re-estimated from the spacing of the earliest events.
+ * <p>
+ * The queue is monotone like an event driven simulation clock: an event cannot be scheduled before
+ * the last dequeued event. Events with equal timestamps are dequeued in the order they were enqueued.
+ * Nodes of dequeued events are recycled so a steady state simulation does not allocate.
+ *
+ * @param <T>
+ */
+public class CalendarQueue<T>
+{
+  private static final int MIN_BUCKETS = 2;
+
+  //  number of events sampled to estimate the day width
+  private static final int SAMPLE = 25;
+
+  private static final class Node<T>
+  {
+    double time;
+    T event;
+    Node<T> next;
+  }
+
+  private Node<T>[] buckets;
+  private int nBuckets;
+  private double width;
+
+  //  the day the dequeue scan is at, days are numbered floor(time / width)
+  private long currentDay;
+
+  //  timestamp of the last dequeued event, no event can be enqueued before it
+  private double lastTime = Double.NEGATIVE_INFINITY;
+
+  private int sz;
+
+  //  recycled nodes linked through next
+  private Node<T> free;
+
+  public CalendarQueue()
+  {
+    this(1.0);
+  }
+
+  /**
+   * @param width initial guess of the average gap between events, it adapts as the queue resizes
+   */
+  public CalendarQueue(double width)
+  {
+    if (!(width > 0) || Double.isInfinite(width)) throw new IllegalArgumentException("Illegal width");
+
+    this.width = width;
+    nBuckets = MIN_BUCKETS;
+    buckets = newBuckets(nBuckets);
+  }
+
+  public int size()
+  {
+    return sz;
+  }
+
+  public boolean isEmpty()
+  {
+    return sz == 0;
+  }
+
+  /**
+   * @return the timestamp of the last dequeued event
+   */
+  public double lastTime()
+  {
+    return lastTime;
+  }
+
+  /**
+   * schedules an event at the given time
+   * O(1) expected
+   *
+   * @param time  must be >= lastTime()
+   * @param event
+   */
+  public void enqueue(double time, T event)
+  {
+    if (Double.isNaN(time) || Double.isInfinite(time))
+      throw new IllegalArgumentException("time must be finite; received: " + time);
+    if (time < lastTime)
+      throw new IllegalArgumentException("time cannot be before the last dequeued time " + lastTime + "; received: " + time);
+
+    Node<T> node = free;
+    if (node != null) free = node.next;
+    else node = new Node<>();
+
+    node.time = time;
+    node.event = event;
+
+//    peeking may have moved the scan past the day of this event
+    long day = day(time);
+    if (sz == 0 || day < currentDay) currentDay = day;
+
+    insert(node, false);
+
+    if (sz > 2 * nBuckets) resize(2 * nBuckets);
+  }
+
+  /**
+   * @return the timestamp of the next event
+   */
+  public double peekTime()
+  {
+    return findMin().time;
+  }
+
+  /**
+   * removes the event with the smallest timestamp, its timestamp is then available via lastTime()
+   * O(1) expected
+   *
+   * @return
+   */
+  public T dequeue()
+  {
+    Node<T> node = removeMin();
+    T event = node.event;
+
+    node.event = null;
+    node.next = free;
+    free = node;
+
+    if (sz < nBuckets / 2 && nBuckets > MIN_BUCKETS) resize(nBuckets / 2);
+
+    return event;
+  }
+
+  /**
+   * finds the first event by walking the days of one year from the current day, moving
+   * currentDay along, falls back to a direct search over all buckets when the year is empty
+   *
+   * @return
+   */
+  private Node<T> findMin()
+  {
+    if (isEmpty()) throw new NoSuchElementException("Calendar queue underflow");
+
+    for (int i = 0; i < nBuckets; i++, currentDay++)
+    {
+      Node<T> head = buckets[bucket(currentDay)];
+      if (head != null && day(head.time) == currentDay) return head;
+    }
+
+//    no event in the coming year, jump straight to the earliest one
+    Node<T> min = null;
+    for (Node<T> head : buckets)
+      if (head != null && (min == null || head.time < min.time)) min = head;
+
+    currentDay = day(min.time);
+    return min;
+  }
+
+  private Node<T> removeMin()
+  {
+    Node<T> min = findMin();
+
+    int b = bucket(currentDay);
+    buckets[b] = min.next;
+    min.next = null;
+
+    lastTime = min.time;
+    sz--;
+
+    return min;
+  }
+
+  /**
+   * inserts a node into its bucket keeping the bucket sorted, after the events with equal time
+   * or before them when the node is put back in front of the events enqueued after it
+   *
+   * @param node
+   * @param beforeEqual
+   */
+  private void insert(Node<T> node, boolean beforeEqual)
+  {
+    int b = bucket(day(node.time));
+    Node<T> head = buckets[b];
+
+    if (head == null || node.time < head.time || beforeEqual && node.time == head.time)
+    {
+      node.next = head;
+      buckets[b] = node;
+    }
+    else
+    {
+      Node<T> prev = head;
+      while (prev.next != null && (prev.next.time < node.time || !beforeEqual && prev.next.time == node.time))
+        prev = prev.next;
+
+      node.next = prev.next;
+      prev.next = node;
+    }
+
+    sz++;
+  }
+
+  /**
+   * re-estimates the day width and redistributes every event over newSize buckets
+   * O(n)
+   *
+   * @param newSize
+   */
+  private void resize(int newSize)
+  {
+    double newWidth = estimateWidth();
+
+    Node<T>[] old = buckets;
+    nBuckets = newSize;
+    buckets = newBuckets(newSize);
+    width = newWidth;
+    sz = 0;
+
+    for (Node<T> head : old)
+    {
+      while (head != null)
+      {
+        Node<T> next = head.next;
+        insert(head, false);
+        head = next;
+      }
+    }
+
+    currentDay = day(lastTime == Double.NEGATIVE_INFINITY ? findMinTime() : lastTime);
+  }
+
+  /**
+   * the new day width is three times the average gap between the earliest events, ignoring
+   * gaps more than twice the average so a few outliers do not stretch the days
+   *
+   * @return
+   */
+  private double estimateWidth()
+  {
+    int n = Math.min(sz, SAMPLE);
+    if (n < 2) return width;
+
+//    dequeue the earliest events without recycling them and put them back afterwards, last first and
+//    each in front of its equal timestamps, so the events enqueued after them stay behind them
+    double saveLastTime = lastTime;
+    long saveDay = currentDay;
+    @SuppressWarnings("unchecked")
+    Node<T>[] sample = new Node[n];
+    for (int i = 0; i < n; i++) sample[i] = removeMin();
+    for (int i = n - 1; i >= 0; i--) insert(sample[i], true);
+    lastTime = saveLastTime;
+    currentDay = saveDay;
+
+    double total = sample[n - 1].time - sample[0].time;
+    double average = total / (n - 1);
+
+    double sum = 0;
+    int count = 0;
+    for (int i = 1; i < n; i++)
+    {
+      double gap = sample[i].time - sample[i - 1].time;
+      if (gap <= 2 * average)
+      {
+        sum += gap;
+        count++;
+      }
+    }
+
+    double newWidth = 3 * sum / count;
+    return newWidth > 0 ? newWidth : width;
+  }
+
+  private double findMinTime()
+  {
+    double min = Double.POSITIVE_INFINITY;
+    for (Node<T> head : buckets)
+      if (head != null && head.time < min) min = head.time;
+    return min;
+  }
+
+  private long day(double time)
+  {
+    return (long) Math.floor(time / width);
+  }
+
+  private int bucket(long day)
+  {
+    return (int) Math.floorMod(day, (long) nBuckets);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Node<T>[] newBuckets(int n)
+  {
+    return new Node[n];
+  }
+}
@@ -0,0 +1,308 @@
+package dev.aybarsacar.datastructures.scheduling;
+
+import java.util.function.Consumer;
+
+/**
+ * A hashed hierarchical timing wheel which schedules and cancels timeouts in O(1)
+ * <p>
+ * Time is measured in ticks and only moves forward through advance(). The wheel has LEVELS levels
+ * of 64 slots, the slots of level L are 64^L ticks wide. A timeout is stored at the lowest level in
+ * which its deadline and the current tick only differ in that level's digit, in the slot of that
+ * digit. When the current tick crosses the start of a higher level slot, the timeouts of that slot
+ * are cascaded down into the lower levels, so every timeout is moved at most LEVELS times and is
+ * expired exactly at its deadline tick.
+ * <p>
+ * Compared to a delay queue over a binary heap, schedule and cancel are O(1) instead of O(log(n))
+ * and O(n), and expired timeouts are handed out in batches per tick.
+ * <p>
+ * Not thread safe, a timer service would drive a wheel from a single thread.
+ *
+ * @param <T>
+ */
+public class TimingWheel<T>
+{
+  private static final int BITS = 6;
+  private static final int SLOTS = 1 << BITS;
+  private static final int MASK = SLOTS - 1;
+
+  //  enough levels to cover every non negative long tick
+  private static final int LEVELS = (Long.SIZE + BITS - 1) / BITS;
+
+  //  level of a timeout which is detached from its slot and waits for its turn in the current batch
+  private static final int EXPIRING = LEVELS;
+
+  /**
+   * handle of a scheduled timeout which is used to cancel it
+   *
+   * @param <T>
+   */
+  public static final class Timeout<T>
+  {
+    private final T task;
+    private final long deadline;
+
+    //  intrusive doubly linked list of the slot this timeout is in
+    private Timeout<T> prev, next;
+    private int level = -1, slot;
+
+    private Timeout(T task, long deadline)
+    {
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    public T getTask()
+    {
+      return task;
+    }
+
+    public long getDeadline()
+    {
+      return deadline;
+    }
+
+    /**
+     * @return true until the timeout has expired or has been cancelled
+     */
+    public boolean isPending()
+    {
+      return level != -1;
+    }
+  }
+
+  //  slots[level][slot] is the head of the list of timeouts of that slot
+  private final Timeout<T>[][] slots;
+
+  //  the current tick, every tick <= now has been expired
+  private long now;
+
+  //  number of pending timeouts
+  private int sz;
+
+  public TimingWheel()
+  {
+    this(0);
+  }
+
+  @SuppressWarnings("unchecked")
+  public TimingWheel(long startTick)
+  {
+    if (startTick < 0) throw new IllegalArgumentException("startTick cannot be negative");
+
+    now = startTick;
+    slots = new Timeout[LEVELS][SLOTS];
+  }
+
+  public int size()
+  {
+    return sz;
+  }
+
+  public boolean isEmpty()
+  {
+    return sz == 0;
+  }
+
+  /**
+   * @return the current tick
+   */
+  public long currentTick()
+  {
+    return now;
+  }
+
+  /**
+   * schedules a task to expire delay ticks from now, a delay of 0 expires on the next tick
+   * O(1)
+   *
+   * @param task
+   * @param delay
+   * @return the handle to cancel the timeout with
+   */
+  public Timeout<T> schedule(T task, long delay)
+  {
+    if (delay < 0) throw new IllegalArgumentException("delay cannot be negative; received: " + delay);
+
+    long deadline = delay == 0 ? now + 1 : now + delay;
+    if (deadline < 0) throw new IllegalArgumentException("deadline overflows; received delay: " + delay);
+
+    Timeout<T> timeout = new Timeout<>(task, deadline);
+    link(timeout);
+    sz++;
+
+    return timeout;
+  }
+
+  /**
+   * cancels a pending timeout
+   * O(1)
+   *
+   * @param timeout
+   * @return false if the timeout had already expired or been cancelled
+   */
+  public boolean cancel(Timeout<T> timeout)
+  {
+    if (!timeout.isPending()) return false;
+
+//    a batch mate of the timeout being expired is only flagged, expire skips it
+    if (timeout.level == EXPIRING) timeout.level = -1;
+    else unlink(timeout);
+
+    sz--;
+    return true;
+  }
+
+  /**
+   * moves the current tick forward by ticks, handing every timeout whose deadline is passed
+   * to expired, in deadline order
+   * O(ticks + expired timeouts), an empty wheel jumps straight to the target tick
+   * <p>
+   * if expired throws, the exception stops the wheel at the tick being expired. The timeouts of
+   * that tick which were not handed out yet stay pending and the next advance hands them out first
+   *
+   * @param ticks
+   * @param expired
+   * @return the number of expired timeouts
+   */
+  public int advance(long ticks, Consumer<? super T> expired)
+  {
+    if (ticks < 0) throw new IllegalArgumentException("ticks cannot be negative; received: " + ticks);
+
+    long target = now + ticks;
+
+//    only a callback which threw leaves timeouts in the slot of the current tick
+    int count = slots[0][(int) (now & MASK)] != null ? expire(expired) : 0;
+
+    while (now < target)
+    {
+      if (sz == 0)
+      {
+        now = target;
+        break;
+      }
+
+      now++;
+      cascade();
+      count += expire(expired);
+    }
+
+    return count;
+  }
+
+  /**
+   * moves the timeouts of every higher level slot which starts at the current tick down
+   * starting from the highest level so the cascaded timeouts can cascade further
+   */
+  private void cascade()
+  {
+    int top = 0;
+    while (top + 1 < LEVELS && (now & ((1L << (BITS * (top + 1))) - 1)) == 0) top++;
+
+    for (int level = top; level > 0; level--)
+    {
+      int slot = (int) ((now >>> (BITS * level)) & MASK);
+      Timeout<T> timeout = slots[level][slot];
+      slots[level][slot] = null;
+
+      while (timeout != null)
+      {
+        Timeout<T> next = timeout.next;
+        link(timeout);
+        timeout = next;
+      }
+    }
+  }
+
+  /**
+   * hands out the timeouts of the current level 0 slot
+   *
+   * @param expired
+   * @return
+   */
+  private int expire(Consumer<? super T> expired)
+  {
+    int slot = (int) (now & MASK);
+    Timeout<T> timeout = slots[0][slot];
+    slots[0][slot] = null;
+
+    int count = 0;
+
+//    detach the whole batch first so the callback can schedule freely, and cancel any timeout
+//    including a batch mate which has not been handed out yet
+    for (Timeout<T> t = timeout; t != null; t = t.next) t.level = EXPIRING;
+
+    try
+    {
+      while (timeout != null)
+      {
+        Timeout<T> current = timeout;
+        timeout = current.next;
+        current.prev = current.next = null;
+
+        if (current.level == EXPIRING)
+        {
+          current.level = -1;
+          sz--;
+          count++;
+          expired.accept(current.task);
+        }
+      }
+    }
+    finally
+    {
+//      a callback threw, link the rest of the batch back into the slot in order, dropping the
+//      cancelled ones, so they are still pending and counted in sz
+      Timeout<T> reversed = null;
+      while (timeout != null)
+      {
+        Timeout<T> next = timeout.next;
+        if (timeout.level == EXPIRING)
+        {
+          timeout.next = reversed;
+          reversed = timeout;
+        }
+        timeout = next;
+      }
+
+      while (reversed != null)
+      {
+        Timeout<T> next = reversed.next;
+        link(reversed);
+        reversed = next;
+      }
+    }
+
+    return count;
+  }
+
+  /**
+   * the level is the highest base 64 digit in which the deadline differs from the current tick
+   *
+   * @param timeout
+   */
+  private void link(Timeout<T> timeout)
+  {
+    long diff = timeout.deadline ^ now;
+    int level = diff == 0 ? 0 : (Long.SIZE - 1 - Long.numberOfLeadingZeros(diff)) / BITS;
+    int slot = (int) ((timeout.deadline >>> (BITS * level)) & MASK);
+
+    timeout.level = level;
+    timeout.slot = slot;
+    timeout.prev = null;
+    timeout.next = slots[level][slot];
+
+    if (timeout.next != null) timeout.next.prev = timeout;
+    slots[level][slot] = timeout;
+  }
+
+  private void unlink(Timeout<T> timeout)
+  {
+    if (timeout.prev != null) timeout.prev.next = timeout.next;
+    else slots[timeout.level][timeout.slot] = timeout.next;
+
+    if (timeout.next != null) timeout.next.prev = timeout.prev;
+
+    timeout.prev = timeout.next = null;
+    timeout.level = -1;
+  }
+}
@@ -0,0 +1,44 @@
+package dev.aybarsacar.datastructures.segmenttree;
+
+import java.util.function.LongBinaryOperator;
+
+/**
+ * An associative operation on longs with an identity element, which is what a LongSegmentTree
+ * needs to combine the values of adjacent ranges
+ * combine(a, combine(b, c)) == combine(combine(a, b), c) and combine(identity(), a) == a must hold
+ */
+public interface LongMonoid
+{
+  LongMonoid SUM = of(0L, Long::sum);
+  LongMonoid MIN = of(Long.MAX_VALUE, Math::min);
+  LongMonoid MAX = of(Long.MIN_VALUE, Math::max);
+
+  long identity();
+
+  long combine(long a, long b);
+
+  /**
+   * @param identity the element combine leaves unchanged
+   * @param combine an associative operation
+   * @return the monoid of the two
+   */
+  static LongMonoid of(long identity, LongBinaryOperator combine)
+  {
+    if (combine == null) throw new IllegalArgumentException("combine cannot be null");
+
+    return new LongMonoid()
+    {
+      @Override
+      public long identity()
+      {
+        return identity;
+      }
+
+      @Override
+      public long combine(long a, long b)
+      {
+        return combine.applyAsLong(a, b);
+      }
+    };
+  }
+}
@@ -0,0 +1,129 @@
+package dev.aybarsacar.datastructures.segmenttree;
+
+/**
+ * A family of updates applied lazily to whole ranges of a LongSegmentTree, each update being
+ * encoded as a long
+ * <p>
+ * apply must give the combined value of a range after the update from its combined value before,
+ * which is why it also gets the length of the range, and compose must merge two pending updates
+ * into one, so a range can hold a single pending update however many were applied to it
+ * apply(identity(), value, length) == value must hold
+ */
+public interface LongRangeUpdate
+{
+  /**
+   * adds the update to every element, for LongMonoid.SUM
+   */
+  LongRangeUpdate ADD_TO_SUM = new LongRangeUpdate()
+  {
+    @Override
+    public long identity()
+    {
+      return 0L;
+    }
+
+    @Override
+    public long apply(long update, long value, int length)
+    {
+      return value + update * length;
+    }
+
+    @Override
+    public long compose(long newer, long older)
+    {
+      return newer + older;
+    }
+  };
+
+  /**
+   * adds the update to every element, for LongMonoid.MIN and LongMonoid.MAX
+   */
+  LongRangeUpdate ADD_TO_MIN_MAX = new LongRangeUpdate()
+  {
+    @Override
+    public long identity()
+    {
+      return 0L;
+    }
+
+    @Override
+    public long apply(long update, long value, int length)
+    {
+      return value + update;
+    }
+
+    @Override
+    public long compose(long newer, long older)
+    {
+      return newer + older;
+    }
+  };
+
+  /**
+   * sets every element to the update, for LongMonoid.SUM
+   * Long.MIN_VALUE stands for no assignment, so it cannot be assigned
+   */
+  LongRangeUpdate ASSIGN_TO_SUM = new LongRangeUpdate()
+  {
+    @Override
+    public long identity()
+    {
+      return Long.MIN_VALUE;
+    }
+
+    @Override
+    public long apply(long update, long value, int length)
+    {
+      return update == Long.MIN_VALUE ? value : update * length;
+    }
+
+    @Override
+    public long compose(long newer, long older)
+    {
+      return newer == Long.MIN_VALUE ? older : newer;
+    }
+  };
+
+  /**
+   * sets every element to the update, for LongMonoid.MIN and LongMonoid.MAX
+   * Long.MIN_VALUE stands for no assignment, so it cannot be assigned
+   */
+  LongRangeUpdate ASSIGN_TO_MIN_MAX = new LongRangeUpdate()
+  {
+    @Override
+    public long identity()
+    {
+      return Long.MIN_VALUE;
+    }
+
+    @Override
+    public long apply(long update, long value, int length)
+    {
+      return update == Long.MIN_VALUE ? value : update;
+    }
+
+    @Override
+    public long compose(long newer, long older)
+    {
+      return newer == Long.MIN_VALUE ? older : newer;
+    }
+  };
+
+  /**
+   * @return the update which changes nothing
+   */
+  long identity();
+
+  /**
+   * @param update
+   * @param value the combined value of a range
+   * @param length the number of elements in the range
+   * @return the combined value of the range after the update
+   */
+  long apply(long update, long value, int length);
+
+  /**
+   * @return the single update equivalent to applying older then newer
+   */
+  long compose(long newer, long older);
+}
@@ -0,0 +1,260 @@
+package dev.aybarsacar.datastructures.segmenttree;
+
+import java.util.Arrays;
+
+/**
+ * A Segment Tree over a long array which combines ranges with a pluggable LongMonoid and,
+ * optionally, applies a LongRangeUpdate to whole ranges lazily
+ * <p>
+ * the tree is iterative and stored in flat arrays: for size = the next power of two >= n, node 1
+ * is the root, node k has children 2k and 2k + 1 and the elements are the leaves size + i.
+ * A query or update walks up from both ends of the range at once, touching O(log(n)) nodes and
+ * never recursing.
+ * <p>
+ * a range update is stored as a pending update on the O(log(n)) nodes covering the range and only
+ * pushed down to their children once a later operation needs to go below them
+ * <p>
+ * unlike FenwickTree the indexes are 0 based, ranges are inclusive [lo, hi] like FenwickTree.sum
+ */
+public class LongSegmentTree
+{
+  private final int n, log, size;
+  private final LongMonoid monoid;
+  private final LongRangeUpdate update;
+
+  private final long[] values;        // values[k] combines the range of node k
+  private final long[] pending;       // pending[k] is the update still to push to the children of node k
+
+  /**
+   * a segment tree without range updates
+   * O(n)
+   *
+   * @param values copied into the tree
+   * @param monoid
+   */
+  public LongSegmentTree(long[] values, LongMonoid monoid)
+  {
+    this(values, monoid, null);
+  }
+
+  /**
+   * O(n)
+   *
+   * @param values copied into the tree
+   * @param monoid
+   * @param update applied by rangeUpdate, null if the tree needs no range updates
+   */
+  public LongSegmentTree(long[] values, LongMonoid monoid, LongRangeUpdate update)
+  {
+    if (values == null) throw new IllegalArgumentException("Null values");
+    if (monoid == null) throw new IllegalArgumentException("monoid cannot be null");
+
+    this.n = values.length;
+    this.monoid = monoid;
+    this.update = update;
+
+    int log = 0;
+    while (1 << log < n) log++;
+    this.log = log;
+    this.size = 1 << log;
+
+    this.values = new long[2 * size];
+    Arrays.fill(this.values, monoid.identity());
+    System.arraycopy(values, 0, this.values, size, n);
+    for (int k = size - 1; k >= 1; k--) pull(k);
+
+    if (update == null) pending = null;
+    else
+    {
+      pending = new long[size];
+      Arrays.fill(pending, update.identity());
+    }
+  }
+
+  public int size()
+  {
+    return n;
+  }
+
+  /**
+   * O(log(n))
+   *
+   * @param i index in [0, n)
+   * @return the element at index i
+   */
+  public long get(int i)
+  {
+    indexInBoundsOrThrow(i);
+
+    i += size;
+    pushPath(i);
+    return values[i];
+  }
+
+  /**
+   * sets the element at index i to value
+   * O(log(n))
+   *
+   * @param i index in [0, n)
+   * @param value
+   */
+  public void set(int i, long value)
+  {
+    indexInBoundsOrThrow(i);
+
+    i += size;
+    pushPath(i);
+    values[i] = value;
+    for (int level = 1; level <= log; level++) pull(i >> level);
+  }
+
+  /**
+   * combines the elements in [lo, hi] from left to right
+   * O(log(n))
+   *
+   * @param lo inclusive lower bound
+   * @param hi inclusive upper bound
+   * @return
+   */
+  public long query(int lo, int hi)
+  {
+    rangeInBoundsOrThrow(lo, hi);
+
+//    work on the half open range of leaves [l, r)
+    int l = lo + size, r = hi + 1 + size;
+    pushBoundaries(l, r);
+
+    long left = monoid.identity(), right = monoid.identity();
+    while (l < r)
+    {
+      if ((l & 1) == 1) left = monoid.combine(left, values[l++]);
+      if ((r & 1) == 1) right = monoid.combine(values[--r], right);
+      l >>= 1;
+      r >>= 1;
+    }
+    return monoid.combine(left, right);
+  }
+
+  /**
+   * @return every element combined, O(1)
+   */
+  public long queryAll()
+  {
+    return values[1];
+  }
+
+  /**
+   * applies the update to every element in [lo, hi]
+   * O(log(n))
+   *
+   * @param lo inclusive lower bound
+   * @param hi inclusive upper bound
+   * @param f an update of the LongRangeUpdate given to the constructor
+   */
+  public void rangeUpdate(int lo, int hi, long f)
+  {
+    if (update == null) throw new IllegalStateException("This segment tree was built without a LongRangeUpdate");
+    rangeInBoundsOrThrow(lo, hi);
+
+    int l = lo + size, r = hi + 1 + size;
+    pushBoundaries(l, r);
+
+    for (int a = l, b = r; a < b; a >>= 1, b >>= 1)
+    {
+      if ((a & 1) == 1) applyToNode(a++, f);
+      if ((b & 1) == 1) applyToNode(--b, f);
+    }
+
+//    the nodes above the covering nodes now need their values recombined
+    for (int level = 1; level <= log; level++)
+    {
+      if (((l >> level) << level) != l) pull(l >> level);
+      if (((r >> level) << level) != r) pull((r - 1) >> level);
+    }
+  }
+
+  /* Node helpers */
+
+  /**
+   * recombines node k from its children
+   */
+  private void pull(int k)
+  {
+    values[k] = monoid.combine(values[2 * k], values[2 * k + 1]);
+  }
+
+  /**
+   * @return the number of leaves below node k
+   */
+  private int length(int k)
+  {
+    return size >> (31 - Integer.numberOfLeadingZeros(k));
+  }
+
+  /**
+   * applies f to the value of node k and, unless k is a leaf, stores it for its children
+   */
+  private void applyToNode(int k, long f)
+  {
+    values[k] = update.apply(f, values[k], length(k));
+    if (k < size) pending[k] = update.compose(f, pending[k]);
+  }
+
+  /**
+   * pushes the pending update of node k down to its children
+   */
+  private void push(int k)
+  {
+    long f = pending[k];
+    if (f == update.identity()) return;
+
+    applyToNode(2 * k, f);
+    applyToNode(2 * k + 1, f);
+    pending[k] = update.identity();
+  }
+
+  /**
+   * pushes every pending update on the path from the root down to leaf
+   */
+  private void pushPath(int leaf)
+  {
+    if (pending == null) return;
+    for (int level = log; level >= 1; level--) push(leaf >> level);
+  }
+
+  /**
+   * pushes the pending updates above the two ends of the half open range of leaves [l, r), which
+   * are the only nodes partly inside the range
+   */
+  private void pushBoundaries(int l, int r)
+  {
+    if (pending == null) return;
+
+    for (int level = log; level >= 1; level--)
+    {
+      if (((l >> level) << level) != l) push(l >> level);
+      if (((r >> level) << level) != r) push((r - 1) >> level);
+    }
+  }
+
+  /* Error Helper Functions */
+
+  private void indexInBoundsOrThrow(int i)
+  {
+    if (i < 0 || i >= n) throw new IllegalArgumentException("Index out of bounds; received: " + i);
+  }
+
+  private void rangeInBoundsOrThrow(int lo, int hi)
+  {
+    if (lo < 0 || hi >= n || lo > hi)
+      throw new IllegalArgumentException("Range out of bounds; received: [" + lo + ", " + hi + "]");
+  }
+
+  @Override
+  public String toString()
+  {
+    long[] elements = new long[n];
+    for (int i = 0; i < n; i++) elements[i] = get(i);
+    return Arrays.toString(elements);
+  }
+}
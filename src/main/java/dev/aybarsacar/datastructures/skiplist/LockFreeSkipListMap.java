@@ -0,0 +1,614 @@
+package dev.aybarsacar.datastructures.skiplist;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock free ordered map based on a skip list, safe to share between any number of threads
+ * <p>
+ * Every node is linked into the bottom list and into a random number of express lists above it,
+ * each level skipping about half of the nodes of the level below, so a search is expected to take
+ * O(log(n)) steps.
+ * <p>
+ * No operation ever takes a lock, every change is a single compare and set:
+ * - a node is logically removed by setting its value to null, which is the linearization point of
+ * remove and makes every later get, put and iterator skip it
+ * - then its next references are marked, top level first, so no node can be linked after it anymore
+ * - then any thread passing by unlinks it from the lists with a compare and set on its predecessor
+ * A thread which finds a half removed node finishes the removal before retrying, so a stalled
+ * thread never blocks the others (Herlihy and Shavit's lock free skip list, with the value based
+ * deletion of java.util.concurrent.ConcurrentSkipListMap).
+ * <p>
+ * Every link is an AtomicMarkableReference, which pairs the reference with its mark in an immutable
+ * object, so every successful compare and set on a link allocates. This keeps the algorithm close
+ * to the book, but it makes single threaded updates several times slower than a BinarySearchTree
+ * behind one lock (about 6x in LockFreeSkipListBenchmark). ConcurrentSkipListMap avoids it by
+ * updating plain fields with an AtomicReferenceFieldUpdater and marking a removed node by linking
+ * a marker node after it.
+ * <p>
+ * Iterators are weakly consistent: they never throw ConcurrentModificationException, return every
+ * key present for the whole iteration exactly once, in order, and may or may not return keys
+ * inserted or removed while iterating.
+ * This implementation does not allow null keys or values.
+ *
+ * @param <K> - Key
+ * @param <V> - Value
+ */
+public class LockFreeSkipListMap<K extends Comparable<K>, V> implements Iterable<K>
+{
+  //  enough levels for 2^32 keys
+  private static final int MAX_LEVEL = 32;
+
+  /**
+   * a node linked into levels [0, next.length)
+   * the mark of next[level] means the node is being unlinked from that level
+   */
+  private static final class Node<K, V>
+  {
+    final K key;
+    final AtomicReference<V> value;
+    final AtomicMarkableReference<Node<K, V>>[] next;
+
+    @SuppressWarnings("unchecked")
+    Node(K key, V value, int height)
+    {
+      this.key = key;
+      this.value = new AtomicReference<>(value);
+
+      next = new AtomicMarkableReference[height];
+      for (int level = 0; level < height; level++) next[level] = new AtomicMarkableReference<>(null, false);
+    }
+  }
+
+  //  sentinel with no key, linked into every level
+  private final Node<K, V> head = new Node<>(null, null, MAX_LEVEL);
+
+  //  number of levels in use, searches start from the top one. Raised before a taller node is linked
+  private final AtomicInteger levels = new AtomicInteger(1);
+
+  private final LongAdder count = new LongAdder();
+
+  /**
+   * @return the number of keys, exact when no other thread is modifying the map
+   */
+  public int size()
+  {
+    return count.intValue();
+  }
+
+  public boolean isEmpty()
+  {
+    return firstNode() == null;
+  }
+
+  public boolean containsKey(K key)
+  {
+    return get(key) != null;
+  }
+
+  /**
+   * lock free but not wait free: it never writes or helps unlinking removed nodes, but concurrent
+   * inserts ahead of it can make its traversal arbitrarily long
+   * expected O(log(n))
+   *
+   * @param key
+   * @return the value associated with key or null if key is not in the map
+   */
+  public V get(K key)
+  {
+    keyNotNullOrThrow(key);
+
+    Node<K, V> node = ceilingNode(key, true);
+    return node != null && node.key.compareTo(key) == 0 ? node.value.get() : null;
+  }
+
+  /**
+   * associates value with key, replacing the previous value if the key already exists
+   * expected O(log(n))
+   *
+   * @param key
+   * @param value
+   * @return the previous value or null
+   */
+  @SuppressWarnings("unchecked")
+  public V put(K key, V value)
+  {
+    keyNotNullOrThrow(key);
+    if (value == null) throw new IllegalArgumentException("value cannot be null");
+
+    Node<K, V>[] preds = new Node[MAX_LEVEL], succs = new Node[MAX_LEVEL];
+
+//    raise the levels first so every find walks every level the new node is linked into
+    int height = randomHeight();
+    raiseLevels(height);
+
+    while (true)
+    {
+      Node<K, V> node = find(key, preds, succs);
+
+      if (node != null)
+      {
+        V oldValue = node.value.get();
+        if (oldValue != null && node.value.compareAndSet(oldValue, value)) return oldValue;
+
+//        the node is being removed, finish removing it and insert a new one
+        if (oldValue == null) markNode(node);
+        continue;
+      }
+
+      Node<K, V> inserted = new Node<>(key, value, height);
+      for (int level = 0; level < height; level++) inserted.next[level].set(succs[level], false);
+
+//      the node is in the map once it is linked into the bottom list
+      if (!preds[0].next[0].compareAndSet(succs[0], inserted, false, false)) continue;
+
+      count.increment();
+      linkUpperLevels(inserted, preds, succs);
+      return null;
+    }
+  }
+
+  /**
+   * links an inserted node into its express lists, giving up if it is removed in the meantime
+   */
+  private void linkUpperLevels(Node<K, V> inserted, Node<K, V>[] preds, Node<K, V>[] succs)
+  {
+    int height = inserted.next.length;
+
+    for (int level = 1; level < height; level++)
+    {
+      while (true)
+      {
+        Node<K, V> succ = succs[level];
+        Node<K, V> current = inserted.next[level].getReference();
+
+//        a failed compare and set means the level is marked and the node is being removed
+        if (current != succ && !inserted.next[level].compareAndSet(current, succ, false, false)) return;
+        if (preds[level].next[level].compareAndSet(succ, inserted, false, false)) break;
+
+        if (find(inserted.key, preds, succs) != inserted) return;
+      }
+    }
+  }
+
+  private void raiseLevels(int height)
+  {
+    int current;
+
+//    levels only ever grows, a racing insert may already have raised it
+    while ((current = levels.get()) < height && !levels.compareAndSet(current, height)) ;
+  }
+
+  /**
+   * removes the key and its value from the map
+   * expected O(log(n))
+   *
+   * @param key
+   * @return the removed value or null if the key does not exist
+   */
+  public V remove(K key)
+  {
+    keyNotNullOrThrow(key);
+
+    Node<K, V> node = find(key, null, null);
+    if (node == null) return null;
+
+    while (true)
+    {
+      V oldValue = node.value.get();
+
+//      another thread removed it first
+      if (oldValue == null) return null;
+
+      if (node.value.compareAndSet(oldValue, null))
+      {
+        count.decrement();
+        markNode(node);
+
+//        unlink the node on the way down
+        find(key, null, null);
+        return oldValue;
+      }
+    }
+  }
+
+  /**
+   * marks every next reference of a node whose value is null, top level first
+   * idempotent, any thread may call it to help a removal
+   */
+  private void markNode(Node<K, V> node)
+  {
+    for (int level = node.next.length - 1; level >= 0; level--)
+    {
+      AtomicMarkableReference<Node<K, V>> link = node.next[level];
+      while (!link.isMarked()) link.attemptMark(link.getReference(), true);
+    }
+  }
+
+  /**
+   * descends to key, unlinking every marked node on the way
+   * fills preds and succs with the last node before key and the first node at or after key
+   * on every level in use when they are not null. The levels above are left alone: an insert
+   * raises levels to the height of its node before calling find, so it never links a node on a
+   * level this search did not walk
+   * a marked reference never changes again, so reading the mark then the reference is consistent
+   *
+   * @return the bottom level node with key, which may be being removed, or null
+   */
+  private Node<K, V> find(K key, Node<K, V>[] preds, Node<K, V>[] succs)
+  {
+    retry:
+    while (true)
+    {
+      int top = levels.get() - 1;
+      Node<K, V> pred = head, curr = null;
+
+      for (int level = top; level >= 0; level--)
+      {
+        curr = pred.next[level].getReference();
+
+        while (curr != null)
+        {
+          AtomicMarkableReference<Node<K, V>> link = curr.next[level];
+
+          if (link.isMarked())
+          {
+//            a concurrent change to pred means our view of this level is stale, start over
+            Node<K, V> succ = link.getReference();
+            if (!pred.next[level].compareAndSet(curr, succ, false, false)) continue retry;
+            curr = succ;
+            continue;
+          }
+
+          if (curr.key.compareTo(key) >= 0) break;
+
+          pred = curr;
+          curr = link.getReference();
+        }
+
+        if (preds != null)
+        {
+          preds[level] = pred;
+          succs[level] = curr;
+        }
+      }
+
+      return curr != null && curr.key.compareTo(key) == 0 ? curr : null;
+    }
+  }
+
+  /**
+   * @return a random height in [1, MAX_LEVEL] with P(height > h) = 1 / 2^h
+   */
+  private static int randomHeight()
+  {
+    return Math.min(MAX_LEVEL, 1 + Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt()));
+  }
+
+  /* Ordered queries */
+
+  /**
+   * @return the smallest key in the map
+   */
+  public K firstKey()
+  {
+    return keyOrThrow(firstNode());
+  }
+
+  /**
+   * @return the greatest key in the map
+   */
+  public K lastKey()
+  {
+    return keyOrThrow(floorNode(null, true));
+  }
+
+  /**
+   * @param key
+   * @return the greatest key <= key or null if there is no such key
+   */
+  public K floorKey(K key)
+  {
+    keyNotNullOrThrow(key);
+    return keyOrNull(floorNode(key, true));
+  }
+
+  /**
+   * @param key
+   * @return the smallest key >= key or null if there is no such key
+   */
+  public K ceilingKey(K key)
+  {
+    keyNotNullOrThrow(key);
+    return keyOrNull(ceilingNode(key, true));
+  }
+
+  /**
+   * @param key
+   * @return the greatest key < key or null if there is no such key
+   */
+  public K lowerKey(K key)
+  {
+    keyNotNullOrThrow(key);
+    return keyOrNull(floorNode(key, false));
+  }
+
+  /**
+   * @param key
+   * @return the smallest key > key or null if there is no such key
+   */
+  public K higherKey(K key)
+  {
+    keyNotNullOrThrow(key);
+    return keyOrNull(ceilingNode(key, false));
+  }
+
+  private Node<K, V> firstNode()
+  {
+    return liveFrom(head.next[0].getReference());
+  }
+
+  /**
+   * @param node
+   * @return the first node from node onwards on the bottom level which is not removed
+   */
+  private Node<K, V> liveFrom(Node<K, V> node)
+  {
+    while (node != null && node.value.get() == null) node = node.next[0].getReference();
+    return node;
+  }
+
+  /**
+   * marked nodes are stepped over but never become the predecessor, like in find
+   *
+   * @param key       null for no bound
+   * @param inclusive
+   * @return the first live node with a key >= key (> key if not inclusive)
+   */
+  private Node<K, V> ceilingNode(K key, boolean inclusive)
+  {
+    if (key == null) return firstNode();
+
+    Node<K, V> pred = head, curr = null;
+
+    for (int level = levels.get() - 1; level >= 0; level--)
+    {
+      curr = pred.next[level].getReference();
+
+      while (curr != null)
+      {
+        AtomicMarkableReference<Node<K, V>> link = curr.next[level];
+
+        if (!link.isMarked())
+        {
+          int comparison = curr.key.compareTo(key);
+          if (comparison > 0 || (comparison == 0 && inclusive)) break;
+
+          pred = curr;
+        }
+        curr = link.getReference();
+      }
+    }
+
+    return liveFrom(curr);
+  }
+
+  /**
+   * there are no back links, so when the greatest node <= key is being removed
+   * the search is repeated for the keys below it
+   *
+   * @param key       null for no bound
+   * @param inclusive
+   * @return the last live node with a key <= key (< key if not inclusive)
+   */
+  private Node<K, V> floorNode(K key, boolean inclusive)
+  {
+    while (true)
+    {
+      Node<K, V> pred = head;
+
+      for (int level = levels.get() - 1; level >= 0; level--)
+      {
+        Node<K, V> curr = pred.next[level].getReference();
+
+        while (curr != null)
+        {
+          AtomicMarkableReference<Node<K, V>> link = curr.next[level];
+
+          if (!link.isMarked())
+          {
+            if (key != null)
+            {
+              int comparison = curr.key.compareTo(key);
+              if (comparison > 0 || (comparison == 0 && !inclusive)) break;
+            }
+
+            pred = curr;
+          }
+          curr = link.getReference();
+        }
+      }
+
+      if (pred == head || pred.value.get() != null) return pred == head ? null : pred;
+
+      key = pred.key;
+      inclusive = false;
+    }
+  }
+
+  /**
+   * @return a weakly consistent iterator over the keys in ascending order
+   */
+  @Override
+  public Iterator<K> iterator()
+  {
+    return rangeIterator(null, null);
+  }
+
+  /**
+   * weakly consistent iterator over the keys in [lo, hi] in ascending order
+   *
+   * @param lo inclusive lower bound, null for no lower bound
+   * @param hi inclusive upper bound, null for no upper bound
+   * @return
+   */
+  public Iterator<K> rangeIterator(K lo, K hi)
+  {
+    EntryIterator entries = new EntryIterator(lo, hi);
+
+    return new Iterator<>()
+    {
+      @Override
+      public boolean hasNext()
+      {
+        return entries.hasNext();
+      }
+
+      @Override
+      public K next()
+      {
+        return entries.nextNode().key;
+      }
+
+      @Override
+      public void remove()
+      {
+        entries.remove();
+      }
+    };
+  }
+
+  /**
+   * weakly consistent iterator over the entries with keys in [lo, hi] in ascending order
+   * each entry is a snapshot of the value seen while iterating
+   *
+   * @param lo inclusive lower bound, null for no lower bound
+   * @param hi inclusive upper bound, null for no upper bound
+   * @return
+   */
+  public Iterator<Map.Entry<K, V>> entryIterator(K lo, K hi)
+  {
+    return new EntryIterator(lo, hi);
+  }
+
+  /**
+   * walks the bottom list, reading the value of the next node ahead so a node removed after
+   * hasNext() still returns the entry hasNext() promised
+   */
+  private class EntryIterator implements Iterator<Map.Entry<K, V>>
+  {
+    private final K hi;
+
+    private Node<K, V> next;
+    private V nextValue;
+    private K lastReturned;
+
+    EntryIterator(K lo, K hi)
+    {
+      this.hi = hi;
+      advance(ceilingNode(lo, true));
+    }
+
+    private void advance(Node<K, V> node)
+    {
+      while (node != null)
+      {
+        if (hi != null && node.key.compareTo(hi) > 0) break;
+
+        V value = node.value.get();
+        if (value != null)
+        {
+          next = node;
+          nextValue = value;
+          return;
+        }
+        node = node.next[0].getReference();
+      }
+
+      next = null;
+      nextValue = null;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+      return next != null;
+    }
+
+    Node<K, V> nextNode()
+    {
+      if (next == null) throw new NoSuchElementException();
+
+      Node<K, V> node = next;
+      lastReturned = node.key;
+      advance(node.next[0].getReference());
+      return node;
+    }
+
+    @Override
+    public Map.Entry<K, V> next()
+    {
+      V value = nextValue;
+      Node<K, V> node = nextNode();
+      return new AbstractMap.SimpleImmutableEntry<>(node.key, value);
+    }
+
+    @Override
+    public void remove()
+    {
+      if (lastReturned == null) throw new IllegalStateException();
+
+      LockFreeSkipListMap.this.remove(lastReturned);
+      lastReturned = null;
+    }
+  }
+
+  /* Error Helper Functions */
+
+  private void keyNotNullOrThrow(K key)
+  {
+    if (key == null) throw new IllegalArgumentException("key cannot be null");
+  }
+
+  private K keyOrThrow(Node<K, V> node)
+  {
+    if (node == null) throw new NoSuchElementException("Map is empty");
+    return node.key;
+  }
+
+  private K keyOrNull(Node<K, V> node)
+  {
+    return node == null ? null : node.key;
+  }
+
+  /* Test functions */
+
+  /**
+   * checks that every level, removed nodes included, holds its keys in increasing order
+   * this method is for testing purposes, call it when no other thread is modifying the map
+   *
+   * @return
+   */
+  public boolean isSortedOnEveryLevel()
+  {
+    for (int level = 0; level < MAX_LEVEL; level++)
+    {
+      Node<K, V> node = head.next[level].getReference();
+      if (node != null && level >= levels.get()) return false;
+
+      for (; node != null; node = node.next[level].getReference())
+      {
+        Node<K, V> next = node.next[level].getReference();
+        if (next != null && node.key.compareTo(next.key) >= 0) return false;
+      }
+    }
+    return true;
+  }
+}
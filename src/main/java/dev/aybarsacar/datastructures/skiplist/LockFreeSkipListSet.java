@@ -0,0 +1,113 @@
+package dev.aybarsacar.datastructures.skiplist;
+
+import java.util.Iterator;
+
+/**
+ * A lock free ordered set backed by a LockFreeSkipListMap, safe to share between any number of threads
+ * iterators are weakly consistent, this implementation does not allow null elements
+ *
+ * @param <T>
+ */
+public class LockFreeSkipListSet<T extends Comparable<T>> implements Iterable<T>
+{
+  private final LockFreeSkipListMap<T, Boolean> map = new LockFreeSkipListMap<>();
+
+  /**
+   * @return the number of elements, exact when no other thread is modifying the set
+   */
+  public int size()
+  {
+    return map.size();
+  }
+
+  public boolean isEmpty()
+  {
+    return map.isEmpty();
+  }
+
+  public boolean contains(T elem)
+  {
+    return map.containsKey(elem);
+  }
+
+  /**
+   * @param elem
+   * @return true if the element was not in the set before
+   */
+  public boolean add(T elem)
+  {
+    return map.put(elem, Boolean.TRUE) == null;
+  }
+
+  /**
+   * @param elem
+   * @return true if the element was in the set
+   */
+  public boolean remove(T elem)
+  {
+    return map.remove(elem) != null;
+  }
+
+  public T first()
+  {
+    return map.firstKey();
+  }
+
+  public T last()
+  {
+    return map.lastKey();
+  }
+
+  /**
+   * @return the greatest element <= elem or null if there is no such element
+   */
+  public T floor(T elem)
+  {
+    return map.floorKey(elem);
+  }
+
+  /**
+   * @return the smallest element >= elem or null if there is no such element
+   */
+  public T ceiling(T elem)
+  {
+    return map.ceilingKey(elem);
+  }
+
+  /**
+   * @return the greatest element < elem or null if there is no such element
+   */
+  public T lower(T elem)
+  {
+    return map.lowerKey(elem);
+  }
+
+  /**
+   * @return the smallest element > elem or null if there is no such element
+   */
+  public T higher(T elem)
+  {
+    return map.higherKey(elem);
+  }
+
+  /**
+   * @return a weakly consistent iterator over the elements in ascending order
+   */
+  @Override
+  public Iterator<T> iterator()
+  {
+    return map.iterator();
+  }
+
+  /**
+   * weakly consistent iterator over the elements in [lo, hi] in ascending order
+   *
+   * @param lo inclusive lower bound, null for no lower bound
+   * @param hi inclusive upper bound, null for no upper bound
+   * @return
+   */
+  public Iterator<T> rangeIterator(T lo, T hi)
+  {
+    return map.rangeIterator(lo, hi);
+  }
+}
@@ -1,6 +1,898 @@
 package dev.aybarsacar.datastructures.trees.balancedtrees;
 
-public class AVLTree
+import dev.aybarsacar.datastructures.trees.utils.TreePrinter;
+import dev.aybarsacar.datastructures.trees.utils.TreeTraversalOrder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ * AVL Tree implementation of an ordered map
+ * An AVL tree is a self balancing Binary Search Tree where the heights of the two child subtrees
+ * of any node differ by at most one, so the height of the tree is at most ~1.44 log(n)
+ * <p>
+ * insert and remove are iterative: the path from the root is recorded in a reusable array and
+ * the tree is rebalanced bottom up along that path, so skewed input can never overflow the stack
+ * and no memory other than the new node is allocated
+ * <p>
+ * every node also stores the size of its subtree, maintained by the rotations, which answers
+ * rank, select and countRange in O(log(n))
+ * this implementation does not allow null keys
+ *
+ * @param <K> - Key
+ * @param <V> - Value
+ */
+@SuppressWarnings("unchecked")
+public class AVLTree<K extends Comparable<K>, V> implements Iterable<K>
 {
-//  TODO
+  //  an AVL tree of 2^31 nodes is at most 45 levels high
+  private static final int MAX_DEPTH = 64;
+
+  /**
+   * Node class that stores the key value pair
+   * the height is stored in a byte since it can never exceed MAX_DEPTH
+   */
+  private static final class Node<K, V> implements TreePrinter.PrintableNode
+  {
+    K key;
+    V value;
+    Node<K, V> left, right;
+    byte height = 1;                  // height of the subtree rooted at this node, a leaf has height 1
+    int size = 1;                     // number of nodes in the subtree rooted at this node
+
+    Node(K key, V value)
+    {
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public TreePrinter.PrintableNode getLeft()
+    {
+      return left;
+    }
+
+    @Override
+    public TreePrinter.PrintableNode getRight()
+    {
+      return right;
+    }
+
+    @Override
+    public String getText()
+    {
+      return key.toString();
+    }
+  }
+
+  private Node<K, V> root;
+  private int nodeCount;
+  private int modificationCount;
+
+  //  the path from the root to the node being inserted or removed, reused by every operation
+  private final Node<K, V>[] path = new Node[MAX_DEPTH];
+
+  public int size()
+  {
+    return nodeCount;
+  }
+
+  public boolean isEmpty()
+  {
+    return nodeCount == 0;
+  }
+
+  /**
+   * @return the height of the tree, 0 for an empty tree
+   */
+  public int height()
+  {
+    return height(root);
+  }
+
+  public void clear()
+  {
+    root = null;
+    nodeCount = 0;
+    modificationCount++;
+  }
+
+  /* Bulk construction */
+
+  /**
+   * builds a perfectly balanced AVLTree from strictly increasing keys, where putting them
+   * one by one would rotate on almost every put
+   * O(n)
+   *
+   * @param keys   strictly increasing keys
+   * @param values values[i] is associated with keys[i]
+   * @return
+   */
+  public static <K extends Comparable<K>, V> AVLTree<K, V> fromSorted(K[] keys, V[] values)
+  {
+    if (keys.length != values.length)
+      throw new IllegalArgumentException("keys and values must have the same length");
+
+    return fromSorted(Arrays.asList(keys), Arrays.asList(values));
+  }
+
+  /**
+   * the entries are buffered first, the tree needs their count before it can pick the root
+   * O(n)
+   *
+   * @param entries in strictly increasing order of key
+   * @return
+   */
+  public static <K extends Comparable<K>, V> AVLTree<K, V> fromSorted(Iterator<? extends Map.Entry<K, V>> entries)
+  {
+    List<K> keys = new ArrayList<>();
+    List<V> values = new ArrayList<>();
+
+    entries.forEachRemaining(entry ->
+    {
+      keys.add(entry.getKey());
+      values.add(entry.getValue());
+    });
+    return fromSorted(keys, values);
+  }
+
+  private static <K extends Comparable<K>, V> AVLTree<K, V> fromSorted(List<K> keys, List<V> values)
+  {
+    AVLTree<K, V> tree = new AVLTree<>();
+
+    for (int i = 0; i < keys.size(); i++)
+    {
+      tree.keyNotNullOrThrow(keys.get(i));
+      if (i > 0 && keys.get(i).compareTo(keys.get(i - 1)) <= 0)
+        throw new IllegalArgumentException("keys must be strictly increasing; at index: " + i);
+    }
+
+    tree.root = tree.buildFromSorted(keys.iterator(), values.iterator(), 0, keys.size() - 1);
+    tree.nodeCount = keys.size();
+    return tree;
+  }
+
+  /**
+   * builds the subtree of the entries ranked [lo, hi] taking them in order, the middle entry
+   * becomes the root after its left subtree has consumed the smaller ones
+   * the halves differ by at most one entry so their heights differ by at most one, which is
+   * all the AVL invariant asks for, and the recursion is O(log(n)) deep
+   *
+   * @return the root of the subtree, null if lo > hi
+   */
+  private Node<K, V> buildFromSorted(Iterator<K> keys, Iterator<V> values, int lo, int hi)
+  {
+    if (lo > hi) return null;
+
+    int mid = (lo + hi) >>> 1;
+    Node<K, V> left = buildFromSorted(keys, values, lo, mid - 1);
+
+    Node<K, V> node = new Node<>(keys.next(), values.next());
+    node.left = left;
+    node.right = buildFromSorted(keys, values, mid + 1, hi);
+    update(node);
+
+    return node;
+  }
+
+  public boolean containsKey(K key)
+  {
+    return getNode(key) != null;
+  }
+
+  /**
+   * @param key
+   * @return the value associated with key or null if key is not in the tree
+   */
+  public V get(K key)
+  {
+    Node<K, V> node = getNode(key);
+    return node == null ? null : node.value;
+  }
+
+  private Node<K, V> getNode(K key)
+  {
+    keyNotNullOrThrow(key);
+
+    Node<K, V> node = root;
+    while (node != null)
+    {
+      int comparison = key.compareTo(node.key);
+      if (comparison == 0) return node;
+      node = comparison < 0 ? node.left : node.right;
+    }
+    return null;
+  }
+
+  /**
+   * associates value with key, replacing the previous value if the key already exists
+   * O(log(n))
+   *
+   * @param key
+   * @param value
+   * @return the previous value or null
+   */
+  public V put(K key, V value)
+  {
+    keyNotNullOrThrow(key);
+
+    if (root == null)
+    {
+      root = new Node<>(key, value);
+      nodeCount++;
+      modificationCount++;
+      return null;
+    }
+
+    int depth = 0;
+    Node<K, V> node = root;
+
+//    walk down recording the path until the key is found or a free spot is reached
+    while (true)
+    {
+      path[depth++] = node;
+
+      int comparison = key.compareTo(node.key);
+      if (comparison == 0)
+      {
+        V oldValue = node.value;
+        node.value = value;
+        return oldValue;
+      }
+
+      Node<K, V> next = comparison < 0 ? node.left : node.right;
+      if (next == null)
+      {
+        if (comparison < 0) node.left = new Node<>(key, value);
+        else node.right = new Node<>(key, value);
+        break;
+      }
+      node = next;
+    }
+
+//    every node on the path gains a descendant, rotations below recompute their own sizes
+    for (int i = 0; i < depth; i++) path[i].size++;
+
+    nodeCount++;
+    modificationCount++;
+    rebalancePath(depth);
+
+    return null;
+  }
+
+  /**
+   * removes the key and its value from the tree
+   * O(log(n))
+   *
+   * @param key
+   * @return the removed value or null if the key does not exist
+   */
+  public V remove(K key)
+  {
+    keyNotNullOrThrow(key);
+
+    int depth = 0;
+    Node<K, V> node = root;
+
+    while (node != null)
+    {
+      path[depth++] = node;
+
+      int comparison = key.compareTo(node.key);
+      if (comparison == 0) break;
+      node = comparison < 0 ? node.left : node.right;
+    }
+
+    if (node == null) return null;
+
+    V oldValue = node.value;
+
+//    a node with two children takes over the entry of its successor,
+//    which is then removed instead since it has no left child
+    if (node.left != null && node.right != null)
+    {
+      Node<K, V> successor = node.right;
+      path[depth++] = successor;
+
+      while (successor.left != null)
+      {
+        successor = successor.left;
+        path[depth++] = successor;
+      }
+
+      node.key = successor.key;
+      node.value = successor.value;
+      node = successor;
+    }
+
+//    node now has at most one child which takes its place
+    Node<K, V> child = node.left != null ? node.left : node.right;
+    depth--;
+    replaceChild(depth - 1, node, child);
+    path[depth] = null;
+
+    for (int i = 0; i < depth; i++) path[i].size--;
+
+    nodeCount--;
+    modificationCount++;
+    rebalancePath(depth);
+
+    return oldValue;
+  }
+
+  /**
+   * updates the heights and rotates the nodes path[depth - 1] ... path[0] bottom up
+   * stops early as soon as a subtree keeps its height since nothing above it can change
+   * the sizes along the path must already be adjusted by the caller
+   *
+   * @param depth
+   */
+  private void rebalancePath(int depth)
+  {
+    for (int i = depth - 1; i >= 0; i--)
+    {
+      Node<K, V> node = path[i];
+      int oldHeight = node.height;
+
+      Node<K, V> balanced = balance(node);
+      if (balanced != node) replaceChild(i - 1, node, balanced);
+
+      if (balanced.height == oldHeight) break;
+    }
+
+//    do not hold on to removed nodes
+    for (int i = 0; i < depth; i++) path[i] = null;
+  }
+
+  /**
+   * replaces the child oldChild of path[parentIndex] with newChild
+   * a negative parentIndex means oldChild is the root
+   */
+  private void replaceChild(int parentIndex, Node<K, V> oldChild, Node<K, V> newChild)
+  {
+    if (parentIndex < 0)
+    {
+      root = newChild;
+      return;
+    }
+
+    Node<K, V> parent = path[parentIndex];
+    if (parent.left == oldChild) parent.left = newChild;
+    else parent.right = newChild;
+  }
+
+  /**
+   * restores the AVL invariant at node assuming both its subtrees are valid AVL trees
+   * whose heights differ by at most 2
+   *
+   * @param node
+   * @return the new root of the subtree
+   */
+  private Node<K, V> balance(Node<K, V> node)
+  {
+    update(node);
+    int bf = balanceFactor(node);
+
+//    left heavy
+    if (bf > 1)
+    {
+      if (balanceFactor(node.left) < 0) node.left = rotateLeft(node.left);
+      return rotateRight(node);
+    }
+
+//    right heavy
+    if (bf < -1)
+    {
+      if (balanceFactor(node.right) > 0) node.right = rotateRight(node.right);
+      return rotateLeft(node);
+    }
+
+    return node;
+  }
+
+  private Node<K, V> rotateRight(Node<K, V> node)
+  {
+    Node<K, V> left = node.left;
+    node.left = left.right;
+    left.right = node;
+
+    update(node);
+    update(left);
+
+    return left;
+  }
+
+  private Node<K, V> rotateLeft(Node<K, V> node)
+  {
+    Node<K, V> right = node.right;
+    node.right = right.left;
+    right.left = node;
+
+    update(node);
+    update(right);
+
+    return right;
+  }
+
+  private void update(Node<K, V> node)
+  {
+    node.height = (byte) (1 + Math.max(height(node.left), height(node.right)));
+    node.size = 1 + size(node.left) + size(node.right);
+  }
+
+  private int balanceFactor(Node<K, V> node)
+  {
+    return height(node.left) - height(node.right);
+  }
+
+  private static int height(Node<?, ?> node)
+  {
+    return node == null ? 0 : node.height;
+  }
+
+  private static int size(Node<?, ?> node)
+  {
+    return node == null ? 0 : node.size;
+  }
+
+  /* Ordered queries */
+
+  /**
+   * @return the smallest key in the tree
+   */
+  public K firstKey()
+  {
+    isNotEmptyOrThrow();
+
+    Node<K, V> node = root;
+    while (node.left != null) node = node.left;
+    return node.key;
+  }
+
+  /**
+   * @return the greatest key in the tree
+   */
+  public K lastKey()
+  {
+    isNotEmptyOrThrow();
+
+    Node<K, V> node = root;
+    while (node.right != null) node = node.right;
+    return node.key;
+  }
+
+  /**
+   * @param key
+   * @return the greatest key <= key or null if there is no such key
+   */
+  public K floorKey(K key)
+  {
+    keyNotNullOrThrow(key);
+
+    Node<K, V> node = root, floor = null;
+    while (node != null)
+    {
+      int comparison = key.compareTo(node.key);
+      if (comparison == 0) return node.key;
+
+      if (comparison < 0) node = node.left;
+      else
+      {
+        floor = node;
+        node = node.right;
+      }
+    }
+    return floor == null ? null : floor.key;
+  }
+
+  /**
+   * @param key
+   * @return the smallest key >= key or null if there is no such key
+   */
+  public K ceilingKey(K key)
+  {
+    keyNotNullOrThrow(key);
+
+    Node<K, V> node = root, ceiling = null;
+    while (node != null)
+    {
+      int comparison = key.compareTo(node.key);
+      if (comparison == 0) return node.key;
+
+      if (comparison > 0) node = node.right;
+      else
+      {
+        ceiling = node;
+        node = node.left;
+      }
+    }
+    return ceiling == null ? null : ceiling.key;
+  }
+
+  /* Order statistics */
+
+  /**
+   * number of keys in the tree strictly less than key
+   * O(log(n))
+   *
+   * @param key does not need to be in the tree
+   * @return
+   */
+  public int rank(K key)
+  {
+    keyNotNullOrThrow(key);
+    return rank(key, false);
+  }
+
+  /**
+   * @param key
+   * @param inclusive whether to count key itself when it is in the tree
+   * @return the number of keys < key (<= key if inclusive)
+   */
+  private int rank(K key, boolean inclusive)
+  {
+    int rank = 0;
+    Node<K, V> node = root;
+
+    while (node != null)
+    {
+      int comparison = key.compareTo(node.key);
+
+      if (comparison < 0) node = node.left;
+      else if (comparison > 0 || inclusive)
+      {
+        rank += size(node.left) + 1;
+        if (comparison == 0) break;
+        node = node.right;
+      }
+      else
+      {
+        rank += size(node.left);
+        break;
+      }
+    }
+    return rank;
+  }
+
+  /**
+   * the key with the given rank, rank 0 being the smallest key
+   * O(log(n))
+   *
+   * @param rank in [0, size)
+   * @return
+   */
+  public K select(int rank)
+  {
+    rankInBoundsOrThrow(rank, nodeCount - 1);
+
+    Node<K, V> node = root;
+    while (true)
+    {
+      int leftSize = size(node.left);
+
+      if (rank < leftSize) node = node.left;
+      else if (rank > leftSize)
+      {
+        rank -= leftSize + 1;
+        node = node.right;
+      }
+      else return node.key;
+    }
+  }
+
+  /**
+   * number of keys in [lo, hi]
+   * O(log(n))
+   *
+   * @param lo inclusive lower bound
+   * @param hi inclusive upper bound
+   * @return
+   */
+  public int countRange(K lo, K hi)
+  {
+    keyNotNullOrThrow(lo);
+    keyNotNullOrThrow(hi);
+
+    if (lo.compareTo(hi) > 0) return 0;
+    return rank(hi, true) - rank(lo, false);
+  }
+
+  /**
+   * iterates the keys in ascending order starting with the key of the given rank
+   * O(log(n) + k) for k keys
+   *
+   * @param rank in [0, size], rank == size gives an empty iterator
+   * @return
+   */
+  public Iterator<K> iteratorFromRank(int rank)
+  {
+    rankInBoundsOrThrow(rank, nodeCount);
+
+    InOrderIterator iterator = new InOrderIterator(null);
+
+//    push the path to the node of the given rank, keeping only the nodes we go left from
+    Node<K, V> node = root;
+    while (node != null)
+    {
+      int leftSize = size(node.left);
+
+      if (rank > leftSize)
+      {
+        rank -= leftSize + 1;
+        node = node.right;
+      }
+      else
+      {
+        iterator.stack[iterator.top++] = node;
+        if (rank == leftSize) break;
+        node = node.left;
+      }
+    }
+    return iterator;
+  }
+
+  /**
+   * iterates the keys in [lo, hi] in ascending order
+   * O(log(n) + k) for k keys in the range
+   *
+   * @param lo inclusive lower bound, null for no lower bound
+   * @param hi inclusive upper bound, null for no upper bound
+   * @return
+   */
+  public Iterator<K> rangeIterator(K lo, K hi)
+  {
+    return new InOrderIterator(lo, hi);
+  }
+
+  /**
+   * @return an iterator over the keys in ascending order
+   */
+  @Override
+  public Iterator<K> iterator()
+  {
+    return new InOrderIterator(null, null);
+  }
+
+  /**
+   * in order iterator over the keys in [lo, hi] using a fixed size array as its stack
+   */
+  private class InOrderIterator implements Iterator<K>
+  {
+    private final int expectedModificationCount = modificationCount;
+    private final Node<K, V>[] stack = new Node[MAX_DEPTH];
+    private int top;
+    private final K hi;
+
+    InOrderIterator(K hi)
+    {
+      this.hi = hi;
+    }
+
+    InOrderIterator(K lo, K hi)
+    {
+      this(hi);
+
+//      push the path to the first key >= lo
+      Node<K, V> node = root;
+      while (node != null)
+      {
+        if (lo != null && node.key.compareTo(lo) < 0) node = node.right;
+        else
+        {
+          stack[top++] = node;
+          node = node.left;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+      if (expectedModificationCount != modificationCount) throw new ConcurrentModificationException();
+      return top > 0 && (hi == null || stack[top - 1].key.compareTo(hi) <= 0);
+    }
+
+    @Override
+    public K next()
+    {
+      if (!hasNext()) throw new NoSuchElementException();
+
+      Node<K, V> node = stack[--top];
+      for (Node<K, V> next = node.right; next != null; next = next.left) stack[top++] = next;
+
+      return node.key;
+    }
+  }
+
+  /**
+   * this methods returns an iterator over the keys for a given TreeTraversalOrder
+   *
+   * @param order - Tree Traversal
+   * @return - Iterator
+   */
+  public Iterator<K> traverse(TreeTraversalOrder order)
+  {
+    switch (order)
+    {
+      case PRE_ORDER:
+        return preOrderTraversal();
+      case IN_ORDER:
+        return iterator();
+      case POST_ORDER:
+        return postOrderTraversal();
+      case LEVEL_ORDER:
+        return levelOrderTraversal();
+      default:
+        return null;
+    }
+  }
+
+  private Iterator<K> preOrderTraversal()
+  {
+    final int expectedModificationCount = modificationCount;
+    final Node<K, V>[] stack = new Node[MAX_DEPTH + 1];
+
+    return new Iterator<>()
+    {
+      int top;
+
+      {
+        if (root != null) stack[top++] = root;
+      }
+
+      @Override
+      public boolean hasNext()
+      {
+        if (expectedModificationCount != modificationCount) throw new ConcurrentModificationException();
+        return top > 0;
+      }
+
+      @Override
+      public K next()
+      {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        Node<K, V> node = stack[--top];
+        if (node.right != null) stack[top++] = node.right;
+        if (node.left != null) stack[top++] = node.left;
+
+        return node.key;
+      }
+    };
+  }
+
+  private Iterator<K> postOrderTraversal()
+  {
+    final int expectedModificationCount = modificationCount;
+    final Node<K, V>[] stack = new Node[MAX_DEPTH];
+
+    return new Iterator<>()
+    {
+      int top = pushLeftmostLeafPath(root, 0);
+
+      @Override
+      public boolean hasNext()
+      {
+        if (expectedModificationCount != modificationCount) throw new ConcurrentModificationException();
+        return top > 0;
+      }
+
+      @Override
+      public K next()
+      {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        Node<K, V> node = stack[--top];
+
+//        when node is the left child of its parent the right subtree of the parent comes next
+        if (top > 0 && stack[top - 1].left == node) top = pushLeftmostLeafPath(stack[top - 1].right, top);
+
+        return node.key;
+      }
+
+      /**
+       * pushes the path to the first node in post order of the subtree rooted at node
+       */
+      private int pushLeftmostLeafPath(Node<K, V> node, int top)
+      {
+        while (node != null)
+        {
+          stack[top++] = node;
+          node = node.left != null ? node.left : node.right;
+        }
+        return top;
+      }
+    };
+  }
+
+  private Iterator<K> levelOrderTraversal()
+  {
+    final int expectedModificationCount = modificationCount;
+    final Queue<Node<K, V>> queue = new ArrayDeque<>();
+    if (root != null) queue.offer(root);
+
+    return new Iterator<>()
+    {
+      @Override
+      public boolean hasNext()
+      {
+        if (expectedModificationCount != modificationCount) throw new ConcurrentModificationException();
+        return !queue.isEmpty();
+      }
+
+      @Override
+      public K next()
+      {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        Node<K, V> node = queue.poll();
+        if (node.left != null) queue.offer(node.left);
+        if (node.right != null) queue.offer(node.right);
+
+        return node.key;
+      }
+    };
+  }
+
+  /* Error Helper Functions */
+
+  private void keyNotNullOrThrow(K key)
+  {
+    if (key == null) throw new IllegalArgumentException("key cannot be null");
+  }
+
+  private void isNotEmptyOrThrow()
+  {
+    if (isEmpty()) throw new NoSuchElementException("Tree is empty");
+  }
+
+  private void rankInBoundsOrThrow(int rank, int max)
+  {
+    if (rank < 0 || rank > max) throw new IllegalArgumentException("Rank out of bounds; received: " + rank);
+  }
+
+  /* Test functions */
+
+  /**
+   * checks the ordering, heights, sizes and balance of every node
+   * this method is for testing purposes to make sure rotations after insertions and removals
+   * do NOT violate the AVL invariant
+   *
+   * @return
+   */
+  public boolean isValidAVL()
+  {
+    return isValidAVL(root, null, null) && countNodes(root) == nodeCount;
+  }
+
+  private boolean isValidAVL(Node<K, V> node, K lo, K hi)
+  {
+    if (node == null) return true;
+
+    if (lo != null && node.key.compareTo(lo) <= 0) return false;
+    if (hi != null && node.key.compareTo(hi) >= 0) return false;
+    if (node.height != 1 + Math.max(height(node.left), height(node.right))) return false;
+    if (node.size != 1 + size(node.left) + size(node.right)) return false;
+    if (Math.abs(balanceFactor(node)) > 1) return false;
+
+    return isValidAVL(node.left, lo, node.key) && isValidAVL(node.right, node.key, hi);
+  }
+
+  private int countNodes(Node<K, V> node)
+  {
+    return node == null ? 0 : 1 + countNodes(node.left) + countNodes(node.right);
+  }
+
+  @Override
+  public String toString()
+  {
+    return TreePrinter.getTreeDisplay(root);
+  }
 }
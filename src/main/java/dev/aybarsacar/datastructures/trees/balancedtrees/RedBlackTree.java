@@ -1,6 +1,1285 @@
 package dev.aybarsacar.datastructures.trees.balancedtrees;
 
-public class RedBlackTree
+import dev.aybarsacar.datastructures.trees.utils.TreePrinter;
+import dev.aybarsacar.datastructures.trees.utils.TreeTraversalOrder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ * Red Black Tree implementation of an ordered map
+ * A Red Black Tree is a self balancing Binary Search Tree where every node is either red or black,
+ * a red node never has a red child and every path from a node down to a leaf goes through the same
+ * number of black nodes, so the height of the tree is at most 2 log(n)
+ * <p>
+ * Compared to an AVLTree the balance is looser, so lookups are slightly deeper but an insertion
+ * does at most 2 rotations and a removal at most 3, which favours write heavy workloads.
+ * <p>
+ * Nodes keep a pointer to their parent, which makes every operation iterative and lets iterators
+ * walk the tree without a stack.
+ * Every node also stores the size of its subtree, maintained by the rotations, which answers
+ * rank, select and countRange in O(log(n)) and lets range views count their keys without a scan.
+ * headMap, tailMap and subMap return live views of a range of keys backed by this tree.
+ * this implementation does not allow null keys
+ *
+ * @param <K> - Key
+ * @param <V> - Value
+ */
+public class RedBlackTree<K extends Comparable<K>, V> implements Iterable<K>
 {
-//  TODO
+  private static final boolean RED = true;
+  private static final boolean BLACK = false;
+
+  /**
+   * Node class that stores the key value pair and the colour of the node
+   */
+  private static final class Node<K, V> implements TreePrinter.PrintableNode
+  {
+    K key;
+    V value;
+    Node<K, V> left, right, parent;
+    boolean color = RED;
+    int size = 1;                     // number of nodes in the subtree rooted at this node
+
+    Node(K key, V value, Node<K, V> parent)
+    {
+      this.key = key;
+      this.value = value;
+      this.parent = parent;
+    }
+
+    @Override
+    public TreePrinter.PrintableNode getLeft()
+    {
+      return left;
+    }
+
+    @Override
+    public TreePrinter.PrintableNode getRight()
+    {
+      return right;
+    }
+
+    @Override
+    public String getText()
+    {
+      return key.toString();
+    }
+  }
+
+  private Node<K, V> root;
+  private int nodeCount;
+  private int modificationCount;
+
+  public int size()
+  {
+    return nodeCount;
+  }
+
+  public boolean isEmpty()
+  {
+    return nodeCount == 0;
+  }
+
+  public void clear()
+  {
+    root = null;
+    nodeCount = 0;
+    modificationCount++;
+  }
+
+  /* Bulk construction */
+
+  /**
+   * builds a balanced RedBlackTree from strictly increasing keys, where putting them
+   * one by one would rebalance on almost every put
+   * O(n)
+   *
+   * @param keys   strictly increasing keys
+   * @param values values[i] is associated with keys[i]
+   * @return
+   */
+  public static <K extends Comparable<K>, V> RedBlackTree<K, V> fromSorted(K[] keys, V[] values)
+  {
+    if (keys.length != values.length)
+      throw new IllegalArgumentException("keys and values must have the same length");
+
+    return fromSorted(Arrays.asList(keys), Arrays.asList(values));
+  }
+
+  /**
+   * the entries are buffered first, the tree needs their count before it can pick the root
+   * O(n)
+   *
+   * @param entries in strictly increasing order of key
+   * @return
+   */
+  public static <K extends Comparable<K>, V> RedBlackTree<K, V> fromSorted(Iterator<? extends Map.Entry<K, V>> entries)
+  {
+    List<K> keys = new ArrayList<>();
+    List<V> values = new ArrayList<>();
+
+    entries.forEachRemaining(entry ->
+    {
+      keys.add(entry.getKey());
+      values.add(entry.getValue());
+    });
+    return fromSorted(keys, values);
+  }
+
+  private static <K extends Comparable<K>, V> RedBlackTree<K, V> fromSorted(List<K> keys, List<V> values)
+  {
+    RedBlackTree<K, V> tree = new RedBlackTree<>();
+
+    for (int i = 0; i < keys.size(); i++)
+    {
+      tree.keyNotNullOrThrow(keys.get(i));
+      if (i > 0 && keys.get(i).compareTo(keys.get(i - 1)) <= 0)
+        throw new IllegalArgumentException("keys must be strictly increasing; at index: " + i);
+    }
+
+//    a perfect tree of black nodes, plus the nodes of an incomplete last level coloured red
+    int redLevel = 0;
+    for (int m = keys.size() - 1; m >= 0; m = m / 2 - 1) redLevel++;
+
+    tree.root = tree.buildFromSorted(keys.iterator(), values.iterator(), 0, keys.size() - 1, 0, redLevel, null);
+    tree.nodeCount = keys.size();
+    return tree;
+  }
+
+  /**
+   * builds the subtree of the entries ranked [lo, hi] taking them in order, the middle entry
+   * becomes the root after its left subtree has consumed the smaller ones
+   * every path down to the last complete level has the same number of black nodes, so only the
+   * nodes below it, at redLevel, are red and none of them has a child
+   *
+   * @param level the depth of the subtree root, 0 for the root of the tree
+   * @return the root of the subtree, null if lo > hi
+   */
+  private Node<K, V> buildFromSorted(Iterator<K> keys, Iterator<V> values, int lo, int hi,
+                                     int level, int redLevel, Node<K, V> parent)
+  {
+    if (lo > hi) return null;
+
+    int mid = (lo + hi) >>> 1;
+    Node<K, V> left = buildFromSorted(keys, values, lo, mid - 1, level + 1, redLevel, null);
+
+    Node<K, V> node = new Node<>(keys.next(), values.next(), parent);
+    node.color = level == redLevel ? RED : BLACK;
+    node.size = hi - lo + 1;
+    node.left = left;
+    if (left != null) left.parent = node;
+    node.right = buildFromSorted(keys, values, mid + 1, hi, level + 1, redLevel, node);
+
+    return node;
+  }
+
+  /**
+   * @return the height of the tree, 0 for an empty tree
+   */
+  public int height()
+  {
+    int height = 0;
+    Queue<Node<K, V>> level = new ArrayDeque<>();
+    if (root != null) level.offer(root);
+
+    while (!level.isEmpty())
+    {
+      height++;
+      for (int i = level.size(); i > 0; i--)
+      {
+        Node<K, V> node = level.poll();
+        if (node.left != null) level.offer(node.left);
+        if (node.right != null) level.offer(node.right);
+      }
+    }
+    return height;
+  }
+
+  public boolean containsKey(K key)
+  {
+    return getNode(key) != null;
+  }
+
+  /**
+   * @param key
+   * @return the value associated with key or null if key is not in the tree
+   */
+  public V get(K key)
+  {
+    Node<K, V> node = getNode(key);
+    return node == null ? null : node.value;
+  }
+
+  private Node<K, V> getNode(K key)
+  {
+    keyNotNullOrThrow(key);
+
+    Node<K, V> node = root;
+    while (node != null)
+    {
+      int comparison = key.compareTo(node.key);
+      if (comparison == 0) return node;
+      node = comparison < 0 ? node.left : node.right;
+    }
+    return null;
+  }
+
+  /**
+   * associates value with key, replacing the previous value if the key already exists
+   * O(log(n))
+   *
+   * @param key
+   * @param value
+   * @return the previous value or null
+   */
+  public V put(K key, V value)
+  {
+    keyNotNullOrThrow(key);
+
+    if (root == null)
+    {
+      root = new Node<>(key, value, null);
+      root.color = BLACK;
+      nodeCount++;
+      modificationCount++;
+      return null;
+    }
+
+    Node<K, V> node = root, parent;
+    int comparison;
+
+    do
+    {
+      parent = node;
+      comparison = key.compareTo(node.key);
+
+      if (comparison == 0)
+      {
+        V oldValue = node.value;
+        node.value = value;
+        return oldValue;
+      }
+
+      node = comparison < 0 ? node.left : node.right;
+    }
+    while (node != null);
+
+    Node<K, V> inserted = new Node<>(key, value, parent);
+    if (comparison < 0) parent.left = inserted;
+    else parent.right = inserted;
+
+//    every ancestor gains a descendant, the rotations below keep the sizes consistent
+    for (Node<K, V> ancestor = parent; ancestor != null; ancestor = ancestor.parent) ancestor.size++;
+
+    fixAfterInsertion(inserted);
+
+    nodeCount++;
+    modificationCount++;
+    return null;
+  }
+
+  /**
+   * removes the key and its value from the tree
+   * O(log(n))
+   *
+   * @param key
+   * @return the removed value or null if the key does not exist
+   */
+  public V remove(K key)
+  {
+    Node<K, V> node = getNode(key);
+    if (node == null) return null;
+
+    V oldValue = node.value;
+    deleteNode(node);
+    return oldValue;
+  }
+
+  private void deleteNode(Node<K, V> node)
+  {
+    nodeCount--;
+    modificationCount++;
+
+//    a node with two children takes over the entry of its successor,
+//    which is then removed instead since it has no left child
+    if (node.left != null && node.right != null)
+    {
+      Node<K, V> successor = successor(node);
+      node.key = successor.key;
+      node.value = successor.value;
+      node = successor;
+    }
+
+    for (Node<K, V> ancestor = node.parent; ancestor != null; ancestor = ancestor.parent) ancestor.size--;
+
+    Node<K, V> replacement = node.left != null ? node.left : node.right;
+
+    if (replacement != null)
+    {
+      replacement.parent = node.parent;
+      replaceChild(node, replacement);
+      node.left = node.right = node.parent = null;
+
+//      the replacement of a removed black node is red, painting it black restores the black height
+      if (node.color == BLACK) fixAfterDeletion(replacement);
+    }
+    else if (node.parent == null)
+    {
+      root = null;
+    }
+    else
+    {
+//      a leaf is fixed up while it is still in the tree, acting as the phantom replacement
+//      it no longer counts towards the sizes of the subtrees rotated around it
+      node.size = 0;
+      if (node.color == BLACK) fixAfterDeletion(node);
+
+      replaceChild(node, null);
+      node.parent = null;
+    }
+  }
+
+  private void replaceChild(Node<K, V> node, Node<K, V> child)
+  {
+    if (node.parent == null) root = child;
+    else if (node == node.parent.left) node.parent.left = child;
+    else node.parent.right = child;
+  }
+
+  /**
+   * restores the red black invariants after inserting the red node x
+   * at most 2 rotations
+   *
+   * @param x
+   */
+  private void fixAfterInsertion(Node<K, V> x)
+  {
+    while (x != root && colorOf(parentOf(x)) == RED)
+    {
+      Node<K, V> parent = parentOf(x), grandparent = parentOf(parent);
+
+      if (parent == leftOf(grandparent))
+      {
+        Node<K, V> uncle = rightOf(grandparent);
+
+        if (colorOf(uncle) == RED)
+        {
+//          recolour and move the violation two levels up
+          setColor(parent, BLACK);
+          setColor(uncle, BLACK);
+          setColor(grandparent, RED);
+          x = grandparent;
+        }
+        else
+        {
+          if (x == rightOf(parent))
+          {
+            x = parent;
+            rotateLeft(x);
+          }
+          setColor(parentOf(x), BLACK);
+          setColor(parentOf(parentOf(x)), RED);
+          rotateRight(parentOf(parentOf(x)));
+        }
+      }
+      else
+      {
+        Node<K, V> uncle = leftOf(grandparent);
+
+        if (colorOf(uncle) == RED)
+        {
+          setColor(parent, BLACK);
+          setColor(uncle, BLACK);
+          setColor(grandparent, RED);
+          x = grandparent;
+        }
+        else
+        {
+          if (x == leftOf(parent))
+          {
+            x = parent;
+            rotateRight(x);
+          }
+          setColor(parentOf(x), BLACK);
+          setColor(parentOf(parentOf(x)), RED);
+          rotateLeft(parentOf(parentOf(x)));
+        }
+      }
+    }
+
+    root.color = BLACK;
+  }
+
+  /**
+   * restores the black height after removing a black node, x carries the extra black
+   * at most 3 rotations
+   *
+   * @param x
+   */
+  private void fixAfterDeletion(Node<K, V> x)
+  {
+    while (x != root && colorOf(x) == BLACK)
+    {
+      if (x == leftOf(parentOf(x)))
+      {
+        Node<K, V> sibling = rightOf(parentOf(x));
+
+        if (colorOf(sibling) == RED)
+        {
+          setColor(sibling, BLACK);
+          setColor(parentOf(x), RED);
+          rotateLeft(parentOf(x));
+          sibling = rightOf(parentOf(x));
+        }
+
+        if (colorOf(leftOf(sibling)) == BLACK && colorOf(rightOf(sibling)) == BLACK)
+        {
+          setColor(sibling, RED);
+          x = parentOf(x);
+        }
+        else
+        {
+          if (colorOf(rightOf(sibling)) == BLACK)
+          {
+            setColor(leftOf(sibling), BLACK);
+            setColor(sibling, RED);
+            rotateRight(sibling);
+            sibling = rightOf(parentOf(x));
+          }
+          setColor(sibling, colorOf(parentOf(x)));
+          setColor(parentOf(x), BLACK);
+          setColor(rightOf(sibling), BLACK);
+          rotateLeft(parentOf(x));
+          x = root;
+        }
+      }
+      else
+      {
+        Node<K, V> sibling = leftOf(parentOf(x));
+
+        if (colorOf(sibling) == RED)
+        {
+          setColor(sibling, BLACK);
+          setColor(parentOf(x), RED);
+          rotateRight(parentOf(x));
+          sibling = leftOf(parentOf(x));
+        }
+
+        if (colorOf(rightOf(sibling)) == BLACK && colorOf(leftOf(sibling)) == BLACK)
+        {
+          setColor(sibling, RED);
+          x = parentOf(x);
+        }
+        else
+        {
+          if (colorOf(leftOf(sibling)) == BLACK)
+          {
+            setColor(rightOf(sibling), BLACK);
+            setColor(sibling, RED);
+            rotateLeft(sibling);
+            sibling = leftOf(parentOf(x));
+          }
+          setColor(sibling, colorOf(parentOf(x)));
+          setColor(parentOf(x), BLACK);
+          setColor(leftOf(sibling), BLACK);
+          rotateRight(parentOf(x));
+          x = root;
+        }
+      }
+    }
+
+    setColor(x, BLACK);
+  }
+
+  private void rotateLeft(Node<K, V> node)
+  {
+    Node<K, V> right = node.right;
+
+    node.right = right.left;
+    if (right.left != null) right.left.parent = node;
+
+    right.parent = node.parent;
+    replaceChild(node, right);
+
+    right.left = node;
+    node.parent = right;
+
+    right.size = node.size;
+    node.size = 1 + sizeOf(node.left) + sizeOf(node.right);
+  }
+
+  private void rotateRight(Node<K, V> node)
+  {
+    Node<K, V> left = node.left;
+
+    node.left = left.right;
+    if (left.right != null) left.right.parent = node;
+
+    left.parent = node.parent;
+    replaceChild(node, left);
+
+    left.right = node;
+    node.parent = left;
+
+    left.size = node.size;
+    node.size = 1 + sizeOf(node.left) + sizeOf(node.right);
+  }
+
+  /*
+   * null safe accessors, a missing node is a black leaf
+   */
+
+  private static <K, V> boolean colorOf(Node<K, V> node)
+  {
+    return node == null ? BLACK : node.color;
+  }
+
+  private static <K, V> int sizeOf(Node<K, V> node)
+  {
+    return node == null ? 0 : node.size;
+  }
+
+  private static <K, V> Node<K, V> parentOf(Node<K, V> node)
+  {
+    return node == null ? null : node.parent;
+  }
+
+  private static <K, V> void setColor(Node<K, V> node, boolean color)
+  {
+    if (node != null) node.color = color;
+  }
+
+  private static <K, V> Node<K, V> leftOf(Node<K, V> node)
+  {
+    return node == null ? null : node.left;
+  }
+
+  private static <K, V> Node<K, V> rightOf(Node<K, V> node)
+  {
+    return node == null ? null : node.right;
+  }
+
+  /**
+   * @param node
+   * @return the node with the next greater key or null
+   */
+  private static <K, V> Node<K, V> successor(Node<K, V> node)
+  {
+    if (node.right != null)
+    {
+      node = node.right;
+      while (node.left != null) node = node.left;
+      return node;
+    }
+
+    Node<K, V> parent = node.parent;
+    while (parent != null && node == parent.right)
+    {
+      node = parent;
+      parent = parent.parent;
+    }
+    return parent;
+  }
+
+  /**
+   * @param node
+   * @return the node with the next smaller key or null
+   */
+  private static <K, V> Node<K, V> predecessor(Node<K, V> node)
+  {
+    if (node.left != null)
+    {
+      node = node.left;
+      while (node.right != null) node = node.right;
+      return node;
+    }
+
+    Node<K, V> parent = node.parent;
+    while (parent != null && node == parent.left)
+    {
+      node = parent;
+      parent = parent.parent;
+    }
+    return parent;
+  }
+
+  /* Ordered queries */
+
+  /**
+   * @return the smallest key in the tree
+   */
+  public K firstKey()
+  {
+    return keyOrThrow(firstNode());
+  }
+
+  /**
+   * @return the greatest key in the tree
+   */
+  public K lastKey()
+  {
+    return keyOrThrow(lastNode());
+  }
+
+  /**
+   * @param key
+   * @return the greatest key <= key or null if there is no such key
+   */
+  public K floorKey(K key)
+  {
+    return keyOrNull(floorNode(key, true));
+  }
+
+  /**
+   * @param key
+   * @return the smallest key >= key or null if there is no such key
+   */
+  public K ceilingKey(K key)
+  {
+    return keyOrNull(ceilingNode(key, true));
+  }
+
+  /**
+   * @param key
+   * @return the greatest key < key or null if there is no such key
+   */
+  public K lowerKey(K key)
+  {
+    return keyOrNull(floorNode(key, false));
+  }
+
+  /**
+   * @param key
+   * @return the smallest key > key or null if there is no such key
+   */
+  public K higherKey(K key)
+  {
+    return keyOrNull(ceilingNode(key, false));
+  }
+
+  private Node<K, V> firstNode()
+  {
+    Node<K, V> node = root;
+    if (node != null) while (node.left != null) node = node.left;
+    return node;
+  }
+
+  private Node<K, V> lastNode()
+  {
+    Node<K, V> node = root;
+    if (node != null) while (node.right != null) node = node.right;
+    return node;
+  }
+
+  /**
+   * @param key
+   * @param inclusive
+   * @return the node with the greatest key <= key (< key if not inclusive)
+   */
+  private Node<K, V> floorNode(K key, boolean inclusive)
+  {
+    keyNotNullOrThrow(key);
+
+    Node<K, V> node = root, floor = null;
+    while (node != null)
+    {
+      int comparison = key.compareTo(node.key);
+      if (comparison == 0 && inclusive) return node;
+
+      if (comparison <= 0) node = node.left;
+      else
+      {
+        floor = node;
+        node = node.right;
+      }
+    }
+    return floor;
+  }
+
+  /**
+   * @param key
+   * @param inclusive
+   * @return the node with the smallest key >= key (> key if not inclusive)
+   */
+  private Node<K, V> ceilingNode(K key, boolean inclusive)
+  {
+    keyNotNullOrThrow(key);
+
+    Node<K, V> node = root, ceiling = null;
+    while (node != null)
+    {
+      int comparison = key.compareTo(node.key);
+      if (comparison == 0 && inclusive) return node;
+
+      if (comparison >= 0) node = node.right;
+      else
+      {
+        ceiling = node;
+        node = node.left;
+      }
+    }
+    return ceiling;
+  }
+
+  /* Order statistics */
+
+  /**
+   * number of keys in the tree strictly less than key
+   * O(log(n))
+   *
+   * @param key does not need to be in the tree
+   * @return
+   */
+  public int rank(K key)
+  {
+    keyNotNullOrThrow(key);
+    return rank(key, false);
+  }
+
+  /**
+   * @param key
+   * @param inclusive whether to count key itself when it is in the tree
+   * @return the number of keys < key (<= key if inclusive)
+   */
+  private int rank(K key, boolean inclusive)
+  {
+    int rank = 0;
+    Node<K, V> node = root;
+
+    while (node != null)
+    {
+      int comparison = key.compareTo(node.key);
+
+      if (comparison < 0) node = node.left;
+      else if (comparison > 0 || inclusive)
+      {
+        rank += sizeOf(node.left) + 1;
+        if (comparison == 0) break;
+        node = node.right;
+      }
+      else
+      {
+        rank += sizeOf(node.left);
+        break;
+      }
+    }
+    return rank;
+  }
+
+  /**
+   * the key with the given rank, rank 0 being the smallest key
+   * O(log(n))
+   *
+   * @param rank in [0, size)
+   * @return
+   */
+  public K select(int rank)
+  {
+    rankInBoundsOrThrow(rank, nodeCount - 1);
+    return selectNode(rank).key;
+  }
+
+  /**
+   * @param rank
+   * @return the node with the given rank or null if rank == size
+   */
+  private Node<K, V> selectNode(int rank)
+  {
+    Node<K, V> node = root;
+    while (node != null)
+    {
+      int leftSize = sizeOf(node.left);
+
+      if (rank < leftSize) node = node.left;
+      else if (rank > leftSize)
+      {
+        rank -= leftSize + 1;
+        node = node.right;
+      }
+      else return node;
+    }
+    return null;
+  }
+
+  /**
+   * number of keys in [lo, hi]
+   * O(log(n))
+   *
+   * @param lo inclusive lower bound
+   * @param hi inclusive upper bound
+   * @return
+   */
+  public int countRange(K lo, K hi)
+  {
+    keyNotNullOrThrow(lo);
+    keyNotNullOrThrow(hi);
+
+    if (lo.compareTo(hi) > 0) return 0;
+    return rank(hi, true) - rank(lo, false);
+  }
+
+  /**
+   * iterates the keys in ascending order starting with the key of the given rank
+   * O(log(n)) to find the first key then amortised O(1) per key
+   *
+   * @param rank in [0, size], rank == size gives an empty iterator
+   * @return
+   */
+  public Iterator<K> iteratorFromRank(int rank)
+  {
+    rankInBoundsOrThrow(rank, nodeCount);
+    return new KeyIterator(selectNode(rank), null);
+  }
+
+  /* Range views */
+
+  /**
+   * @param toKey exclusive upper bound
+   * @return a live view of the keys < toKey
+   */
+  public RangeView headMap(K toKey)
+  {
+    keyNotNullOrThrow(toKey);
+    return new RangeView(null, false, toKey, false);
+  }
+
+  /**
+   * @param fromKey inclusive lower bound
+   * @return a live view of the keys >= fromKey
+   */
+  public RangeView tailMap(K fromKey)
+  {
+    keyNotNullOrThrow(fromKey);
+    return new RangeView(fromKey, true, null, false);
+  }
+
+  /**
+   * @param fromKey inclusive lower bound
+   * @param toKey   exclusive upper bound
+   * @return a live view of the keys in [fromKey, toKey)
+   */
+  public RangeView subMap(K fromKey, K toKey)
+  {
+    return subMap(fromKey, true, toKey, false);
+  }
+
+  /**
+   * @param fromKey
+   * @param fromInclusive
+   * @param toKey
+   * @param toInclusive
+   * @return a live view of the keys between fromKey and toKey
+   */
+  public RangeView subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive)
+  {
+    keyNotNullOrThrow(fromKey);
+    keyNotNullOrThrow(toKey);
+    if (fromKey.compareTo(toKey) > 0) throw new IllegalArgumentException("fromKey > toKey");
+
+    return new RangeView(fromKey, fromInclusive, toKey, toInclusive);
+  }
+
+  /**
+   * A live view of the keys of the tree within a range, a null bound means unbounded
+   * reads and writes go straight to the tree, writing a key outside the range throws
+   */
+  public class RangeView implements Iterable<K>
+  {
+    private final K lo, hi;
+    private final boolean loInclusive, hiInclusive;
+
+    private RangeView(K lo, boolean loInclusive, K hi, boolean hiInclusive)
+    {
+      this.lo = lo;
+      this.hi = hi;
+      this.loInclusive = loInclusive;
+      this.hiInclusive = hiInclusive;
+    }
+
+    public boolean inRange(K key)
+    {
+      if (lo != null)
+      {
+        int comparison = key.compareTo(lo);
+        if (comparison < 0 || (comparison == 0 && !loInclusive)) return false;
+      }
+      if (hi != null)
+      {
+        int comparison = key.compareTo(hi);
+        if (comparison > 0 || (comparison == 0 && !hiInclusive)) return false;
+      }
+      return true;
+    }
+
+    public V get(K key)
+    {
+      return inRange(key) ? RedBlackTree.this.get(key) : null;
+    }
+
+    public boolean containsKey(K key)
+    {
+      return inRange(key) && RedBlackTree.this.containsKey(key);
+    }
+
+    public V put(K key, V value)
+    {
+      keyNotNullOrThrow(key);
+      if (!inRange(key)) throw new IllegalArgumentException("key out of range; received: " + key);
+      return RedBlackTree.this.put(key, value);
+    }
+
+    public V remove(K key)
+    {
+      return inRange(key) ? RedBlackTree.this.remove(key) : null;
+    }
+
+    /**
+     * counts the keys in the range from the subtree sizes
+     * O(log(n))
+     *
+     * @return
+     */
+    public int size()
+    {
+      int below = lo == null ? 0 : rank(lo, !loInclusive);
+      int upTo = hi == null ? nodeCount : rank(hi, hiInclusive);
+      return Math.max(0, upTo - below);
+    }
+
+    public boolean isEmpty()
+    {
+      Node<K, V> first = first();
+      return first == null || tooHigh(first.key);
+    }
+
+    public K firstKey()
+    {
+      Node<K, V> first = first();
+      if (first == null || tooHigh(first.key)) throw new NoSuchElementException("Range is empty");
+      return first.key;
+    }
+
+    public K lastKey()
+    {
+      Node<K, V> last = hi == null ? lastNode() : floorNode(hi, hiInclusive);
+      if (last == null || tooLow(last.key)) throw new NoSuchElementException("Range is empty");
+      return last.key;
+    }
+
+    /**
+     * @return an iterator over the keys of the range in ascending order
+     */
+    @Override
+    public Iterator<K> iterator()
+    {
+      return new KeyIterator(first(), this);
+    }
+
+    private Node<K, V> first()
+    {
+      return lo == null ? firstNode() : ceilingNode(lo, loInclusive);
+    }
+
+    private boolean tooLow(K key)
+    {
+      if (lo == null) return false;
+      int comparison = key.compareTo(lo);
+      return comparison < 0 || (comparison == 0 && !loInclusive);
+    }
+
+    private boolean tooHigh(K key)
+    {
+      if (hi == null) return false;
+      int comparison = key.compareTo(hi);
+      return comparison > 0 || (comparison == 0 && !hiInclusive);
+    }
+  }
+
+  /**
+   * @return an iterator over the keys in ascending order
+   */
+  @Override
+  public Iterator<K> iterator()
+  {
+    return new KeyIterator(firstNode(), null);
+  }
+
+  /**
+   * @return an iterator over the keys in descending order
+   */
+  public Iterator<K> descendingIterator()
+  {
+    final int expectedModificationCount = modificationCount;
+
+    return new Iterator<>()
+    {
+      Node<K, V> next = lastNode();
+
+      @Override
+      public boolean hasNext()
+      {
+        if (expectedModificationCount != modificationCount) throw new ConcurrentModificationException();
+        return next != null;
+      }
+
+      @Override
+      public K next()
+      {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        Node<K, V> node = next;
+        next = predecessor(node);
+        return node.key;
+      }
+    };
+  }
+
+  /**
+   * in order iterator following successor links, optionally stopping at the end of a range
+   */
+  private class KeyIterator implements Iterator<K>
+  {
+    private final int expectedModificationCount = modificationCount;
+    private final RangeView range;
+    private Node<K, V> next;
+
+    KeyIterator(Node<K, V> first, RangeView range)
+    {
+      this.range = range;
+      next = first;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+      if (expectedModificationCount != modificationCount) throw new ConcurrentModificationException();
+      return next != null && (range == null || !range.tooHigh(next.key));
+    }
+
+    @Override
+    public K next()
+    {
+      if (!hasNext()) throw new NoSuchElementException();
+
+      Node<K, V> node = next;
+      next = successor(node);
+      return node.key;
+    }
+  }
+
+  /**
+   * this methods returns an iterator over the keys for a given TreeTraversalOrder
+   * pre, in and post order follow the parent pointers and need no stack
+   *
+   * @param order - Tree Traversal
+   * @return - Iterator
+   */
+  public Iterator<K> traverse(TreeTraversalOrder order)
+  {
+    switch (order)
+    {
+      case PRE_ORDER:
+        return preOrderTraversal();
+      case IN_ORDER:
+        return iterator();
+      case POST_ORDER:
+        return postOrderTraversal();
+      case LEVEL_ORDER:
+        return levelOrderTraversal();
+      default:
+        return null;
+    }
+  }
+
+  private Iterator<K> preOrderTraversal()
+  {
+    final int expectedModificationCount = modificationCount;
+
+    return new Iterator<>()
+    {
+      Node<K, V> next = root;
+
+      @Override
+      public boolean hasNext()
+      {
+        if (expectedModificationCount != modificationCount) throw new ConcurrentModificationException();
+        return next != null;
+      }
+
+      @Override
+      public K next()
+      {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        Node<K, V> node = next;
+
+        if (node.left != null) next = node.left;
+        else if (node.right != null) next = node.right;
+        else
+        {
+//          climb until we come up from a left child whose parent has a right subtree
+          Node<K, V> child = node, parent = node.parent;
+          while (parent != null && (child == parent.right || parent.right == null))
+          {
+            child = parent;
+            parent = parent.parent;
+          }
+          next = parent == null ? null : parent.right;
+        }
+
+        return node.key;
+      }
+    };
+  }
+
+  private Iterator<K> postOrderTraversal()
+  {
+    final int expectedModificationCount = modificationCount;
+
+    return new Iterator<>()
+    {
+      Node<K, V> next = firstPostOrder(root);
+
+      @Override
+      public boolean hasNext()
+      {
+        if (expectedModificationCount != modificationCount) throw new ConcurrentModificationException();
+        return next != null;
+      }
+
+      @Override
+      public K next()
+      {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        Node<K, V> node = next, parent = node.parent;
+
+//        after a left child comes the right subtree of the parent, otherwise the parent itself
+        if (parent != null && node == parent.left && parent.right != null) next = firstPostOrder(parent.right);
+        else next = parent;
+
+        return node.key;
+      }
+    };
+  }
+
+  /**
+   * @param node
+   * @return the first node in post order of the subtree rooted at node
+   */
+  private static <K, V> Node<K, V> firstPostOrder(Node<K, V> node)
+  {
+    if (node == null) return null;
+
+    while (node.left != null || node.right != null) node = node.left != null ? node.left : node.right;
+    return node;
+  }
+
+  private Iterator<K> levelOrderTraversal()
+  {
+    final int expectedModificationCount = modificationCount;
+    final Queue<Node<K, V>> queue = new ArrayDeque<>();
+    if (root != null) queue.offer(root);
+
+    return new Iterator<>()
+    {
+      @Override
+      public boolean hasNext()
+      {
+        if (expectedModificationCount != modificationCount) throw new ConcurrentModificationException();
+        return !queue.isEmpty();
+      }
+
+      @Override
+      public K next()
+      {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        Node<K, V> node = queue.poll();
+        if (node.left != null) queue.offer(node.left);
+        if (node.right != null) queue.offer(node.right);
+
+        return node.key;
+      }
+    };
+  }
+
+  /* Error Helper Functions */
+
+  private void keyNotNullOrThrow(K key)
+  {
+    if (key == null) throw new IllegalArgumentException("key cannot be null");
+  }
+
+  private void rankInBoundsOrThrow(int rank, int max)
+  {
+    if (rank < 0 || rank > max) throw new IllegalArgumentException("Rank out of bounds; received: " + rank);
+  }
+
+  private K keyOrThrow(Node<K, V> node)
+  {
+    if (node == null) throw new NoSuchElementException("Tree is empty");
+    return node.key;
+  }
+
+  private K keyOrNull(Node<K, V> node)
+  {
+    return node == null ? null : node.key;
+  }
+
+  /* Test functions */
+
+  /**
+   * checks the ordering, parent pointers, sizes and colours of every node
+   * this method is for testing purposes to make sure rotations after insertions and removals
+   * do NOT violate the red black invariants
+   *
+   * @return
+   */
+  public boolean isValidRedBlack()
+  {
+    if (colorOf(root) == RED) return false;
+    if (root != null && root.parent != null) return false;
+    return blackHeight(root, null, null) != -1 && countNodes(root) == nodeCount;
+  }
+
+  /**
+   * @return the black height of the subtree or -1 if it is invalid
+   */
+  private int blackHeight(Node<K, V> node, K lo, K hi)
+  {
+    if (node == null) return 1;
+
+    if (lo != null && node.key.compareTo(lo) <= 0) return -1;
+    if (hi != null && node.key.compareTo(hi) >= 0) return -1;
+    if (node.left != null && node.left.parent != node) return -1;
+    if (node.right != null && node.right.parent != node) return -1;
+    if (node.color == RED && (colorOf(node.left) == RED || colorOf(node.right) == RED)) return -1;
+    if (node.size != 1 + sizeOf(node.left) + sizeOf(node.right)) return -1;
+
+    int left = blackHeight(node.left, lo, node.key);
+    int right = blackHeight(node.right, node.key, hi);
+    if (left == -1 || right == -1 || left != right) return -1;
+
+    return left + (node.color == BLACK ? 1 : 0);
+  }
+
+  private int countNodes(Node<K, V> node)
+  {
+    return node == null ? 0 : 1 + countNodes(node.left) + countNodes(node.right);
+  }
+
+  @Override
+  public String toString()
+  {
+    return TreePrinter.getTreeDisplay(root);
+  }
 }
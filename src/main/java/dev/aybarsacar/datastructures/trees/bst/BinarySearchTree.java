@@ -11,6 +11,13 @@ import java.util.*;
  * where the smaller value is stored as the left child of the parent
  * and the greater value is stored as the right child of the parent
  * this implementation does not allow duplicate values
+ * <p>
+ * every operation is iterative so a degenerate tree built from sorted input cannot overflow the
+ * stack, and nodes keep a pointer to their parent so the pre, in and post order iterators walk
+ * the tree without allocating a stack
+ * <p>
+ * every node also stores the size of its subtree, which answers the order statistic queries
+ * rank, select and countRange in O(h) instead of a full traversal
  */
 public class BinarySearchTree<T extends Comparable<T>>
 {
@@ -22,10 +29,18 @@ public class BinarySearchTree<T extends Comparable<T>>
   {
     public T value;                 // the value, data contained within node
     public Node left, right;        // the left and right children of this node
+    public Node parent;             // the parent of this node, null for the root
+    public int size = 1;            // number of nodes in the subtree rooted at this node
 
     public Node(T value)
+    {
+      this(value, null);
+    }
+
+    public Node(T value, Node parent)
     {
       this.value = value;
+      this.parent = parent;
       left = null;
       right = null;
     }
@@ -95,28 +110,34 @@ public class BinarySearchTree<T extends Comparable<T>>
    */
   public boolean contains(T value)
   {
-    return contains(root, value);
+    return findNode(value) != null;
   }
 
   /**
-   * @param current
+   * walks down from the root to the node holding value
+   *
    * @param value
-   * @return
+   * @return the node or null if value is not in the tree
    */
-  private boolean contains(Node current, T value)
+  private Node findNode(T value)
   {
-    if (current == null) return false;
+    Node current = root;
 
-    int comparison = value.compareTo(current.value);
+    while (current != null)
+    {
+      int comparison = value.compareTo(current.value);
 
-    if (comparison < 0) return contains(current.left, value);
-    if (comparison > 0) return contains(current.right, value);
+      if (comparison < 0) current = current.left;
+      else if (comparison > 0) current = current.right;
+      else return current;
+    }
 
-    return true;
+    return null;
   }
 
   /**
    * adds a node to the root
+   * walks down to the leaf position of value in a single pass
    *
    * @param value
    */
@@ -124,39 +145,38 @@ public class BinarySearchTree<T extends Comparable<T>>
   {
     if (value == null) return false;
 
-    if (!contains(root, value))
+    if (root == null)
     {
-      root = insert(root, value);
+      root = new Node(value);
       nodeCount++;
       return true;
     }
-    return false;
-  }
 
-  /**
-   * private method to add a node to a node recursively
-   * until it finds the correct place
-   *
-   * @param current
-   * @param value
-   * @return
-   */
-  private Node insert(Node current, T value)
-  {
-//    base case - found a leaf node to insert
-    if (current == null) return new Node(value);
+    Node current = root;
+
+    while (true)
+    {
+      int comparison = value.compareTo(current.value);
+
+//      value already exists
+      if (comparison == 0) return false;
 
-    int comparison = value.compareTo(current.value);
+      Node next = comparison < 0 ? current.left : current.right;
 
-//    if value < current.value
-    if (comparison < 0) current.left = insert(current.left, value);
+//      found a leaf position to insert
+      if (next == null)
+      {
+        if (comparison < 0) current.left = new Node(value, current);
+        else current.right = new Node(value, current);
 
-//    if value > current.value
-    else if (comparison > 0) current.right = insert(current.right, value);
+        for (Node node = current; node != null; node = node.parent) node.size++;
 
-    else return current; // value already exists, we will never hit this block
+        nodeCount++;
+        return true;
+      }
 
-    return current;
+      current = next;
+    }
   }
 
   /**
@@ -167,18 +187,8 @@ public class BinarySearchTree<T extends Comparable<T>>
    */
   public T find(T value)
   {
-    return find(root, value);
-  }
-
-  private T find(Node node, T value)
-  {
-    if (node == null) return null;
-
-    int comparator = value.compareTo(node.value);
-
-    if (comparator < 0) return find(node.left, value);
-    else if (comparator > 0) return find(node.right, value);
-    else return node.value;
+    Node node = findNode(value);
+    return node == null ? null : node.value;
   }
 
   /**
@@ -189,44 +199,32 @@ public class BinarySearchTree<T extends Comparable<T>>
   {
     if (value == null) return false;
 
-    if (contains(root, value))
-    {
-      root = remove(root, value);
-      nodeCount--;
-      return true;
-    }
-    return false; // the value does not exist in the tree
-  }
+    Node node = findNode(value);
 
-  private Node remove(Node current, T value)
-  {
-    if (current == null) return null;
+//    the value does not exist in the tree
+    if (node == null) return false;
 
-    int comparator = value.compareTo(current.value);
-    if (comparator < 0)
+//    node with 2 children takes the value of its successor which is removed instead
+    if (node.left != null && node.right != null)
     {
-      current.left = remove(current.left, value);
+      Node successor = leftmost(node.right);
+      node.value = successor.value;
+      node = successor;
     }
-    else if (comparator > 0)
-    {
-      current.right = remove(current.right, value);
-    }
-    else
-    {
-//      we have found the node to be deleted
-//      node with only one child or no child
-      if (current.left == null)
-        return current.right;
-      else if (current.right == null)
-        return current.left;
 
-//      node with 2 children
-      current.value = findMin(current.right);
+    for (Node parent = node.parent; parent != null; parent = parent.parent) parent.size--;
 
-      current.right = remove(current.right, value);
-    }
+//    node with only one child or no child
+    Node child = node.left != null ? node.left : node.right;
+    if (child != null) child.parent = node.parent;
+
+    if (node.parent == null) root = child;
+    else if (node.parent.left == node) node.parent.left = child;
+    else node.parent.right = child;
 
-    return current;
+    node.left = node.right = node.parent = null;
+    nodeCount--;
+    return true;
   }
 
   /**
@@ -247,10 +245,7 @@ public class BinarySearchTree<T extends Comparable<T>>
 
   private T findMin(Node node)
   {
-    while (node.left != null)
-      node = node.left;
-
-    return node.value;
+    return leftmost(node).value;
   }
 
   private T findMax(Node node)
@@ -261,6 +256,14 @@ public class BinarySearchTree<T extends Comparable<T>>
     return node.value;
   }
 
+  private Node leftmost(Node node)
+  {
+    while (node.left != null)
+      node = node.left;
+
+    return node;
+  }
+
   /**
    * clears the tree
    * works because Java is garbage collected
@@ -269,29 +272,262 @@ public class BinarySearchTree<T extends Comparable<T>>
   public void clear()
   {
     root = null;
+    nodeCount = 0;
+  }
+
+  /* Bulk construction */
+
+  /**
+   * builds a perfectly balanced tree from strictly increasing values, where inserting them one
+   * by one would build a linked list in O(n^2)
+   * O(n)
+   *
+   * @param values strictly increasing values
+   * @return
+   */
+  public static <T extends Comparable<T>> BinarySearchTree<T> fromSorted(T[] values)
+  {
+    return fromSorted(Arrays.asList(values));
   }
 
   /**
-   * @return the height
+   * the values are buffered first, the tree needs their count before it can pick the root
+   * O(n)
+   *
+   * @param values strictly increasing values
+   * @return
    */
-  public int height()
+  public static <T extends Comparable<T>> BinarySearchTree<T> fromSorted(Iterator<T> values)
+  {
+    List<T> buffer = new ArrayList<>();
+    values.forEachRemaining(buffer::add);
+    return fromSorted(buffer);
+  }
+
+  private static <T extends Comparable<T>> BinarySearchTree<T> fromSorted(List<T> values)
+  {
+    for (int i = 0; i < values.size(); i++)
+    {
+      if (values.get(i) == null) throw new IllegalArgumentException("values cannot be null; at index: " + i);
+      if (i > 0 && values.get(i).compareTo(values.get(i - 1)) <= 0)
+        throw new IllegalArgumentException("values must be strictly increasing; at index: " + i);
+    }
+
+    BinarySearchTree<T> tree = new BinarySearchTree<>();
+    tree.root = tree.buildFromSorted(values.iterator(), 0, values.size() - 1, null);
+    tree.nodeCount = values.size();
+    return tree;
+  }
+
+  /**
+   * rebuilds the tree perfectly balanced, with height floor(log2(n)) + 1
+   * the in order iterator feeds the values to a new set of nodes in O(n), so a tree that
+   * degenerated after many inserts gets back O(log(n)) operations
+   */
+  public void rebalance()
+  {
+    if (root == null) return;
+    root = buildFromSorted(traverse(TreeTraversalOrder.IN_ORDER), 0, nodeCount - 1, null);
+  }
+
+  /**
+   * builds the subtree of the values ranked [lo, hi] taking them from values in order, the middle
+   * value becomes the root after its left subtree has consumed the smaller ones
+   * recursion is O(log(n)) deep since both halves are equal within one value
+   *
+   * @return the root of the subtree, null if lo > hi
+   */
+  private Node buildFromSorted(Iterator<T> values, int lo, int hi, Node parent)
   {
-    return height(root);
+    if (lo > hi) return null;
+
+    int mid = (lo + hi) >>> 1;
+    Node left = buildFromSorted(values, lo, mid - 1, null);
+
+    Node node = new Node(values.next(), parent);
+    node.size = hi - lo + 1;
+    node.left = left;
+    if (left != null) left.parent = node;
+    node.right = buildFromSorted(values, mid + 1, hi, node);
+
+    return node;
   }
 
+  /* Order statistics */
+
   /**
-   * @param node - height of the node within the tree
-   * @return - the greater height of left or right subtree
+   * number of values in the tree strictly less than value
+   * O(h)
+   *
+   * @param value does not need to be in the tree
+   * @return
    */
-  private int height(Node node)
+  public int rank(T value)
   {
-    if (node == null) return 0;
-    return Math.max(height(node.right), height(node.left));
+    return rank(value, false);
+  }
+
+  /**
+   * @param value
+   * @param inclusive whether to count value itself when it is in the tree
+   * @return the number of values < value (<= value if inclusive)
+   */
+  private int rank(T value, boolean inclusive)
+  {
+    int rank = 0;
+    Node node = root;
+
+    while (node != null)
+    {
+      int comparison = value.compareTo(node.value);
+
+      if (comparison < 0) node = node.left;
+      else if (comparison > 0 || inclusive)
+      {
+        rank += size(node.left) + 1;
+        if (comparison == 0) break;
+        node = node.right;
+      }
+      else
+      {
+        rank += size(node.left);
+        break;
+      }
+    }
+
+    return rank;
+  }
+
+  /**
+   * the value with the given rank, rank 0 being the minimum
+   * O(h)
+   *
+   * @param rank in [0, size)
+   * @return
+   */
+  public T select(int rank)
+  {
+    if (rank < 0 || rank >= nodeCount)
+      throw new IllegalArgumentException("Rank out of bounds; received: " + rank);
+
+    return selectNode(rank).value;
+  }
+
+  /**
+   * @param rank
+   * @return the node with the given rank or null if rank == size
+   */
+  private Node selectNode(int rank)
+  {
+    Node node = root;
+
+    while (node != null)
+    {
+      int leftSize = size(node.left);
+
+      if (rank < leftSize) node = node.left;
+      else if (rank > leftSize)
+      {
+        rank -= leftSize + 1;
+        node = node.right;
+      }
+      else return node;
+    }
+
+    return null;
+  }
+
+  /**
+   * number of values in the tree within [lo, hi]
+   * O(h)
+   *
+   * @param lo inclusive lower bound
+   * @param hi inclusive upper bound
+   * @return
+   */
+  public int countRange(T lo, T hi)
+  {
+    if (lo.compareTo(hi) > 0) return 0;
+    return rank(hi, true) - rank(lo, false);
+  }
+
+  /**
+   * iterates the values in order starting with the value of the given rank
+   * O(h) to find the first value then amortised O(1) per value
+   *
+   * @param rank in [0, size], rank == size gives an empty iterator
+   * @return
+   */
+  public Iterator<T> iteratorFromRank(int rank)
+  {
+    if (rank < 0 || rank > nodeCount)
+      throw new IllegalArgumentException("Rank out of bounds; received: " + rank);
+
+    return inOrderTraversal(selectNode(rank));
+  }
+
+  private int size(Node node)
+  {
+    return node == null ? 0 : node.size;
+  }
+
+  /**
+   * walks the whole tree in pre order following the parent pointers
+   * tracking the depth of the current node, so no stack is needed
+   *
+   * @return the height, the number of nodes on the longest path from the root to a leaf
+   */
+  public int height()
+  {
+    int height = 0, depth = 0;
+    Node node = root;
+
+    if (node != null) depth = height = 1;
+
+    while (node != null)
+    {
+      if (node.left != null)
+      {
+        node = node.left;
+        depth++;
+      }
+      else if (node.right != null)
+      {
+        node = node.right;
+        depth++;
+      }
+      else
+      {
+//        climb until we come up from a left child whose parent has a right subtree
+        Node child = node;
+        node = node.parent;
+        depth--;
+
+        while (node != null && (child == node.right || node.right == null))
+        {
+          child = node;
+          node = node.parent;
+          depth--;
+        }
+
+        if (node != null)
+        {
+          node = node.right;
+          depth++;
+        }
+      }
+
+      height = Math.max(height, depth);
+    }
+
+    return height;
   }
 
   /**
    * this methods returns an iterator for a given TreeTraversalOrder
    * which we can traverse in four ways
+   * pre, in and post order follow the parent pointers and need no stack,
+   * level order still needs a queue
    *
    * @param order - Tree Traversal
    * @return - Iterator
@@ -303,7 +539,7 @@ public class BinarySearchTree<T extends Comparable<T>>
       case PRE_ORDER:
         return preOrderTraversal();
       case IN_ORDER:
-        return inOrderTraversal();
+        return inOrderTraversal(root == null ? null : leftmost(root));
       case POST_ORDER:
         return postOrderTraversal();
       case LEVEL_ORDER:
@@ -321,26 +557,39 @@ public class BinarySearchTree<T extends Comparable<T>>
   private Iterator<T> preOrderTraversal()
   {
     final int expectedNodeCount = nodeCount;
-    final Stack<Node> stack = new Stack<>();
-    stack.push(root);
 
     return new Iterator<>()
     {
+      Node next = root;
+
       @Override
       public boolean hasNext()
       {
         if (expectedNodeCount != nodeCount) throw new ConcurrentModificationException();
-        return root != null && !stack.isEmpty();
+        return next != null;
       }
 
       @Override
       public T next()
       {
         if (expectedNodeCount != nodeCount) throw new ConcurrentModificationException();
+        if (next == null) throw new NoSuchElementException();
 
-        Node node = stack.pop();
-        if (node.right != null) stack.push(node.right);
-        if (node.left != null) stack.push(node.left);
+        Node node = next;
+
+        if (node.left != null) next = node.left;
+        else if (node.right != null) next = node.right;
+        else
+        {
+//          climb until we come up from a left child whose parent has a right subtree
+          Node child = node, parent = node.parent;
+          while (parent != null && (child == parent.right || parent.right == null))
+          {
+            child = parent;
+            parent = parent.parent;
+          }
+          next = parent == null ? null : parent.right;
+        }
 
         return node.value;
       }
@@ -356,43 +605,46 @@ public class BinarySearchTree<T extends Comparable<T>>
   /**
    * returns an iterator to traverse the tree in in order
    *
+   * @param first the node to start from
    * @return
    */
-  private Iterator<T> inOrderTraversal()
+  private Iterator<T> inOrderTraversal(Node first)
   {
     final int expectedNodeCount = nodeCount;
-    final Stack<Node> stack = new Stack<>();
-    stack.push(root);
 
     return new Iterator<>()
     {
-      Node current = root;
+      Node next = first;
 
       @Override
       public boolean hasNext()
       {
         if (expectedNodeCount != nodeCount) throw new ConcurrentModificationException();
-        return root != null && !stack.isEmpty();
+        return next != null;
       }
 
       @Override
       public T next()
       {
         if (expectedNodeCount != nodeCount) throw new ConcurrentModificationException();
+        if (next == null) throw new NoSuchElementException();
 
-        while (current != null && current.left != null)
-        {
-          stack.push(current.left);
-          current = current.left;
-        }
-
-        Node node = stack.pop();
+        Node node = next;
 
-        if (node.right != null)
+//        the successor is the leftmost node of the right subtree
+//        or else the first ancestor we reach coming up from a left child
+        if (node.right != null) next = leftmost(node.right);
+        else
         {
-          stack.push(node.right);
-          current = node.right;
+          Node child = node, parent = node.parent;
+          while (parent != null && child == parent.right)
+          {
+            child = parent;
+            parent = parent.parent;
+          }
+          next = parent;
         }
+
         return node.value;
       }
 
@@ -412,36 +664,31 @@ public class BinarySearchTree<T extends Comparable<T>>
   private Iterator<T> postOrderTraversal()
   {
     final int expectedNodeCount = nodeCount;
-    final Stack<Node> stack1 = new Stack<>();
-    final Stack<Node> stack2 = new Stack<>();
-    stack1.push(root);
-
-    while (!stack1.isEmpty())
-    {
-      Node node = stack1.pop();
-      if (node != null)
-      {
-        stack2.push(node);
-        if (node.left != null) stack1.push(node.left);
-        if (node.right != null) stack1.push(node.right);
-      }
-    }
 
     return new Iterator<>()
     {
+      Node next = firstPostOrder(root);
+
       @Override
       public boolean hasNext()
       {
         if (expectedNodeCount != nodeCount) throw new ConcurrentModificationException();
-        return root != null && !stack2.isEmpty();
+        return next != null;
       }
 
       @Override
       public T next()
       {
         if (expectedNodeCount != nodeCount) throw new ConcurrentModificationException();
+        if (next == null) throw new NoSuchElementException();
 
-        return stack2.pop().value;
+        Node node = next, parent = node.parent;
+
+//        after a left child comes the right subtree of the parent, otherwise the parent itself
+        if (parent != null && node == parent.left && parent.right != null) next = firstPostOrder(parent.right);
+        else next = parent;
+
+        return node.value;
       }
 
       @Override
@@ -452,6 +699,20 @@ public class BinarySearchTree<T extends Comparable<T>>
     };
   }
 
+  /**
+   * @param node
+   * @return the first node in post order of the subtree rooted at node
+   */
+  private Node firstPostOrder(Node node)
+  {
+    if (node == null) return null;
+
+    while (node.left != null || node.right != null)
+      node = node.left != null ? node.left : node.right;
+
+    return node;
+  }
+
   /**
    * returns an iterator to traverse the tree in level order
    *
@@ -460,8 +721,8 @@ public class BinarySearchTree<T extends Comparable<T>>
   private Iterator<T> levelOrderTraversal()
   {
     final int expectedNodeCount = nodeCount;
-    final Queue<Node> queue = new LinkedList<>();
-    queue.offer(root);
+    final Queue<Node> queue = new ArrayDeque<>();
+    if (root != null) queue.offer(root);
 
     return new Iterator<>()
     {
@@ -469,7 +730,7 @@ public class BinarySearchTree<T extends Comparable<T>>
       public boolean hasNext()
       {
         if (expectedNodeCount != nodeCount) throw new ConcurrentModificationException();
-        return root != null && !queue.isEmpty();
+        return !queue.isEmpty();
       }
 
       @Override
@@ -492,6 +753,34 @@ public class BinarySearchTree<T extends Comparable<T>>
     };
   }
 
+  /* Test functions */
+
+  /**
+   * checks the ordering, parent pointers and subtree sizes of every node
+   * this method is for testing purposes to make sure insertions and removals keep the
+   * augmented sizes up to date
+   *
+   * @return
+   */
+  public boolean isValidBST()
+  {
+    if (root != null && root.parent != null) return false;
+    return isValidBST(root, null, null) && size(root) == nodeCount;
+  }
+
+  private boolean isValidBST(Node node, T lo, T hi)
+  {
+    if (node == null) return true;
+
+    if (lo != null && node.value.compareTo(lo) <= 0) return false;
+    if (hi != null && node.value.compareTo(hi) >= 0) return false;
+    if (node.left != null && node.left.parent != node) return false;
+    if (node.right != null && node.right.parent != node) return false;
+    if (node.size != 1 + size(node.left) + size(node.right)) return false;
+
+    return isValidBST(node.left, lo, node.value) && isValidBST(node.right, node.value, hi);
+  }
+
   @Override
   public String toString()
   {
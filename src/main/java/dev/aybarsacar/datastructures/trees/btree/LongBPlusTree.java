@@ -0,0 +1,721 @@
+package dev.aybarsacar.datastructures.trees.btree;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * B+ Tree implementation of an ordered map from primitive long keys to values
+ * <p>
+ * A binary search tree takes a cache miss on every level, ~26 for 50M keys. A B+ tree stores up to
+ * maxKeys sorted keys per node in a long[] spanning a few cache lines, so a lookup touches
+ * log_(maxKeys/2)(n) nodes, ~6 for 50M keys with the default of 32 keys per node, and searches
+ * within a node without chasing pointers.
+ * <p>
+ * Inner nodes only route, every entry lives in a leaf and the leaves are linked in key order, so
+ * a range scan is a single descent followed by a sequential walk over the leaves.
+ * Every node other than the root is kept at least half full, bulkLoad builds the tree bottom up
+ * from sorted input in O(n).
+ * <p>
+ * insert and remove recurse down the tree, which is safe since the height is at most ~7 for 2^31
+ * keys with the default node size
+ *
+ * @param <V> - Value
+ */
+@SuppressWarnings("unchecked")
+public class LongBPlusTree<V>
+{
+  //  32 keys fill 4 cache lines of 64 bytes
+  public static final int DEFAULT_MAX_KEYS = 32;
+
+  /**
+   * common part of inner nodes and leaves, the key arrays have one spare slot so a node can
+   * overflow by one entry before it is split
+   */
+  private abstract static class Node
+  {
+    final long[] keys;
+    int n;                            // number of keys in use
+
+    Node(int maxKeys)
+    {
+      keys = new long[maxKeys + 1];
+    }
+  }
+
+  private static final class Leaf extends Node
+  {
+    final Object[] values;
+    Leaf next;                        // the leaf holding the next greater keys
+
+    Leaf(int maxKeys)
+    {
+      super(maxKeys);
+      values = new Object[maxKeys + 1];
+    }
+  }
+
+  /**
+   * keys[i] separates children[i] and children[i + 1]
+   * the keys of children[i] are in [keys[i - 1], keys[i])
+   */
+  private static final class Inner extends Node
+  {
+    final Node[] children;
+
+    Inner(int maxKeys)
+    {
+      super(maxKeys);
+      children = new Node[maxKeys + 2];
+    }
+  }
+
+  private final int maxKeys, minKeys;
+
+  private Node root;
+  private int height;                 // number of levels, the leaves are at level 1
+  private int size;
+  private int modificationCount;
+
+  //  results of the recursive insert and remove, saves allocating a result object
+  private long splitKey;
+  private Object oldValue;
+  private boolean found;
+
+  public LongBPlusTree()
+  {
+    this(DEFAULT_MAX_KEYS);
+  }
+
+  /**
+   * @param maxKeys maximum number of keys in a node, at least 3
+   */
+  public LongBPlusTree(int maxKeys)
+  {
+    if (maxKeys < 3) throw new IllegalArgumentException("maxKeys cannot be less than 3; received: " + maxKeys);
+
+    this.maxKeys = maxKeys;
+    this.minKeys = maxKeys / 2;
+
+    clear();
+  }
+
+  /**
+   * builds a tree from strictly increasing keys bottom up, filling the nodes evenly
+   * O(n)
+   *
+   * @param keys   strictly increasing keys
+   * @param values values[i] is associated with keys[i]
+   * @return
+   */
+  public static <V> LongBPlusTree<V> bulkLoad(long[] keys, V[] values)
+  {
+    return bulkLoad(keys, values, DEFAULT_MAX_KEYS);
+  }
+
+  /**
+   * @param keys    strictly increasing keys
+   * @param values  values[i] is associated with keys[i]
+   * @param maxKeys maximum number of keys in a node
+   * @return
+   */
+  public static <V> LongBPlusTree<V> bulkLoad(long[] keys, V[] values, int maxKeys)
+  {
+    if (keys.length != values.length)
+      throw new IllegalArgumentException("keys and values must have the same length");
+
+    for (int i = 1; i < keys.length; i++)
+      if (keys[i] <= keys[i - 1]) throw new IllegalArgumentException("keys must be strictly increasing; at index: " + i);
+
+    LongBPlusTree<V> tree = new LongBPlusTree<>(maxKeys);
+    int n = keys.length;
+    if (n == 0) return tree;
+
+//    spread the keys evenly over the fewest leaves, so every leaf is at least half full
+    int count = (n + maxKeys - 1) / maxKeys;
+    Node[] level = new Node[count];
+    long[] lowKeys = new long[count];
+
+    Leaf previous = null;
+    for (int l = 0, from = 0; l < count; l++)
+    {
+      Leaf leaf = new Leaf(maxKeys);
+      leaf.n = (n - from) / (count - l);
+      System.arraycopy(keys, from, leaf.keys, 0, leaf.n);
+      System.arraycopy(values, from, leaf.values, 0, leaf.n);
+
+      if (previous != null) previous.next = leaf;
+      previous = leaf;
+
+      level[l] = leaf;
+      lowKeys[l] = keys[from];
+      from += leaf.n;
+    }
+
+//    group the nodes of each level under parents the same way until a single root is left
+    int height = 1;
+    while (count > 1)
+    {
+      int groups = (count + maxKeys) / (maxKeys + 1);
+
+      for (int g = 0, from = 0; g < groups; g++)
+      {
+        int children = (count - from) / (groups - g);
+
+        Inner inner = new Inner(maxKeys);
+        inner.n = children - 1;
+        System.arraycopy(level, from, inner.children, 0, children);
+        System.arraycopy(lowKeys, from + 1, inner.keys, 0, children - 1);
+
+//        g <= from so the level can be overwritten in place
+        level[g] = inner;
+        lowKeys[g] = lowKeys[from];
+        from += children;
+      }
+
+      count = groups;
+      height++;
+    }
+
+    tree.root = level[0];
+    tree.height = height;
+    tree.size = n;
+    return tree;
+  }
+
+  public int size()
+  {
+    return size;
+  }
+
+  public boolean isEmpty()
+  {
+    return size == 0;
+  }
+
+  /**
+   * @return the number of levels of the tree, 1 when the root is a leaf
+   */
+  public int height()
+  {
+    return height;
+  }
+
+  public void clear()
+  {
+    root = new Leaf(maxKeys);
+    height = 1;
+    size = 0;
+    modificationCount++;
+  }
+
+  public boolean containsKey(long key)
+  {
+    Leaf leaf = findLeaf(key);
+    return Arrays.binarySearch(leaf.keys, 0, leaf.n, key) >= 0;
+  }
+
+  /**
+   * O(log(n))
+   *
+   * @param key
+   * @return the value associated with key or null if key is not in the tree
+   */
+  public V get(long key)
+  {
+    Leaf leaf = findLeaf(key);
+    int i = Arrays.binarySearch(leaf.keys, 0, leaf.n, key);
+    return i >= 0 ? (V) leaf.values[i] : null;
+  }
+
+  private Leaf findLeaf(long key)
+  {
+    Node node = root;
+    for (int level = height; level > 1; level--) node = ((Inner) node).children[childIndex(node, key)];
+    return (Leaf) node;
+  }
+
+  /**
+   * @param node
+   * @param key
+   * @return the index of the child of an inner node whose range contains key
+   */
+  private static int childIndex(Node node, long key)
+  {
+    int i = Arrays.binarySearch(node.keys, 0, node.n, key);
+    return i >= 0 ? i + 1 : -i - 1;
+  }
+
+  /**
+   * @return the index of the first key >= key in the leaf, leaf.n if there is none
+   */
+  private static int lowerBound(Leaf leaf, long key)
+  {
+    int i = Arrays.binarySearch(leaf.keys, 0, leaf.n, key);
+    return i >= 0 ? i : -i - 1;
+  }
+
+  /**
+   * associates value with key, replacing the previous value if the key already exists
+   * O(log(n))
+   *
+   * @param key
+   * @param value
+   * @return the previous value or null
+   */
+  public V put(long key, V value)
+  {
+    found = false;
+
+    Node split = insert(root, height, key, value);
+
+//    the root was split, the tree grows by one level
+    if (split != null)
+    {
+      Inner newRoot = new Inner(maxKeys);
+      newRoot.keys[0] = splitKey;
+      newRoot.children[0] = root;
+      newRoot.children[1] = split;
+      newRoot.n = 1;
+
+      root = newRoot;
+      height++;
+    }
+
+    if (!found)
+    {
+      size++;
+      modificationCount++;
+    }
+
+    V previous = (V) oldValue;
+    oldValue = null;
+    return previous;
+  }
+
+  /**
+   * @return the new right sibling of node if node was split, its first key is left in splitKey
+   */
+  private Node insert(Node node, int level, long key, V value)
+  {
+    if (level == 1)
+    {
+      Leaf leaf = (Leaf) node;
+      int i = Arrays.binarySearch(leaf.keys, 0, leaf.n, key);
+
+      if (i >= 0)
+      {
+        found = true;
+        oldValue = leaf.values[i];
+        leaf.values[i] = value;
+        return null;
+      }
+
+      i = -i - 1;
+      System.arraycopy(leaf.keys, i, leaf.keys, i + 1, leaf.n - i);
+      System.arraycopy(leaf.values, i, leaf.values, i + 1, leaf.n - i);
+      leaf.keys[i] = key;
+      leaf.values[i] = value;
+      leaf.n++;
+
+      return leaf.n > maxKeys ? splitLeaf(leaf) : null;
+    }
+
+    Inner inner = (Inner) node;
+    int ci = childIndex(inner, key);
+
+    Node split = insert(inner.children[ci], level - 1, key, value);
+    if (split == null) return null;
+
+    System.arraycopy(inner.keys, ci, inner.keys, ci + 1, inner.n - ci);
+    System.arraycopy(inner.children, ci + 1, inner.children, ci + 2, inner.n - ci);
+    inner.keys[ci] = splitKey;
+    inner.children[ci + 1] = split;
+    inner.n++;
+
+    return inner.n > maxKeys ? splitInner(inner) : null;
+  }
+
+  private Leaf splitLeaf(Leaf leaf)
+  {
+    int mid = leaf.n / 2;
+
+    Leaf right = new Leaf(maxKeys);
+    right.n = leaf.n - mid;
+    System.arraycopy(leaf.keys, mid, right.keys, 0, right.n);
+    System.arraycopy(leaf.values, mid, right.values, 0, right.n);
+    Arrays.fill(leaf.values, mid, leaf.n, null);
+    leaf.n = mid;
+
+    right.next = leaf.next;
+    leaf.next = right;
+
+    splitKey = right.keys[0];
+    return right;
+  }
+
+  /**
+   * the middle key moves up to the parent instead of being copied like in a leaf
+   */
+  private Inner splitInner(Inner inner)
+  {
+    int mid = inner.n / 2;
+
+    Inner right = new Inner(maxKeys);
+    right.n = inner.n - mid - 1;
+    System.arraycopy(inner.keys, mid + 1, right.keys, 0, right.n);
+    System.arraycopy(inner.children, mid + 1, right.children, 0, right.n + 1);
+    Arrays.fill(inner.children, mid + 1, inner.n + 1, null);
+
+    splitKey = inner.keys[mid];
+    inner.n = mid;
+    return right;
+  }
+
+  /**
+   * removes the key and its value from the tree
+   * O(log(n))
+   *
+   * @param key
+   * @return the removed value or null if the key does not exist
+   */
+  public V remove(long key)
+  {
+    found = false;
+
+    delete(root, height, key);
+    if (!found) return null;
+
+//    the root lost its last separator, the tree shrinks by one level
+    if (height > 1 && root.n == 0)
+    {
+      root = ((Inner) root).children[0];
+      height--;
+    }
+
+    size--;
+    modificationCount++;
+
+    V previous = (V) oldValue;
+    oldValue = null;
+    return previous;
+  }
+
+  private void delete(Node node, int level, long key)
+  {
+    if (level == 1)
+    {
+      Leaf leaf = (Leaf) node;
+      int i = Arrays.binarySearch(leaf.keys, 0, leaf.n, key);
+      if (i < 0) return;
+
+      found = true;
+      oldValue = leaf.values[i];
+
+      leaf.n--;
+      System.arraycopy(leaf.keys, i + 1, leaf.keys, i, leaf.n - i);
+      System.arraycopy(leaf.values, i + 1, leaf.values, i, leaf.n - i);
+      leaf.values[leaf.n] = null;
+      return;
+    }
+
+    Inner inner = (Inner) node;
+    int ci = childIndex(inner, key);
+    Node child = inner.children[ci];
+
+    delete(child, level - 1, key);
+
+    if (found && child.n < minKeys) fixUnderflow(inner, ci, level == 2);
+  }
+
+  /**
+   * refills parent.children[ci] by borrowing an entry from a sibling with entries to spare,
+   * or merges it with a sibling when both are at the minimum
+   */
+  private void fixUnderflow(Inner parent, int ci, boolean leaves)
+  {
+    if (ci > 0 && parent.children[ci - 1].n > minKeys) moveRight(parent, ci - 1, leaves);
+    else if (ci < parent.n && parent.children[ci + 1].n > minKeys) moveLeft(parent, ci, leaves);
+    else if (ci > 0) merge(parent, ci - 1, leaves);
+    else merge(parent, ci, leaves);
+  }
+
+  /**
+   * moves the last entry of parent.children[i] to the front of parent.children[i + 1]
+   */
+  private void moveRight(Inner parent, int i, boolean leaves)
+  {
+    Node left = parent.children[i], right = parent.children[i + 1];
+    System.arraycopy(right.keys, 0, right.keys, 1, right.n);
+
+    if (leaves)
+    {
+      Leaf l = (Leaf) left, r = (Leaf) right;
+      System.arraycopy(r.values, 0, r.values, 1, r.n);
+
+      r.keys[0] = l.keys[l.n - 1];
+      r.values[0] = l.values[l.n - 1];
+      l.values[l.n - 1] = null;
+      parent.keys[i] = r.keys[0];
+    }
+    else
+    {
+//      the separator moves down into the right node and the last key of the left node moves up
+      Inner l = (Inner) left, r = (Inner) right;
+      System.arraycopy(r.children, 0, r.children, 1, r.n + 1);
+
+      r.keys[0] = parent.keys[i];
+      r.children[0] = l.children[l.n];
+      l.children[l.n] = null;
+      parent.keys[i] = l.keys[l.n - 1];
+    }
+
+    left.n--;
+    right.n++;
+  }
+
+  /**
+   * moves the first entry of parent.children[i + 1] to the end of parent.children[i]
+   */
+  private void moveLeft(Inner parent, int i, boolean leaves)
+  {
+    Node left = parent.children[i], right = parent.children[i + 1];
+
+    if (leaves)
+    {
+      Leaf l = (Leaf) left, r = (Leaf) right;
+
+      l.keys[l.n] = r.keys[0];
+      l.values[l.n] = r.values[0];
+
+      System.arraycopy(r.keys, 1, r.keys, 0, r.n - 1);
+      System.arraycopy(r.values, 1, r.values, 0, r.n - 1);
+      r.values[r.n - 1] = null;
+      parent.keys[i] = r.keys[0];
+    }
+    else
+    {
+      Inner l = (Inner) left, r = (Inner) right;
+
+      l.keys[l.n] = parent.keys[i];
+      l.children[l.n + 1] = r.children[0];
+      parent.keys[i] = r.keys[0];
+
+      System.arraycopy(r.keys, 1, r.keys, 0, r.n - 1);
+      System.arraycopy(r.children, 1, r.children, 0, r.n);
+      r.children[r.n] = null;
+    }
+
+    left.n++;
+    right.n--;
+  }
+
+  /**
+   * merges parent.children[i + 1] into parent.children[i] and removes it from the parent
+   */
+  private void merge(Inner parent, int i, boolean leaves)
+  {
+    Node left = parent.children[i], right = parent.children[i + 1];
+
+    if (leaves)
+    {
+      Leaf l = (Leaf) left, r = (Leaf) right;
+
+      System.arraycopy(r.keys, 0, l.keys, l.n, r.n);
+      System.arraycopy(r.values, 0, l.values, l.n, r.n);
+      l.n += r.n;
+      l.next = r.next;
+    }
+    else
+    {
+//      the separator comes down between the keys of the two nodes
+      Inner l = (Inner) left, r = (Inner) right;
+
+      l.keys[l.n] = parent.keys[i];
+      System.arraycopy(r.keys, 0, l.keys, l.n + 1, r.n);
+      System.arraycopy(r.children, 0, l.children, l.n + 1, r.n + 1);
+      l.n += r.n + 1;
+    }
+
+    System.arraycopy(parent.keys, i + 1, parent.keys, i, parent.n - i - 1);
+    System.arraycopy(parent.children, i + 2, parent.children, i + 1, parent.n - i - 1);
+    parent.children[parent.n] = null;
+    parent.n--;
+  }
+
+  /* Ordered queries */
+
+  /**
+   * @return the smallest key in the tree
+   */
+  public long firstKey()
+  {
+    isNotEmptyOrThrow();
+
+    Node node = root;
+    for (int level = height; level > 1; level--) node = ((Inner) node).children[0];
+    return node.keys[0];
+  }
+
+  /**
+   * @return the greatest key in the tree
+   */
+  public long lastKey()
+  {
+    isNotEmptyOrThrow();
+
+    Node node = root;
+    for (int level = height; level > 1; level--) node = ((Inner) node).children[node.n];
+    return node.keys[node.n - 1];
+  }
+
+  /**
+   * @return a cursor over every entry in ascending key order
+   */
+  public Cursor cursor()
+  {
+    return new Cursor(Long.MIN_VALUE, Long.MAX_VALUE);
+  }
+
+  /**
+   * a cursor over the entries with keys in [lo, hi] in ascending order
+   * O(log(n) + k) for k keys in the range
+   *
+   * @param lo inclusive lower bound
+   * @param hi inclusive upper bound
+   * @return
+   */
+  public Cursor range(long lo, long hi)
+  {
+    return new Cursor(lo, hi);
+  }
+
+  /**
+   * A forward cursor walking the linked leaves
+   * call next() to move onto each entry, then read it with key() and value()
+   */
+  public final class Cursor
+  {
+    private final int expectedModificationCount = modificationCount;
+    private final long hi;
+
+    private Leaf leaf;
+    private int index;                // position of the next entry in leaf
+
+    private long key;
+    private V value;
+
+    private Cursor(long lo, long hi)
+    {
+      this.hi = hi;
+
+      leaf = findLeaf(lo);
+      index = lowerBound(leaf, lo);
+    }
+
+    /**
+     * advances the cursor to the next entry
+     *
+     * @return false once there are no more entries in the range
+     */
+    public boolean next()
+    {
+      if (expectedModificationCount != modificationCount) throw new ConcurrentModificationException();
+
+      if (leaf != null && index == leaf.n)
+      {
+        leaf = leaf.next;
+        index = 0;
+      }
+
+      if (leaf == null || leaf.keys[index] > hi)
+      {
+        leaf = null;
+        return false;
+      }
+
+      key = leaf.keys[index];
+      value = (V) leaf.values[index];
+      index++;
+      return true;
+    }
+
+    public long key()
+    {
+      return key;
+    }
+
+    public V value()
+    {
+      return value;
+    }
+  }
+
+  /* Error Helper Functions */
+
+  private void isNotEmptyOrThrow()
+  {
+    if (isEmpty()) throw new NoSuchElementException("Tree is empty");
+  }
+
+  /* Test functions */
+
+  /**
+   * checks the ordering, separators, occupancy and leaf depth of every node and the leaf links
+   * this method is for testing purposes to make sure splits, borrows and merges
+   * do NOT violate the B+ tree invariants
+   *
+   * @return
+   */
+  public boolean isValidBPlusTree()
+  {
+    if (isValid(root, height, Long.MIN_VALUE, Long.MAX_VALUE, false, true) != size) return false;
+
+//    the linked leaves must hold every key in increasing order
+    Node node = root;
+    for (int level = height; level > 1; level--) node = ((Inner) node).children[0];
+
+    int count = 0;
+    long previous = 0;
+    for (Leaf leaf = (Leaf) node; leaf != null; leaf = leaf.next)
+      for (int i = 0; i < leaf.n; i++, count++)
+      {
+        if (count > 0 && leaf.keys[i] <= previous) return false;
+        previous = leaf.keys[i];
+      }
+
+    return count == size;
+  }
+
+  /**
+   * @return the number of entries below node or -1 if the subtree is invalid
+   */
+  private int isValid(Node node, int level, long lo, long hi, boolean hiBounded, boolean isRoot)
+  {
+    if (node.n > maxKeys || (!isRoot && node.n < minKeys)) return -1;
+
+    for (int i = 0; i < node.n; i++)
+    {
+      if (node.keys[i] < lo || (hiBounded && node.keys[i] >= hi)) return -1;
+      if (i > 0 && node.keys[i] <= node.keys[i - 1]) return -1;
+    }
+
+    if (level == 1) return node instanceof Leaf ? node.n : -1;
+    if (!(node instanceof Inner) || node.n == 0) return -1;
+
+    Inner inner = (Inner) node;
+    int count = 0;
+
+    for (int i = 0; i <= inner.n; i++)
+    {
+      long childLo = i == 0 ? lo : inner.keys[i - 1];
+      long childHi = i == inner.n ? hi : inner.keys[i];
+      boolean childHiBounded = i < inner.n || hiBounded;
+
+      int childCount = isValid(inner.children[i], level - 1, childLo, childHi, childHiBounded, false);
+      if (childCount == -1) return -1;
+      count += childCount;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,726 @@
+package dev.aybarsacar.datastructures.trees.btree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ConcurrentModificationException;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Disk backed B+ Tree from primitive long keys to long values, for ordered indexes larger than memory
+ * <p>
+ * The tree lives in a file of fixed size pages. Page 0 is the header, every other page is a node.
+ * Pages are read and written through an LRU PageCache holding a bounded number of pages, so
+ * memory use does not depend on the size of the index.
+ * <p>
+ * A leaf holds up to leafCapacity sorted keys followed by their values and the id of the next
+ * leaf, an inner node holds up to innerCapacity keys followed by the ids of its children. Both
+ * layouts keep one spare slot so a node can overflow by one entry before it is split, like the
+ * in memory LongBPlusTree. With the default 4 KiB pages a leaf holds 254 entries and an inner node
+ * 340 children, so a billion keys are 4 levels deep and the top levels stay cached.
+ * <p>
+ * remove does not merge underfull pages, the space is reused by later inserts into the same key
+ * range, bulkLoad into an empty tree writes compact, sequential leaves.
+ * <p>
+ * Evicted pages are written in place, but before a page of the last checkpoint is overwritten its
+ * checkpoint image is saved to a RollbackJournal next to the file. checkpoint() commits by emptying
+ * the journal, so opening the file after a crash rolls it back to the last completed checkpoint,
+ * or to the last close().
+ */
+public class LongDiskBPlusTree implements Closeable
+{
+  public static final int DEFAULT_PAGE_SIZE = 4096;
+
+  //  suffix of the journal file next to the tree file
+  static final String JOURNAL_SUFFIX = "-journal";
+
+  //  "BPLUSTRE"
+  private static final long MAGIC = 0x42504C5553545245L;
+
+  //  page 0 is the header, so 0 also marks a missing page
+  private static final int HEADER_PAGE = 0;
+  private static final int NO_PAGE = 0;
+
+  //  header layout
+  private static final int MAGIC_OFFSET = 0;
+  private static final int PAGE_SIZE_OFFSET = 8;
+  private static final int ROOT_OFFSET = 12;
+  private static final int HEIGHT_OFFSET = 16;
+  private static final int PAGE_COUNT_OFFSET = 20;
+  private static final int SIZE_OFFSET = 24;
+  private static final int HEADER_SIZE = 32;
+
+  //  node layout, the values of a leaf or the children of an inner node follow the keys
+  private static final int COUNT = 0;
+  private static final int NEXT = 4;
+  private static final int KEYS = 8;
+
+  private final FileChannel channel;
+  private final RollbackJournal journal;
+  private final PageCache cache;
+  private final int pageSize;
+
+  private final int leafCapacity, innerCapacity;
+  private final int leafValues, innerChildren;        // offsets of the values and children arrays
+
+  private int root;
+  private int height;                 // number of levels, the leaves are at level 1
+  private long size;
+  private int modificationCount;
+
+  //  results of the recursive insert, saves allocating a result object
+  private long splitKey;
+  private boolean found;
+
+  /**
+   * opens the tree stored in path with the default page size, creating it if the file does not exist
+   * a file left by a crash is rolled back to its last checkpoint first
+   *
+   * @param path
+   * @param cachePages maximum number of pages held in memory, at least 4
+   * @return
+   * @throws IOException
+   */
+  public static LongDiskBPlusTree open(Path path, int cachePages) throws IOException
+  {
+    return open(path, DEFAULT_PAGE_SIZE, cachePages);
+  }
+
+  /**
+   * @param path
+   * @param pageSize   size of a page in bytes, must match the page size of an existing file
+   * @param cachePages maximum number of pages held in memory, at least 4
+   * @return
+   * @throws IOException
+   */
+  public static LongDiskBPlusTree open(Path path, int pageSize, int cachePages) throws IOException
+  {
+    if (pageSize < 64) throw new IllegalArgumentException("pageSize cannot be less than 64; received: " + pageSize);
+    if (cachePages < 4) throw new IllegalArgumentException("cachePages cannot be less than 4; received: " + cachePages);
+
+    FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE);
+    RollbackJournal journal = null;
+
+    try
+    {
+      journal = RollbackJournal.open(path.resolveSibling(path.getFileName() + JOURNAL_SUFFIX), pageSize);
+      journal.rollback(channel);
+
+      return new LongDiskBPlusTree(channel, journal, pageSize, cachePages);
+    }
+    catch (IOException | RuntimeException e)
+    {
+      channel.close();
+      if (journal != null) journal.close();
+      throw e;
+    }
+  }
+
+  private LongDiskBPlusTree(FileChannel channel, RollbackJournal journal, int pageSize, int cachePages)
+      throws IOException
+  {
+    this.channel = channel;
+    this.journal = journal;
+    this.pageSize = pageSize;
+
+    leafCapacity = (pageSize - KEYS) / 16 - 1;
+    innerCapacity = (pageSize - KEYS - 20) / 12;
+    leafValues = KEYS + 8 * (leafCapacity + 1);
+    innerChildren = KEYS + 8 * (innerCapacity + 1);
+
+    if (channel.size() == 0)
+    {
+      cache = new PageCache(channel, journal, pageSize, cachePages, 1);
+      root = cache.allocate();
+      height = 1;
+      checkpoint();
+      return;
+    }
+
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    while (header.hasRemaining())
+      if (channel.read(header, header.position()) < 0) throw new IOException("Truncated header");
+
+    if (header.getLong(MAGIC_OFFSET) != MAGIC) throw new IOException("Not a B+ tree file");
+    if (header.getInt(PAGE_SIZE_OFFSET) != pageSize)
+      throw new IOException("Page size mismatch; file uses: " + header.getInt(PAGE_SIZE_OFFSET));
+
+    root = header.getInt(ROOT_OFFSET);
+    height = header.getInt(HEIGHT_OFFSET);
+    size = header.getLong(SIZE_OFFSET);
+
+    journal.commit(header.getInt(PAGE_COUNT_OFFSET));
+    cache = new PageCache(channel, journal, pageSize, cachePages, header.getInt(PAGE_COUNT_OFFSET));
+  }
+
+  public long size()
+  {
+    return size;
+  }
+
+  public boolean isEmpty()
+  {
+    return size == 0;
+  }
+
+  /**
+   * @return the number of levels of the tree, 1 when the root is a leaf
+   */
+  public int height()
+  {
+    return height;
+  }
+
+  /**
+   * @return the number of pages in the file, including the header
+   */
+  public int pageCount()
+  {
+    return cache.pageCount();
+  }
+
+  /**
+   * removes every entry and shrinks the file back to the header and an empty root
+   * the file shrinks at the next checkpoint
+   */
+  public void clear()
+  {
+    cache.discard(1);
+    root = cache.allocate();
+    height = 1;
+    size = 0;
+    modificationCount++;
+  }
+
+  /**
+   * writes the header and every dirty page, forces them to the storage device and empties the
+   * journal, a crash after this returns rolls the file back to this point
+   *
+   * @throws IOException
+   */
+  public void checkpoint() throws IOException
+  {
+    ByteBuffer header = cache.writable(HEADER_PAGE);
+    header.putLong(MAGIC_OFFSET, MAGIC);
+    header.putInt(PAGE_SIZE_OFFSET, pageSize);
+    header.putInt(ROOT_OFFSET, root);
+    header.putInt(HEIGHT_OFFSET, height);
+    header.putInt(PAGE_COUNT_OFFSET, cache.pageCount());
+    header.putLong(SIZE_OFFSET, size);
+
+    cache.checkpoint();
+  }
+
+  /**
+   * checkpoints and closes the file, deleting the then empty journal
+   *
+   * @throws IOException
+   */
+  @Override
+  public void close() throws IOException
+  {
+    if (!channel.isOpen()) return;
+
+    try
+    {
+      checkpoint();
+    }
+    finally
+    {
+      journal.close();
+      channel.close();
+    }
+  }
+
+  public boolean containsKey(long key)
+  {
+    ByteBuffer leaf = cache.page(findLeaf(key));
+    return search(leaf, leaf.getInt(COUNT), key) >= 0;
+  }
+
+  /**
+   * O(log(n)) page reads, most of them cache hits
+   *
+   * @param key
+   * @param defaultValue
+   * @return the value associated with key or defaultValue if key is not in the tree
+   */
+  public long get(long key, long defaultValue)
+  {
+    ByteBuffer leaf = cache.page(findLeaf(key));
+    int i = search(leaf, leaf.getInt(COUNT), key);
+    return i >= 0 ? leaf.getLong(leafValues + 8 * i) : defaultValue;
+  }
+
+  /**
+   * @return the id of the leaf whose range contains key
+   */
+  private int findLeaf(long key)
+  {
+    int pageId = root;
+
+    for (int level = height; level > 1; level--)
+    {
+      ByteBuffer page = cache.page(pageId);
+      pageId = page.getInt(innerChildren + 4 * childIndex(page, key));
+    }
+    return pageId;
+  }
+
+  /**
+   * binary search over the keys of a page
+   *
+   * @return the index of key or -(insertion point) - 1 like Arrays.binarySearch
+   */
+  private static int search(ByteBuffer page, int n, long key)
+  {
+    int lo = 0, hi = n - 1;
+
+    while (lo <= hi)
+    {
+      int mid = (lo + hi) >>> 1;
+      long midKey = page.getLong(KEYS + 8 * mid);
+
+      if (midKey < key) lo = mid + 1;
+      else if (midKey > key) hi = mid - 1;
+      else return mid;
+    }
+    return -(lo + 1);
+  }
+
+  private static int childIndex(ByteBuffer page, long key)
+  {
+    int i = search(page, page.getInt(COUNT), key);
+    return i >= 0 ? i + 1 : -i - 1;
+  }
+
+  /**
+   * associates value with key, replacing the previous value if the key already exists
+   * O(log(n))
+   *
+   * @param key
+   * @param value
+   * @return true if the key was not in the tree before
+   */
+  public boolean put(long key, long value)
+  {
+    found = false;
+
+    int split = insert(root, height, key, value);
+
+//    the root was split, the tree grows by one level
+    if (split != NO_PAGE)
+    {
+      int newRoot = cache.allocate();
+      ByteBuffer page = cache.writable(newRoot);
+      page.putInt(COUNT, 1);
+      page.putLong(KEYS, splitKey);
+      page.putInt(innerChildren, root);
+      page.putInt(innerChildren + 4, split);
+
+      root = newRoot;
+      height++;
+    }
+
+    if (found) return false;
+
+    size++;
+    modificationCount++;
+    return true;
+  }
+
+  /**
+   * @return the id of the new right sibling of the page if it was split, its first key is left in splitKey
+   */
+  private int insert(int pageId, int level, long key, long value)
+  {
+    if (level == 1) return insertIntoLeaf(pageId, key, value);
+
+    ByteBuffer page = cache.page(pageId);
+    int ci = childIndex(page, key);
+
+    int split = insert(page.getInt(innerChildren + 4 * ci), level - 1, key, value);
+    if (split == NO_PAGE) return NO_PAGE;
+
+//    the recursion fetched other pages, fetch this page again
+    page = cache.writable(pageId);
+    int n = page.getInt(COUNT);
+
+    move(page, KEYS + 8 * ci, KEYS + 8 * (ci + 1), 8 * (n - ci));
+    move(page, innerChildren + 4 * (ci + 1), innerChildren + 4 * (ci + 2), 4 * (n - ci));
+    page.putLong(KEYS + 8 * ci, splitKey);
+    page.putInt(innerChildren + 4 * (ci + 1), split);
+    page.putInt(COUNT, ++n);
+
+    return n > innerCapacity ? splitInner(pageId) : NO_PAGE;
+  }
+
+  private int insertIntoLeaf(int pageId, long key, long value)
+  {
+    ByteBuffer page = cache.writable(pageId);
+    int n = page.getInt(COUNT);
+    int i = search(page, n, key);
+
+    if (i >= 0)
+    {
+      found = true;
+      page.putLong(leafValues + 8 * i, value);
+      return NO_PAGE;
+    }
+
+    i = -i - 1;
+    move(page, KEYS + 8 * i, KEYS + 8 * (i + 1), 8 * (n - i));
+    move(page, leafValues + 8 * i, leafValues + 8 * (i + 1), 8 * (n - i));
+    page.putLong(KEYS + 8 * i, key);
+    page.putLong(leafValues + 8 * i, value);
+    page.putInt(COUNT, ++n);
+
+    return n > leafCapacity ? splitLeaf(pageId) : NO_PAGE;
+  }
+
+  private int splitLeaf(int pageId)
+  {
+    int rightId = cache.allocate();
+    ByteBuffer right = cache.writable(rightId);
+    ByteBuffer left = cache.writable(pageId);
+
+    int n = left.getInt(COUNT), mid = n / 2, rightCount = n - mid;
+
+    copy(left, KEYS + 8 * mid, right, KEYS, 8 * rightCount);
+    copy(left, leafValues + 8 * mid, right, leafValues, 8 * rightCount);
+    right.putInt(COUNT, rightCount);
+    left.putInt(COUNT, mid);
+
+    right.putInt(NEXT, left.getInt(NEXT));
+    left.putInt(NEXT, rightId);
+
+    splitKey = right.getLong(KEYS);
+    return rightId;
+  }
+
+  /**
+   * the middle key moves up to the parent instead of being copied like in a leaf
+   */
+  private int splitInner(int pageId)
+  {
+    int rightId = cache.allocate();
+    ByteBuffer right = cache.writable(rightId);
+    ByteBuffer left = cache.writable(pageId);
+
+    int n = left.getInt(COUNT), mid = n / 2, rightCount = n - mid - 1;
+
+    copy(left, KEYS + 8 * (mid + 1), right, KEYS, 8 * rightCount);
+    copy(left, innerChildren + 4 * (mid + 1), right, innerChildren, 4 * (rightCount + 1));
+    right.putInt(COUNT, rightCount);
+    left.putInt(COUNT, mid);
+
+    splitKey = left.getLong(KEYS + 8 * mid);
+    return rightId;
+  }
+
+  /**
+   * removes the key from its leaf without merging underfull pages
+   * O(log(n))
+   *
+   * @param key
+   * @return true if the key was in the tree
+   */
+  public boolean remove(long key)
+  {
+    int pageId = findLeaf(key);
+    ByteBuffer page = cache.page(pageId);
+    int n = page.getInt(COUNT);
+    int i = search(page, n, key);
+
+    if (i < 0) return false;
+
+    page = cache.writable(pageId);
+    n--;
+    move(page, KEYS + 8 * (i + 1), KEYS + 8 * i, 8 * (n - i));
+    move(page, leafValues + 8 * (i + 1), leafValues + 8 * i, 8 * (n - i));
+    page.putInt(COUNT, n);
+
+    size--;
+    modificationCount++;
+    return true;
+  }
+
+  /**
+   * replaces the content of an empty tree with strictly increasing keys, building it bottom up
+   * the leaves are written to consecutive pages so range scans read the file sequentially
+   * O(n)
+   *
+   * @param keys   strictly increasing keys
+   * @param values values[i] is associated with keys[i]
+   */
+  public void bulkLoad(long[] keys, long[] values)
+  {
+    if (!isEmpty()) throw new IllegalStateException("bulk load requires an empty tree");
+    if (keys.length != values.length)
+      throw new IllegalArgumentException("keys and values must have the same length");
+
+    for (int i = 1; i < keys.length; i++)
+      if (keys[i] <= keys[i - 1]) throw new IllegalArgumentException("keys must be strictly increasing; at index: " + i);
+
+    int n = keys.length;
+    if (n == 0) return;
+
+//    drop the empty root so the leaves start right after the header
+    cache.discard(1);
+    modificationCount++;
+
+//    spread the keys evenly over the fewest leaves, so every leaf is at least half full
+    int count = (n + leafCapacity - 1) / leafCapacity;
+    int[] level = new int[count];
+    long[] lowKeys = new long[count];
+
+    for (int l = 0, from = 0; l < count; l++)
+    {
+      int pageId = cache.allocate();
+      ByteBuffer page = cache.writable(pageId);
+      int leafCount = (n - from) / (count - l);
+
+      for (int i = 0; i < leafCount; i++)
+      {
+        page.putLong(KEYS + 8 * i, keys[from + i]);
+        page.putLong(leafValues + 8 * i, values[from + i]);
+      }
+      page.putInt(COUNT, leafCount);
+      page.putInt(NEXT, l == count - 1 ? NO_PAGE : pageId + 1);
+
+      level[l] = pageId;
+      lowKeys[l] = keys[from];
+      from += leafCount;
+    }
+
+//    group the pages of each level under parents the same way until a single root is left
+    height = 1;
+    while (count > 1)
+    {
+      int groups = (count + innerCapacity) / (innerCapacity + 1);
+
+      for (int g = 0, from = 0; g < groups; g++)
+      {
+        int children = (count - from) / (groups - g);
+        int pageId = cache.allocate();
+        ByteBuffer page = cache.writable(pageId);
+
+        for (int i = 0; i < children; i++)
+        {
+          if (i > 0) page.putLong(KEYS + 8 * (i - 1), lowKeys[from + i]);
+          page.putInt(innerChildren + 4 * i, level[from + i]);
+        }
+        page.putInt(COUNT, children - 1);
+
+//        g <= from so the level can be overwritten in place
+        level[g] = pageId;
+        lowKeys[g] = lowKeys[from];
+        from += children;
+      }
+
+      count = groups;
+      height++;
+    }
+
+    root = level[0];
+    size = n;
+  }
+
+  /**
+   * @return a cursor over every entry in ascending key order
+   */
+  public Cursor cursor()
+  {
+    return new Cursor(Long.MIN_VALUE, Long.MAX_VALUE);
+  }
+
+  /**
+   * a cursor over the entries with keys in [lo, hi] in ascending order
+   * O(log(n) + k) for k keys in the range, reading the leaves one page at a time
+   *
+   * @param lo inclusive lower bound
+   * @param hi inclusive upper bound
+   * @return
+   */
+  public Cursor range(long lo, long hi)
+  {
+    return new Cursor(lo, hi);
+  }
+
+  /**
+   * A forward cursor walking the linked leaves
+   * call next() to move onto each entry, then read it with key() and value()
+   */
+  public final class Cursor
+  {
+    private final int expectedModificationCount = modificationCount;
+    private final long hi;
+
+    private int leafId;
+    private int index;                // position of the next entry in the leaf
+
+    private long key, value;
+
+    private Cursor(long lo, long hi)
+    {
+      this.hi = hi;
+
+      leafId = findLeaf(lo);
+      ByteBuffer leaf = cache.page(leafId);
+      int i = search(leaf, leaf.getInt(COUNT), lo);
+      index = i >= 0 ? i : -i - 1;
+    }
+
+    /**
+     * advances the cursor to the next entry
+     *
+     * @return false once there are no more entries in the range
+     */
+    public boolean next()
+    {
+      if (expectedModificationCount != modificationCount) throw new ConcurrentModificationException();
+
+//      leaves emptied by remove are skipped
+      while (leafId != NO_PAGE)
+      {
+        ByteBuffer leaf = cache.page(leafId);
+
+        if (index < leaf.getInt(COUNT))
+        {
+          long nextKey = leaf.getLong(KEYS + 8 * index);
+          if (nextKey > hi) break;
+
+          key = nextKey;
+          value = leaf.getLong(leafValues + 8 * index);
+          index++;
+          return true;
+        }
+
+        leafId = leaf.getInt(NEXT);
+        index = 0;
+      }
+
+      leafId = NO_PAGE;
+      return false;
+    }
+
+    public long key()
+    {
+      return key;
+    }
+
+    public long value()
+    {
+      return value;
+    }
+  }
+
+  /* Page cache statistics */
+
+  public long cacheHits()
+  {
+    return cache.hits();
+  }
+
+  public long cacheMisses()
+  {
+    return cache.misses();
+  }
+
+  public long pagesRead()
+  {
+    return cache.reads();
+  }
+
+  public long pagesWritten()
+  {
+    return cache.writes();
+  }
+
+  /* Page helpers */
+
+  private static void move(ByteBuffer page, int from, int to, int bytes)
+  {
+    System.arraycopy(page.array(), from, page.array(), to, bytes);
+  }
+
+  private static void copy(ByteBuffer source, int from, ByteBuffer target, int to, int bytes)
+  {
+    System.arraycopy(source.array(), from, target.array(), to, bytes);
+  }
+
+  /* Test functions */
+
+  /**
+   * checks the ordering, separators and leaf depth of every page and the leaf links
+   * this method is for testing purposes to make sure splits do NOT violate the B+ tree invariants
+   *
+   * @return
+   */
+  public boolean isValidBPlusTree()
+  {
+    if (isValid(root, height, Long.MIN_VALUE, Long.MAX_VALUE, false) != size) return false;
+
+//    the linked leaves must hold every key in increasing order
+    int pageId = root;
+    for (int level = height; level > 1; level--) pageId = cache.page(pageId).getInt(innerChildren);
+
+    long count = 0, previous = 0;
+    while (pageId != NO_PAGE)
+    {
+      ByteBuffer leaf = cache.page(pageId);
+
+      for (int i = 0; i < leaf.getInt(COUNT); i++, count++)
+      {
+        long key = leaf.getLong(KEYS + 8 * i);
+        if (count > 0 && key <= previous) return false;
+        previous = key;
+      }
+      pageId = leaf.getInt(NEXT);
+    }
+
+    return count == size;
+  }
+
+  /**
+   * @return the number of entries below the page or -1 if the subtree is invalid
+   */
+  private long isValid(int pageId, int level, long lo, long hi, boolean hiBounded)
+  {
+    ByteBuffer page = cache.page(pageId);
+    int n = page.getInt(COUNT);
+
+    if (n < 0 || n > (level == 1 ? leafCapacity : innerCapacity)) return -1;
+
+    for (int i = 0; i < n; i++)
+    {
+      long key = page.getLong(KEYS + 8 * i);
+      if (key < lo || (hiBounded && key >= hi)) return -1;
+      if (i > 0 && key <= page.getLong(KEYS + 8 * (i - 1))) return -1;
+    }
+
+    if (level == 1) return n;
+    if (n == 0) return -1;
+
+    long count = 0;
+    for (int i = 0; i <= n; i++)
+    {
+//      the recursion fetches other pages, fetch this page again
+      page = cache.page(pageId);
+
+      long childLo = i == 0 ? lo : page.getLong(KEYS + 8 * (i - 1));
+      long childHi = i == n ? hi : page.getLong(KEYS + 8 * i);
+      int child = page.getInt(innerChildren + 4 * i);
+
+      long childCount = isValid(child, level - 1, childLo, childHi, i < n || hiBounded);
+      if (childCount == -1) return -1;
+      count += childCount;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,265 @@
+package dev.aybarsacar.datastructures.trees.btree;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An LRU cache of the fixed size pages of a file, read and written with positional FileChannel calls
+ * <p>
+ * A buffer returned by page or writable stays valid until capacity other pages have been fetched,
+ * since the frame of an evicted page is reused for the next miss. Callers hold at most two pages at
+ * a time and fetch a page again after calling anything that may fetch other pages.
+ * Dirty pages are written back in place when they are evicted and on checkpoint, a page which
+ * existed at the last checkpoint only after its checkpoint image is forced to the RollbackJournal.
+ */
+final class PageCache
+{
+  private static final class Frame
+  {
+    final ByteBuffer buffer;
+    boolean dirty;
+
+    //  journal length which has to be on the device before the page is written back
+    long journalEnd;
+
+    Frame(ByteBuffer buffer)
+    {
+      this.buffer = buffer;
+    }
+  }
+
+  private final FileChannel channel;
+  private final RollbackJournal journal;
+  private final int pageSize;
+  private final LinkedHashMap<Integer, Frame> frames;
+
+  //  the frame of the last evicted page, reused by the next miss so a full cache does not allocate
+  private Frame spare;
+
+  //  number of pages in the file, including pages only allocated in the cache so far
+  private int pageCount;
+
+  private long hits, misses, reads, writes;
+
+  /**
+   * @param channel   the file, opened for reading and writing
+   * @param journal   the journal of the file, committed for pageCount pages
+   * @param pageSize  size of every page in bytes
+   * @param capacity  maximum number of pages held in memory
+   * @param pageCount number of pages already in the file
+   */
+  PageCache(FileChannel channel, RollbackJournal journal, int pageSize, int capacity, int pageCount)
+  {
+    this.channel = channel;
+    this.journal = journal;
+    this.pageSize = pageSize;
+    this.pageCount = pageCount;
+
+//    access ordered so the eldest entry is the least recently used page
+    frames = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true)
+    {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, Frame> eldest)
+      {
+        if (size() <= capacity) return false;
+
+        Frame frame = eldest.getValue();
+        if (frame.dirty) write(eldest.getKey(), frame);
+
+        frame.dirty = false;
+        spare = frame;
+        return true;
+      }
+    };
+  }
+
+  int pageCount()
+  {
+    return pageCount;
+  }
+
+  /**
+   * @param pageId
+   * @return the page for reading, valid until capacity other pages are fetched
+   */
+  ByteBuffer page(int pageId)
+  {
+    return frame(pageId).buffer;
+  }
+
+  /**
+   * @param pageId
+   * @return the page for reading and writing, it is written back when evicted or flushed
+   */
+  ByteBuffer writable(int pageId)
+  {
+    Frame frame = frame(pageId);
+
+//    a page not written since the checkpoint still holds its checkpoint image
+    if (journal.needsImage(pageId)) frame.journalEnd = journal.save(pageId, frame.buffer);
+
+    frame.dirty = true;
+    return frame.buffer;
+  }
+
+  /**
+   * appends a zeroed page to the file, it reaches the disk once it is evicted or checkpointed
+   *
+   * @return the id of the new page
+   */
+  int allocate()
+  {
+    int pageId = pageCount++;
+
+    Frame frame = takeFrame();
+
+//    after discard the new page may reuse a page of the checkpoint
+    if (journal.needsImage(pageId))
+    {
+      read(pageId, frame.buffer);
+      frame.journalEnd = journal.save(pageId, frame.buffer);
+    }
+
+    Arrays.fill(frame.buffer.array(), (byte) 0);
+    frame.dirty = true;
+
+    frames.put(pageId, frame);
+    return pageId;
+  }
+
+  /**
+   * writes every dirty page back to the file, forces it and commits the journal, then cuts off
+   * the pages discarded since the last checkpoint
+   *
+   * @throws IOException
+   */
+  void checkpoint() throws IOException
+  {
+    for (Map.Entry<Integer, Frame> entry : frames.entrySet())
+    {
+      Frame frame = entry.getValue();
+      if (frame.dirty)
+      {
+        write(entry.getKey(), frame);
+        frame.dirty = false;
+      }
+    }
+
+    channel.force(true);
+    journal.commit(pageCount);
+
+    if (channel.size() > (long) pageCount * pageSize) channel.truncate((long) pageCount * pageSize);
+  }
+
+  /**
+   * drops every cached page without writing it and shrinks the file to pageCount pages
+   * the pages are reused by allocate and cut off the file at the next checkpoint, until then the
+   * file can still be rolled back to the last checkpoint
+   *
+   * @param pageCount
+   */
+  void discard(int pageCount)
+  {
+    frames.clear();
+    spare = null;
+    this.pageCount = pageCount;
+  }
+
+  long hits()
+  {
+    return hits;
+  }
+
+  long misses()
+  {
+    return misses;
+  }
+
+  long reads()
+  {
+    return reads;
+  }
+
+  long writes()
+  {
+    return writes;
+  }
+
+  private Frame frame(int pageId)
+  {
+    Frame frame = frames.get(pageId);
+
+    if (frame != null)
+    {
+      hits++;
+      return frame;
+    }
+
+    misses++;
+    frame = takeFrame();
+    read(pageId, frame.buffer);
+    frames.put(pageId, frame);
+    return frame;
+  }
+
+  private Frame takeFrame()
+  {
+    Frame frame = spare;
+    spare = null;
+
+    if (frame == null) return new Frame(ByteBuffer.allocate(pageSize));
+
+    frame.journalEnd = 0;
+    return frame;
+  }
+
+  private void read(int pageId, ByteBuffer buffer)
+  {
+    long position = (long) pageId * pageSize;
+    buffer.clear();
+
+    try
+    {
+      while (buffer.hasRemaining())
+      {
+//        a page past the end of the file reads as zeroes
+        if (channel.read(buffer, position + buffer.position()) < 0)
+        {
+          Arrays.fill(buffer.array(), buffer.position(), pageSize, (byte) 0);
+          break;
+        }
+      }
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+
+    reads++;
+  }
+
+  private void write(int pageId, Frame frame)
+  {
+    journal.syncTo(frame.journalEnd);
+
+    long position = (long) pageId * pageSize;
+    ByteBuffer source = frame.buffer.duplicate();
+    source.clear();
+
+    try
+    {
+      while (source.hasRemaining()) channel.write(source, position + source.position());
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+
+    writes++;
+  }
+}
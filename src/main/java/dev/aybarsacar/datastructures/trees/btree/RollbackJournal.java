@@ -0,0 +1,275 @@
+package dev.aybarsacar.datastructures.trees.btree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A rollback journal holding the images the pages of a file had at its last checkpoint
+ * <p>
+ * Before a page which existed at the checkpoint is overwritten for the first time, its image is
+ * appended to the journal and the journal is forced. A checkpoint commits by emptying the journal,
+ * so after a crash replaying the journal and cutting the file back to its checkpoint page count
+ * restores the file exactly as it was at the last checkpoint (the rollback journal of SQLite).
+ * <p>
+ * Layout: a header of magic, page size, checkpoint page count and a CRC32 of the three, then records
+ * of page id, CRC32 of id and image, and the image. Records past the last force may be torn, so
+ * replay stops at the first record which is incomplete or fails its checksum.
+ */
+final class RollbackJournal implements Closeable
+{
+  //  "JOURNAL!"
+  private static final long MAGIC = 0x4A4F55524E414C21L;
+
+  private static final int HEADER_SIZE = 20;
+  private static final int RECORD_HEADER_SIZE = 8;
+
+  private final Path path;
+  private final FileChannel channel;
+  private final int pageSize;
+
+  //  pages of the file at the last checkpoint, later pages are simply cut off by a rollback
+  private int checkpointPages;
+
+  //  pages whose checkpoint image is in the journal
+  private final BitSet saved = new BitSet();
+
+  //  bytes appended and bytes known to be on the storage device
+  private long written, synced;
+
+  //  true once the journal is known to hold no images, until the next save
+  private boolean empty;
+
+  private final ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+  private final CRC32 crc = new CRC32();
+
+  /**
+   * opens the journal next to a file, creating it if it does not exist
+   *
+   * @param path     the journal file
+   * @param pageSize
+   * @return
+   * @throws IOException
+   */
+  static RollbackJournal open(Path path, int pageSize) throws IOException
+  {
+    boolean created = !Files.exists(path);
+    FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE);
+
+//    the journal is useless after a crash if its directory entry is lost
+    if (created)
+    {
+      try (FileChannel dir = FileChannel.open(path.toAbsolutePath().getParent(), READ))
+      {
+        dir.force(true);
+      }
+      catch (IOException | RuntimeException e)
+      {
+        channel.close();
+        throw e;
+      }
+    }
+
+    return new RollbackJournal(path, channel, pageSize);
+  }
+
+  private RollbackJournal(Path path, FileChannel channel, int pageSize)
+  {
+    this.path = path;
+    this.channel = channel;
+    this.pageSize = pageSize;
+  }
+
+  /**
+   * rolls a file back to the checkpoint the journal was written for, if the journal holds one
+   * the journal is empty afterwards
+   *
+   * @param file
+   * @return true if the file was rolled back
+   * @throws IOException
+   */
+  boolean rollback(FileChannel file) throws IOException
+  {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    if (!readFully(channel, header, 0) || header.getLong(0) != MAGIC || header.getInt(16) != checksum(header, 16))
+    {
+//      the header is forced with the first record before any page is overwritten, so without a
+//      valid header the file still holds the checkpoint
+      commit(checkpointPages);
+      return false;
+    }
+
+    if (header.getInt(8) != pageSize)
+      throw new IOException("Page size mismatch; journal uses: " + header.getInt(8));
+
+    int pages = header.getInt(12);
+    ByteBuffer image = ByteBuffer.allocate(pageSize);
+
+    for (long position = HEADER_SIZE; ; position += RECORD_HEADER_SIZE + pageSize)
+    {
+      recordHeader.clear();
+      image.clear();
+      if (!readFully(channel, recordHeader, position) || !readFully(channel, image, position + RECORD_HEADER_SIZE)) break;
+
+      int pageId = recordHeader.getInt(0);
+      if (recordHeader.getInt(4) != checksum(pageId, image)) break;
+
+      image.clear();
+      while (image.hasRemaining()) file.write(image, (long) pageId * pageSize + image.position());
+    }
+
+    file.truncate((long) pages * pageSize);
+    file.force(true);
+
+    commit(pages);
+    return true;
+  }
+
+  /**
+   * @param pageId
+   * @return true if the page existed at the checkpoint and its image is not in the journal yet
+   */
+  boolean needsImage(int pageId)
+  {
+    return pageId < checkpointPages && !saved.get(pageId);
+  }
+
+  /**
+   * appends the checkpoint image of a page, it is only forced once a page is about to be overwritten
+   *
+   * @param pageId
+   * @param image   the whole page as it was at the checkpoint
+   * @return the journal length which has to be on the device before the page is overwritten
+   */
+  long save(int pageId, ByteBuffer image)
+  {
+    ByteBuffer source = image.duplicate();
+    source.clear();
+
+    try
+    {
+      if (written == 0)
+      {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putLong(0, MAGIC);
+        header.putInt(8, pageSize);
+        header.putInt(12, checkpointPages);
+        header.putInt(16, checksum(header, 16));
+        written = writeFully(header, 0);
+      }
+
+      recordHeader.clear();
+      recordHeader.putInt(0, pageId);
+      recordHeader.putInt(4, checksum(pageId, source));
+      written = writeFully(recordHeader, written);
+      written = writeFully(source, written);
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+
+    saved.set(pageId);
+    empty = false;
+    return written;
+  }
+
+  /**
+   * forces the journal if it is not on the device up to position yet
+   *
+   * @param position
+   */
+  void syncTo(long position)
+  {
+    if (position <= synced) return;
+
+    try
+    {
+      channel.force(false);
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+
+    synced = written;
+  }
+
+  /**
+   * empties the journal, the commit point of a checkpoint, once the file is on the device
+   *
+   * @param pages number of pages of the file at the new checkpoint
+   * @throws IOException
+   */
+  void commit(int pages) throws IOException
+  {
+    channel.truncate(0);
+    channel.force(true);
+
+    checkpointPages = pages;
+    saved.clear();
+    written = synced = 0;
+    empty = true;
+  }
+
+  /**
+   * closes the journal and deletes it if it holds no images, a journal which may still be needed to
+   * roll the file back is kept for the next open
+   *
+   * @throws IOException
+   */
+  @Override
+  public void close() throws IOException
+  {
+    if (!channel.isOpen()) return;
+
+    channel.close();
+    if (empty) Files.deleteIfExists(path);
+  }
+
+  private long writeFully(ByteBuffer buffer, long position) throws IOException
+  {
+    buffer.clear();
+    while (buffer.hasRemaining()) channel.write(buffer, position + buffer.position());
+    return position + buffer.limit();
+  }
+
+  /**
+   * @return false if the file ends before the buffer is full
+   */
+  private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException
+  {
+    buffer.clear();
+    while (buffer.hasRemaining())
+      if (channel.read(buffer, position + buffer.position()) < 0) return false;
+    return true;
+  }
+
+  private int checksum(ByteBuffer buffer, int bytes)
+  {
+    crc.reset();
+    crc.update(buffer.array(), 0, bytes);
+    return (int) crc.getValue();
+  }
+
+  private int checksum(int pageId, ByteBuffer image)
+  {
+    crc.reset();
+    crc.update(pageId >>> 24);
+    crc.update(pageId >>> 16);
+    crc.update(pageId >>> 8);
+    crc.update(pageId);
+    crc.update(image.array(), 0, pageSize);
+    return (int) crc.getValue();
+  }
+}
@@ -0,0 +1,540 @@
+package dev.aybarsacar.datastructures.trees.interval;
+
+import dev.aybarsacar.datastructures.trees.utils.TreePrinter;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Interval Tree implementation of a map from closed intervals [lo, hi] of longs to values
+ * <p>
+ * The intervals are kept in an AVL tree ordered by (lo, hi) and every node also stores max, the
+ * greatest hi in its subtree. A query for the intervals overlapping [lo, hi] can skip any subtree
+ * whose max is < lo, since nothing in it reaches lo, and everything after the first interval
+ * starting > hi, since nothing from there on starts in time. That answers an overlap query in
+ * O(log(n) + k * log(n)) for k results instead of a full traversal.
+ * <p>
+ * every interval is stored once, put replaces the value of an interval already in the tree, so
+ * use a collection as the value to keep several values for the same interval
+ * insert and remove recurse down the tree, which is safe since the height is at most ~1.44 log(n)
+ *
+ * @param <V> - Value
+ */
+@SuppressWarnings("unchecked")
+public class IntervalTree<V> implements Iterable<IntervalTree.Interval<V>>
+{
+  //  an AVL tree of 2^31 nodes is at most 45 levels high
+  private static final int MAX_DEPTH = 64;
+
+  /**
+   * An immutable interval and its value returned by the queries
+   */
+  public static final class Interval<V>
+  {
+    private final long lo, hi;
+    private final V value;
+
+    Interval(long lo, long hi, V value)
+    {
+      this.lo = lo;
+      this.hi = hi;
+      this.value = value;
+    }
+
+    public long getLo()
+    {
+      return lo;
+    }
+
+    public long getHi()
+    {
+      return hi;
+    }
+
+    public V getValue()
+    {
+      return value;
+    }
+
+    @Override
+    public String toString()
+    {
+      return "[" + lo + ", " + hi + "]=" + value;
+    }
+  }
+
+  private static final class Node<V> implements TreePrinter.PrintableNode
+  {
+    long lo, hi;
+    long max;                         // greatest hi in the subtree rooted at this node
+    V value;
+    Node<V> left, right;
+    byte height = 1;                  // height of the subtree rooted at this node, a leaf has height 1
+
+    Node(long lo, long hi, V value)
+    {
+      this.lo = lo;
+      this.hi = hi;
+      this.max = hi;
+      this.value = value;
+    }
+
+    @Override
+    public TreePrinter.PrintableNode getLeft()
+    {
+      return left;
+    }
+
+    @Override
+    public TreePrinter.PrintableNode getRight()
+    {
+      return right;
+    }
+
+    @Override
+    public String getText()
+    {
+      return "[" + lo + ", " + hi + "]";
+    }
+  }
+
+  private Node<V> root;
+  private int nodeCount;
+  private int modificationCount;
+
+  //  results of the recursive insert and remove, saves allocating a result object
+  private V oldValue;
+  private boolean found;
+
+  public int size()
+  {
+    return nodeCount;
+  }
+
+  public boolean isEmpty()
+  {
+    return nodeCount == 0;
+  }
+
+  /**
+   * O(1)
+   *
+   * @return the number of levels in the tree, 0 for an empty tree
+   */
+  public int height()
+  {
+    return height(root);
+  }
+
+  public void clear()
+  {
+    root = null;
+    nodeCount = 0;
+    modificationCount++;
+  }
+
+  /**
+   * orders intervals by lo, then by hi
+   */
+  private static int compare(long lo, long hi, Node<?> node)
+  {
+    int comparison = Long.compare(lo, node.lo);
+    return comparison != 0 ? comparison : Long.compare(hi, node.hi);
+  }
+
+  public boolean containsInterval(long lo, long hi)
+  {
+    return findNode(lo, hi) != null;
+  }
+
+  /**
+   * O(log(n))
+   *
+   * @return the value of exactly [lo, hi] or null if the interval is not in the tree
+   */
+  public V get(long lo, long hi)
+  {
+    Node<V> node = findNode(lo, hi);
+    return node == null ? null : node.value;
+  }
+
+  private Node<V> findNode(long lo, long hi)
+  {
+    Node<V> node = root;
+    while (node != null)
+    {
+      int comparison = compare(lo, hi, node);
+
+      if (comparison < 0) node = node.left;
+      else if (comparison > 0) node = node.right;
+      else return node;
+    }
+    return null;
+  }
+
+  /**
+   * associates value with the interval [lo, hi], replacing the previous value if the interval
+   * already exists
+   * O(log(n))
+   *
+   * @param lo
+   * @param hi must be >= lo
+   * @param value
+   * @return the previous value or null
+   */
+  public V put(long lo, long hi, V value)
+  {
+    intervalValidOrThrow(lo, hi);
+
+    oldValue = null;
+    found = false;
+    root = insert(root, lo, hi, value);
+
+    if (!found)
+    {
+      nodeCount++;
+      modificationCount++;
+    }
+    return oldValue;
+  }
+
+  private Node<V> insert(Node<V> node, long lo, long hi, V value)
+  {
+    if (node == null) return new Node<>(lo, hi, value);
+
+    int comparison = compare(lo, hi, node);
+
+    if (comparison == 0)
+    {
+      found = true;
+      oldValue = node.value;
+      node.value = value;
+      return node;
+    }
+
+    if (comparison < 0) node.left = insert(node.left, lo, hi, value);
+    else node.right = insert(node.right, lo, hi, value);
+
+    return found ? node : balance(node);
+  }
+
+  /**
+   * removes the interval [lo, hi] and its value from the tree
+   * O(log(n))
+   *
+   * @return the removed value or null if the interval does not exist
+   */
+  public V remove(long lo, long hi)
+  {
+    oldValue = null;
+    found = false;
+    root = delete(root, lo, hi);
+
+    if (found)
+    {
+      nodeCount--;
+      modificationCount++;
+    }
+    return oldValue;
+  }
+
+  private Node<V> delete(Node<V> node, long lo, long hi)
+  {
+    if (node == null) return null;
+
+    int comparison = compare(lo, hi, node);
+
+    if (comparison < 0) node.left = delete(node.left, lo, hi);
+    else if (comparison > 0) node.right = delete(node.right, lo, hi);
+    else
+    {
+      found = true;
+      oldValue = node.value;
+
+      if (node.left == null) return node.right;
+      if (node.right == null) return node.left;
+
+//      take over the interval of the successor and remove the successor instead
+      Node<V> successor = node.right;
+      while (successor.left != null) successor = successor.left;
+
+      node.lo = successor.lo;
+      node.hi = successor.hi;
+      node.value = successor.value;
+      node.right = deleteMin(node.right);
+    }
+
+    return found ? balance(node) : node;
+  }
+
+  private Node<V> deleteMin(Node<V> node)
+  {
+    if (node.left == null) return node.right;
+
+    node.left = deleteMin(node.left);
+    return balance(node);
+  }
+
+  /* Rotations */
+
+  private static int height(Node<?> node)
+  {
+    return node == null ? 0 : node.height;
+  }
+
+  private static long max(Node<?> node)
+  {
+    return node == null ? Long.MIN_VALUE : node.max;
+  }
+
+  /**
+   * recomputes the height and max of node from its children
+   */
+  private static void update(Node<?> node)
+  {
+    node.height = (byte) (1 + Math.max(height(node.left), height(node.right)));
+    node.max = Math.max(node.hi, Math.max(max(node.left), max(node.right)));
+  }
+
+  /**
+   * updates node and rotates it if the heights of its children differ by 2
+   *
+   * @return the root of the rebalanced subtree
+   */
+  private Node<V> balance(Node<V> node)
+  {
+    update(node);
+    int balanceFactor = height(node.right) - height(node.left);
+
+    if (balanceFactor < -1)
+    {
+      if (height(node.left.right) > height(node.left.left)) node.left = rotateLeft(node.left);
+      return rotateRight(node);
+    }
+
+    if (balanceFactor > 1)
+    {
+      if (height(node.right.left) > height(node.right.right)) node.right = rotateRight(node.right);
+      return rotateLeft(node);
+    }
+
+    return node;
+  }
+
+  private Node<V> rotateLeft(Node<V> node)
+  {
+    Node<V> newParent = node.right;
+    node.right = newParent.left;
+    newParent.left = node;
+
+    update(node);
+    update(newParent);
+    return newParent;
+  }
+
+  private Node<V> rotateRight(Node<V> node)
+  {
+    Node<V> newParent = node.left;
+    node.left = newParent.right;
+    newParent.right = node;
+
+    update(node);
+    update(newParent);
+    return newParent;
+  }
+
+  /* Queries */
+
+  /**
+   * whether any interval overlaps [lo, hi]
+   * O(log(n)): going left whenever the left subtree reaches lo finds an overlap if there is one
+   *
+   * @param lo
+   * @param hi must be >= lo
+   * @return
+   */
+  public boolean overlapsAny(long lo, long hi)
+  {
+    intervalValidOrThrow(lo, hi);
+
+    Node<V> node = root;
+    while (node != null)
+    {
+      if (node.lo <= hi && node.hi >= lo) return true;
+
+      if (node.left != null && node.left.max >= lo) node = node.left;
+      else node = node.right;
+    }
+    return false;
+  }
+
+  /**
+   * the intervals containing point
+   *
+   * @param point
+   * @return an iterator over the intervals in (lo, hi) order
+   */
+  public Iterator<Interval<V>> stab(long point)
+  {
+    return overlapping(point, point);
+  }
+
+  /**
+   * the intervals overlapping [lo, hi], that is every [a, b] with a <= hi and b >= lo
+   * O(log(n) + k * log(n)) for k intervals
+   *
+   * @param lo
+   * @param hi must be >= lo
+   * @return an iterator over the intervals in (lo, hi) order
+   */
+  public Iterator<Interval<V>> overlapping(long lo, long hi)
+  {
+    intervalValidOrThrow(lo, hi);
+    return new OverlapIterator(lo, hi);
+  }
+
+  /**
+   * @return an iterator over every interval in (lo, hi) order
+   */
+  @Override
+  public Iterator<Interval<V>> iterator()
+  {
+    return new OverlapIterator(Long.MIN_VALUE, Long.MAX_VALUE);
+  }
+
+  /**
+   * in order iterator which never descends into a subtree whose max is < lo and stops at the
+   * first node starting after hi
+   */
+  private class OverlapIterator implements Iterator<Interval<V>>
+  {
+    private final int expectedModificationCount = modificationCount;
+    private final long lo, hi;
+    private final Node<V>[] stack = new Node[MAX_DEPTH];
+    private int top;
+
+    private Node<V> next;
+
+    OverlapIterator(long lo, long hi)
+    {
+      this.lo = lo;
+      this.hi = hi;
+
+      pushLeft(root);
+      advance();
+    }
+
+    /**
+     * pushes the left spine of node, leaving out subtrees which end before lo
+     */
+    private void pushLeft(Node<V> node)
+    {
+      while (node != null && node.max >= lo)
+      {
+        stack[top++] = node;
+        node = node.left;
+      }
+    }
+
+    private void advance()
+    {
+      next = null;
+
+      while (top > 0)
+      {
+        Node<V> node = stack[--top];
+
+//        every node after this one starts even later
+        if (node.lo > hi)
+        {
+          top = 0;
+          return;
+        }
+
+        pushLeft(node.right);
+
+        if (node.hi >= lo)
+        {
+          next = node;
+          return;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+      if (expectedModificationCount != modificationCount) throw new ConcurrentModificationException();
+      return next != null;
+    }
+
+    @Override
+    public Interval<V> next()
+    {
+      if (!hasNext()) throw new NoSuchElementException();
+
+      Interval<V> interval = new Interval<>(next.lo, next.hi, next.value);
+      advance();
+      return interval;
+    }
+  }
+
+  /* Error Helper Functions */
+
+  private void intervalValidOrThrow(long lo, long hi)
+  {
+    if (lo > hi) throw new IllegalArgumentException("Interval lo cannot be greater than hi; received: [" + lo + ", " + hi + "]");
+  }
+
+  /* Test functions */
+
+  /**
+   * checks the ordering, heights, balance and max of every node
+   * this method is for testing purposes to make sure rotations after insertions and removals
+   * keep the tree balanced and every max up to date
+   *
+   * @return
+   */
+  public boolean isValidIntervalTree()
+  {
+    return isValid(root) && countNodes(root) == nodeCount;
+  }
+
+  private boolean isValid(Node<V> node)
+  {
+    if (node == null) return true;
+
+    if (node.left != null && compare(node.left.lo, node.left.hi, node) >= 0) return false;
+    if (node.right != null && compare(node.right.lo, node.right.hi, node) <= 0) return false;
+    if (node.height != 1 + Math.max(height(node.left), height(node.right))) return false;
+    if (Math.abs(height(node.right) - height(node.left)) > 1) return false;
+    if (node.max != Math.max(node.hi, Math.max(max(node.left), max(node.right)))) return false;
+
+    return isValid(node.left) && isValid(node.right) && isOrdered(node.left, node, true) && isOrdered(node.right, node, false);
+  }
+
+  /**
+   * @return whether every interval in subtree is before (or after) node
+   */
+  private boolean isOrdered(Node<V> subtree, Node<V> node, boolean before)
+  {
+    if (subtree == null) return true;
+
+    int comparison = compare(subtree.lo, subtree.hi, node);
+    if (before ? comparison >= 0 : comparison <= 0) return false;
+
+    return isOrdered(subtree.left, node, before) && isOrdered(subtree.right, node, before);
+  }
+
+  private int countNodes(Node<V> node)
+  {
+    return node == null ? 0 : 1 + countNodes(node.left) + countNodes(node.right);
+  }
+
+  @Override
+  public String toString()
+  {
+    return TreePrinter.getTreeDisplay(root);
+  }
+}
@@ -0,0 +1,253 @@
+package dev.aybarsacar.datastructures.trees.interval;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Read only interval tree over closed intervals [lo[i], hi[i]] given as primitive long arrays
+ * <p>
+ * The intervals are sorted by lo once and the tree is implicit in the sorted arrays: the root of
+ * any range [l, r) of the arrays is its middle element, with [l, mid) as its left and
+ * [mid + 1, r) as its right subtree. max[mid] holds the greatest hi of that range, which prunes the
+ * search like the max of an IntervalTree node. There are no nodes or pointers, just four arrays
+ * laid out in sorted order, so it takes 28 bytes per interval and a query walks memory mostly in
+ * order.
+ * <p>
+ * queries return the indexes of the intervals in the arrays the tree was built from
+ * construction is O(n log(n)), an overlap query O(log(n) + k * log(n)) for k results
+ */
+public class StaticIntervalTree
+{
+  //  the implicit tree of 2^31 intervals is 31 levels high
+  private static final int MAX_DEPTH = 32;
+
+  private final long[] lo, hi, max;   // sorted by lo, max[mid] is the greatest hi in the range rooted at mid
+  private final int[] index;          // position of each sorted interval in the input arrays
+
+  /**
+   * O(n log(n))
+   *
+   * @param los the start of every interval
+   * @param his the end of every interval, his[i] >= los[i]
+   */
+  public StaticIntervalTree(long[] los, long[] his)
+  {
+    if (los == null || his == null) throw new IllegalArgumentException("Interval arrays cannot be null");
+    if (los.length != his.length) throw new IllegalArgumentException("Interval arrays must have the same length");
+
+    int n = los.length;
+    for (int i = 0; i < n; i++)
+    {
+      if (los[i] > his[i]) throw new IllegalArgumentException("Interval lo cannot be greater than hi at index " + i);
+    }
+
+    index = sortedIndexes(los);
+    lo = new long[n];
+    hi = new long[n];
+    max = new long[n];
+
+    for (int i = 0; i < n; i++)
+    {
+      lo[i] = los[index[i]];
+      hi[i] = his[index[i]];
+    }
+
+    buildMax(0, n);
+  }
+
+  /**
+   * sorts the indexes of keys by key with a bottom up merge sort, which avoids boxing them
+   */
+  private static int[] sortedIndexes(long[] keys)
+  {
+    int n = keys.length;
+    int[] a = new int[n], b = new int[n];
+    for (int i = 0; i < n; i++) a[i] = i;
+
+    for (int width = 1; width < n; width *= 2)
+    {
+      for (int left = 0; left < n; left += 2 * width)
+      {
+        int mid = Math.min(left + width, n), right = Math.min(left + 2 * width, n);
+        int i = left, j = mid, k = left;
+
+        while (i < mid && j < right) b[k++] = keys[a[j]] < keys[a[i]] ? a[j++] : a[i++];
+        while (i < mid) b[k++] = a[i++];
+        while (j < right) b[k++] = a[j++];
+      }
+
+      int[] tmp = a;
+      a = b;
+      b = tmp;
+    }
+    return a;
+  }
+
+  /**
+   * fills max for the range [l, r), recursing O(log(n)) deep
+   *
+   * @return the greatest hi in the range, Long.MIN_VALUE for an empty range
+   */
+  private long buildMax(int l, int r)
+  {
+    if (l >= r) return Long.MIN_VALUE;
+
+    int mid = (l + r) >>> 1;
+    max[mid] = Math.max(hi[mid], Math.max(buildMax(l, mid), buildMax(mid + 1, r)));
+    return max[mid];
+  }
+
+  public int size()
+  {
+    return lo.length;
+  }
+
+  /**
+   * the intervals containing point
+   *
+   * @param point
+   * @return the input indexes of the intervals in ascending order of lo
+   */
+  public PrimitiveIterator.OfInt stab(long point)
+  {
+    return overlapping(point, point);
+  }
+
+  /**
+   * the intervals overlapping [queryLo, queryHi], that is every [a, b] with a <= queryHi and b >= queryLo
+   * O(log(n) + k * log(n)) for k intervals
+   *
+   * @param queryLo
+   * @param queryHi must be >= queryLo
+   * @return the input indexes of the intervals in ascending order of lo
+   */
+  public PrimitiveIterator.OfInt overlapping(long queryLo, long queryHi)
+  {
+    if (queryLo > queryHi) throw new IllegalArgumentException("Interval lo cannot be greater than hi; received: [" + queryLo + ", " + queryHi + "]");
+    return new OverlapIterator(queryLo, queryHi);
+  }
+
+  /**
+   * @return the number of intervals overlapping [queryLo, queryHi]
+   */
+  public int countOverlapping(long queryLo, long queryHi)
+  {
+    PrimitiveIterator.OfInt it = overlapping(queryLo, queryHi);
+
+    int count = 0;
+    while (it.hasNext())
+    {
+      it.nextInt();
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * in order walk of the implicit tree, the stack holds the ranges [l, r) whose root is still to
+   * be visited, their left subtrees having been pushed above them
+   */
+  private class OverlapIterator implements PrimitiveIterator.OfInt
+  {
+    private final long queryLo, queryHi;
+    private final int[] stackL = new int[MAX_DEPTH + 1], stackR = new int[MAX_DEPTH + 1];
+    private int top;
+
+    private int next = -1;
+
+    OverlapIterator(long queryLo, long queryHi)
+    {
+      this.queryLo = queryLo;
+      this.queryHi = queryHi;
+
+      pushLeft(0, lo.length);
+      advance();
+    }
+
+    /**
+     * pushes the range and the left ranges below it, leaving out ranges which end before queryLo
+     */
+    private void pushLeft(int l, int r)
+    {
+      while (l < r)
+      {
+        int mid = (l + r) >>> 1;
+        if (max[mid] < queryLo) return;
+
+        stackL[top] = l;
+        stackR[top++] = r;
+        r = mid;
+      }
+    }
+
+    private void advance()
+    {
+      next = -1;
+
+      while (top > 0)
+      {
+        int l = stackL[--top], r = stackR[top];
+        int mid = (l + r) >>> 1;
+
+//        every interval after this one starts even later
+        if (lo[mid] > queryHi)
+        {
+          top = 0;
+          return;
+        }
+
+        pushLeft(mid + 1, r);
+
+        if (hi[mid] >= queryLo)
+        {
+          next = mid;
+          return;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+      return next >= 0;
+    }
+
+    @Override
+    public int nextInt()
+    {
+      if (!hasNext()) throw new NoSuchElementException();
+
+      int result = index[next];
+      advance();
+      return result;
+    }
+  }
+
+  /* Test functions */
+
+  /**
+   * checks that the intervals are sorted by lo and every max is the greatest hi of its range
+   *
+   * @return
+   */
+  public boolean isValidStaticIntervalTree()
+  {
+    for (int i = 1; i < lo.length; i++) if (lo[i - 1] > lo[i]) return false;
+    return isValidMax(0, lo.length) != null;
+  }
+
+  /**
+   * @return the greatest hi in [l, r) if every max in the range is correct, otherwise null
+   */
+  private Long isValidMax(int l, int r)
+  {
+    if (l >= r) return Long.MIN_VALUE;
+
+    int mid = (l + r) >>> 1;
+    Long left = isValidMax(l, mid), right = isValidMax(mid + 1, r);
+    if (left == null || right == null) return null;
+
+    long expected = Math.max(hi[mid], Math.max(left, right));
+    return max[mid] == expected ? expected : null;
+  }
+}
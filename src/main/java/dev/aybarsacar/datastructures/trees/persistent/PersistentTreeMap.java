@@ -0,0 +1,702 @@
+package dev.aybarsacar.datastructures.trees.persistent;
+
+import dev.aybarsacar.datastructures.trees.utils.TreePrinter;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable ordered map implemented as a persistent weight balanced tree
+ * put and remove never change a map, they return a new version which copies the O(log(n)) nodes
+ * on the path to the key and shares every other node with the old version, so keeping a snapshot
+ * is O(1) - it is just a reference to the old version - and versions can be read by any number
+ * of threads without locking
+ * <p>
+ * a subtree is balanced when neither child is more than DELTA times heavier than the other, the
+ * weight of a subtree being its size + 1 (Adams' tree with the parameters of Hirai and Yamamoto)
+ * the sizes also answer rank and select in O(log(n))
+ * <p>
+ * a Transient applies a batch of updates in place to the nodes it has copied itself, so it only
+ * allocates the first time it touches a node instead of once per update
+ * this implementation does not allow null keys
+ *
+ * @param <K> - Key
+ * @param <V> - Value
+ */
+@SuppressWarnings("unchecked")
+public final class PersistentTreeMap<K extends Comparable<K>, V> implements Iterable<K>
+{
+  //  a subtree is rotated when one side is more than DELTA times heavier than the other,
+  //  with a double rotation when the inner grandchild is at least GAMMA times heavier than the outer one
+  private static final int DELTA = 3;
+  private static final int GAMMA = 2;
+
+  //  no child is heavier than 3/4 of its parent, so 2^31 nodes are at most log_{4/3}(2^31) < 75 levels high
+  private static final int MAX_DEPTH = 80;
+
+  private static final PersistentTreeMap<?, ?> EMPTY = new PersistentTreeMap<>(null);
+
+  /**
+   * Node class that stores the key value pair
+   * the fields are only ever written by the Transient that owns the node, before it is published
+   */
+  private static final class Node<K, V> implements TreePrinter.PrintableNode
+  {
+    K key;
+    V value;
+    Node<K, V> left, right;
+    int size;                         // number of nodes in the subtree rooted at this node
+    final Object owner;               // the Transient allowed to change this node, null if none
+
+    Node(K key, V value, Node<K, V> left, Node<K, V> right, Object owner)
+    {
+      this.key = key;
+      this.value = value;
+      this.left = left;
+      this.right = right;
+      this.size = size(left) + size(right) + 1;
+      this.owner = owner;
+    }
+
+    @Override
+    public TreePrinter.PrintableNode getLeft()
+    {
+      return left;
+    }
+
+    @Override
+    public TreePrinter.PrintableNode getRight()
+    {
+      return right;
+    }
+
+    @Override
+    public String getText()
+    {
+      return key.toString();
+    }
+  }
+
+  /**
+   * state of a single update, the result flags are written on the way down and read on the way up
+   */
+  private static final class Update<K, V>
+  {
+    //  nodes with this owner may be changed in place, null for a persistent update
+    Object owner;
+
+    boolean found;
+    V oldValue;
+
+    //  the entry taken out of a subtree by removeMin
+    K minKey;
+    V minValue;
+
+    Update(Object owner)
+    {
+      this.owner = owner;
+    }
+  }
+
+  private final Node<K, V> root;
+
+  private PersistentTreeMap(Node<K, V> root)
+  {
+    this.root = root;
+  }
+
+  /**
+   * @return the empty map
+   */
+  public static <K extends Comparable<K>, V> PersistentTreeMap<K, V> empty()
+  {
+    return (PersistentTreeMap<K, V>) EMPTY;
+  }
+
+  /**
+   * O(1)
+   */
+  public int size()
+  {
+    return size(root);
+  }
+
+  public boolean isEmpty()
+  {
+    return root == null;
+  }
+
+  /**
+   * O(n)
+   *
+   * @return the number of levels in the tree, 0 for the empty map
+   */
+  public int height()
+  {
+    return height(root);
+  }
+
+  private static int height(Node<?, ?> node)
+  {
+    return node == null ? 0 : 1 + Math.max(height(node.left), height(node.right));
+  }
+
+  private static int size(Node<?, ?> node)
+  {
+    return node == null ? 0 : node.size;
+  }
+
+  public boolean containsKey(K key)
+  {
+    keyNotNullOrThrow(key);
+    return findNode(root, key) != null;
+  }
+
+  /**
+   * O(log(n))
+   *
+   * @param key
+   * @return the value associated with key or null if the key does not exist
+   */
+  public V get(K key)
+  {
+    keyNotNullOrThrow(key);
+
+    Node<K, V> node = findNode(root, key);
+    return node == null ? null : node.value;
+  }
+
+  private static <K extends Comparable<K>, V> Node<K, V> findNode(Node<K, V> node, K key)
+  {
+    while (node != null)
+    {
+      int comparison = key.compareTo(node.key);
+
+      if (comparison < 0) node = node.left;
+      else if (comparison > 0) node = node.right;
+      else return node;
+    }
+    return null;
+  }
+
+  /**
+   * O(log(n)) time and new nodes
+   *
+   * @param key
+   * @param value
+   * @return a map with key associated with value, this map if it already was
+   */
+  public PersistentTreeMap<K, V> put(K key, V value)
+  {
+    keyNotNullOrThrow(key);
+
+    Node<K, V> newRoot = put(new Update<>(null), root, key, value);
+    return newRoot == root ? this : new PersistentTreeMap<>(newRoot);
+  }
+
+  /**
+   * O(log(n)) time and new nodes
+   *
+   * @param key
+   * @return a map without key, this map if it did not contain key
+   */
+  public PersistentTreeMap<K, V> remove(K key)
+  {
+    keyNotNullOrThrow(key);
+
+    Node<K, V> newRoot = remove(new Update<>(null), root, key);
+    return newRoot == root ? this : new PersistentTreeMap<>(newRoot);
+  }
+
+  /**
+   * @return a Transient starting from the contents of this map, which is not affected by it
+   */
+  public Transient<K, V> asTransient()
+  {
+    return new Transient<>(root);
+  }
+
+  /**
+   * A mutable view for applying a batch of updates to a PersistentTreeMap
+   * nodes copied by a transient belong to it and later updates change them in place, nodes it
+   * has not copied are still shared and never changed
+   * a transient must only be used by one thread and cannot be used after persistent()
+   */
+  public static final class Transient<K extends Comparable<K>, V>
+  {
+    private Node<K, V> root;
+    private final Update<K, V> update = new Update<>(new Object());
+
+    private Transient(Node<K, V> root)
+    {
+      this.root = root;
+    }
+
+    public int size()
+    {
+      return PersistentTreeMap.size(root);
+    }
+
+    public boolean containsKey(K key)
+    {
+      keyNotNullOrThrow(key);
+      return findNode(root, key) != null;
+    }
+
+    public V get(K key)
+    {
+      keyNotNullOrThrow(key);
+
+      Node<K, V> node = findNode(root, key);
+      return node == null ? null : node.value;
+    }
+
+    /**
+     * O(log(n)), only allocates nodes the transient does not own yet
+     *
+     * @param key
+     * @param value
+     * @return the previous value or null
+     */
+    public V put(K key, V value)
+    {
+      isOpenOrThrow();
+      keyNotNullOrThrow(key);
+
+      update.found = false;
+      update.oldValue = null;
+      root = PersistentTreeMap.put(update, root, key, value);
+      return update.oldValue;
+    }
+
+    /**
+     * O(log(n)), only allocates nodes the transient does not own yet
+     *
+     * @param key
+     * @return the removed value or null if the key does not exist
+     */
+    public V remove(K key)
+    {
+      isOpenOrThrow();
+      keyNotNullOrThrow(key);
+
+      update.found = false;
+      update.oldValue = null;
+      root = PersistentTreeMap.remove(update, root, key);
+      return update.oldValue;
+    }
+
+    /**
+     * ends the batch, the transient cannot be used afterwards
+     * O(1)
+     *
+     * @return a persistent map with the contents of the transient
+     */
+    public PersistentTreeMap<K, V> persistent()
+    {
+      isOpenOrThrow();
+
+//      drop the owner so nothing can change the published nodes any more
+      update.owner = null;
+      return root == null ? empty() : new PersistentTreeMap<>(root);
+    }
+
+    private void isOpenOrThrow()
+    {
+      if (update.owner == null) throw new IllegalStateException("Transient used after persistent()");
+    }
+  }
+
+  /* Updates */
+
+  /**
+   * @return the subtree with key associated with value, the same subtree if nothing changed
+   */
+  private static <K extends Comparable<K>, V> Node<K, V> put(Update<K, V> update, Node<K, V> node, K key, V value)
+  {
+    if (node == null) return new Node<>(key, value, null, null, update.owner);
+
+    int comparison = key.compareTo(node.key);
+
+    if (comparison == 0)
+    {
+      update.found = true;
+      update.oldValue = node.value;
+      return node.value == value ? node : make(update, node, node.key, value, node.left, node.right);
+    }
+
+    if (comparison < 0)
+    {
+      Node<K, V> left = put(update, node.left, key, value);
+
+//      a replaced value leaves the shape and the sizes as they were
+      if (update.found) return left == node.left ? node : make(update, node, node.key, node.value, left, node.right);
+      return balance(update, node, node.key, node.value, left, node.right);
+    }
+
+    Node<K, V> right = put(update, node.right, key, value);
+
+    if (update.found) return right == node.right ? node : make(update, node, node.key, node.value, node.left, right);
+    return balance(update, node, node.key, node.value, node.left, right);
+  }
+
+  /**
+   * @return the subtree without key, the same subtree if key is not in it
+   */
+  private static <K extends Comparable<K>, V> Node<K, V> remove(Update<K, V> update, Node<K, V> node, K key)
+  {
+    if (node == null) return null;
+
+    int comparison = key.compareTo(node.key);
+
+    if (comparison < 0)
+    {
+      Node<K, V> left = remove(update, node.left, key);
+      return update.found ? balance(update, node, node.key, node.value, left, node.right) : node;
+    }
+
+    if (comparison > 0)
+    {
+      Node<K, V> right = remove(update, node.right, key);
+      return update.found ? balance(update, node, node.key, node.value, node.left, right) : node;
+    }
+
+    update.found = true;
+    update.oldValue = node.value;
+
+    if (node.left == null) return node.right;
+    if (node.right == null) return node.left;
+
+//    replace the node with its successor
+    Node<K, V> right = removeMin(update, node.right);
+    return balance(update, node, update.minKey, update.minValue, node.left, right);
+  }
+
+  /**
+   * removes the smallest entry of a non empty subtree, leaving it in update.minKey and update.minValue
+   */
+  private static <K extends Comparable<K>, V> Node<K, V> removeMin(Update<K, V> update, Node<K, V> node)
+  {
+    if (node.left == null)
+    {
+      update.minKey = node.key;
+      update.minValue = node.value;
+      return node.right;
+    }
+
+    Node<K, V> left = removeMin(update, node.left);
+    return balance(update, node, node.key, node.value, left, node.right);
+  }
+
+  /**
+   * builds the node (key, value, left, right) where left and right were balanced and their
+   * weights differ by at most one insertion or removal from a balanced pair, rotating once or
+   * twice if they are no longer balanced
+   */
+  private static <K, V> Node<K, V> balance(Update<K, V> update, Node<K, V> reuse, K key, V value,
+                                           Node<K, V> left, Node<K, V> right)
+  {
+    int leftWeight = size(left) + 1, rightWeight = size(right) + 1;
+
+    if (rightWeight > DELTA * leftWeight)
+    {
+      Node<K, V> inner = right.left, outer = right.right;
+
+      if (size(inner) + 1 < GAMMA * (size(outer) + 1))
+      {
+        return make(update, right, right.key, right.value,
+            make(update, reuse, key, value, left, inner), outer);
+      }
+
+      return make(update, inner, inner.key, inner.value,
+          make(update, reuse, key, value, left, inner.left),
+          make(update, right, right.key, right.value, inner.right, outer));
+    }
+
+    if (leftWeight > DELTA * rightWeight)
+    {
+      Node<K, V> inner = left.right, outer = left.left;
+
+      if (size(inner) + 1 < GAMMA * (size(outer) + 1))
+      {
+        return make(update, left, left.key, left.value,
+            outer, make(update, reuse, key, value, inner, right));
+      }
+
+      return make(update, inner, inner.key, inner.value,
+          make(update, left, left.key, left.value, outer, inner.left),
+          make(update, reuse, key, value, inner.right, right));
+    }
+
+    return make(update, reuse, key, value, left, right);
+  }
+
+  /**
+   * changes reuse in place if the current transient owns it, otherwise allocates a new node
+   */
+  private static <K, V> Node<K, V> make(Update<K, V> update, Node<K, V> reuse, K key, V value,
+                                        Node<K, V> left, Node<K, V> right)
+  {
+    if (reuse == null || update.owner == null || reuse.owner != update.owner)
+    {
+      return new Node<>(key, value, left, right, update.owner);
+    }
+
+    reuse.key = key;
+    reuse.value = value;
+    reuse.left = left;
+    reuse.right = right;
+    reuse.size = size(left) + size(right) + 1;
+    return reuse;
+  }
+
+  /* Ordered queries */
+
+  /**
+   * @return the smallest key in the map
+   */
+  public K firstKey()
+  {
+    isNotEmptyOrThrow();
+
+    Node<K, V> node = root;
+    while (node.left != null) node = node.left;
+    return node.key;
+  }
+
+  /**
+   * @return the largest key in the map
+   */
+  public K lastKey()
+  {
+    isNotEmptyOrThrow();
+
+    Node<K, V> node = root;
+    while (node.right != null) node = node.right;
+    return node.key;
+  }
+
+  /**
+   * @param key
+   * @return the greatest key <= key or null if there is no such key
+   */
+  public K floorKey(K key)
+  {
+    keyNotNullOrThrow(key);
+
+    Node<K, V> node = root, floor = null;
+    while (node != null)
+    {
+      int comparison = key.compareTo(node.key);
+
+      if (comparison == 0) return node.key;
+      if (comparison < 0) node = node.left;
+      else
+      {
+        floor = node;
+        node = node.right;
+      }
+    }
+    return floor == null ? null : floor.key;
+  }
+
+  /**
+   * @param key
+   * @return the smallest key >= key or null if there is no such key
+   */
+  public K ceilingKey(K key)
+  {
+    keyNotNullOrThrow(key);
+
+    Node<K, V> node = root, ceiling = null;
+    while (node != null)
+    {
+      int comparison = key.compareTo(node.key);
+
+      if (comparison == 0) return node.key;
+      if (comparison > 0) node = node.right;
+      else
+      {
+        ceiling = node;
+        node = node.left;
+      }
+    }
+    return ceiling == null ? null : ceiling.key;
+  }
+
+  /* Order statistics */
+
+  /**
+   * number of keys in the map strictly less than key
+   * O(log(n))
+   *
+   * @param key does not need to be in the map
+   * @return
+   */
+  public int rank(K key)
+  {
+    keyNotNullOrThrow(key);
+
+    int rank = 0;
+    Node<K, V> node = root;
+
+    while (node != null)
+    {
+      int comparison = key.compareTo(node.key);
+
+      if (comparison < 0) node = node.left;
+      else if (comparison > 0)
+      {
+        rank += size(node.left) + 1;
+        node = node.right;
+      }
+      else return rank + size(node.left);
+    }
+    return rank;
+  }
+
+  /**
+   * the key with the given rank, rank 0 being the smallest key
+   * O(log(n))
+   *
+   * @param rank in [0, size)
+   * @return
+   */
+  public K select(int rank)
+  {
+    rankInBoundsOrThrow(rank, size() - 1);
+
+    Node<K, V> node = root;
+    while (true)
+    {
+      int leftSize = size(node.left);
+
+      if (rank < leftSize) node = node.left;
+      else if (rank > leftSize)
+      {
+        rank -= leftSize + 1;
+        node = node.right;
+      }
+      else return node.key;
+    }
+  }
+
+  /**
+   * iterates the keys in [lo, hi] in ascending order
+   * O(log(n) + k) for k keys in the range
+   *
+   * @param lo inclusive lower bound, null for no lower bound
+   * @param hi inclusive upper bound, null for no upper bound
+   * @return
+   */
+  public Iterator<K> rangeIterator(K lo, K hi)
+  {
+    return new InOrderIterator(lo, hi);
+  }
+
+  /**
+   * the map never changes, so iterating needs no modification checks
+   *
+   * @return an iterator over the keys in ascending order
+   */
+  @Override
+  public Iterator<K> iterator()
+  {
+    return new InOrderIterator(null, null);
+  }
+
+  /**
+   * in order iterator over the keys in [lo, hi] using a fixed size array as its stack
+   */
+  private class InOrderIterator implements Iterator<K>
+  {
+    private final Node<K, V>[] stack = new Node[MAX_DEPTH];
+    private int top;
+    private final K hi;
+
+    InOrderIterator(K lo, K hi)
+    {
+      this.hi = hi;
+
+//      push the path to the first key >= lo
+      Node<K, V> node = root;
+      while (node != null)
+      {
+        if (lo != null && node.key.compareTo(lo) < 0) node = node.right;
+        else
+        {
+          stack[top++] = node;
+          node = node.left;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+      return top > 0 && (hi == null || stack[top - 1].key.compareTo(hi) <= 0);
+    }
+
+    @Override
+    public K next()
+    {
+      if (!hasNext()) throw new NoSuchElementException();
+
+      Node<K, V> node = stack[--top];
+      for (Node<K, V> next = node.right; next != null; next = next.left) stack[top++] = next;
+
+      return node.key;
+    }
+  }
+
+  /* Error Helper Functions */
+
+  private static void keyNotNullOrThrow(Object key)
+  {
+    if (key == null) throw new IllegalArgumentException("key cannot be null");
+  }
+
+  private void isNotEmptyOrThrow()
+  {
+    if (isEmpty()) throw new NoSuchElementException("Tree is empty");
+  }
+
+  private void rankInBoundsOrThrow(int rank, int max)
+  {
+    if (rank < 0 || rank > max) throw new IllegalArgumentException("Rank out of bounds; received: " + rank);
+  }
+
+  /* Test functions */
+
+  /**
+   * checks the ordering, sizes and weight balance of every node
+   * this method is for testing purposes to make sure rotations after insertions and removals
+   * do NOT violate the weight balance invariant
+   *
+   * @return
+   */
+  public boolean isValidWeightBalanced()
+  {
+    return isValidWeightBalanced(root, null, null);
+  }
+
+  private boolean isValidWeightBalanced(Node<K, V> node, K lo, K hi)
+  {
+    if (node == null) return true;
+
+    if (lo != null && node.key.compareTo(lo) <= 0) return false;
+    if (hi != null && node.key.compareTo(hi) >= 0) return false;
+    if (node.size != 1 + size(node.left) + size(node.right)) return false;
+
+    int leftWeight = size(node.left) + 1, rightWeight = size(node.right) + 1;
+    if (leftWeight > DELTA * rightWeight || rightWeight > DELTA * leftWeight) return false;
+
+    return isValidWeightBalanced(node.left, lo, node.key) && isValidWeightBalanced(node.right, node.key, hi);
+  }
+
+  @Override
+  public String toString()
+  {
+    return TreePrinter.getTreeDisplay(root);
+  }
+}
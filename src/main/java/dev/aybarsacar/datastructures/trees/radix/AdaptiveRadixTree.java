@@ -0,0 +1,975 @@
+package dev.aybarsacar.datastructures.trees.radix;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+
+/**
+ * Adaptive Radix Tree (Leis, Kemper, Neumann) implementation of an ordered map from byte string
+ * keys to values, keys are ordered by comparing their bytes as unsigned numbers
+ * <p>
+ * An inner node branches on one byte of the key, so a lookup costs O(k) for a key of k bytes
+ * whatever the number of keys, and never compares whole keys until it reaches a leaf.
+ * To keep the fan out of 256 from wasting memory every inner node is one of four types sized
+ * for the number of children it has:
+ * Node4 and Node16 keep up to 4 / 16 sorted key bytes next to their children,
+ * Node48 maps all 256 byte values to one of 48 child slots, and Node256 is a plain child array.
+ * Nodes grow and shrink between the types as children are added and removed.
+ * <p>
+ * path compression: an inner node with a single child is merged into that child, the bytes
+ * it would have branched on are stored as the prefix of the child
+ * lazy expansion: a key is stored in a leaf as soon as it is the only key below a node, so the
+ * tree only has inner nodes where two keys actually differ
+ * <p>
+ * a key that is a prefix of other keys is stored as the terminal leaf of the inner node where it
+ * ends, which is visited before the children of that node
+ * long keys are stored as 8 bytes in big endian order with the sign bit flipped, so their byte
+ * order is their numeric order
+ * <p>
+ * insert and remove recurse once per inner node on the path, at most once per key byte
+ *
+ * @param <V> - Value
+ */
+@SuppressWarnings("unchecked")
+public class AdaptiveRadixTree<V>
+{
+  private static final byte[] EMPTY_PREFIX = new byte[0];
+
+  private abstract static class Node<V>
+  {
+  }
+
+  private static final class Leaf<V> extends Node<V>
+  {
+    final byte[] key;
+    V value;
+
+    Leaf(byte[] key, V value)
+    {
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+  /**
+   * common part of the four inner node types
+   * children are addressed by the unsigned value of the byte they branch on
+   * for iteration each type numbers its children by a position, in ascending key byte order
+   */
+  private abstract static class Inner<V> extends Node<V>
+  {
+    byte[] prefix = EMPTY_PREFIX;     // the compressed path, the key bytes below the parent's branch
+    Leaf<V> terminal;                 // the key ending at this node, if any
+    int count;                        // number of children
+
+    abstract Node<V> child(int b);
+
+    abstract boolean isFull();
+
+    /**
+     * b must not have a child yet and the node must not be full
+     */
+    abstract void addChild(int b, Node<V> child);
+
+    /**
+     * b must already have a child
+     */
+    abstract void replaceChild(int b, Node<V> child);
+
+    abstract void removeChild(int b);
+
+    /**
+     * @return a node of the next larger type with the same contents
+     */
+    abstract Inner<V> grow();
+
+    /**
+     * @return a node of the next smaller type with the same contents if this one is sparse
+     * enough, otherwise this node
+     */
+    abstract Inner<V> shrinkIfSparse();
+
+    /**
+     * @return the first position >= from holding a child, or -1
+     */
+    abstract int nextPosition(int from);
+
+    abstract Node<V> childAt(int position);
+
+    /**
+     * copies the prefix, terminal and every child of this node into the empty node to
+     */
+    Inner<V> copyInto(Inner<V> to)
+    {
+      to.prefix = prefix;
+      to.terminal = terminal;
+
+      for (int b = 0; b < 256; b++)
+      {
+        Node<V> child = child(b);
+        if (child != null) to.addChild(b, child);
+      }
+      return to;
+    }
+  }
+
+  /**
+   * Node4 and Node16: the key bytes of the children are kept sorted in a small array which is
+   * searched linearly, positions are indexes into that array
+   */
+  private abstract static class SortedInner<V> extends Inner<V>
+  {
+    final byte[] keys;
+    final Node<V>[] children;
+
+    SortedInner(int capacity)
+    {
+      keys = new byte[capacity];
+      children = new Node[capacity];
+    }
+
+    @Override
+    Node<V> child(int b)
+    {
+      for (int i = 0; i < count; i++) if ((keys[i] & 0xFF) == b) return children[i];
+      return null;
+    }
+
+    @Override
+    boolean isFull()
+    {
+      return count == keys.length;
+    }
+
+    @Override
+    void addChild(int b, Node<V> child)
+    {
+      int i = count;
+      while (i > 0 && (keys[i - 1] & 0xFF) > b)
+      {
+        keys[i] = keys[i - 1];
+        children[i] = children[i - 1];
+        i--;
+      }
+
+      keys[i] = (byte) b;
+      children[i] = child;
+      count++;
+    }
+
+    @Override
+    void replaceChild(int b, Node<V> child)
+    {
+      for (int i = 0; i < count; i++) if ((keys[i] & 0xFF) == b) children[i] = child;
+    }
+
+    @Override
+    void removeChild(int b)
+    {
+      int i = 0;
+      while ((keys[i] & 0xFF) != b) i++;
+
+      count--;
+      System.arraycopy(keys, i + 1, keys, i, count - i);
+      System.arraycopy(children, i + 1, children, i, count - i);
+      children[count] = null;
+    }
+
+    @Override
+    int nextPosition(int from)
+    {
+      return from < count ? from : -1;
+    }
+
+    @Override
+    Node<V> childAt(int position)
+    {
+      return children[position];
+    }
+
+    /**
+     * copies the sorted entries into another sorted node of a different capacity
+     */
+    Inner<V> copySortedInto(SortedInner<V> to)
+    {
+      to.prefix = prefix;
+      to.terminal = terminal;
+      to.count = count;
+      System.arraycopy(keys, 0, to.keys, 0, count);
+      System.arraycopy(children, 0, to.children, 0, count);
+      return to;
+    }
+  }
+
+  private static final class Node4<V> extends SortedInner<V>
+  {
+    Node4()
+    {
+      super(4);
+    }
+
+    @Override
+    Inner<V> grow()
+    {
+      return copySortedInto(new Node16<>());
+    }
+
+    @Override
+    Inner<V> shrinkIfSparse()
+    {
+      return this;
+    }
+  }
+
+  private static final class Node16<V> extends SortedInner<V>
+  {
+    Node16()
+    {
+      super(16);
+    }
+
+    @Override
+    Inner<V> grow()
+    {
+      return copyInto(new Node48<>());
+    }
+
+    @Override
+    Inner<V> shrinkIfSparse()
+    {
+      return count <= 3 ? copySortedInto(new Node4<>()) : this;
+    }
+  }
+
+  /**
+   * index maps every byte value to its child slot + 1, 0 meaning no child
+   * positions are byte values
+   */
+  private static final class Node48<V> extends Inner<V>
+  {
+    final byte[] index = new byte[256];
+    final Node<V>[] children = new Node[48];
+
+    @Override
+    Node<V> child(int b)
+    {
+      int slot = index[b];
+      return slot == 0 ? null : children[slot - 1];
+    }
+
+    @Override
+    boolean isFull()
+    {
+      return count == 48;
+    }
+
+    @Override
+    void addChild(int b, Node<V> child)
+    {
+//      slots freed by removals leave holes, look for one when slot count is taken
+      int slot = count;
+      if (children[slot] != null)
+      {
+        slot = 0;
+        while (children[slot] != null) slot++;
+      }
+
+      children[slot] = child;
+      index[b] = (byte) (slot + 1);
+      count++;
+    }
+
+    @Override
+    void replaceChild(int b, Node<V> child)
+    {
+      children[index[b] - 1] = child;
+    }
+
+    @Override
+    void removeChild(int b)
+    {
+      children[index[b] - 1] = null;
+      index[b] = 0;
+      count--;
+    }
+
+    @Override
+    Inner<V> grow()
+    {
+      return copyInto(new Node256<>());
+    }
+
+    @Override
+    Inner<V> shrinkIfSparse()
+    {
+      return count <= 12 ? copyInto(new Node16<>()) : this;
+    }
+
+    @Override
+    int nextPosition(int from)
+    {
+      for (int b = from; b < 256; b++) if (index[b] != 0) return b;
+      return -1;
+    }
+
+    @Override
+    Node<V> childAt(int position)
+    {
+      return children[index[position] - 1];
+    }
+  }
+
+  /**
+   * children indexed directly by the byte value, positions are byte values
+   */
+  private static final class Node256<V> extends Inner<V>
+  {
+    final Node<V>[] children = new Node[256];
+
+    @Override
+    Node<V> child(int b)
+    {
+      return children[b];
+    }
+
+    @Override
+    boolean isFull()
+    {
+      return false;
+    }
+
+    @Override
+    void addChild(int b, Node<V> child)
+    {
+      children[b] = child;
+      count++;
+    }
+
+    @Override
+    void replaceChild(int b, Node<V> child)
+    {
+      children[b] = child;
+    }
+
+    @Override
+    void removeChild(int b)
+    {
+      children[b] = null;
+      count--;
+    }
+
+    @Override
+    Inner<V> grow()
+    {
+      throw new IllegalStateException("Node256 cannot grow");
+    }
+
+    @Override
+    Inner<V> shrinkIfSparse()
+    {
+      return count <= 36 ? copyInto(new Node48<>()) : this;
+    }
+
+    @Override
+    int nextPosition(int from)
+    {
+      for (int b = from; b < 256; b++) if (children[b] != null) return b;
+      return -1;
+    }
+
+    @Override
+    Node<V> childAt(int position)
+    {
+      return children[position];
+    }
+  }
+
+  private Node<V> root;
+  private int size;
+  private int modificationCount;
+
+  //  results of the recursive insert and remove, saves allocating a result object
+  private V oldValue;
+  private boolean changed;
+
+  public int size()
+  {
+    return size;
+  }
+
+  public boolean isEmpty()
+  {
+    return size == 0;
+  }
+
+  public void clear()
+  {
+    root = null;
+    size = 0;
+    modificationCount++;
+  }
+
+  /* Point operations */
+
+  public boolean containsKey(byte[] key)
+  {
+    keyNotNullOrThrow(key);
+    return findLeaf(key) != null;
+  }
+
+  /**
+   * O(k) for a key of k bytes
+   *
+   * @param key
+   * @return the value associated with key or null if the key does not exist
+   */
+  public V get(byte[] key)
+  {
+    keyNotNullOrThrow(key);
+
+    Leaf<V> leaf = findLeaf(key);
+    return leaf == null ? null : leaf.value;
+  }
+
+  /**
+   * descends by the key bytes only, skipping the compressed prefixes, and compares the whole key
+   * once at the leaf
+   */
+  private Leaf<V> findLeaf(byte[] key)
+  {
+    Node<V> node = root;
+    int depth = 0;
+
+    while (node instanceof Inner)
+    {
+      Inner<V> inner = (Inner<V>) node;
+
+      depth += inner.prefix.length;
+      if (depth > key.length) return null;
+
+      if (depth == key.length)
+      {
+        node = inner.terminal;
+        break;
+      }
+
+      node = inner.child(key[depth++] & 0xFF);
+    }
+
+    Leaf<V> leaf = (Leaf<V>) node;
+    return leaf != null && Arrays.equals(leaf.key, key) ? leaf : null;
+  }
+
+  /**
+   * associates value with key, replacing the previous value if the key already exists
+   * O(k) for a key of k bytes
+   *
+   * @param key copied, later changes to the array do not affect the tree
+   * @param value
+   * @return the previous value or null
+   */
+  public V put(byte[] key, V value)
+  {
+    keyNotNullOrThrow(key);
+
+    oldValue = null;
+    changed = false;
+    root = insert(root, key, 0, value);
+
+    if (changed)
+    {
+      size++;
+      modificationCount++;
+    }
+    return oldValue;
+  }
+
+  /**
+   * @param depth number of key bytes matched by the path to node
+   * @return the node to store in place of node
+   */
+  private Node<V> insert(Node<V> node, byte[] key, int depth, V value)
+  {
+    if (node == null)
+    {
+      changed = true;
+      return new Leaf<>(key.clone(), value);
+    }
+
+    if (node instanceof Leaf)
+    {
+      Leaf<V> leaf = (Leaf<V>) node;
+
+      if (Arrays.equals(leaf.key, key))
+      {
+        oldValue = leaf.value;
+        leaf.value = value;
+        return leaf;
+      }
+
+//      lazy expansion: only now do the two keys need an inner node, where they start to differ
+      int mismatch = mismatch(leaf.key, key, depth);
+
+      Node4<V> inner = new Node4<>();
+      inner.prefix = Arrays.copyOfRange(key, depth, mismatch);
+      addLeaf(inner, leaf, mismatch);
+      addLeaf(inner, new Leaf<>(key.clone(), value), mismatch);
+
+      changed = true;
+      return inner;
+    }
+
+    Inner<V> inner = (Inner<V>) node;
+    int matched = matchPrefix(inner, key, depth);
+
+    if (matched < inner.prefix.length)
+    {
+//      the key leaves the compressed path, split it with a new node where they differ
+      Node4<V> parent = new Node4<>();
+      parent.prefix = Arrays.copyOfRange(inner.prefix, 0, matched);
+
+      int b = inner.prefix[matched] & 0xFF;
+      inner.prefix = Arrays.copyOfRange(inner.prefix, matched + 1, inner.prefix.length);
+      parent.addChild(b, inner);
+      addLeaf(parent, new Leaf<>(key.clone(), value), depth + matched);
+
+      changed = true;
+      return parent;
+    }
+
+    depth += matched;
+
+    if (depth == key.length)
+    {
+      if (inner.terminal == null)
+      {
+        inner.terminal = new Leaf<>(key.clone(), value);
+        changed = true;
+      }
+      else
+      {
+        oldValue = inner.terminal.value;
+        inner.terminal.value = value;
+      }
+      return inner;
+    }
+
+    int b = key[depth] & 0xFF;
+    Node<V> child = inner.child(b);
+
+    if (child != null)
+    {
+      Node<V> newChild = insert(child, key, depth + 1, value);
+      if (newChild != child) inner.replaceChild(b, newChild);
+      return inner;
+    }
+
+    if (inner.isFull()) inner = inner.grow();
+    inner.addChild(b, new Leaf<>(key.clone(), value));
+
+    changed = true;
+    return inner;
+  }
+
+  /**
+   * stores a leaf below an inner node whose path is depth bytes long
+   */
+  private static <V> void addLeaf(Inner<V> inner, Leaf<V> leaf, int depth)
+  {
+    if (leaf.key.length == depth) inner.terminal = leaf;
+    else inner.addChild(leaf.key[depth] & 0xFF, leaf);
+  }
+
+  /**
+   * @return the first index >= from where the two keys differ or one of them ends
+   */
+  private static int mismatch(byte[] a, byte[] b, int from)
+  {
+    int end = Math.min(a.length, b.length);
+    while (from < end && a[from] == b[from]) from++;
+    return from;
+  }
+
+  /**
+   * @return the number of leading bytes of the prefix of inner matched by key from depth
+   */
+  private static int matchPrefix(Inner<?> inner, byte[] key, int depth)
+  {
+    byte[] prefix = inner.prefix;
+    int end = Math.min(prefix.length, key.length - depth);
+
+    int i = 0;
+    while (i < end && prefix[i] == key[depth + i]) i++;
+    return i;
+  }
+
+  /**
+   * removes the key and its value from the tree
+   * O(k) for a key of k bytes
+   *
+   * @param key
+   * @return the removed value or null if the key does not exist
+   */
+  public V remove(byte[] key)
+  {
+    keyNotNullOrThrow(key);
+
+    oldValue = null;
+    changed = false;
+    root = delete(root, key, 0);
+
+    if (changed)
+    {
+      size--;
+      modificationCount++;
+    }
+    return oldValue;
+  }
+
+  /**
+   * @return the node to store in place of node, null if nothing is left of it
+   */
+  private Node<V> delete(Node<V> node, byte[] key, int depth)
+  {
+    if (node == null) return null;
+
+    if (node instanceof Leaf)
+    {
+      Leaf<V> leaf = (Leaf<V>) node;
+      if (!Arrays.equals(leaf.key, key)) return leaf;
+
+      oldValue = leaf.value;
+      changed = true;
+      return null;
+    }
+
+    Inner<V> inner = (Inner<V>) node;
+    if (matchPrefix(inner, key, depth) < inner.prefix.length) return inner;
+
+    depth += inner.prefix.length;
+
+    if (depth == key.length)
+    {
+      if (inner.terminal == null) return inner;
+
+      oldValue = inner.terminal.value;
+      changed = true;
+      inner.terminal = null;
+    }
+    else
+    {
+      int b = key[depth] & 0xFF;
+      Node<V> child = inner.child(b);
+      if (child == null) return inner;
+
+      Node<V> newChild = delete(child, key, depth + 1);
+      if (newChild == child) return inner;
+
+      if (newChild != null) inner.replaceChild(b, newChild);
+      else inner.removeChild(b);
+    }
+
+    return compact(inner);
+  }
+
+  /**
+   * undoes the expansion once a node has lost an entry: a node left with only a terminal becomes
+   * that leaf, a node left with a single child is merged into it, other nodes shrink to a smaller
+   * type when they are sparse enough
+   */
+  private static <V> Node<V> compact(Inner<V> inner)
+  {
+    if (inner.count == 0) return inner.terminal;
+    if (inner.count > 1 || inner.terminal != null) return inner.shrinkIfSparse();
+
+    int b = inner.nextPosition(0);
+    Node<V> child = inner.childAt(b);
+
+//    a leaf holds its whole key, so it can move up as it is
+    if (child instanceof Leaf) return child;
+
+    Inner<V> only = (Inner<V>) child;
+    int branch = inner instanceof SortedInner ? ((SortedInner<V>) inner).keys[0] : b;
+
+    byte[] prefix = new byte[inner.prefix.length + 1 + only.prefix.length];
+    System.arraycopy(inner.prefix, 0, prefix, 0, inner.prefix.length);
+    prefix[inner.prefix.length] = (byte) branch;
+    System.arraycopy(only.prefix, 0, prefix, inner.prefix.length + 1, only.prefix.length);
+
+    only.prefix = prefix;
+    return only;
+  }
+
+  /* long keys */
+
+  /**
+   * @return the 8 byte key of a long, big endian with the sign bit flipped so that the byte order
+   * of the keys is the numeric order of the longs
+   */
+  public static byte[] encodeLong(long key)
+  {
+    long bits = key ^ Long.MIN_VALUE;
+
+    byte[] bytes = new byte[8];
+    for (int i = 7; i >= 0; i--)
+    {
+      bytes[i] = (byte) bits;
+      bits >>>= 8;
+    }
+    return bytes;
+  }
+
+  /**
+   * @param bytes a key produced by encodeLong
+   * @return the long it encodes
+   */
+  public static long decodeLong(byte[] bytes)
+  {
+    if (bytes.length != 8) throw new IllegalArgumentException("A long key has 8 bytes; received: " + bytes.length);
+
+    long bits = 0;
+    for (byte b : bytes) bits = bits << 8 | (b & 0xFF);
+    return bits ^ Long.MIN_VALUE;
+  }
+
+  public boolean containsKey(long key)
+  {
+    return containsKey(encodeLong(key));
+  }
+
+  public V get(long key)
+  {
+    return get(encodeLong(key));
+  }
+
+  public V put(long key, V value)
+  {
+    return put(encodeLong(key), value);
+  }
+
+  public V remove(long key)
+  {
+    return remove(encodeLong(key));
+  }
+
+  /* Ordered iteration */
+
+  /**
+   * @return a cursor over every entry in ascending key order
+   */
+  public Cursor cursor()
+  {
+    return new Cursor(root);
+  }
+
+  /**
+   * entries whose key starts with prefix, in ascending key order
+   * O(p) to find the subtree for a prefix of p bytes, then O(1) amortized per entry
+   *
+   * @param prefix an empty prefix matches every key
+   * @return
+   */
+  public Cursor prefix(byte[] prefix)
+  {
+    keyNotNullOrThrow(prefix);
+    return new Cursor(findPrefix(prefix));
+  }
+
+  /**
+   * @return the node whose subtree holds exactly the keys starting with prefix, or null
+   */
+  private Node<V> findPrefix(byte[] prefix)
+  {
+    Node<V> node = root;
+    int depth = 0;
+
+    while (node instanceof Inner)
+    {
+      Inner<V> inner = (Inner<V>) node;
+
+      int matched = matchPrefix(inner, prefix, depth);
+      if (depth + matched == prefix.length) return inner;
+      if (matched < inner.prefix.length) return null;
+
+      depth += matched;
+      node = inner.child(prefix[depth++] & 0xFF);
+    }
+
+    Leaf<V> leaf = (Leaf<V>) node;
+    return leaf != null && mismatch(leaf.key, prefix, 0) == prefix.length ? leaf : null;
+  }
+
+  /**
+   * Cursor over the leaves of a subtree in ascending key order
+   * key() returns the array stored in the tree, which must not be modified
+   */
+  public final class Cursor
+  {
+    private final int expectedModificationCount = modificationCount;
+
+    //  inner nodes on the path to the current leaf and the position of the next child to visit
+    //  in each of them, -1 when the terminal has not been visited yet
+    private final Deque<Inner<V>> nodes = new ArrayDeque<>();
+    private final Deque<int[]> positions = new ArrayDeque<>();
+
+    private Node<V> start;
+    private Leaf<V> leaf;
+
+    private Cursor(Node<V> start)
+    {
+      this.start = start;
+    }
+
+    /**
+     * advances the cursor to the next entry
+     *
+     * @return false once there are no more entries
+     */
+    public boolean next()
+    {
+      if (expectedModificationCount != modificationCount) throw new ConcurrentModificationException();
+
+      if (start != null)
+      {
+        leaf = visit(start);
+        start = null;
+        if (leaf != null) return true;
+      }
+
+      leaf = null;
+      while (leaf == null && !nodes.isEmpty())
+      {
+        Inner<V> inner = nodes.peek();
+        int[] position = positions.peek();
+
+        if (position[0] < 0)
+        {
+          position[0] = 0;
+          leaf = inner.terminal;
+          continue;
+        }
+
+        int next = inner.nextPosition(position[0]);
+        if (next < 0)
+        {
+          nodes.pop();
+          positions.pop();
+          continue;
+        }
+
+        position[0] = next + 1;
+        leaf = visit(inner.childAt(next));
+      }
+      return leaf != null;
+    }
+
+    /**
+     * @return node if it is a leaf, otherwise pushes it and returns null
+     */
+    private Leaf<V> visit(Node<V> node)
+    {
+      if (node instanceof Leaf) return (Leaf<V>) node;
+
+      nodes.push((Inner<V>) node);
+      positions.push(new int[]{-1});
+      return null;
+    }
+
+    public byte[] key()
+    {
+      entryOrThrow();
+      return leaf.key;
+    }
+
+    /**
+     * @return the current key decoded as a long, see encodeLong
+     */
+    public long longKey()
+    {
+      entryOrThrow();
+      return decodeLong(leaf.key);
+    }
+
+    public V value()
+    {
+      entryOrThrow();
+      return leaf.value;
+    }
+
+    private void entryOrThrow()
+    {
+      if (leaf == null) throw new NoSuchElementException();
+    }
+  }
+
+  /* Error Helper Functions */
+
+  private void keyNotNullOrThrow(byte[] key)
+  {
+    if (key == null) throw new IllegalArgumentException("key cannot be null");
+  }
+
+  /* Test functions */
+
+  /**
+   * checks that every leaf is reachable by its own key, that child counts match the node types,
+   * that no inner node could have been merged into its only child and that size is correct
+   * this method is for testing purposes to make sure path compression and node resizing after
+   * insertions and removals keep the tree consistent
+   *
+   * @return
+   */
+  public boolean isValidART()
+  {
+    int[] leaves = new int[1];
+    return isValidART(root, new byte[0], leaves) && leaves[0] == size;
+  }
+
+  /**
+   * @param path the key bytes leading to node
+   */
+  private boolean isValidART(Node<V> node, byte[] path, int[] leaves)
+  {
+    if (node == null) return true;
+
+    if (node instanceof Leaf)
+    {
+      leaves[0]++;
+      return startsWith(((Leaf<V>) node).key, path);
+    }
+
+    Inner<V> inner = (Inner<V>) node;
+
+    byte[] nodePath = Arrays.copyOf(path, path.length + inner.prefix.length);
+    System.arraycopy(inner.prefix, 0, nodePath, path.length, inner.prefix.length);
+
+    if (inner.count + (inner.terminal == null ? 0 : 1) < 2) return false;
+    if (inner.terminal != null)
+    {
+      if (!Arrays.equals(inner.terminal.key, nodePath)) return false;
+      leaves[0]++;
+    }
+
+    int children = 0;
+    for (int b = 0; b < 256; b++)
+    {
+      Node<V> child = inner.child(b);
+      if (child == null) continue;
+
+      children++;
+      byte[] childPath = Arrays.copyOf(nodePath, nodePath.length + 1);
+      childPath[nodePath.length] = (byte) b;
+      if (!isValidART(child, childPath, leaves)) return false;
+    }
+
+    int capacity = inner instanceof Node4 ? 4 : inner instanceof Node16 ? 16 : inner instanceof Node48 ? 48 : 256;
+    return children == inner.count && children <= capacity;
+  }
+
+  private static boolean startsWith(byte[] key, byte[] prefix)
+  {
+    return key.length >= prefix.length && mismatch(key, prefix, 0) == prefix.length;
+  }
+}
@@ -0,0 +1,746 @@
+package dev.aybarsacar.datastructures.trees.splay;
+
+import dev.aybarsacar.datastructures.trees.utils.TreePrinter;
+import dev.aybarsacar.datastructures.trees.utils.TreeTraversalOrder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ * Splay Tree implementation with the same API as BinarySearchTree
+ * A Splay Tree is a self adjusting Binary Search Tree: every access rotates the value it reached
+ * up to the root, so a small working set of hot values stays near the top and is found in a few
+ * steps, while any sequence of m operations still costs O(m log(n)) amortised
+ * <p>
+ * splaying is top down (Sleator and Tarjan): a single pass down the search path splits the tree
+ * into a left tree of smaller and a right tree of greater values and reassembles them under the
+ * accessed node, so there is no recursion and no parent pointers. The tree can still become a long
+ * chain for a while, so every traversal uses an explicit stack or queue.
+ * <p>
+ * every node also stores the size of its subtree, which answers rank, select and countRange,
+ * the sizes along the split path are fixed up by a second pass over its two spines
+ * <p>
+ * lookups restructure the tree too, so any access during an iteration, not only insert and remove,
+ * makes the iterator throw a ConcurrentModificationException
+ * this implementation does not allow duplicate or null values
+ */
+public class SplayTree<T extends Comparable<T>>
+{
+  /**
+   * Node class that stores the data
+   * to be stored in the tree
+   */
+  private static final class Node<T> implements TreePrinter.PrintableNode
+  {
+    T value;
+    Node<T> left, right;
+    int size = 1;                     // number of nodes in the subtree rooted at this node
+
+    Node(T value)
+    {
+      this.value = value;
+    }
+
+    @Override
+    public TreePrinter.PrintableNode getLeft()
+    {
+      return left;
+    }
+
+    @Override
+    public TreePrinter.PrintableNode getRight()
+    {
+      return right;
+    }
+
+    @Override
+    public String getText()
+    {
+      return value.toString();
+    }
+  }
+
+  private Node<T> root;
+  private int modificationCount;
+
+  //  while splaying header.right is the root of the left tree and header.left of the right tree,
+  //  reused by every splay
+  private final Node<T> header = new Node<>(null);
+
+  public int size()
+  {
+    return size(root);
+  }
+
+  public boolean isEmpty()
+  {
+    return root == null;
+  }
+
+  /**
+   * @return the value of the root node, the most recently accessed value
+   */
+  public T root()
+  {
+    isNotEmptyOrThrow();
+    return root.value;
+  }
+
+  /**
+   * splays value to the root when it is in the tree
+   * O(log(n)) amortised
+   *
+   * @param value
+   * @return
+   */
+  public boolean contains(T value)
+  {
+    return find(value) != null;
+  }
+
+  /**
+   * gets access to the value equal to value, splaying it to the root
+   * O(log(n)) amortised
+   *
+   * @param value
+   * @return the value in the tree or null if it is not in the tree
+   */
+  public T find(T value)
+  {
+    if (value == null || root == null) return null;
+
+    root = splay(root, value);
+    return value.compareTo(root.value) == 0 ? root.value : null;
+  }
+
+  /**
+   * splays the closest value to the root and puts value above it
+   * O(log(n)) amortised
+   *
+   * @param value
+   * @return false if value is null or already in the tree
+   */
+  public boolean insert(T value)
+  {
+    if (value == null) return false;
+
+    if (root == null)
+    {
+      root = new Node<>(value);
+      modificationCount++;
+      return true;
+    }
+
+    root = splay(root, value);
+
+    int comparison = value.compareTo(root.value);
+    if (comparison == 0) return false;
+
+//    the old root is the predecessor or the successor of value, split the tree between them
+    Node<T> node = new Node<>(value);
+    if (comparison < 0)
+    {
+      node.left = root.left;
+      node.right = root;
+      root.left = null;
+    }
+    else
+    {
+      node.right = root.right;
+      node.left = root;
+      root.right = null;
+    }
+
+    update(root);
+    update(node);
+    root = node;
+    return true;
+  }
+
+  /**
+   * O(log(n)) amortised
+   *
+   * @param value
+   * @return false if value is not in the tree
+   */
+  public boolean remove(T value)
+  {
+    if (value == null || root == null) return false;
+
+    root = splay(root, value);
+    if (value.compareTo(root.value) != 0) return false;
+
+//    value is greater than everything on the left, so splaying it there brings up the maximum
+//    which has no right child to hang the right subtree from
+    if (root.left == null) root = root.right;
+    else
+    {
+      Node<T> right = root.right;
+      root = splay(root.left, value);
+      root.right = right;
+      update(root);
+    }
+
+    return true;
+  }
+
+  /**
+   * splays the minimum to the root
+   *
+   * @return the minimum value in the tree
+   */
+  public T findMin()
+  {
+    isNotEmptyOrThrow();
+
+    Node<T> node = root;
+    while (node.left != null) node = node.left;
+
+    root = splay(root, node.value);
+    return root.value;
+  }
+
+  /**
+   * splays the maximum to the root
+   *
+   * @return the maximum value in the tree
+   */
+  public T findMax()
+  {
+    isNotEmptyOrThrow();
+
+    Node<T> node = root;
+    while (node.right != null) node = node.right;
+
+    root = splay(root, node.value);
+    return root.value;
+  }
+
+  public void clear()
+  {
+    root = null;
+    modificationCount++;
+  }
+
+  /* Splaying */
+
+  /**
+   * top down splay of the subtree rooted at t: walks down towards value linking every node it
+   * leaves behind into the left tree (smaller values) or the right tree (greater values),
+   * rotating first when two steps go the same way, then makes the last node reached the root
+   * with the left and right trees as its subtrees
+   *
+   * @param t     the root of the subtree to splay, not null
+   * @param value does not need to be in the subtree
+   * @return the new root, holding value if it is in the subtree, otherwise its predecessor or successor
+   */
+  private Node<T> splay(Node<T> t, T value)
+  {
+    Node<T> l = header, r = header;
+    int leftSize = 0, rightSize = 0;
+
+    while (true)
+    {
+      int comparison = value.compareTo(t.value);
+
+      if (comparison < 0)
+      {
+        if (t.left == null) break;
+
+//        zig zig
+        if (value.compareTo(t.left.value) < 0)
+        {
+          t = rotateRight(t);
+          if (t.left == null) break;
+        }
+
+//        link t as the new minimum of the right tree
+        r.left = t;
+        r = t;
+        t = t.left;
+        rightSize += 1 + size(r.right);
+      }
+      else if (comparison > 0)
+      {
+        if (t.right == null) break;
+
+        if (value.compareTo(t.right.value) > 0)
+        {
+          t = rotateLeft(t);
+          if (t.right == null) break;
+        }
+
+//        link t as the new maximum of the left tree
+        l.right = t;
+        l = t;
+        t = t.right;
+        leftSize += 1 + size(l.left);
+      }
+      else break;
+    }
+
+    leftSize += size(t.left);
+    rightSize += size(t.right);
+    t.size = leftSize + rightSize + 1;
+
+//    only the nodes on the right spine of the left tree and the left spine of the right tree
+//    lost part of their subtree, give them their final sizes before t's subtrees are attached
+    l.right = null;
+    r.left = null;
+    for (Node<T> y = header.right; y != null; y = y.right)
+    {
+      y.size = leftSize;
+      leftSize -= 1 + size(y.left);
+    }
+    for (Node<T> y = header.left; y != null; y = y.left)
+    {
+      y.size = rightSize;
+      rightSize -= 1 + size(y.right);
+    }
+
+    l.right = t.left;
+    r.left = t.right;
+    t.left = header.right;
+    t.right = header.left;
+
+    header.left = header.right = null;
+    modificationCount++;
+    return t;
+  }
+
+  /**
+   * only the size of node is updated, the size of the returned node is fixed by splay
+   */
+  private Node<T> rotateRight(Node<T> node)
+  {
+    Node<T> left = node.left;
+    node.left = left.right;
+    left.right = node;
+    update(node);
+    return left;
+  }
+
+  private Node<T> rotateLeft(Node<T> node)
+  {
+    Node<T> right = node.right;
+    node.right = right.left;
+    right.left = node;
+    update(node);
+    return right;
+  }
+
+  private void update(Node<T> node)
+  {
+    node.size = 1 + size(node.left) + size(node.right);
+  }
+
+  private static int size(Node<?> node)
+  {
+    return node == null ? 0 : node.size;
+  }
+
+  /* Bulk construction */
+
+  /**
+   * builds a perfectly balanced tree from strictly increasing values
+   * O(n)
+   *
+   * @param values strictly increasing values
+   * @return
+   */
+  public static <T extends Comparable<T>> SplayTree<T> fromSorted(T[] values)
+  {
+    return fromSorted(Arrays.asList(values));
+  }
+
+  /**
+   * the values are buffered first, the tree needs their count before it can pick the root
+   * O(n)
+   *
+   * @param values strictly increasing values
+   * @return
+   */
+  public static <T extends Comparable<T>> SplayTree<T> fromSorted(Iterator<T> values)
+  {
+    List<T> buffer = new ArrayList<>();
+    values.forEachRemaining(buffer::add);
+    return fromSorted(buffer);
+  }
+
+  private static <T extends Comparable<T>> SplayTree<T> fromSorted(List<T> values)
+  {
+    for (int i = 0; i < values.size(); i++)
+    {
+      if (values.get(i) == null) throw new IllegalArgumentException("values cannot be null; at index: " + i);
+      if (i > 0 && values.get(i).compareTo(values.get(i - 1)) <= 0)
+        throw new IllegalArgumentException("values must be strictly increasing; at index: " + i);
+    }
+
+    SplayTree<T> tree = new SplayTree<>();
+    tree.root = buildFromSorted(values.iterator(), 0, values.size() - 1);
+    return tree;
+  }
+
+  /**
+   * rebuilds the tree perfectly balanced from its in order iterator in O(n), which undoes a long
+   * chain left behind by sequential accesses at once instead of over the next accesses
+   */
+  public void rebalance()
+  {
+    if (root == null) return;
+    root = buildFromSorted(traverse(TreeTraversalOrder.IN_ORDER), 0, size() - 1);
+    modificationCount++;
+  }
+
+  /**
+   * builds the subtree of the values ranked [lo, hi] taking them from values in order
+   *
+   * @return the root of the subtree, null if lo > hi
+   */
+  private static <T> Node<T> buildFromSorted(Iterator<T> values, int lo, int hi)
+  {
+    if (lo > hi) return null;
+
+    int mid = (lo + hi) >>> 1;
+    Node<T> left = buildFromSorted(values, lo, mid - 1);
+
+    Node<T> node = new Node<>(values.next());
+    node.size = hi - lo + 1;
+    node.left = left;
+    node.right = buildFromSorted(values, mid + 1, hi);
+
+    return node;
+  }
+
+  /* Order statistics */
+
+  /**
+   * number of values in the tree strictly less than value
+   * O(log(n)) amortised
+   *
+   * @param value does not need to be in the tree
+   * @return
+   */
+  public int rank(T value)
+  {
+    return rank(value, false);
+  }
+
+  /**
+   * after splaying, the root is value itself or its predecessor or successor, everything on its
+   * left is smaller than it
+   *
+   * @param value
+   * @param inclusive whether to count value itself when it is in the tree
+   * @return the number of values < value (<= value if inclusive)
+   */
+  private int rank(T value, boolean inclusive)
+  {
+    if (root == null) return 0;
+
+    root = splay(root, value);
+
+    int comparison = value.compareTo(root.value);
+    return size(root.left) + (comparison > 0 || (comparison == 0 && inclusive) ? 1 : 0);
+  }
+
+  /**
+   * the value with the given rank, rank 0 being the minimum, splayed to the root
+   * O(log(n)) amortised
+   *
+   * @param rank in [0, size)
+   * @return
+   */
+  public T select(int rank)
+  {
+    if (rank < 0 || rank >= size())
+      throw new IllegalArgumentException("Rank out of bounds; received: " + rank);
+
+    Node<T> node = root;
+    while (true)
+    {
+      int leftSize = size(node.left);
+
+      if (rank < leftSize) node = node.left;
+      else if (rank > leftSize)
+      {
+        rank -= leftSize + 1;
+        node = node.right;
+      }
+      else break;
+    }
+
+    root = splay(root, node.value);
+    return root.value;
+  }
+
+  /**
+   * number of values in the tree within [lo, hi]
+   * O(log(n)) amortised
+   *
+   * @param lo inclusive lower bound
+   * @param hi inclusive upper bound
+   * @return
+   */
+  public int countRange(T lo, T hi)
+  {
+    if (lo.compareTo(hi) > 0) return 0;
+    return rank(hi, true) - rank(lo, false);
+  }
+
+  /**
+   * iterates the values in order starting with the value of the given rank, which is splayed to
+   * the root first so the iterator starts from there
+   *
+   * @param rank in [0, size], rank == size gives an empty iterator
+   * @return
+   */
+  public Iterator<T> iteratorFromRank(int rank)
+  {
+    if (rank < 0 || rank > size())
+      throw new IllegalArgumentException("Rank out of bounds; received: " + rank);
+
+    if (rank == size()) return new InOrderIterator(null);
+
+    select(rank);
+
+    InOrderIterator iterator = new InOrderIterator(null);
+    iterator.stack.push(root);
+    return iterator;
+  }
+
+  /**
+   * walks the tree level by level, the tree can be a chain so there is no recursion
+   *
+   * @return the height, the number of nodes on the longest path from the root to a leaf
+   */
+  public int height()
+  {
+    int height = 0;
+    Queue<Node<T>> level = new ArrayDeque<>();
+    if (root != null) level.offer(root);
+
+    while (!level.isEmpty())
+    {
+      height++;
+      for (int i = level.size(); i > 0; i--)
+      {
+        Node<T> node = level.poll();
+        if (node.left != null) level.offer(node.left);
+        if (node.right != null) level.offer(node.right);
+      }
+    }
+    return height;
+  }
+
+  /* Iterators */
+
+  /**
+   * this methods returns an iterator for a given TreeTraversalOrder
+   * iterating does not splay, but any other access to the tree invalidates the iterator
+   *
+   * @param order - Tree Traversal
+   * @return - Iterator
+   */
+  public Iterator<T> traverse(TreeTraversalOrder order)
+  {
+    switch (order)
+    {
+      case PRE_ORDER:
+        return preOrderTraversal();
+      case IN_ORDER:
+        return new InOrderIterator(root);
+      case POST_ORDER:
+        return postOrderTraversal();
+      case LEVEL_ORDER:
+        return levelOrderTraversal();
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * in order iterator, the stack holds the nodes whose value and right subtree are still to come
+   */
+  private class InOrderIterator implements Iterator<T>
+  {
+    private final int expectedModificationCount = modificationCount;
+    private final Deque<Node<T>> stack = new ArrayDeque<>();
+
+    InOrderIterator(Node<T> node)
+    {
+      pushLeftSpine(node);
+    }
+
+    private void pushLeftSpine(Node<T> node)
+    {
+      for (; node != null; node = node.left) stack.push(node);
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+      if (expectedModificationCount != modificationCount) throw new ConcurrentModificationException();
+      return !stack.isEmpty();
+    }
+
+    @Override
+    public T next()
+    {
+      if (!hasNext()) throw new NoSuchElementException();
+
+      Node<T> node = stack.pop();
+      pushLeftSpine(node.right);
+      return node.value;
+    }
+  }
+
+  private Iterator<T> preOrderTraversal()
+  {
+    final int expectedModificationCount = modificationCount;
+    final Deque<Node<T>> stack = new ArrayDeque<>();
+    if (root != null) stack.push(root);
+
+    return new Iterator<>()
+    {
+      @Override
+      public boolean hasNext()
+      {
+        if (expectedModificationCount != modificationCount) throw new ConcurrentModificationException();
+        return !stack.isEmpty();
+      }
+
+      @Override
+      public T next()
+      {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        Node<T> node = stack.pop();
+        if (node.right != null) stack.push(node.right);
+        if (node.left != null) stack.push(node.left);
+        return node.value;
+      }
+    };
+  }
+
+  private Iterator<T> postOrderTraversal()
+  {
+    final int expectedModificationCount = modificationCount;
+    final Deque<Node<T>> stack = new ArrayDeque<>();
+    pushLeftmostLeafPath(stack, root);
+
+    return new Iterator<>()
+    {
+      @Override
+      public boolean hasNext()
+      {
+        if (expectedModificationCount != modificationCount) throw new ConcurrentModificationException();
+        return !stack.isEmpty();
+      }
+
+      @Override
+      public T next()
+      {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        Node<T> node = stack.pop();
+
+//        when node is the left child of its parent the right subtree of the parent comes next
+        if (!stack.isEmpty() && stack.peek().left == node) pushLeftmostLeafPath(stack, stack.peek().right);
+
+        return node.value;
+      }
+    };
+  }
+
+  /**
+   * pushes the path to the first node in post order of the subtree rooted at node
+   */
+  private static <T> void pushLeftmostLeafPath(Deque<Node<T>> stack, Node<T> node)
+  {
+    while (node != null)
+    {
+      stack.push(node);
+      node = node.left != null ? node.left : node.right;
+    }
+  }
+
+  private Iterator<T> levelOrderTraversal()
+  {
+    final int expectedModificationCount = modificationCount;
+    final Queue<Node<T>> queue = new ArrayDeque<>();
+    if (root != null) queue.offer(root);
+
+    return new Iterator<>()
+    {
+      @Override
+      public boolean hasNext()
+      {
+        if (expectedModificationCount != modificationCount) throw new ConcurrentModificationException();
+        return !queue.isEmpty();
+      }
+
+      @Override
+      public T next()
+      {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        Node<T> node = queue.poll();
+        if (node.left != null) queue.offer(node.left);
+        if (node.right != null) queue.offer(node.right);
+        return node.value;
+      }
+    };
+  }
+
+  /* Error Helper Functions */
+
+  private void isNotEmptyOrThrow()
+  {
+    if (isEmpty()) throw new NoSuchElementException("Tree is empty");
+  }
+
+  /* Test functions */
+
+  /**
+   * checks the ordering and subtree size of every node without recursion, the tree can be a chain
+   * this method is for testing purposes to make sure splaying keeps the augmented sizes up to date
+   *
+   * @return
+   */
+  public boolean isValidSplayTree()
+  {
+    Deque<Node<T>> stack = new ArrayDeque<>();
+    if (root != null) stack.push(root);
+
+    while (!stack.isEmpty())
+    {
+      Node<T> node = stack.pop();
+      if (node.size != 1 + size(node.left) + size(node.right)) return false;
+      if (node.left != null) stack.push(node.left);
+      if (node.right != null) stack.push(node.right);
+    }
+
+    T previous = null;
+    for (Iterator<T> it = traverse(TreeTraversalOrder.IN_ORDER); it.hasNext(); )
+    {
+      T value = it.next();
+      if (previous != null && previous.compareTo(value) >= 0) return false;
+      previous = value;
+    }
+    return true;
+  }
+
+  @Override
+  public String toString()
+  {
+    return TreePrinter.getTreeDisplay(root);
+  }
+}
@@ -0,0 +1,516 @@
+package dev.aybarsacar.datastructures.trees.trie;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Compressed trie (Patricia trie) of scored terms for prefix search and autocomplete
+ * <p>
+ * every chain of nodes with a single child is merged into one edge, so the trie has at most
+ * 2n nodes for n terms whatever their length. Edge labels are not stored as strings: a label is a
+ * slice [labelStart, labelStart + labelLength) of one shared char buffer that only ever grows by
+ * the new suffix of an inserted term, and splitting an edge just splits its slice
+ * <p>
+ * every node caches the greatest score of the terms below it, so the K best completions of a
+ * prefix are found best first: a priority queue of nodes ordered by those cached maxima only ever
+ * expands subtrees that can still hold one of the K best terms
+ * <p>
+ * children are kept sorted by the first char of their label, which gives lexicographic prefix
+ * enumeration and O(log(fan out)) child lookup
+ * this implementation does not allow null terms
+ */
+public class PatriciaTrie
+{
+  private static final int INITIAL_BUFFER = 64;
+
+  private static final class Node
+  {
+    int labelStart, labelLength;      // slice of the shared buffer labelling the edge into this node
+    boolean terminal;                 // whether the path to this node spells a term
+    long score;                       // the score of that term
+    long maxScore = Long.MIN_VALUE;   // greatest score of a term in the subtree rooted at this node
+
+    //  children sorted by the first char of their label
+    char[] firstChars = new char[2];
+    Node[] children = new Node[2];
+    int childCount;
+
+    Node(int labelStart, int labelLength)
+    {
+      this.labelStart = labelStart;
+      this.labelLength = labelLength;
+    }
+
+    /**
+     * @return the index of the child whose label starts with c, or -(insertion point) - 1
+     */
+    int find(char c)
+    {
+      return Arrays.binarySearch(firstChars, 0, childCount, c);
+    }
+
+    void insertChild(int index, char c, Node child)
+    {
+      if (childCount == children.length)
+      {
+        firstChars = Arrays.copyOf(firstChars, 2 * childCount);
+        children = Arrays.copyOf(children, 2 * childCount);
+      }
+
+      System.arraycopy(firstChars, index, firstChars, index + 1, childCount - index);
+      System.arraycopy(children, index, children, index + 1, childCount - index);
+      firstChars[index] = c;
+      children[index] = child;
+      childCount++;
+    }
+
+    /**
+     * recomputes maxScore from the node's own score and its children
+     */
+    void updateMaxScore()
+    {
+      long max = terminal ? score : Long.MIN_VALUE;
+      for (int i = 0; i < childCount; i++) max = Math.max(max, children[i].maxScore);
+      maxScore = max;
+    }
+  }
+
+  private final Node root = new Node(0, 0);
+  private char[] buffer = new char[INITIAL_BUFFER];
+  private int bufferSize;
+
+  private int size, nodeCount = 1;
+  private int modificationCount;
+
+  public int size()
+  {
+    return size;
+  }
+
+  public boolean isEmpty()
+  {
+    return size == 0;
+  }
+
+  /**
+   * @return the number of nodes including the root, at most 2 * size + 1
+   */
+  public int nodeCount()
+  {
+    return nodeCount;
+  }
+
+  /**
+   * @return the number of chars used by the shared label buffer
+   */
+  public int labelChars()
+  {
+    return bufferSize;
+  }
+
+  /**
+   * inserts term with the given score, replacing the score if the term already exists
+   * O(m log(fan out)) for a term of m chars
+   *
+   * @param term
+   * @param score
+   * @return true if the term was not in the trie before
+   */
+  public boolean put(String term, long score)
+  {
+    termNotNullOrThrow(term);
+
+    List<Node> path = new ArrayList<>();
+    Node node = root;
+    int i = 0;
+
+    while (true)
+    {
+      path.add(node);
+      if (i == term.length()) break;
+
+      char c = term.charAt(i);
+      int index = node.find(c);
+
+      if (index < 0)
+      {
+        Node leaf = new Node(append(term, i), term.length() - i);
+        node.insertChild(-index - 1, c, leaf);
+        nodeCount++;
+
+        node = leaf;
+        path.add(node);
+        break;
+      }
+
+      Node child = node.children[index];
+      int matched = matchLabel(child, term, i);
+
+      if (matched < child.labelLength)
+      {
+//        the term leaves the edge part way, split it with a node where they differ
+        Node middle = new Node(child.labelStart, matched);
+        child.labelStart += matched;
+        child.labelLength -= matched;
+        middle.insertChild(0, buffer[child.labelStart], child);
+        middle.maxScore = child.maxScore;
+        node.children[index] = middle;
+        nodeCount++;
+
+        child = middle;
+      }
+
+      node = child;
+      i += matched;
+    }
+
+    boolean added = !node.terminal;
+    boolean lowered = !added && score < node.score;
+
+    node.terminal = true;
+    node.score = score;
+
+    if (added) size++;
+    modificationCount++;
+
+//    a higher score only raises the maxima on the path, a lower one may have been the maximum
+    for (int depth = path.size() - 1; depth >= 0; depth--)
+    {
+      Node onPath = path.get(depth);
+      if (lowered) onPath.updateMaxScore();
+      else onPath.maxScore = Math.max(onPath.maxScore, score);
+    }
+    return added;
+  }
+
+  /**
+   * appends term[from, length) to the shared buffer
+   *
+   * @return the start of the new slice
+   */
+  private int append(String term, int from)
+  {
+    int length = term.length() - from;
+    if (bufferSize + length > buffer.length) buffer = Arrays.copyOf(buffer, Math.max(2 * buffer.length, bufferSize + length));
+
+    term.getChars(from, term.length(), buffer, bufferSize);
+    bufferSize += length;
+    return bufferSize - length;
+  }
+
+  /**
+   * @return the number of leading chars of the label of node matching text from
+   */
+  private int matchLabel(Node node, String text, int from)
+  {
+    int end = Math.min(node.labelLength, text.length() - from);
+
+    int i = 0;
+    while (i < end && buffer[node.labelStart + i] == text.charAt(from + i)) i++;
+    return i;
+  }
+
+  public boolean contains(String term)
+  {
+    termNotNullOrThrow(term);
+
+    Node node = findNode(term);
+    return node != null && node.terminal;
+  }
+
+  /**
+   * O(m log(fan out)) for a term of m chars
+   *
+   * @param term
+   * @param defaultScore returned when the term is not in the trie
+   * @return the score of term
+   */
+  public long getScore(String term, long defaultScore)
+  {
+    termNotNullOrThrow(term);
+
+    Node node = findNode(term);
+    return node != null && node.terminal ? node.score : defaultScore;
+  }
+
+  /**
+   * @return the node whose path spells exactly text, or null
+   */
+  private Node findNode(String text)
+  {
+    Node node = root;
+    int i = 0;
+
+    while (i < text.length())
+    {
+      int index = node.find(text.charAt(i));
+      if (index < 0) return null;
+
+      node = node.children[index];
+      int matched = matchLabel(node, text, i);
+      if (matched < node.labelLength) return null;
+
+      i += matched;
+    }
+    return node;
+  }
+
+  /**
+   * finds the highest node whose path starts with prefix, every term below it has the prefix
+   *
+   * @param path filled with the chars spelled by the path to that node, which may go past the prefix
+   * @return the node or null if no term has the prefix
+   */
+  private Node locate(String prefix, StringBuilder path)
+  {
+    Node node = root;
+    int i = 0;
+
+    while (i < prefix.length())
+    {
+      int index = node.find(prefix.charAt(i));
+      if (index < 0) return null;
+
+      node = node.children[index];
+      int matched = matchLabel(node, prefix, i);
+      if (matched < node.labelLength && i + matched < prefix.length()) return null;
+
+      path.append(buffer, node.labelStart, node.labelLength);
+      i += node.labelLength;
+    }
+    return node;
+  }
+
+  /* Prefix search */
+
+  /**
+   * the terms starting with prefix in lexicographic (char by char) order
+   * O(m log(fan out)) to find the prefix, then O(1) amortized per node visited
+   *
+   * @param prefix an empty prefix enumerates every term
+   * @return
+   */
+  public Iterator<String> prefixIterator(String prefix)
+  {
+    termNotNullOrThrow(prefix);
+
+    StringBuilder path = new StringBuilder();
+    Node node = locate(prefix, path);
+    return new PrefixIterator(node, path);
+  }
+
+  /**
+   * depth first, pre order walk over a subtree, the text of the current path is kept in a
+   * StringBuilder and cut back when the walk leaves a node
+   */
+  private class PrefixIterator implements Iterator<String>
+  {
+    private final int expectedModificationCount = modificationCount;
+
+    private final StringBuilder text;
+    private final Deque<Node> nodes = new ArrayDeque<>();
+    private final Deque<int[]> nextChild = new ArrayDeque<>();
+
+    private String next;
+
+    PrefixIterator(Node start, StringBuilder text)
+    {
+      this.text = text;
+
+      if (start != null)
+      {
+        nodes.push(start);
+        nextChild.push(new int[1]);
+        if (start.terminal) next = text.toString();
+      }
+      if (next == null) advance();
+    }
+
+    /**
+     * moves to the next terminal node in pre order and sets next to its text, or null
+     */
+    private void advance()
+    {
+      next = null;
+
+      while (next == null && !nodes.isEmpty())
+      {
+        Node node = nodes.peek();
+        int[] index = nextChild.peek();
+
+        if (index[0] == node.childCount)
+        {
+          nodes.pop();
+          nextChild.pop();
+          if (!nodes.isEmpty()) text.setLength(text.length() - node.labelLength);
+          continue;
+        }
+
+        Node child = node.children[index[0]++];
+        text.append(buffer, child.labelStart, child.labelLength);
+        nodes.push(child);
+        nextChild.push(new int[1]);
+
+        if (child.terminal) next = text.toString();
+      }
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+      if (expectedModificationCount != modificationCount) throw new ConcurrentModificationException();
+      return next != null;
+    }
+
+    @Override
+    public String next()
+    {
+      if (!hasNext()) throw new NoSuchElementException();
+
+      String term = next;
+      advance();
+      return term;
+    }
+  }
+
+  /* Autocomplete */
+
+  /**
+   * a subtree still to be expanded, or a term, waiting in the best first search of topK
+   */
+  private static final class Candidate
+  {
+    final Node node;
+    final Candidate parent;           // the candidate of the parent node, to rebuild the text
+    final boolean term;               // true for the term at node, false for the subtree at node
+    final long priority;
+
+    Candidate(Node node, Candidate parent, boolean term)
+    {
+      this.node = node;
+      this.parent = parent;
+      this.term = term;
+      this.priority = term ? node.score : node.maxScore;
+    }
+  }
+
+  /**
+   * the k terms with the highest scores starting with prefix, highest score first
+   * a subtree is only expanded when its best term could still be among the k best, so this
+   * costs O(k * fan out * log(k * fan out)) after finding the prefix, independent of the number
+   * of terms with the prefix
+   *
+   * @param prefix
+   * @param k
+   * @return at most k terms
+   */
+  public List<String> topK(String prefix, int k)
+  {
+    termNotNullOrThrow(prefix);
+    if (k <= 0) throw new IllegalArgumentException("k cannot be less than or equal to zero");
+
+    StringBuilder path = new StringBuilder();
+    Node start = locate(prefix, path);
+    List<String> result = new ArrayList<>(k);
+    if (start == null) return result;
+
+    String startText = path.toString();
+
+//    highest priority first, a term before a subtree of the same priority since it can be emitted at once
+    PriorityQueue<Candidate> queue = new PriorityQueue<>((a, b) ->
+        a.priority != b.priority ? Long.compare(b.priority, a.priority) : Boolean.compare(b.term, a.term));
+    queue.add(new Candidate(start, null, false));
+
+    while (!queue.isEmpty() && result.size() < k)
+    {
+      Candidate candidate = queue.poll();
+      Node node = candidate.node;
+
+      if (candidate.term)
+      {
+        result.add(text(startText, candidate));
+        continue;
+      }
+
+      if (node.terminal) queue.add(new Candidate(node, candidate, true));
+      for (int i = 0; i < node.childCount; i++) queue.add(new Candidate(node.children[i], candidate, false));
+    }
+    return result;
+  }
+
+  /**
+   * @return startText followed by the labels on the path from the start candidate to candidate
+   */
+  private String text(String startText, Candidate candidate)
+  {
+//    a term candidate has the same node as its parent
+    if (candidate.term) candidate = candidate.parent;
+
+    int length = startText.length();
+    for (Candidate c = candidate; c.parent != null; c = c.parent) length += c.node.labelLength;
+
+    char[] chars = new char[length];
+    startText.getChars(0, startText.length(), chars, 0);
+
+    for (Candidate c = candidate; c.parent != null; c = c.parent)
+    {
+      length -= c.node.labelLength;
+      System.arraycopy(buffer, c.node.labelStart, chars, length, c.node.labelLength);
+    }
+    return new String(chars);
+  }
+
+  /* Error Helper Functions */
+
+  private void termNotNullOrThrow(String term)
+  {
+    if (term == null) throw new IllegalArgumentException("term cannot be null");
+  }
+
+  /* Test functions */
+
+  /**
+   * checks that labels are non empty and children sorted by their first char, that only terms
+   * and branches have nodes, and that every cached maximum score is correct
+   * this method is for testing purposes to make sure edge splits and score updates keep the
+   * trie compressed and consistent
+   *
+   * @return
+   */
+  public boolean isValidTrie()
+  {
+    int[] counts = new int[2];
+    return isValidTrie(root, true, counts) && counts[0] == size && counts[1] == nodeCount;
+  }
+
+  /**
+   * @param counts terms and nodes seen so far
+   */
+  private boolean isValidTrie(Node node, boolean isRoot, int[] counts)
+  {
+    counts[1]++;
+    if (node.terminal) counts[0]++;
+
+    if (!isRoot && node.labelLength == 0) return false;
+    if (!isRoot && !node.terminal && node.childCount < 2) return false;
+
+    long max = node.terminal ? node.score : Long.MIN_VALUE;
+    for (int i = 0; i < node.childCount; i++)
+    {
+      Node child = node.children[i];
+      if (node.firstChars[i] != buffer[child.labelStart]) return false;
+      if (i > 0 && node.firstChars[i - 1] >= node.firstChars[i]) return false;
+      if (!isValidTrie(child, false, counts)) return false;
+
+      max = Math.max(max, child.maxScore);
+    }
+    return node.maxScore == max;
+  }
+}
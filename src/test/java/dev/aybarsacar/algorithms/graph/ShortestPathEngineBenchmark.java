@@ -0,0 +1,64 @@
+package dev.aybarsacar.algorithms.graph;
+
+import java.util.Random;
+
+/**
+ * Point to point query throughput of ShortestPathEngine on a 1000 x 1000 grid for several heap
+ * degrees, with and without an A* heuristic
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class ShortestPathEngineBenchmark
+{
+  private static final int SIDE = 1000;
+  private static final int QUERIES = 50;
+  private static final int[] DEGREES = {2, 4, 8};
+
+  public static void main(String[] args)
+  {
+    CsrGraph graph = grid(new Random(1));
+    ShortestPathEngine.Heuristic manhattan = (node, target) ->
+        Math.abs(node / SIDE - target / SIDE) + Math.abs(node % SIDE - target % SIDE);
+
+    for (int degree : DEGREES)
+    {
+      ShortestPathEngine engine = new ShortestPathEngine(graph, degree);
+
+      Random random = new Random(2);
+      long start = System.nanoTime();
+      for (int q = 0; q < QUERIES; q++) engine.shortestPath(random.nextInt(SIDE * SIDE), random.nextInt(SIDE * SIDE));
+      long dijkstra = System.nanoTime() - start;
+
+      random = new Random(2);
+      start = System.nanoTime();
+      for (int q = 0; q < QUERIES; q++)
+        engine.shortestPath(random.nextInt(SIDE * SIDE), random.nextInt(SIDE * SIDE), manhattan);
+      long aStar = System.nanoTime() - start;
+
+      System.out.printf("D=%d: Dijkstra %.1f queries/s, A* %.1f queries/s%n",
+          degree, QUERIES / (dijkstra / 1e9), QUERIES / (aStar / 1e9));
+    }
+  }
+
+  private static CsrGraph grid(Random random)
+  {
+    int m = 4 * SIDE * (SIDE - 1);
+    int[] from = new int[m], to = new int[m];
+    double[] weights = new double[m];
+
+    int e = 0;
+    for (int u = 0; u < SIDE * SIDE; u++)
+    {
+      int[] neighbours = {u % SIDE + 1 < SIDE ? u + 1 : -1, u + SIDE < SIDE * SIDE ? u + SIDE : -1};
+      for (int v : neighbours)
+      {
+        if (v == -1) continue;
+        double w = 1 + random.nextInt(10);
+        from[e] = u; to[e] = v; weights[e++] = w;
+        from[e] = v; to[e] = u; weights[e++] = w;
+      }
+    }
+
+    return new CsrGraph(SIDE * SIDE, from, to, weights);
+  }
+}
@@ -0,0 +1,93 @@
+package dev.aybarsacar.algorithms.graph;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ShortestPathEngineTest
+{
+  private static final int SIDE = 30;
+
+  /**
+   * 0 -> 1 (4), 0 -> 2 (1), 2 -> 1 (2), 1 -> 3 (1), 2 -> 3 (5), 4 is unreachable
+   */
+  private static CsrGraph smallGraph()
+  {
+    return new CsrGraph(5,
+        new int[]{0, 0, 2, 1, 2},
+        new int[]{1, 2, 1, 3, 3},
+        new double[]{4, 1, 2, 1, 5});
+  }
+
+  /**
+   * a SIDE x SIDE grid with edges in both directions whose weights are at least 1
+   */
+  private static CsrGraph grid()
+  {
+    int m = 4 * SIDE * (SIDE - 1);
+    int[] from = new int[m], to = new int[m];
+    double[] weights = new double[m];
+
+    int e = 0;
+    for (int r = 0; r < SIDE; r++)
+    {
+      for (int c = 0; c < SIDE; c++)
+      {
+        int u = r * SIDE + c;
+        if (c + 1 < SIDE) e = edge(from, to, weights, e, u, u + 1);
+        if (r + 1 < SIDE) e = edge(from, to, weights, e, u, u + SIDE);
+      }
+    }
+
+    return new CsrGraph(SIDE * SIDE, from, to, weights);
+  }
+
+  private static int edge(int[] from, int[] to, double[] weights, int e, int u, int v)
+  {
+    double w = 1 + ((u * 31 + v * 17) % 5);
+    from[e] = u; to[e] = v; weights[e++] = w;
+    from[e] = v; to[e] = u; weights[e++] = w;
+    return e;
+  }
+
+  @Test
+  public void findsShortestPaths()
+  {
+    ShortestPathEngine engine = new ShortestPathEngine(smallGraph(), 2);
+
+    engine.shortestPaths(0);
+    Assertions.assertEquals(3, engine.distanceTo(1));
+    Assertions.assertEquals(4, engine.distanceTo(3));
+    Assertions.assertEquals(Double.POSITIVE_INFINITY, engine.distanceTo(4));
+    Assertions.assertArrayEquals(new int[]{0, 2, 1, 3}, engine.pathTo(3));
+    Assertions.assertArrayEquals(new int[0], engine.pathTo(4));
+  }
+
+  @Test
+  public void reusesTheSearchStateBetweenQueries()
+  {
+    ShortestPathEngine engine = new ShortestPathEngine(smallGraph());
+
+    Assertions.assertEquals(1, engine.shortestPath(0, 2));
+    Assertions.assertEquals(1, engine.shortestPath(1, 3));
+    Assertions.assertEquals(Double.POSITIVE_INFINITY, engine.distanceTo(0));
+    Assertions.assertEquals(Double.POSITIVE_INFINITY, engine.shortestPath(3, 0));
+  }
+
+  @Test
+  public void aStarMatchesDijkstra()
+  {
+    CsrGraph graph = grid();
+    ShortestPathEngine dijkstra = new ShortestPathEngine(graph, 2);
+    ShortestPathEngine aStar = new ShortestPathEngine(graph, 8);
+
+//    manhattan distance is consistent because every weight is at least 1
+    ShortestPathEngine.Heuristic manhattan = (node, target) ->
+        Math.abs(node / SIDE - target / SIDE) + Math.abs(node % SIDE - target % SIDE);
+
+    for (int target = 0; target < SIDE * SIDE; target += 37)
+    {
+      dijkstra.shortestPaths(5);
+      Assertions.assertEquals(dijkstra.distanceTo(target), aStar.shortestPath(5, target, manhattan));
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package dev.aybarsacar.algorithms.sorting;
+
+import dev.aybarsacar.datastructures.priorityqueue.BinaryHeap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares merging k sorted runs with LoserTreeMerge, LongLoserTreeMerge and a BinaryHeap
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class LoserTreeMergeBenchmark
+{
+  private static final int RUNS = 256;
+  private static final int RUN_LENGTH = 20_000;
+  private static final int ROUNDS = 5;
+
+  public static void main(String[] args)
+  {
+    Random random = new Random(1);
+    long[][] runs = new long[RUNS][];
+    for (int i = 0; i < RUNS; i++) runs[i] = random.longs(RUN_LENGTH).sorted().toArray();
+
+    for (int round = 0; round < ROUNDS; round++)
+    {
+      long start = System.nanoTime();
+      long loserTree = checksum(LoserTreeMerge.of(iterators(runs)));
+      long loserTreeTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      long primitive = 0;
+      for (long elem : LongLoserTreeMerge.merge(runs)) primitive = primitive * 31 + elem;
+      long primitiveTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      long heap = heapMerge(runs);
+      long heapTime = System.nanoTime() - start;
+
+      if (loserTree != primitive || loserTree != heap) throw new IllegalStateException("merges differ");
+
+      System.out.printf("round %d: LoserTreeMerge %d ms, LongLoserTreeMerge %d ms, BinaryHeap %d ms%n",
+          round, loserTreeTime / 1_000_000, primitiveTime / 1_000_000, heapTime / 1_000_000);
+    }
+  }
+
+  private static List<Iterator<Long>> iterators(long[][] runs)
+  {
+    List<Iterator<Long>> iterators = new ArrayList<>();
+    for (long[] run : runs) iterators.add(Arrays.stream(run).iterator());
+    return iterators;
+  }
+
+  private static long checksum(Iterator<Long> merged)
+  {
+    long checksum = 0;
+    while (merged.hasNext()) checksum = checksum * 31 + merged.next();
+    return checksum;
+  }
+
+  /**
+   * the heap based merge the loser tree replaces, heads are polled and the next element
+   * of the same run is added back
+   */
+  private static long heapMerge(long[][] runs)
+  {
+    BinaryHeap<Head> heap = new BinaryHeap<>(runs.length);
+    List<Iterator<Long>> iterators = iterators(runs);
+    for (int i = 0; i < runs.length; i++) if (iterators.get(i).hasNext()) heap.add(new Head(iterators.get(i).next(), i));
+
+    long checksum = 0;
+    while (!heap.isEmpty())
+    {
+      Head head = heap.poll();
+      checksum = checksum * 31 + head.value;
+
+      Iterator<Long> run = iterators.get(head.run);
+      if (run.hasNext()) heap.add(new Head(run.next(), head.run));
+    }
+    return checksum;
+  }
+
+  private static class Head implements Comparable<Head>
+  {
+    final long value;
+    final int run;
+
+    Head(long value, int run)
+    {
+      this.value = value;
+      this.run = run;
+    }
+
+    @Override
+    public int compareTo(Head other)
+    {
+      int comparison = Long.compare(value, other.value);
+      return comparison != 0 ? comparison : Integer.compare(run, other.run);
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package dev.aybarsacar.algorithms.sorting;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+public class LoserTreeMergeTest
+{
+  @Test
+  public void mergesIterators()
+  {
+    List<Iterator<Integer>> runs = List.of(
+        List.of(1, 4, 9).iterator(),
+        List.<Integer>of().iterator(),
+        List.of(2, 3, 10, 11).iterator(),
+        List.of(0, 5).iterator(),
+        List.of(7).iterator());
+
+    Assertions.assertEquals(List.of(0, 1, 2, 3, 4, 5, 7, 9, 10, 11), LoserTreeMerge.merge(runs, Comparator.naturalOrder()));
+  }
+
+  @Test
+  public void isStable()
+  {
+    List<Iterator<String>> runs = List.of(List.of("b1", "c1").iterator(), List.of("a2", "b2").iterator());
+
+    LoserTreeMerge<String> merge = new LoserTreeMerge<>(runs, Comparator.comparing(s -> s.charAt(0)));
+
+    StringBuilder sb = new StringBuilder();
+    while (merge.hasNext()) sb.append(merge.next()).append(' ');
+
+    Assertions.assertEquals("a2 b1 b2 c1 ", sb.toString());
+  }
+
+  @Test
+  public void mergesPrimitiveArrays()
+  {
+    Random random = new Random(7);
+
+    for (int k = 1; k <= 17; k++)
+    {
+      long[][] longRuns = new long[k][];
+      int[][] intRuns = new int[k][];
+      long[] expected = new long[0];
+
+      for (int i = 0; i < k; i++)
+      {
+        longRuns[i] = random.longs(random.nextInt(20), -50, 50).sorted().toArray();
+        intRuns[i] = Arrays.stream(longRuns[i]).mapToInt(x -> (int) x).toArray();
+
+        long[] concat = Arrays.copyOf(expected, expected.length + longRuns[i].length);
+        System.arraycopy(longRuns[i], 0, concat, expected.length, longRuns[i].length);
+        expected = concat;
+      }
+      Arrays.sort(expected);
+
+      Assertions.assertArrayEquals(expected, LongLoserTreeMerge.merge(longRuns));
+      Assertions.assertArrayEquals(Arrays.stream(expected).mapToInt(x -> (int) x).toArray(), IntLoserTreeMerge.merge(intRuns));
+    }
+  }
+}
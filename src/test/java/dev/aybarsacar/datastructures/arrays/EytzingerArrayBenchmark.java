@@ -0,0 +1,126 @@
+package dev.aybarsacar.datastructures.arrays;
+
+import dev.aybarsacar.datastructures.trees.bst.BinarySearchTree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Rank queries of random keys against IntEytzingerArray.lowerBound, Arrays.binarySearch over the
+ * sorted array and BinarySearchTree.rank, from 4 KB of keys (L1) to 128 MB (far beyond L3)
+ * the tree is skipped above MAX_TREE_SIZE keys, it needs ~60 bytes a key
+ * <p>
+ * the threaded row runs the same queries on every available processor at once, wall time divided
+ * by the total number of queries, to show the read only searches scale with the readers
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class EytzingerArrayBenchmark
+{
+  private static final int QUERIES = 1_000_000;
+  private static final int MAX_TREE_SIZE = 1 << 22;
+  private static final int ROUNDS = 2;
+  private static final int THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+  public static void main(String[] args) throws InterruptedException
+  {
+    Random random = new Random(1);
+    System.out.printf("%d available processors%n", Runtime.getRuntime().availableProcessors());
+
+    for (int log = 10; log <= 25; log += 3)
+    {
+      int n = 1 << log;
+
+//      distinct sorted keys, so every structure agrees on the rank
+      int[] sorted = new int[n];
+      for (int i = 0; i < n; i++) sorted[i] = 4 * i + random.nextInt(4);
+
+      int[] queries = new int[QUERIES];
+      for (int i = 0; i < QUERIES; i++) queries[i] = random.nextInt(4 * n);
+
+      IntEytzingerArray eytzinger = new IntEytzingerArray(sorted);
+
+      BinarySearchTree<Integer> tree = null;
+      if (n <= MAX_TREE_SIZE)
+      {
+        int[] shuffled = sorted.clone();
+        for (int i = n - 1; i > 0; i--)
+        {
+          int j = random.nextInt(i + 1), tmp = shuffled[i];
+          shuffled[i] = shuffled[j];
+          shuffled[j] = tmp;
+        }
+
+        tree = new BinarySearchTree<>();
+        for (int key : shuffled) tree.insert(key);
+      }
+
+      System.out.printf("%d keys (%d KB as int[])%n", n, n / 256);
+
+      for (int round = 0; round < ROUNDS; round++)
+      {
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int query : queries) checksum += eytzinger.lowerBound(query);
+        long eytzingerTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int query : queries)
+        {
+          int index = Arrays.binarySearch(sorted, query);
+          checksum -= index >= 0 ? index : -index - 1;
+        }
+        long binaryTime = System.nanoTime() - start;
+
+        String treeTime = "-";
+        if (tree != null)
+        {
+          start = System.nanoTime();
+          for (int query : queries) checksum += tree.rank(query);
+          treeTime = String.format("%.1f", (System.nanoTime() - start) / (double) QUERIES);
+        }
+
+        System.out.printf("  IntEytzingerArray %6.1f ns  Arrays.binarySearch %6.1f ns  BinarySearchTree %6s ns  (%d)%n",
+            eytzingerTime / (double) QUERIES, binaryTime / (double) QUERIES, treeTime, checksum);
+      }
+
+      double eytzingerThreaded = threaded(queries, eytzinger::lowerBound);
+      double binaryThreaded = threaded(queries, query ->
+      {
+        int index = Arrays.binarySearch(sorted, query);
+        return index >= 0 ? index : -index - 1;
+      });
+
+      System.out.printf("  %d threads: IntEytzingerArray %6.1f ns  Arrays.binarySearch %6.1f ns%n",
+          THREADS, eytzingerThreaded, binaryThreaded);
+    }
+  }
+
+  /**
+   * every thread runs all the queries
+   *
+   * @return wall time per query over all threads in ns
+   */
+  private static double threaded(int[] queries, IntUnaryOperator search) throws InterruptedException
+  {
+    List<Thread> workers = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++)
+    {
+      workers.add(new Thread(() ->
+      {
+        long checksum = 0;
+        for (int query : queries) checksum += search.applyAsInt(query);
+        if (checksum < 0) System.out.println(checksum);
+      }));
+    }
+
+    long start = System.nanoTime();
+    for (Thread worker : workers) worker.start();
+    for (Thread worker : workers) worker.join();
+
+    return (System.nanoTime() - start) / (double) THREADS / queries.length;
+  }
+}
@@ -0,0 +1,55 @@
+package dev.aybarsacar.datastructures.arrays;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class IntEytzingerArrayTest
+{
+  @Test
+  public void matchesBinarySearchTest()
+  {
+    Random random = new Random(4);
+
+    for (int n : new int[]{0, 1, 2, 3, 4, 1000, 1023, 1024, 1025})
+    {
+      int[] values = new int[n];
+      for (int i = 0; i < n; i++) values[i] = random.nextInt();
+
+      IntEytzingerArray array = new IntEytzingerArray(values);
+      Arrays.sort(values);
+
+      Assertions.assertTrue(array.isValidEytzinger());
+      for (int i = 0; i < n; i++)
+      {
+        Assertions.assertEquals(values[i], array.get(i));
+        Assertions.assertEquals(i, array.rank(values[i]));
+        Assertions.assertEquals(i + 1, array.upperBound(values[i]));
+      }
+
+      for (int i = 0; i < 1000; i++)
+      {
+        int key = random.nextInt();
+        int index = Arrays.binarySearch(values, key);
+
+        Assertions.assertEquals(index >= 0, array.contains(key));
+        if (index < 0) Assertions.assertEquals(-index - 1, array.lowerBound(key));
+      }
+    }
+  }
+
+  @Test
+  public void duplicatesTest()
+  {
+    IntEytzingerArray array = new IntEytzingerArray(new int[]{7, 7, 7, 1, Integer.MAX_VALUE, 7});
+
+    Assertions.assertTrue(array.isValidEytzinger());
+    Assertions.assertEquals(1, array.lowerBound(7));
+    Assertions.assertEquals(5, array.upperBound(7));
+    Assertions.assertEquals(4, array.countRange(2, 7));
+    Assertions.assertEquals(5, array.rank(Integer.MAX_VALUE));
+    Assertions.assertEquals(6, array.upperBound(Integer.MAX_VALUE));
+  }
+}
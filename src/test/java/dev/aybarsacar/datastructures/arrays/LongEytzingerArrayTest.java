@@ -0,0 +1,73 @@
+package dev.aybarsacar.datastructures.arrays;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class LongEytzingerArrayTest
+{
+  /**
+   * the first index in sorted with sorted[index] >= key, or > key if strict
+   */
+  private static int naiveBound(long[] sorted, long key, boolean strict)
+  {
+    int i = 0;
+    while (i < sorted.length && (strict ? sorted[i] <= key : sorted[i] < key)) i++;
+    return i;
+  }
+
+  @Test
+  public void matchesSortedArrayTest()
+  {
+    Random random = new Random(3);
+
+//    every size up to two full levels, so each amount of padding is covered
+    for (int n = 0; n <= 70; n++)
+    {
+      long[] values = new long[n];
+      for (int i = 0; i < n; i++) values[i] = random.nextInt(40) - 20;
+
+      LongEytzingerArray array = new LongEytzingerArray(values);
+      Arrays.sort(values);
+
+      Assertions.assertTrue(array.isValidEytzinger());
+      Assertions.assertEquals(n, array.size());
+      for (int i = 0; i < n; i++) Assertions.assertEquals(values[i], array.get(i));
+
+      for (long key = -22; key <= 22; key++)
+      {
+        Assertions.assertEquals(naiveBound(values, key, false), array.lowerBound(key));
+        Assertions.assertEquals(naiveBound(values, key, true), array.upperBound(key));
+        Assertions.assertEquals(Arrays.binarySearch(values, key) >= 0, array.contains(key));
+        Assertions.assertEquals(naiveBound(values, key + 3, true) - naiveBound(values, key, false), array.countRange(key, key + 3));
+      }
+    }
+  }
+
+  @Test
+  public void extremeValuesTest()
+  {
+    LongEytzingerArray array = new LongEytzingerArray(new long[]{Long.MAX_VALUE, 5, Long.MIN_VALUE, Long.MAX_VALUE});
+
+    Assertions.assertTrue(array.isValidEytzinger());
+    Assertions.assertEquals("[-9223372036854775808, 5, 9223372036854775807, 9223372036854775807]", array.toString());
+
+    Assertions.assertEquals(0, array.lowerBound(Long.MIN_VALUE));
+    Assertions.assertEquals(2, array.lowerBound(Long.MAX_VALUE));
+    Assertions.assertEquals(4, array.upperBound(Long.MAX_VALUE));
+    Assertions.assertEquals(2, array.countRange(Long.MAX_VALUE, Long.MAX_VALUE));
+    Assertions.assertTrue(array.contains(Long.MAX_VALUE));
+    Assertions.assertFalse(array.contains(6));
+    Assertions.assertEquals(0, array.countRange(6, 5));
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> array.get(4));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new LongEytzingerArray(null));
+
+    LongEytzingerArray empty = new LongEytzingerArray(new long[0]);
+    Assertions.assertTrue(empty.isEmpty());
+    Assertions.assertEquals(0, empty.lowerBound(1));
+    Assertions.assertFalse(empty.contains(Long.MAX_VALUE));
+  }
+}
@@ -0,0 +1,29 @@
+package dev.aybarsacar.datastructures.hashtables;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class HashTableLinearProbingTest
+{
+  @Test
+  public void growsPastItsThresholdWithTombstones()
+  {
+    HashTableLinearProbing<Integer, Integer> table = new HashTableLinearProbing<>();
+
+//    remove every third key so the table holds tombstones when it resizes
+    for (int key = 0; key < 1000; key++)
+    {
+      table.put(key, -key);
+      if (key % 3 == 0) table.remove(key);
+    }
+
+    Assertions.assertTrue(table.getCapacity() > 1000);
+    Assertions.assertEquals(666, table.size());
+
+    for (int key = 0; key < 1000; key++)
+    {
+      Assertions.assertEquals(key % 3 != 0, table.containsKey(key));
+      Assertions.assertEquals(key % 3 == 0 ? null : -key, table.get(key));
+    }
+  }
+}
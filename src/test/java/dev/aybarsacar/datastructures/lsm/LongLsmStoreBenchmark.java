@@ -0,0 +1,140 @@
+package dev.aybarsacar.datastructures.lsm;
+
+import dev.aybarsacar.datastructures.trees.btree.LongDiskBPlusTree;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Random writes, point lookups of present and absent keys and range scans over a LongLsmStore in
+ * local files, next to the same workload on a LongDiskBPlusTree whose page cache is much smaller
+ * than the tree, the usual setting for an on disk index
+ * <p>
+ * write amplification is bytes written to files / 17 bytes per put, for the B+ tree it counts the
+ * pages written by evictions and checkpoints. Both read through the operating system file cache.
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class LongLsmStoreBenchmark
+{
+  private static final int WRITES = 2_000_000;
+  private static final int KEY_SPACE = 1_000_000;
+  private static final int LOOKUPS = 200_000;
+  private static final int SCANS = 2_000;
+  private static final int SCAN_WIDTH = 100;
+
+  //  4 MiB of 4 KiB pages for the B+ tree, about a fifth of its pages
+  private static final int CACHE_PAGES = 1024;
+
+  public static void main(String[] args) throws IOException
+  {
+    Path dir = Files.createTempDirectory("lsm");
+    Random random = new Random(1);
+
+//    every key is written twice on average, so compactions also drop overwritten values
+    long[] writes = new long[WRITES];
+    for (int i = 0; i < WRITES; i++) writes[i] = 2L * random.nextInt(KEY_SPACE);
+
+    long[] present = new long[LOOKUPS], absent = new long[LOOKUPS], scanStarts = new long[SCANS];
+    for (int i = 0; i < LOOKUPS; i++)
+    {
+      present[i] = writes[random.nextInt(WRITES)];
+      absent[i] = present[i] + 1;
+    }
+    for (int i = 0; i < SCANS; i++) scanStarts[i] = 2L * random.nextInt(KEY_SPACE);
+
+    try (LongLsmStore store = LongLsmStore.open(dir.resolve("lsm")))
+    {
+      long start = System.nanoTime();
+      for (int i = 0; i < WRITES; i++) store.put(writes[i], i);
+      store.flush();
+      long writeTime = System.nanoTime() - start;
+
+      System.out.printf("LongLsmStore      %d random puts + flush: %5d ms  %6.2f us/put  write amplification %.2f  runs %d  compactions %d%n",
+          WRITES, writeTime / 1_000_000, writeTime / 1000.0 / WRITES, store.writeAmplification(), store.runCount(),
+          store.compactions());
+
+      reads("LongLsmStore", store, present, absent, scanStarts);
+
+      start = System.nanoTime();
+      store.compact();
+      System.out.printf("LongLsmStore      major compaction: %d ms  write amplification %.2f  runs %d%n",
+          (System.nanoTime() - start) / 1_000_000, store.writeAmplification(), store.runCount());
+
+      reads("LongLsmStore", store, present, absent, scanStarts);
+    }
+
+    try (LongDiskBPlusTree tree = LongDiskBPlusTree.open(dir.resolve("bplustree.db"), CACHE_PAGES))
+    {
+      long start = System.nanoTime();
+      for (int i = 0; i < WRITES; i++) tree.put(writes[i], i);
+      tree.checkpoint();
+      long writeTime = System.nanoTime() - start;
+
+      System.out.printf("LongDiskBPlusTree %d random puts + checkpoint: %5d ms  %6.2f us/put  write amplification %.2f  pages %d%n",
+          WRITES, writeTime / 1_000_000, writeTime / 1000.0 / WRITES,
+          tree.pagesWritten() * (double) LongDiskBPlusTree.DEFAULT_PAGE_SIZE / (17.0 * WRITES), tree.pageCount());
+
+      long found = 0;
+      start = System.nanoTime();
+      for (long key : present) if (tree.containsKey(key)) found++;
+      long presentTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (long key : absent) if (tree.containsKey(key)) found++;
+      long absentTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      long scanned = 0;
+      for (long lo : scanStarts)
+      {
+        LongDiskBPlusTree.Cursor cursor = tree.range(lo, lo + 2L * SCAN_WIDTH - 1);
+        while (cursor.next()) scanned++;
+      }
+      long scanTime = System.nanoTime() - start;
+
+      System.out.printf("LongDiskBPlusTree present %6.2f us  absent %6.2f us  scan of %d keys %7.2f us  (%d, %d)%n",
+          presentTime / 1000.0 / LOOKUPS, absentTime / 1000.0 / LOOKUPS, SCAN_WIDTH, scanTime / 1000.0 / SCANS,
+          found, scanned);
+    }
+
+    try (Stream<Path> files = Files.walk(dir))
+    {
+      for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) Files.delete(file);
+    }
+  }
+
+  private static void reads(String name, LongLsmStore store, long[] present, long[] absent, long[] scanStarts)
+  {
+    long found = 0;
+    long blocks = store.blocksRead();
+    long start = System.nanoTime();
+    for (long key : present) if (store.containsKey(key)) found++;
+    long presentTime = System.nanoTime() - start;
+    long presentBlocks = store.blocksRead() - blocks;
+
+    blocks = store.blocksRead();
+    start = System.nanoTime();
+    for (long key : absent) if (store.containsKey(key)) found++;
+    long absentTime = System.nanoTime() - start;
+    long absentBlocks = store.blocksRead() - blocks;
+
+    start = System.nanoTime();
+    long scanned = 0;
+    for (long lo : scanStarts)
+    {
+      LongLsmStore.Cursor cursor = store.range(lo, lo + 2L * SCAN_WIDTH - 1);
+      while (cursor.next()) scanned++;
+    }
+    long scanTime = System.nanoTime() - start;
+
+    System.out.printf("%-17s present %6.2f us %4.2f blocks  absent %6.2f us %4.2f blocks  scan of %d keys %7.2f us  (%d, %d)%n",
+        name, presentTime / 1000.0 / present.length, presentBlocks / (double) present.length,
+        absentTime / 1000.0 / absent.length, absentBlocks / (double) absent.length, SCAN_WIDTH,
+        scanTime / 1000.0 / scanStarts.length, found, scanned);
+  }
+}
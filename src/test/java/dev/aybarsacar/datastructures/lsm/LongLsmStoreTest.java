@@ -0,0 +1,307 @@
+package dev.aybarsacar.datastructures.lsm;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+public class LongLsmStoreTest
+{
+  //  small memtables so every test flushes and compacts many runs
+  private static final int MEMTABLE_ENTRIES = 500;
+  private static final int FANOUT = 3;
+
+  @TempDir
+  Path dir;
+
+  private static List<Long> keys(LongLsmStore.Cursor cursor)
+  {
+    List<Long> lst = new ArrayList<>();
+    while (cursor.next()) lst.add(cursor.key());
+    return lst;
+  }
+
+  private static long fileCount(Path dir, String suffix) throws IOException
+  {
+    try (Stream<Path> files = Files.list(dir))
+    {
+      return files.filter(file -> file.toString().endsWith(suffix)).count();
+    }
+  }
+
+  private static void assertMatches(TreeMap<Long, Long> expected, LongLsmStore store)
+  {
+    for (Map.Entry<Long, Long> entry : expected.entrySet())
+      Assertions.assertEquals(entry.getValue(), store.get(entry.getKey(), -1));
+
+    Assertions.assertEquals(new ArrayList<>(expected.keySet()), keys(store.cursor()));
+
+    LongLsmStore.Cursor cursor = store.range(-500, 500);
+    for (Map.Entry<Long, Long> entry : expected.subMap(-500L, true, 500L, true).entrySet())
+    {
+      Assertions.assertTrue(cursor.next());
+      Assertions.assertEquals(entry.getKey(), cursor.key());
+      Assertions.assertEquals(entry.getValue(), cursor.value());
+    }
+    Assertions.assertFalse(cursor.next());
+  }
+
+  @Test
+  public void matchesTreeMapUnderRandomOperations() throws IOException
+  {
+    TreeMap<Long, Long> expected = new TreeMap<>();
+    Random random = new Random(5);
+
+    try (LongLsmStore store = LongLsmStore.open(dir, MEMTABLE_ENTRIES, FANOUT))
+    {
+      for (int i = 0; i < 40_000; i++)
+      {
+        long key = random.nextInt(6000) - 3000;
+
+        if (random.nextInt(4) != 0)
+        {
+          expected.put(key, (long) i);
+          store.put(key, i);
+        }
+        else
+        {
+          expected.remove(key);
+          store.remove(key);
+        }
+
+        if (i % 7919 == 0)
+        {
+          long probe = random.nextInt(6000) - 3000;
+          Assertions.assertEquals(expected.getOrDefault(probe, -1L), store.get(probe, -1));
+          Assertions.assertEquals(expected.containsKey(probe), store.containsKey(probe));
+        }
+      }
+
+      assertMatches(expected, store);
+
+      store.flush();
+      Assertions.assertTrue(store.isValidLsmStore());
+      Assertions.assertTrue(store.compactions() > 0);
+      assertMatches(expected, store);
+
+//      every run rejects absent keys with its Bloom filter most of the time
+      long blocks = store.blocksRead();
+      for (long key = 10_000; key < 11_000; key++) Assertions.assertFalse(store.containsKey(key));
+      Assertions.assertTrue(store.blocksRead() - blocks < 100);
+    }
+  }
+
+  @Test
+  public void reopensFlushedRuns() throws IOException
+  {
+    try (LongLsmStore store = LongLsmStore.open(dir, MEMTABLE_ENTRIES, FANOUT))
+    {
+      for (long key = 0; key < 5000; key++) store.put(key * 7 % 5000, key);
+      store.remove(42);
+      store.put(7, -7);
+    }
+
+    Assertions.assertEquals(0, fileCount(dir, SortedRun.TEMPORARY_SUFFIX));
+
+    try (LongLsmStore store = LongLsmStore.open(dir, MEMTABLE_ENTRIES, FANOUT))
+    {
+      Assertions.assertTrue(store.isValidLsmStore());
+      Assertions.assertFalse(store.containsKey(42));
+      Assertions.assertEquals(-7, store.get(7, 0));
+      Assertions.assertEquals(List.of(4997L, 4998L, 4999L), keys(store.range(4997, 10_000)));
+      Assertions.assertEquals(4999, keys(store.cursor()).size());
+
+//      new writes after reopening are newer than every recovered run
+      store.put(42, 42);
+      store.remove(7);
+      Assertions.assertEquals(42, store.get(42, 0));
+      Assertions.assertFalse(store.containsKey(7));
+    }
+
+    try (LongLsmStore store = LongLsmStore.open(dir, MEMTABLE_ENTRIES, FANOUT))
+    {
+      Assertions.assertEquals(42, store.get(42, 0));
+      Assertions.assertFalse(store.containsKey(7));
+    }
+  }
+
+  @Test
+  public void majorCompactionDropsTombstonesAndOverwrittenValues() throws IOException
+  {
+    try (LongLsmStore store = LongLsmStore.open(dir, MEMTABLE_ENTRIES, FANOUT))
+    {
+      for (int round = 0; round < 4; round++)
+        for (long key = 0; key < 2000; key++) store.put(key, round);
+      for (long key = 0; key < 2000; key += 2) store.remove(key);
+
+      store.compact();
+
+      Assertions.assertEquals(1, store.runCount());
+      Assertions.assertEquals(1, fileCount(dir, SortedRun.SUFFIX));
+      Assertions.assertTrue(store.isValidLsmStore());
+      Assertions.assertTrue(store.writeAmplification() > 1);
+
+      List<Long> keys = keys(store.cursor());
+      Assertions.assertEquals(1000, keys.size());
+      for (long key : keys) Assertions.assertEquals(1, key % 2);
+      Assertions.assertEquals(3, store.get(1, -1));
+    }
+  }
+
+  @Test
+  public void majorCompactionOfASingleRunSurvivesReopening() throws IOException
+  {
+    try (LongLsmStore store = LongLsmStore.open(dir, 1000, FANOUT))
+    {
+      for (long key = 0; key < 10; key++) store.put(key, 10 * key);
+      store.flush();
+      Assertions.assertEquals(1, store.runCount());
+
+//      the output covers the same sequence numbers as its only input
+      store.compact();
+      Assertions.assertEquals(30, store.get(3, -1));
+    }
+
+    try (LongLsmStore store = LongLsmStore.open(dir, 1000, FANOUT))
+    {
+      Assertions.assertEquals(1, store.runCount());
+      Assertions.assertEquals(1, fileCount(dir, SortedRun.SUFFIX));
+      Assertions.assertEquals(30, store.get(3, -1));
+      Assertions.assertEquals(10, keys(store.cursor()).size());
+    }
+  }
+
+  @Test
+  public void recoversFromInterruptedCompaction() throws IOException
+  {
+    Path store = dir.resolve("store"), saved = dir.resolve("saved");
+    Files.createDirectories(saved);
+
+    try (LongLsmStore lsm = LongLsmStore.open(store, MEMTABLE_ENTRIES, FANOUT))
+    {
+//      two runs, below the fanout so only compact() merges them
+      for (long key = 0; key < MEMTABLE_ENTRIES; key++) lsm.put(key, key);
+      for (long key = 0; key < MEMTABLE_ENTRIES; key += 2) lsm.remove(key);
+      lsm.flush();
+      Assertions.assertEquals(2, lsm.runCount());
+
+      try (Stream<Path> files = Files.list(store))
+      {
+        for (Path file : (Iterable<Path>) files::iterator) Files.copy(file, saved.resolve(file.getFileName()));
+      }
+      lsm.compact();
+    }
+
+//    a crash after the output of the compaction was renamed but before its inputs were deleted,
+//    and in the middle of writing another run
+    try (Stream<Path> files = Files.list(saved))
+    {
+      for (Path file : (Iterable<Path>) files::iterator) Files.copy(file, store.resolve(file.getFileName()));
+    }
+    Files.write(store.resolve("0000000000000100-0000000000000100" + SortedRun.TEMPORARY_SUFFIX), new byte[100]);
+
+    try (LongLsmStore lsm = LongLsmStore.open(store, MEMTABLE_ENTRIES, FANOUT))
+    {
+      Assertions.assertEquals(1, lsm.runCount());
+      Assertions.assertEquals(1, fileCount(store, SortedRun.SUFFIX));
+      Assertions.assertEquals(0, fileCount(store, SortedRun.TEMPORARY_SUFFIX));
+      Assertions.assertEquals(MEMTABLE_ENTRIES / 2, keys(lsm.cursor()).size());
+      Assertions.assertEquals(-1, lsm.get(10, -1));
+      Assertions.assertEquals(11, lsm.get(11, -1));
+    }
+  }
+
+  @Test
+  public void cursorKeepsCompactedRunsReadable() throws IOException
+  {
+    try (LongLsmStore store = LongLsmStore.open(dir, MEMTABLE_ENTRIES, FANOUT))
+    {
+      for (long key = 0; key < 1000; key++) store.put(key, key);
+      store.flush();
+
+      LongLsmStore.Cursor cursor = store.cursor();
+      Assertions.assertTrue(cursor.next());
+
+//      the runs the cursor reads are replaced, their files stay until the cursor is done
+      store.compact();
+      for (long key = 1000; key < 3000; key++) store.put(key, key);
+      store.compact();
+
+      long count = 1;
+      while (cursor.next())
+      {
+        Assertions.assertEquals(count, cursor.key());
+        count++;
+      }
+      Assertions.assertEquals(1000, count);
+      Assertions.assertEquals(1, fileCount(dir, SortedRun.SUFFIX));
+    }
+  }
+
+  @Test
+  public void writesFromManyThreads() throws Exception
+  {
+    int threads = 4, perThread = 5000;
+
+    try (LongLsmStore store = LongLsmStore.open(dir, MEMTABLE_ENTRIES, FANOUT))
+    {
+      List<Thread> writers = new ArrayList<>();
+      for (int t = 0; t < threads; t++)
+      {
+        long offset = t;
+        writers.add(new Thread(() ->
+        {
+          for (long i = 0; i < perThread; i++) store.put(i * threads + offset, offset);
+        }));
+      }
+
+      for (Thread writer : writers) writer.start();
+      for (Thread writer : writers) writer.join();
+
+      store.flush();
+      Assertions.assertTrue(store.isValidLsmStore());
+      Assertions.assertEquals(threads * perThread, keys(store.cursor()).size());
+      for (long key = 0; key < threads * perThread; key++) Assertions.assertEquals(key % threads, store.get(key, -1));
+    }
+  }
+
+  @Test
+  public void bloomFilterHasNoFalseNegatives()
+  {
+    LongBloomFilter bloom = new LongBloomFilter(10_000, 10);
+    for (long key = 0; key < 10_000; key++) bloom.add(key * 31);
+
+    int falsePositives = 0;
+    for (long key = 0; key < 10_000; key++)
+    {
+      Assertions.assertTrue(bloom.mightContain(key * 31));
+      if (bloom.mightContain(key * 31 + 1)) falsePositives++;
+    }
+
+//    about 1% expected
+    Assertions.assertTrue(falsePositives < 300);
+  }
+
+  @Test
+  public void rejectsUseAfterClose() throws IOException
+  {
+    LongLsmStore store = LongLsmStore.open(dir, MEMTABLE_ENTRIES, FANOUT);
+    store.put(1, 1);
+    store.close();
+    store.close();
+
+    Assertions.assertThrows(IllegalStateException.class, () -> store.put(2, 2));
+    Assertions.assertThrows(IllegalStateException.class, () -> store.get(1, 0));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> LongLsmStore.open(dir, 0, FANOUT));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> LongLsmStore.open(dir, MEMTABLE_ENTRIES, 1));
+  }
+}
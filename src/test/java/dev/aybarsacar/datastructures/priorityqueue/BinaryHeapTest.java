@@ -0,0 +1,51 @@
+package dev.aybarsacar.datastructures.priorityqueue;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class BinaryHeapTest
+{
+  @Test
+  public void addAllKeepsTheHeapInvariant()
+  {
+    BinaryHeap<Integer> heap = new BinaryHeap<>();
+    heap.add(50);
+    heap.add(3);
+
+//    a small batch goes through add(), a large one through heapify
+    heap.addAll(new Integer[]{7});
+    heap.addAll(List.of(9, 1, 42, 8, 15, 2, 77, 0, 4));
+
+    Assertions.assertEquals(12, heap.size());
+    Assertions.assertTrue(heap.isMinHeap(0));
+    Assertions.assertEquals(0, heap.poll());
+    Assertions.assertEquals(1, heap.poll());
+    Assertions.assertEquals(2, heap.poll());
+  }
+
+  @Test
+  public void addAllRejectsNullsWithoutChangingTheHeap()
+  {
+    BinaryHeap<Integer> heap = new BinaryHeap<>();
+    heap.add(1);
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> heap.addAll(new Integer[]{2, null, 3}));
+    Assertions.assertEquals(1, heap.size());
+  }
+
+  @Test
+  public void meldEmptiesTheOtherHeap()
+  {
+    BinaryHeap<Integer> heap = new BinaryHeap<>(new Integer[]{5, 10, 15});
+    BinaryHeap<Integer> other = new BinaryHeap<>(new Integer[]{1, 12, 6, 20});
+
+    heap.meld(other);
+
+    Assertions.assertTrue(other.isEmpty());
+    Assertions.assertEquals(7, heap.size());
+    Assertions.assertTrue(heap.isMinHeap(0));
+    Assertions.assertEquals(1, heap.peek());
+  }
+}
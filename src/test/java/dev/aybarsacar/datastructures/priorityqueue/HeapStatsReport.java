@@ -0,0 +1,45 @@
+package dev.aybarsacar.datastructures.priorityqueue;
+
+import dev.aybarsacar.datastructures.priorityqueue.ipq.MinIndexedDHeap;
+
+import java.util.Random;
+
+/**
+ * Prints the HeapStats of BinaryHeap and MinIndexedDHeap of several degrees on the same random
+ * insert / decrease / poll workload, to help choosing D
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class HeapStatsReport
+{
+  private static final int N = 200_000;
+  private static final int[] DEGREES = {2, 4, 8, 16};
+
+  public static void main(String[] args)
+  {
+//    must happen before HeapStats is loaded for ENABLED to pick it up
+    System.setProperty("heapstats.enabled", "true");
+
+    BinaryHeap<Integer> binaryHeap = new BinaryHeap<>();
+    Random random = new Random(1);
+    for (int i = 0; i < N; i++) binaryHeap.add(random.nextInt());
+    while (!binaryHeap.isEmpty()) binaryHeap.poll();
+    System.out.println("BinaryHeap: " + binaryHeap.getStats());
+
+    for (int d : DEGREES)
+    {
+      MinIndexedDHeap<Integer> heap = new MinIndexedDHeap<>(d, N);
+      random = new Random(1);
+
+      for (int ki = 0; ki < N; ki++) heap.insert(ki, random.nextInt());
+      for (int i = 0; i < N; i++)
+      {
+        int ki = random.nextInt(N);
+        heap.decrese(ki, heap.valueOf(ki) - random.nextInt(1000));
+      }
+      while (!heap.isEmpty()) heap.pollMinKeyIndex();
+
+      System.out.println("MinIndexedDHeap D=" + d + ": " + heap.getStats());
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package dev.aybarsacar.datastructures.priorityqueue;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class HeapStatsTest
+{
+  @Test
+  public void snapshotCopiesTheCounters()
+  {
+    HeapStats stats = new HeapStats();
+    stats.comparison();
+    stats.comparison();
+    stats.swap();
+    stats.sift(3);
+    stats.sift(1);
+    stats.operation(HeapStats.Operation.INSERT);
+    stats.operation(HeapStats.Operation.POLL);
+
+    HeapStats.Snapshot snapshot = stats.snapshot();
+    stats.reset();
+
+    Assertions.assertEquals(2, snapshot.getComparisons());
+    Assertions.assertEquals(1, snapshot.getSwaps());
+    Assertions.assertEquals(2, snapshot.getSifts());
+    Assertions.assertEquals(2.0, snapshot.getAverageSiftDepth());
+    Assertions.assertEquals(3, snapshot.getMaxSiftDepth());
+    Assertions.assertEquals(1, snapshot.getOperations(HeapStats.Operation.INSERT));
+    Assertions.assertEquals(1.0, snapshot.getComparisonsPerOperation());
+    Assertions.assertEquals(0, stats.snapshot().getComparisons());
+  }
+
+  @Test
+  public void heapsOnlyAllocateStatsWhenEnabled()
+  {
+    BinaryHeap<Integer> heap = new BinaryHeap<>();
+    heap.add(1);
+
+    Assertions.assertEquals(HeapStats.ENABLED, heap.getStats() != null);
+  }
+}
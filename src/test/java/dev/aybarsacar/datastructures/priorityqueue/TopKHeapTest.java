@@ -0,0 +1,73 @@
+package dev.aybarsacar.datastructures.priorityqueue;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+public class TopKHeapTest
+{
+  @Test
+  public void keepsTheGreatestKElements()
+  {
+    TopKHeap<Integer> heap = new TopKHeap<>(3);
+    for (int i = 0; i < 1000; i++) heap.offer((i * 7919) % 1000);
+
+    Assertions.assertEquals(3, heap.size());
+    Assertions.assertEquals(997, heap.peekThreshold());
+    Assertions.assertEquals(List.of(999, 998, 997), heap.toSortedList());
+  }
+
+  @Test
+  public void keepsTheSmallestKElementsWithReverseOrder()
+  {
+    TopKHeap<Integer> heap = new TopKHeap<>(2, Comparator.reverseOrder());
+    for (int elem : new int[]{5, 3, 9, 1, 7}) heap.offer(elem);
+
+    Assertions.assertEquals(List.of(1, 3), heap.toSortedList());
+  }
+
+  @Test
+  public void peekThresholdThrowsOnAnEmptyHeap()
+  {
+    TopKHeap<Integer> heap = new TopKHeap<>(2);
+    Assertions.assertThrows(NoSuchElementException.class, heap::peekThreshold);
+  }
+
+  @Test
+  public void mergesPartialResults()
+  {
+    TopKHeap<Integer> left = new TopKHeap<>(3);
+    TopKHeap<Integer> right = new TopKHeap<>(3);
+    for (int i = 0; i < 10; i++) left.offer(i);
+    for (int i = 5; i < 15; i += 2) right.offer(i);
+
+    left.merge(right);
+
+    Assertions.assertEquals(List.of(13, 11, 9), left.toSortedList());
+  }
+
+  @Test
+  public void primitiveHeapsReturnSortedIds()
+  {
+    TopKDoubleHeap doubles = new TopKDoubleHeap(3);
+    TopKLongHeap longs = new TopKLongHeap(3);
+
+    long[] scores = {40, 10, 50, 30, 20, 60};
+    for (int id = 0; id < scores.length; id++)
+    {
+      doubles.offer(id, scores[id] / 10.0);
+      longs.offer(id, scores[id]);
+    }
+
+    Assertions.assertArrayEquals(new long[]{5, 2, 0}, doubles.sortedIds());
+    Assertions.assertArrayEquals(new long[]{5, 2, 0}, longs.sortedIds());
+
+    long[] ids = new long[3];
+    double[] sorted = new double[3];
+    Assertions.assertEquals(3, doubles.sortedInto(ids, sorted));
+    Assertions.assertArrayEquals(new double[]{6.0, 5.0, 4.0}, sorted);
+  }
+}
@@ -0,0 +1,89 @@
+package dev.aybarsacar.datastructures.priorityqueue.concurrent;
+
+import dev.aybarsacar.datastructures.priorityqueue.BinaryHeap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+
+/**
+ * Measures throughput of alternating add / poll operations as the number of threads grows for
+ * MultiQueue, ConcurrentSkipListPriorityQueue and a BinaryHeap behind a single lock
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class ConcurrentPriorityQueueBenchmark
+{
+  private static final int PREFILL = 1_000_000;
+  private static final int OPS_PER_THREAD = 1_000_000;
+  private static final int[] THREADS = {1, 2, 4, 8, 16};
+
+  public static void main(String[] args) throws InterruptedException
+  {
+    for (int threads : THREADS)
+    {
+      run("MultiQueue", threads, MultiQueue::new);
+      run("ConcurrentSkipListPriorityQueue", threads, t -> new ConcurrentSkipListPriorityQueue<>());
+      run("synchronized BinaryHeap", threads, t -> new SynchronizedBinaryHeap());
+    }
+  }
+
+  private static void run(String name, int threads, IntFunction<ConcurrentPriorityQueue<Integer>> factory)
+      throws InterruptedException
+  {
+    ConcurrentPriorityQueue<Integer> pq = factory.apply(threads);
+    for (int i = 0; i < PREFILL; i++) pq.add(ThreadLocalRandom.current().nextInt());
+
+    List<Thread> workers = new ArrayList<>();
+    for (int t = 0; t < threads; t++)
+    {
+      workers.add(new Thread(() ->
+      {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < OPS_PER_THREAD; i++)
+        {
+          if ((i & 1) == 0) pq.add(random.nextInt());
+          else pq.poll();
+        }
+      }));
+    }
+
+    long start = System.nanoTime();
+    for (Thread worker : workers) worker.start();
+    for (Thread worker : workers) worker.join();
+    long elapsed = System.nanoTime() - start;
+
+    double opsPerSecond = (double) threads * OPS_PER_THREAD / (elapsed / 1e9);
+    System.out.printf("%-32s %2d threads: %,.0f ops/s%n", name, threads, opsPerSecond);
+  }
+
+  private static class SynchronizedBinaryHeap implements ConcurrentPriorityQueue<Integer>
+  {
+    private final BinaryHeap<Integer> heap = new BinaryHeap<>();
+
+    @Override
+    public synchronized void add(Integer elem)
+    {
+      heap.add(elem);
+    }
+
+    @Override
+    public synchronized Integer poll()
+    {
+      return heap.poll();
+    }
+
+    @Override
+    public synchronized int size()
+    {
+      return heap.size();
+    }
+
+    @Override
+    public synchronized boolean isEmpty()
+    {
+      return heap.isEmpty();
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package dev.aybarsacar.datastructures.priorityqueue.concurrent;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class MultiQueueTest
+{
+  @Test
+  public void pollsEveryElementExactlyOnce() throws InterruptedException
+  {
+    int threads = 4, perThread = 10_000;
+    MultiQueue<Integer> pq = new MultiQueue<>(threads);
+    ConcurrentLinkedQueue<Integer> polled = new ConcurrentLinkedQueue<>();
+    List<Thread> workers = new ArrayList<>();
+
+    for (int t = 0; t < threads; t++)
+    {
+      final int offset = t * perThread;
+      workers.add(new Thread(() ->
+      {
+        for (int i = 0; i < perThread; i++) pq.add(offset + i);
+        for (int i = 0; i < perThread / 2; i++) polled.add(pq.poll());
+      }));
+    }
+
+    for (Thread worker : workers) worker.start();
+    for (Thread worker : workers) worker.join();
+
+    Integer elem;
+    while ((elem = pq.poll()) != null) polled.add(elem);
+
+    Assertions.assertTrue(pq.isEmpty());
+    Assertions.assertEquals(threads * perThread, polled.size());
+    Assertions.assertEquals(threads * perThread, polled.stream().distinct().count());
+  }
+
+  @Test
+  public void singleThreadedPollsAreApproximatelySorted()
+  {
+    MultiQueue<Integer> pq = new MultiQueue<>(1);
+    for (int i = 1000; i > 0; i--) pq.add(i);
+
+//    with two heaps the first poll is the minimum of one of them, so it is one of the smallest few
+    Assertions.assertTrue(pq.poll() <= 20);
+    Assertions.assertEquals(999, pq.size());
+  }
+
+  @Test
+  public void skipListVariantPollsInStrictOrder()
+  {
+    ConcurrentSkipListPriorityQueue<Integer> pq = new ConcurrentSkipListPriorityQueue<>();
+    pq.add(5);
+    pq.add(1);
+    pq.add(5);
+    pq.add(3);
+
+    Assertions.assertEquals(1, pq.peek());
+    Assertions.assertEquals(1, pq.poll());
+    Assertions.assertEquals(3, pq.poll());
+    Assertions.assertEquals(5, pq.poll());
+    Assertions.assertEquals(5, pq.poll());
+    Assertions.assertNull(pq.poll());
+    Assertions.assertTrue(pq.isEmpty());
+  }
+}
@@ -0,0 +1,58 @@
+package dev.aybarsacar.datastructures.priorityqueue.ipq;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MinIndexedDHeapTest
+{
+  @Test
+  public void insertAllKeepsTheHeapInvariant()
+  {
+    MinIndexedDHeap<Integer> heap = new MinIndexedDHeap<>(3, 20);
+    heap.insert(0, 30);
+
+    heap.insertAll(new int[]{1, 2, 3, 4, 5, 6, 7, 8}, new Integer[]{9, 4, 17, 1, 30, 12, 2, 8});
+
+    Assertions.assertEquals(9, heap.size());
+    Assertions.assertTrue(heap.isMinHeap());
+    Assertions.assertEquals(4, heap.pollMinKeyIndex());
+    Assertions.assertEquals(7, heap.pollMinKeyIndex());
+
+    heap.decrese(3, 0);
+    Assertions.assertEquals(3, heap.pollMinKeyIndex());
+  }
+
+  @Test
+  public void insertAllRejectsBadBatchesWithoutChangingTheHeap()
+  {
+    MinIndexedDHeap<Integer> heap = new MinIndexedDHeap<>(2, 10);
+    heap.insert(0, 1);
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> heap.insertAll(new int[]{1, 2, 1}, new Integer[]{1, 2, 3}));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> heap.insertAll(new int[]{3, 0}, new Integer[]{1, 2}));
+
+    Assertions.assertEquals(1, heap.size());
+    Assertions.assertFalse(heap.contains(1));
+    Assertions.assertFalse(heap.contains(3));
+  }
+
+  @Test
+  public void meldMovesEveryKey()
+  {
+    MinIndexedDHeap<Integer> heap = new MinIndexedDHeap<>(4, 10);
+    MinIndexedDHeap<Integer> other = new MinIndexedDHeap<>(4, 10);
+    heap.insert(0, 10);
+    heap.insert(1, 5);
+    other.insert(2, 7);
+    other.insert(3, 1);
+
+    heap.meld(other);
+
+    Assertions.assertTrue(other.isEmpty());
+    Assertions.assertFalse(other.contains(3));
+    Assertions.assertEquals(4, heap.size());
+    Assertions.assertEquals(3, heap.pollMinKeyIndex());
+    Assertions.assertEquals(1, heap.pollMinKeyIndex());
+    Assertions.assertEquals(2, heap.pollMinKeyIndex());
+  }
+}
@@ -0,0 +1,72 @@
+package dev.aybarsacar.datastructures.priorityqueue.ipq;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class MinIndexedDoubleDHeapTest
+{
+  @Test
+  public void matchesMinIndexedDHeapUnderRandomOperations()
+  {
+    Random random = new Random(4);
+    int n = 500;
+
+    for (int degree : new int[]{2, 3, 8})
+    {
+      MinIndexedDoubleDHeap heap = new MinIndexedDoubleDHeap(degree, n);
+      MinIndexedDHeap<Double> expected = new MinIndexedDHeap<>(degree, n);
+
+      for (int i = 0; i < 20_000; i++)
+      {
+        int ki = random.nextInt(n);
+        double value = random.nextInt(1000) / 4.0;
+
+        if (!heap.contains(ki))
+        {
+          heap.insert(ki, value);
+          expected.insert(ki, value);
+        }
+        else if (random.nextBoolean())
+        {
+          heap.decrease(ki, value);
+          expected.decrese(ki, value);
+        }
+        else if (random.nextBoolean())
+        {
+          Assertions.assertEquals(expected.delete(ki), heap.delete(ki));
+        }
+        else
+        {
+          Assertions.assertEquals(expected.peekMinValue(), heap.peekMinValue());
+          Assertions.assertEquals(expected.pollMinValue(), heap.pollMinValue());
+        }
+
+        Assertions.assertEquals(expected.size(), heap.size());
+      }
+
+      Assertions.assertTrue(heap.isMinHeap());
+      while (!heap.isEmpty()) Assertions.assertEquals(expected.pollMinValue(), heap.pollMinValue());
+    }
+  }
+
+  @Test
+  public void clearAllowsReuse()
+  {
+    MinIndexedDoubleDHeap heap = new MinIndexedDoubleDHeap(4, 10);
+    heap.insert(3, 2.5);
+    heap.insert(7, -1);
+    heap.clear();
+
+    Assertions.assertTrue(heap.isEmpty());
+    Assertions.assertFalse(heap.contains(7));
+
+    heap.insert(7, 4);
+    heap.insert(2, 1);
+    heap.increase(2, 5);
+    Assertions.assertEquals(7, heap.pollMinKeyIndex());
+    Assertions.assertEquals(5, heap.valueOf(2));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> heap.insert(1, Double.NaN));
+  }
+}
@@ -0,0 +1,109 @@
+package dev.aybarsacar.datastructures.priorityqueue.ipq;
+
+import java.util.Random;
+
+/**
+ * Compares RadixHeap against MinIndexedBinaryHeap running Dijkstra's algorithm on a random graph
+ * with small integer edge weights
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class RadixHeapBenchmark
+{
+  private static final int NODES = 1_000_000;
+  private static final int DEGREE = 4;
+  private static final int MAX_WEIGHT = 100;
+  private static final int ROUNDS = 5;
+
+  public static void main(String[] args)
+  {
+    Random random = new Random(1);
+    int[] to = new int[NODES * DEGREE];
+    int[] weight = new int[NODES * DEGREE];
+
+    for (int i = 0; i < to.length; i++)
+    {
+      to[i] = random.nextInt(NODES);
+      weight[i] = 1 + random.nextInt(MAX_WEIGHT);
+    }
+
+    for (int round = 0; round < ROUNDS; round++)
+    {
+      long start = System.nanoTime();
+      long radixChecksum = radixDijkstra(to, weight);
+      long radixTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      long binaryChecksum = binaryDijkstra(to, weight);
+      long binaryTime = System.nanoTime() - start;
+
+      if (radixChecksum != binaryChecksum) throw new IllegalStateException("distances differ");
+
+      System.out.printf("round %d: RadixHeap %d ms, MinIndexedBinaryHeap %d ms%n",
+          round, radixTime / 1_000_000, binaryTime / 1_000_000);
+    }
+  }
+
+  private static long radixDijkstra(int[] to, int[] weight)
+  {
+    long[] dist = new long[NODES];
+    boolean[] visited = new boolean[NODES];
+    RadixHeap heap = new RadixHeap(NODES);
+
+    heap.insert(0, 0);
+    while (!heap.isEmpty())
+    {
+      long d = heap.peekMinValue();
+      int u = heap.pollMinKeyIndex();
+      visited[u] = true;
+      dist[u] = d;
+
+      for (int e = u * DEGREE; e < (u + 1) * DEGREE; e++)
+      {
+        int v = to[e];
+        if (visited[v]) continue;
+
+        long nd = d + weight[e];
+        if (!heap.contains(v)) heap.insert(v, nd);
+        else heap.decrease(v, nd);
+      }
+    }
+
+    return checksum(dist);
+  }
+
+  private static long binaryDijkstra(int[] to, int[] weight)
+  {
+    long[] dist = new long[NODES];
+    boolean[] visited = new boolean[NODES];
+    MinIndexedBinaryHeap<Long> heap = new MinIndexedBinaryHeap<>(NODES);
+
+    heap.insert(0, 0L);
+    while (!heap.isEmpty())
+    {
+      long d = heap.peekMinValue();
+      int u = heap.pollMinKeyIndex();
+      visited[u] = true;
+      dist[u] = d;
+
+      for (int e = u * DEGREE; e < (u + 1) * DEGREE; e++)
+      {
+        int v = to[e];
+        if (visited[v]) continue;
+
+        long nd = d + weight[e];
+        if (!heap.contains(v)) heap.insert(v, nd);
+        else heap.decrese(v, nd);
+      }
+    }
+
+    return checksum(dist);
+  }
+
+  private static long checksum(long[] dist)
+  {
+    long sum = 0;
+    for (long d : dist) sum += d;
+    return sum;
+  }
+}
@@ -0,0 +1,115 @@
+package dev.aybarsacar.datastructures.priorityqueue.ipq;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class RadixHeapTest
+{
+  RadixHeap heap;
+
+  @BeforeEach
+  public void init()
+  {
+    heap = new RadixHeap(10)
+    {{
+      insert(0, 50);
+      insert(1, 7);
+      insert(2, 1_000_000);
+      insert(3, 7);
+      insert(4, -3);
+    }};
+  }
+
+  @Test
+  public void pollsInIncreasingOrder()
+  {
+    Assertions.assertEquals(5, heap.size());
+    Assertions.assertEquals(4, heap.pollMinKeyIndex());
+    Assertions.assertEquals(7, heap.pollMinValue());
+    Assertions.assertEquals(7, heap.pollMinValue());
+    Assertions.assertEquals(0, heap.pollMinKeyIndex());
+    Assertions.assertEquals(1_000_000, heap.pollMinValue());
+    Assertions.assertTrue(heap.isEmpty());
+  }
+
+  @Test
+  public void decreasesAndDeletesKeys()
+  {
+    heap.pollMinKeyIndex();
+    heap.decrease(2, 10);
+    heap.delete(1);
+
+    Assertions.assertFalse(heap.contains(1));
+    Assertions.assertEquals(3, heap.pollMinKeyIndex());
+    Assertions.assertEquals(2, heap.pollMinKeyIndex());
+    Assertions.assertEquals(0, heap.pollMinKeyIndex());
+  }
+
+  @Test
+  public void rejectsValuesBelowTheLastPolledValue()
+  {
+    heap.pollMinKeyIndex();
+    heap.pollMinKeyIndex();
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> heap.insert(5, 6));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> heap.decrease(0, 0));
+  }
+
+  @Test
+  public void peekingDoesNotRaiseTheInsertionBound()
+  {
+    heap.pollMinKeyIndex();
+
+    Assertions.assertEquals(7, heap.peekMinValue());
+    Assertions.assertEquals(-3, heap.lastPolledValue());
+
+//    below the peeked minimum but not below the last polled value
+    heap.insert(5, 0);
+    Assertions.assertEquals(5, heap.peekMinKeyIndex());
+    Assertions.assertEquals(0, heap.pollMinValue());
+    Assertions.assertEquals(7, heap.pollMinValue());
+  }
+
+  @Test
+  public void matchesMinIndexedBinaryHeapOnMonotoneWorkload()
+  {
+    int n = 1000;
+    Random random = new Random(42);
+    RadixHeap radix = new RadixHeap(n);
+    MinIndexedBinaryHeap<Long> binary = new MinIndexedBinaryHeap<>(n);
+
+    for (int ki = 0; ki < n / 2; ki++)
+    {
+      long value = random.nextInt(100);
+      radix.insert(ki, value);
+      binary.insert(ki, value);
+    }
+
+    while (!binary.isEmpty())
+    {
+      long min = binary.peekMinValue();
+      Assertions.assertEquals(min, radix.pollMinValue());
+      binary.pollMinKeyIndex();
+
+      int ki = random.nextInt(n);
+      long value = min + random.nextInt(100);
+
+//      only insert three times out of four so the heaps eventually drain
+      if (!binary.contains(ki) && random.nextInt(4) != 0)
+      {
+        radix.insert(ki, value);
+        binary.insert(ki, value);
+      }
+      else if (binary.contains(ki) && value < binary.valueOf(ki))
+      {
+        radix.decrease(ki, value);
+        binary.decrese(ki, value);
+      }
+    }
+
+    Assertions.assertTrue(radix.isEmpty());
+  }
+}
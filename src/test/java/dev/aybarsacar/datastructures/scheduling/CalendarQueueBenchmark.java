@@ -0,0 +1,86 @@
+package dev.aybarsacar.datastructures.scheduling;
+
+import dev.aybarsacar.datastructures.priorityqueue.BinaryHeap;
+
+import java.util.Random;
+
+/**
+ * Classic hold model benchmark of CalendarQueue against BinaryHeap: the queue is prefilled with
+ * N events and then every hold dequeues the next event and schedules a new one an exponentially
+ * distributed time later
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class CalendarQueueBenchmark
+{
+  private static final int[] SIZES = {1_000, 100_000, 1_000_000};
+  private static final int HOLDS = 5_000_000;
+
+  public static void main(String[] args)
+  {
+    for (int n : SIZES)
+    {
+      for (int round = 0; round < 2; round++)
+      {
+        long calendar = calendarQueue(n);
+        long heap = binaryHeap(n);
+
+        System.out.printf("N=%d: CalendarQueue %d ns/hold, BinaryHeap %d ns/hold%n",
+            n, calendar / HOLDS, heap / HOLDS);
+      }
+    }
+  }
+
+  private static long calendarQueue(int n)
+  {
+    Random random = new Random(1);
+    CalendarQueue<Integer> queue = new CalendarQueue<>();
+    for (int i = 0; i < n; i++) queue.enqueue(exponential(random), i);
+
+    long start = System.nanoTime();
+    for (int i = 0; i < HOLDS; i++)
+    {
+      Integer event = queue.dequeue();
+      queue.enqueue(queue.lastTime() + exponential(random), event);
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static long binaryHeap(int n)
+  {
+    Random random = new Random(1);
+    BinaryHeap<Event> heap = new BinaryHeap<>(n);
+    for (int i = 0; i < n; i++) heap.add(new Event(exponential(random), i));
+
+    long start = System.nanoTime();
+    for (int i = 0; i < HOLDS; i++)
+    {
+      Event event = heap.poll();
+      heap.add(new Event(event.time + exponential(random), event.id));
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static double exponential(Random random)
+  {
+    return -Math.log(1 - random.nextDouble());
+  }
+
+  private static class Event implements Comparable<Event>
+  {
+    final double time;
+    final int id;
+
+    Event(double time, int id)
+    {
+      this.time = time;
+      this.id = id;
+    }
+
+    @Override
+    public int compareTo(Event other)
+    {
+      return Double.compare(time, other.time);
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package dev.aybarsacar.datastructures.scheduling;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class CalendarQueueTest
+{
+  @Test
+  public void dequeuesInTimestampOrderAcrossResizes()
+  {
+    CalendarQueue<Integer> queue = new CalendarQueue<>();
+    Random random = new Random(11);
+
+    for (int i = 0; i < 10_000; i++) queue.enqueue(random.nextDouble() * 1000, i);
+
+//    hold model: every dequeued event schedules a new one a random time later
+    double last = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < 20_000; i++)
+    {
+      double time = queue.peekTime();
+      queue.dequeue();
+
+      Assertions.assertEquals(time, queue.lastTime());
+      Assertions.assertTrue(time >= last);
+      last = time;
+
+      if (i % 3 != 0) queue.enqueue(time - Math.log(1 - random.nextDouble()) * 5, i);
+    }
+
+    while (!queue.isEmpty())
+    {
+      queue.dequeue();
+      Assertions.assertTrue(queue.lastTime() >= last);
+      last = queue.lastTime();
+    }
+  }
+
+  @Test
+  public void equalTimestampsAreFifo()
+  {
+    CalendarQueue<String> queue = new CalendarQueue<>(0.5);
+    queue.enqueue(3, "c");
+    queue.enqueue(1, "a1");
+    queue.enqueue(1, "a2");
+    queue.enqueue(2, "b");
+
+    Assertions.assertEquals("a1", queue.dequeue());
+    Assertions.assertEquals("a2", queue.dequeue());
+    Assertions.assertEquals("b", queue.dequeue());
+    Assertions.assertEquals("c", queue.dequeue());
+  }
+
+  @Test
+  public void equalTimestampsStayFifoAcrossResizes()
+  {
+    CalendarQueue<Integer> same = new CalendarQueue<>();
+    for (int i = 0; i < 40; i++) same.enqueue(0, i);
+    for (int i = 0; i < 40; i++) Assertions.assertEquals(i, same.dequeue());
+
+//    runs of four equal timestamps, more events than one resize samples
+    CalendarQueue<Integer> near = new CalendarQueue<>();
+    for (int i = 0; i < 200; i++) near.enqueue(i / 4 / 10.0, i);
+    for (int i = 0; i < 200; i++) Assertions.assertEquals(i, near.dequeue());
+  }
+
+  @Test
+  public void eventsCanBeScheduledBetweenPeekedAndLastTime()
+  {
+    CalendarQueue<String> queue = new CalendarQueue<>();
+    queue.enqueue(0, "start");
+    queue.enqueue(100, "late");
+    queue.dequeue();
+
+    Assertions.assertEquals(100, queue.peekTime());
+    queue.enqueue(5, "early");
+
+    Assertions.assertEquals("early", queue.dequeue());
+    Assertions.assertThrows(IllegalArgumentException.class, () -> queue.enqueue(1, "past"));
+  }
+}
@@ -0,0 +1,107 @@
+package dev.aybarsacar.datastructures.scheduling;
+
+import dev.aybarsacar.datastructures.priorityqueue.BinaryHeap;
+
+import java.util.Random;
+
+/**
+ * Compares TimingWheel with a delay queue backed by BinaryHeap with 1M pending timers
+ * <p>
+ * BinaryHeap.remove() is O(n) so the heap only cancels CANCELS timers, the time per cancel
+ * is what matters
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class TimingWheelBenchmark
+{
+  private static final int TIMERS = 1_000_000;
+  private static final int CANCELS = 1_000;
+  private static final int MAX_DELAY = 60_000;
+  private static final int ROUNDS = 3;
+
+  public static void main(String[] args)
+  {
+    for (int round = 0; round < ROUNDS; round++)
+    {
+      wheel();
+      heap();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void wheel()
+  {
+    Random random = new Random(1);
+    TimingWheel<Integer> wheel = new TimingWheel<>();
+    TimingWheel.Timeout<Integer>[] timeouts = new TimingWheel.Timeout[TIMERS];
+
+    long start = System.nanoTime();
+    for (int i = 0; i < TIMERS; i++) timeouts[i] = wheel.schedule(i, 1 + random.nextInt(MAX_DELAY));
+    long scheduled = System.nanoTime();
+
+    for (int i = 0; i < CANCELS; i++) wheel.cancel(timeouts[random.nextInt(TIMERS)]);
+    long cancelled = System.nanoTime();
+
+    int[] expired = new int[1];
+    wheel.advance(MAX_DELAY, task -> expired[0]++);
+    long end = System.nanoTime();
+
+    report("TimingWheel", scheduled - start, cancelled - scheduled, end - cancelled, expired[0]);
+  }
+
+  private static void heap()
+  {
+    Random random = new Random(1);
+    BinaryHeap<Timer> heap = new BinaryHeap<>(TIMERS);
+    Timer[] timers = new Timer[TIMERS];
+
+    long start = System.nanoTime();
+    for (int i = 0; i < TIMERS; i++)
+    {
+      timers[i] = new Timer(1 + random.nextInt(MAX_DELAY), i);
+      heap.add(timers[i]);
+    }
+    long scheduled = System.nanoTime();
+
+    for (int i = 0; i < CANCELS; i++) heap.remove(timers[random.nextInt(TIMERS)]);
+    long cancelled = System.nanoTime();
+
+    int expired = 0;
+    for (long tick = 1; tick <= MAX_DELAY; tick++)
+    {
+      while (!heap.isEmpty() && heap.peek().deadline <= tick)
+      {
+        heap.poll();
+        expired++;
+      }
+    }
+    long end = System.nanoTime();
+
+    report("BinaryHeap delay queue", scheduled - start, cancelled - scheduled, end - cancelled, expired);
+  }
+
+  private static void report(String name, long schedule, long cancel, long expire, int expired)
+  {
+    System.out.printf("%-24s schedule %d ms (%d ns/op), cancel %d ns/op, expire %d ms (%d expired)%n",
+        name, schedule / 1_000_000, schedule / TIMERS, cancel / CANCELS, expire / 1_000_000, expired);
+  }
+
+  private static class Timer implements Comparable<Timer>
+  {
+    final long deadline;
+    final int id;
+
+    Timer(long deadline, int id)
+    {
+      this.deadline = deadline;
+      this.id = id;
+    }
+
+    @Override
+    public int compareTo(Timer other)
+    {
+      int comparison = Long.compare(deadline, other.deadline);
+      return comparison != 0 ? comparison : Integer.compare(id, other.id);
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package dev.aybarsacar.datastructures.scheduling;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TimingWheelTest
+{
+  @Test
+  public void expiresTimeoutsAtTheirDeadline()
+  {
+    TimingWheel<Long> wheel = new TimingWheel<>(100);
+    List<Long> expired = new ArrayList<>();
+    List<Long> expiredAt = new ArrayList<>();
+
+    Random random = new Random(3);
+    for (int i = 0; i < 2000; i++)
+    {
+      long delay = random.nextInt(3) == 0 ? random.nextInt(64) : random.nextInt(300_000);
+      wheel.schedule(wheel.currentTick() + Math.max(1, delay), delay);
+    }
+
+    while (!wheel.isEmpty())
+    {
+      wheel.advance(1 + random.nextInt(500), deadline ->
+      {
+        expired.add(deadline);
+        expiredAt.add(wheel.currentTick());
+      });
+    }
+
+    Assertions.assertEquals(2000, expired.size());
+    Assertions.assertEquals(expired, expiredAt);
+  }
+
+  @Test
+  public void cancelledTimeoutsNeverExpire()
+  {
+    TimingWheel<String> wheel = new TimingWheel<>();
+    TimingWheel.Timeout<String> a = wheel.schedule("a", 10);
+    TimingWheel.Timeout<String> b = wheel.schedule("b", 5000);
+    wheel.schedule("c", 5000);
+
+    Assertions.assertTrue(wheel.cancel(a));
+    Assertions.assertTrue(wheel.cancel(b));
+    Assertions.assertFalse(wheel.cancel(b));
+    Assertions.assertEquals(1, wheel.size());
+
+    List<String> expired = new ArrayList<>();
+    Assertions.assertEquals(1, wheel.advance(10_000, expired::add));
+    Assertions.assertEquals(List.of("c"), expired);
+    Assertions.assertFalse(a.isPending());
+  }
+
+  @Test
+  public void callbackCanScheduleNewTimeouts()
+  {
+    TimingWheel<Integer> wheel = new TimingWheel<>();
+    List<Long> ticks = new ArrayList<>();
+
+    wheel.schedule(3, 1);
+    wheel.advance(100, remaining ->
+    {
+      ticks.add(wheel.currentTick());
+      if (remaining > 1) wheel.schedule(remaining - 1, 0);
+    });
+
+    Assertions.assertEquals(List.of(1L, 2L, 3L), ticks);
+  }
+
+  @Test
+  public void callbackCanCancelATimeoutOfTheSameTick()
+  {
+    TimingWheel<String> wheel = new TimingWheel<>();
+    List<TimingWheel.Timeout<String>> timeouts = new ArrayList<>();
+    List<String> expired = new ArrayList<>();
+    List<Boolean> cancelled = new ArrayList<>();
+
+    timeouts.add(wheel.schedule("a", 5));
+    timeouts.add(wheel.schedule("b", 5));
+
+//    whichever expires first cancels the other
+    int count = wheel.advance(10, task ->
+    {
+      expired.add(task);
+      for (TimingWheel.Timeout<String> timeout : timeouts)
+        if (!timeout.getTask().equals(task)) cancelled.add(wheel.cancel(timeout));
+    });
+
+    Assertions.assertEquals(1, expired.size());
+    Assertions.assertEquals(List.of(true), cancelled);
+    Assertions.assertEquals(1, count);
+    Assertions.assertTrue(wheel.isEmpty());
+    Assertions.assertFalse(timeouts.get(0).isPending());
+    Assertions.assertFalse(timeouts.get(1).isPending());
+  }
+
+  @Test
+  public void throwingCallbackKeepsTheRestOfTheBatchPending()
+  {
+    TimingWheel<String> wheel = new TimingWheel<>();
+    List<TimingWheel.Timeout<String>> timeouts = new ArrayList<>();
+    for (String task : List.of("a", "b", "c", "d")) timeouts.add(wheel.schedule(task, 5));
+
+    List<String> expired = new ArrayList<>();
+    Assertions.assertThrows(IllegalStateException.class, () -> wheel.advance(10, task ->
+    {
+      expired.add(task);
+      if (expired.size() == 2) throw new IllegalStateException();
+    }));
+
+//    the wheel stops at the tick of the batch, the two timeouts not handed out stay pending
+    Assertions.assertEquals(5, wheel.currentTick());
+    Assertions.assertEquals(2, wheel.size());
+    Assertions.assertEquals(2, timeouts.stream().filter(TimingWheel.Timeout::isPending).count());
+
+    List<String> rest = new ArrayList<>();
+    for (TimingWheel.Timeout<String> timeout : timeouts)
+      if (timeout.isPending()) rest.add(timeout.getTask());
+
+    expired.clear();
+    Assertions.assertEquals(2, wheel.advance(0, expired::add));
+    Assertions.assertTrue(expired.containsAll(rest));
+    Assertions.assertTrue(wheel.isEmpty());
+
+//    with nothing pending the wheel jumps straight to the target again
+    Assertions.assertEquals(0, wheel.advance(1000, expired::add));
+    Assertions.assertEquals(1005, wheel.currentTick());
+  }
+}
@@ -0,0 +1,122 @@
+package dev.aybarsacar.datastructures.segmenttree;
+
+import dev.aybarsacar.datastructures.fenwicktree.FenwickTree;
+
+import java.util.Random;
+
+/**
+ * Range sums over a million elements interleaved with point adds, then with range adds, answered by
+ * LongSegmentTree and by FenwickTree
+ * point adds are FenwickTree's home ground; for range adds it needs the usual pair of Fenwick Trees
+ * over the differences, b1 and b2, with prefixSum(i) = sum(b1, i) * i - sum(b2, i)
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class LongSegmentTreeBenchmark
+{
+  private static final int N = 1 << 20;
+  private static final int OPS = 2_000_000;
+  private static final int ROUNDS = 3;
+
+  public static void main(String[] args)
+  {
+    Random random = new Random(1);
+
+    long[] values = new long[N];
+    for (int i = 0; i < N; i++) values[i] = random.nextInt(1000);
+
+    int[] los = new int[OPS], his = new int[OPS];
+    long[] deltas = new long[OPS];
+    boolean[] isUpdate = new boolean[OPS];
+    for (int i = 0; i < OPS; i++)
+    {
+      int a = random.nextInt(N), b = random.nextInt(N);
+      los[i] = Math.min(a, b);
+      his[i] = Math.max(a, b);
+      deltas[i] = random.nextInt(100);
+      isUpdate[i] = random.nextBoolean();
+    }
+
+    for (int round = 0; round < ROUNDS; round++)
+    {
+      System.out.printf("round %d%n", round);
+
+//      point add + range sum
+      LongSegmentTree segmentTree = new LongSegmentTree(values, LongMonoid.SUM);
+      long checksum = 0;
+      long start = System.nanoTime();
+      for (int i = 0; i < OPS; i++)
+      {
+        if (isUpdate[i]) segmentTree.set(los[i], segmentTree.get(los[i]) + deltas[i]);
+        else checksum += segmentTree.query(los[i], his[i]);
+      }
+      long segmentTime = System.nanoTime() - start;
+
+      FenwickTree fenwickTree = new FenwickTree(oneBased(values));
+      start = System.nanoTime();
+      for (int i = 0; i < OPS; i++)
+      {
+        if (isUpdate[i]) fenwickTree.add(los[i] + 1, deltas[i]);
+        else checksum -= fenwickTree.sum(los[i] + 1, his[i] + 1);
+      }
+      long fenwickTime = System.nanoTime() - start;
+
+      System.out.printf("  point add + range sum: LongSegmentTree %6.1f ns/op  FenwickTree %6.1f ns/op  (%d)%n",
+          segmentTime / (double) OPS, fenwickTime / (double) OPS, checksum);
+
+//      range add + range sum
+      segmentTree = new LongSegmentTree(values, LongMonoid.SUM, LongRangeUpdate.ADD_TO_SUM);
+      checksum = 0;
+      start = System.nanoTime();
+      for (int i = 0; i < OPS; i++)
+      {
+        if (isUpdate[i]) segmentTree.rangeUpdate(los[i], his[i], deltas[i]);
+        else checksum += segmentTree.query(los[i], his[i]);
+      }
+      segmentTime = System.nanoTime() - start;
+
+      long[] prefix = new long[N + 1];
+      for (int i = 0; i < N; i++) prefix[i + 1] = prefix[i] + values[i];
+      FenwickTree b1 = new FenwickTree(N + 1), b2 = new FenwickTree(N + 1);
+      start = System.nanoTime();
+      for (int i = 0; i < OPS; i++)
+      {
+        int lo = los[i] + 1, hi = his[i] + 1;
+        if (isUpdate[i])
+        {
+          b1.add(lo, deltas[i]);
+          b1.add(hi + 1, -deltas[i]);
+          b2.add(lo, deltas[i] * (lo - 1));
+          b2.add(hi + 1, -deltas[i] * hi);
+        }
+        else
+        {
+          checksum -= prefix[hi] + prefixOfDifferences(b1, b2, hi) - prefix[lo - 1] - prefixOfDifferences(b1, b2, lo - 1);
+        }
+      }
+      fenwickTime = System.nanoTime() - start;
+
+      System.out.printf("  range add + range sum: LongSegmentTree %6.1f ns/op  2 x FenwickTree %6.1f ns/op  (%d)%n",
+          segmentTime / (double) OPS, fenwickTime / (double) OPS, checksum);
+    }
+  }
+
+  /**
+   * FenwickTree is 1 based and ignores index 0
+   */
+  private static long[] oneBased(long[] values)
+  {
+    long[] result = new long[values.length + 1];
+    System.arraycopy(values, 0, result, 1, values.length);
+    return result;
+  }
+
+  /**
+   * the sum of the range adds over [1, i]
+   */
+  private static long prefixOfDifferences(FenwickTree b1, FenwickTree b2, int i)
+  {
+    if (i == 0) return 0L;
+    return b1.sum(1, i) * i - b2.sum(1, i);
+  }
+}
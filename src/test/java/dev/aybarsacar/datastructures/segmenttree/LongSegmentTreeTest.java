@@ -0,0 +1,124 @@
+package dev.aybarsacar.datastructures.segmenttree;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class LongSegmentTreeTest
+{
+  private static long[] randomValues(Random random, int n)
+  {
+    long[] values = new long[n];
+    for (int i = 0; i < n; i++) values[i] = random.nextInt(2001) - 1000;
+    return values;
+  }
+
+  /**
+   * runs random point sets, range updates and queries against a plain array
+   *
+   * @param assign true to assign the update to the range, false to add it
+   */
+  private static void matchesNaive(LongMonoid monoid, LongRangeUpdate update, boolean assign, long seed)
+  {
+    Random random = new Random(seed);
+
+    for (int n : new int[]{1, 2, 7, 64, 100})
+    {
+      long[] expected = randomValues(random, n);
+      LongSegmentTree tree = new LongSegmentTree(expected, monoid, update);
+
+      for (int op = 0; op < 2_000; op++)
+      {
+        int lo = random.nextInt(n), hi = lo + random.nextInt(n - lo);
+        long value = random.nextInt(201) - 100;
+
+        switch (random.nextInt(4))
+        {
+          case 0:
+            tree.set(lo, value);
+            expected[lo] = value;
+            break;
+          case 1:
+            tree.rangeUpdate(lo, hi, value);
+            for (int i = lo; i <= hi; i++) expected[i] = assign ? value : expected[i] + value;
+            break;
+          case 2:
+            Assertions.assertEquals(expected[lo], tree.get(lo));
+            break;
+          default:
+            long combined = monoid.identity();
+            for (int i = lo; i <= hi; i++) combined = monoid.combine(combined, expected[i]);
+            Assertions.assertEquals(combined, tree.query(lo, hi));
+        }
+      }
+
+      long all = monoid.identity();
+      for (long v : expected) all = monoid.combine(all, v);
+      Assertions.assertEquals(all, tree.queryAll());
+    }
+  }
+
+  @Test
+  public void addToSumTest()
+  {
+    matchesNaive(LongMonoid.SUM, LongRangeUpdate.ADD_TO_SUM, false, 1);
+  }
+
+  @Test
+  public void addToMinMaxTest()
+  {
+    matchesNaive(LongMonoid.MIN, LongRangeUpdate.ADD_TO_MIN_MAX, false, 2);
+    matchesNaive(LongMonoid.MAX, LongRangeUpdate.ADD_TO_MIN_MAX, false, 3);
+  }
+
+  @Test
+  public void assignTest()
+  {
+    matchesNaive(LongMonoid.SUM, LongRangeUpdate.ASSIGN_TO_SUM, true, 4);
+    matchesNaive(LongMonoid.MIN, LongRangeUpdate.ASSIGN_TO_MIN_MAX, true, 5);
+    matchesNaive(LongMonoid.MAX, LongRangeUpdate.ASSIGN_TO_MIN_MAX, true, 6);
+  }
+
+  @Test
+  public void customMonoidWithoutUpdatesTest()
+  {
+    Random random = new Random(7);
+    LongMonoid xor = LongMonoid.of(0L, (a, b) -> a ^ b);
+
+    long[] expected = randomValues(random, 50);
+    LongSegmentTree tree = new LongSegmentTree(expected, xor);
+
+    for (int op = 0; op < 1_000; op++)
+    {
+      int lo = random.nextInt(50), hi = lo + random.nextInt(50 - lo);
+      tree.set(lo, expected[lo] = random.nextLong());
+
+      long combined = 0L;
+      for (int i = lo; i <= hi; i++) combined ^= expected[i];
+      Assertions.assertEquals(combined, tree.query(lo, hi));
+    }
+
+    Assertions.assertThrows(IllegalStateException.class, () -> tree.rangeUpdate(0, 1, 5));
+  }
+
+  @Test
+  public void boundsTest()
+  {
+    LongSegmentTree tree = new LongSegmentTree(new long[]{3, 1, 4, 1, 5}, LongMonoid.SUM, LongRangeUpdate.ADD_TO_SUM);
+
+    Assertions.assertEquals(5, tree.size());
+    Assertions.assertEquals(14, tree.queryAll());
+    Assertions.assertEquals("[3, 1, 4, 1, 5]", tree.toString());
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> tree.get(5));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> tree.set(-1, 0));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> tree.query(3, 2));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> tree.rangeUpdate(0, 5, 1));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new LongSegmentTree(null, LongMonoid.SUM));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new LongSegmentTree(new long[1], null));
+
+    LongSegmentTree empty = new LongSegmentTree(new long[0], LongMonoid.MIN);
+    Assertions.assertEquals(Long.MAX_VALUE, empty.queryAll());
+  }
+}
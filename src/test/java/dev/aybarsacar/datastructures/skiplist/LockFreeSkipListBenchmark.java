@@ -0,0 +1,162 @@
+package dev.aybarsacar.datastructures.skiplist;
+
+import dev.aybarsacar.datastructures.trees.bst.BinarySearchTree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Throughput of a mixed workload (50% lookups, 25% inserts, 25% removes over random keys) with a
+ * growing number of threads for LockFreeSkipListMap, a BinarySearchTree behind a single lock and
+ * java.util.concurrent.ConcurrentSkipListMap as a reference
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class LockFreeSkipListBenchmark
+{
+  private static final int KEYS = 200_000;
+  private static final int OPS = 1_000_000;
+  private static final int[] THREADS = {1, 2, 4, 8};
+  private static final int ROUNDS = 2;
+
+  private interface Operations
+  {
+    void put(int key);
+
+    void remove(int key);
+
+    boolean contains(int key);
+  }
+
+  public static void main(String[] args) throws InterruptedException
+  {
+    System.out.printf("%d available processors%n", Runtime.getRuntime().availableProcessors());
+
+    for (int round = 0; round < ROUNDS; round++)
+    {
+      System.out.printf("round %d%n", round);
+
+      for (int threads : THREADS)
+      {
+        LockFreeSkipListMap<Integer, Integer> skipList = new LockFreeSkipListMap<>();
+        double skipListRate = run(threads, new Operations()
+        {
+          @Override
+          public void put(int key)
+          {
+            skipList.put(key, key);
+          }
+
+          @Override
+          public void remove(int key)
+          {
+            skipList.remove(key);
+          }
+
+          @Override
+          public boolean contains(int key)
+          {
+            return skipList.containsKey(key);
+          }
+        });
+
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+        Object lock = new Object();
+        double bstRate = run(threads, new Operations()
+        {
+          @Override
+          public void put(int key)
+          {
+            synchronized (lock)
+            {
+              bst.insert(key);
+            }
+          }
+
+          @Override
+          public void remove(int key)
+          {
+            synchronized (lock)
+            {
+              bst.remove(key);
+            }
+          }
+
+          @Override
+          public boolean contains(int key)
+          {
+            synchronized (lock)
+            {
+              return bst.contains(key);
+            }
+          }
+        });
+
+        ConcurrentSkipListMap<Integer, Integer> jdk = new ConcurrentSkipListMap<>();
+        double jdkRate = run(threads, new Operations()
+        {
+          @Override
+          public void put(int key)
+          {
+            jdk.put(key, key);
+          }
+
+          @Override
+          public void remove(int key)
+          {
+            jdk.remove(key);
+          }
+
+          @Override
+          public boolean contains(int key)
+          {
+            return jdk.containsKey(key);
+          }
+        });
+
+        System.out.printf("  %d threads: LockFreeSkipListMap %6.2f Mops/s  synchronized BST %6.2f Mops/s  " +
+            "ConcurrentSkipListMap %6.2f Mops/s%n", threads, skipListRate, bstRate, jdkRate);
+      }
+    }
+  }
+
+  /**
+   * prefills half the keys then splits OPS operations between the threads
+   *
+   * @return million operations per second
+   */
+  private static double run(int threads, Operations operations) throws InterruptedException
+  {
+    for (int key = 0; key < KEYS; key += 2) operations.put(key * 7919 % KEYS);
+
+    List<Thread> workers = new ArrayList<>();
+    for (int t = 0; t < threads; t++)
+    {
+      workers.add(new Thread(() ->
+      {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int found = 0;
+
+        for (int i = OPS / threads; i > 0; i--)
+        {
+          int key = random.nextInt(KEYS), op = random.nextInt(4);
+
+          if (op == 0) operations.put(key);
+          else if (op == 1) operations.remove(key);
+          else if (operations.contains(key)) found++;
+        }
+
+        if (found < 0) System.out.println(found);
+      }));
+    }
+
+    long start = System.nanoTime();
+    for (Thread worker : workers) worker.start();
+    for (Thread worker : workers) worker.join();
+    long time = System.nanoTime() - start;
+
+    return OPS * 1000.0 / time;
+  }
+}
@@ -0,0 +1,179 @@
+package dev.aybarsacar.datastructures.skiplist;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LockFreeSkipListMapTest
+{
+  private static <T> List<T> toList(Iterator<T> iterator)
+  {
+    List<T> lst = new ArrayList<>();
+    iterator.forEachRemaining(lst::add);
+    return lst;
+  }
+
+  @Test
+  public void matchesTreeMapOnASingleThread()
+  {
+    LockFreeSkipListMap<Integer, Integer> map = new LockFreeSkipListMap<>();
+    TreeMap<Integer, Integer> expected = new TreeMap<>();
+    Random random = new Random(17);
+
+    for (int i = 0; i < 50_000; i++)
+    {
+      int key = random.nextInt(3000);
+      if (random.nextInt(3) != 0) Assertions.assertEquals(expected.put(key, i), map.put(key, i));
+      else Assertions.assertEquals(expected.remove(key), map.remove(key));
+    }
+
+    Assertions.assertEquals(expected.size(), map.size());
+    Assertions.assertEquals(new ArrayList<>(expected.keySet()), toList(map.iterator()));
+    Assertions.assertEquals(expected.firstKey(), map.firstKey());
+    Assertions.assertEquals(expected.lastKey(), map.lastKey());
+
+    for (int key = -1; key <= 3001; key += 7)
+    {
+      Assertions.assertEquals(expected.get(key), map.get(key));
+      Assertions.assertEquals(expected.floorKey(key), map.floorKey(key));
+      Assertions.assertEquals(expected.ceilingKey(key), map.ceilingKey(key));
+      Assertions.assertEquals(expected.lowerKey(key), map.lowerKey(key));
+      Assertions.assertEquals(expected.higherKey(key), map.higherKey(key));
+    }
+
+    Assertions.assertEquals(new ArrayList<>(expected.subMap(100, true, 200, true).keySet()),
+        toList(map.rangeIterator(100, 200)));
+    Assertions.assertEquals(new ArrayList<>(expected.subMap(100, true, 200, true).entrySet()),
+        toList(map.entryIterator(100, 200)));
+  }
+
+  @Test
+  public void emptyMapTest()
+  {
+    LockFreeSkipListMap<String, String> map = new LockFreeSkipListMap<>();
+
+    Assertions.assertTrue(map.isEmpty());
+    Assertions.assertNull(map.get("a"));
+    Assertions.assertNull(map.remove("a"));
+    Assertions.assertNull(map.floorKey("a"));
+    Assertions.assertFalse(map.iterator().hasNext());
+    Assertions.assertThrows(NoSuchElementException.class, map::firstKey);
+    Assertions.assertThrows(IllegalArgumentException.class, () -> map.put("a", null));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> map.get(null));
+  }
+
+  @Test
+  public void iteratorIsWeaklyConsistent()
+  {
+    LockFreeSkipListMap<Integer, Integer> map = new LockFreeSkipListMap<>();
+    for (int i = 0; i < 100; i++) map.put(i, i);
+
+    Iterator<Integer> it = map.iterator();
+    Assertions.assertEquals(0, it.next());
+
+//    changes ahead of the iterator are seen, no ConcurrentModificationException
+    map.remove(50);
+    map.put(1000, 1000);
+
+    List<Integer> rest = toList(it);
+    Assertions.assertEquals(99, rest.size());
+    Assertions.assertFalse(rest.contains(50));
+    Assertions.assertEquals(1000, rest.get(rest.size() - 1));
+
+    Iterator<Integer> removing = map.rangeIterator(10, 19);
+    while (removing.hasNext())
+    {
+      removing.next();
+      removing.remove();
+    }
+    Assertions.assertEquals(20, map.ceilingKey(10));
+  }
+
+  @Test
+  public void concurrentPutsAndRemovesKeepEveryKeyExactlyOnce() throws InterruptedException
+  {
+    int threads = 4, keys = 2_000, ops = 100_000;
+    LockFreeSkipListMap<Integer, Integer> map = new LockFreeSkipListMap<>();
+
+//    every successful put of a new key adds one and every successful remove subtracts one
+    AtomicLong balance = new AtomicLong();
+    List<Thread> workers = new ArrayList<>();
+
+    for (int t = 0; t < threads; t++)
+    {
+      workers.add(new Thread(() ->
+      {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < ops; i++)
+        {
+          int key = random.nextInt(keys);
+          if (random.nextBoolean())
+          {
+            if (map.put(key, i) == null) balance.incrementAndGet();
+          }
+          else if (map.remove(key) != null) balance.decrementAndGet();
+        }
+      }));
+    }
+
+    for (Thread worker : workers) worker.start();
+    for (Thread worker : workers) worker.join();
+
+    List<Integer> remaining = toList(map.iterator());
+
+    Assertions.assertTrue(map.isSortedOnEveryLevel());
+    Assertions.assertEquals(balance.get(), remaining.size());
+    Assertions.assertEquals(balance.get(), map.size());
+    for (int i = 1; i < remaining.size(); i++) Assertions.assertTrue(remaining.get(i - 1) < remaining.get(i));
+    for (int key = 0; key < keys; key++) Assertions.assertEquals(remaining.contains(key), map.containsKey(key));
+  }
+
+  @Test
+  public void setTest()
+  {
+    LockFreeSkipListSet<Integer> set = new LockFreeSkipListSet<>();
+
+    Assertions.assertTrue(set.add(5));
+    Assertions.assertTrue(set.add(1));
+    Assertions.assertTrue(set.add(9));
+    Assertions.assertFalse(set.add(5));
+
+    Assertions.assertEquals(3, set.size());
+    Assertions.assertEquals(1, set.first());
+    Assertions.assertEquals(9, set.last());
+    Assertions.assertEquals(5, set.floor(8));
+    Assertions.assertEquals(9, set.ceiling(6));
+    Assertions.assertEquals(1, set.lower(5));
+    Assertions.assertNull(set.higher(9));
+
+    Assertions.assertTrue(set.remove(5));
+    Assertions.assertFalse(set.contains(5));
+    Assertions.assertEquals(List.of(1, 9), toList(set.iterator()));
+    Assertions.assertEquals(List.of(9), toList(set.rangeIterator(2, null)));
+  }
+
+  @Test
+  public void entryIteratorReturnsSnapshots()
+  {
+    LockFreeSkipListMap<String, Integer> map = new LockFreeSkipListMap<>();
+    map.put("a", 1);
+    map.put("b", 2);
+
+    Iterator<Map.Entry<String, Integer>> it = map.entryIterator(null, null);
+    Map.Entry<String, Integer> first = it.next();
+    map.put("a", 10);
+
+    Assertions.assertEquals(Map.entry("a", 1), first);
+    Assertions.assertEquals(Map.entry("b", 2), it.next());
+    Assertions.assertFalse(it.hasNext());
+  }
+}
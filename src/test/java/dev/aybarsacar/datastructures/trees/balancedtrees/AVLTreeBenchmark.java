@@ -0,0 +1,60 @@
+package dev.aybarsacar.datastructures.trees.balancedtrees;
+
+import dev.aybarsacar.datastructures.trees.bst.BinarySearchTree;
+
+import java.util.Random;
+
+/**
+ * Insert and lookup times of AVLTree against BinarySearchTree on sorted and random keys
+ * <p>
+ * the sorted input is kept small since BinarySearchTree degrades to a linked list on it
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class AVLTreeBenchmark
+{
+  private static final int SORTED = 5_000;
+  private static final int RANDOM = 1_000_000;
+  private static final int ROUNDS = 3;
+
+  public static void main(String[] args)
+  {
+    int[] sorted = new int[SORTED];
+    for (int i = 0; i < SORTED; i++) sorted[i] = i;
+
+    int[] random = new Random(1).ints(RANDOM).toArray();
+
+    for (int round = 0; round < ROUNDS; round++)
+    {
+      run("sorted", sorted);
+      run("random", random);
+    }
+  }
+
+  private static void run(String name, int[] keys)
+  {
+    long start = System.nanoTime();
+    AVLTree<Integer, Integer> avl = new AVLTree<>();
+    for (int key : keys) avl.put(key, key);
+    long avlInsert = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    int found = 0;
+    for (int key : keys) if (avl.containsKey(key)) found++;
+    long avlLookup = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+    for (int key : keys) bst.insert(key);
+    long bstInsert = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    for (int key : keys) if (bst.contains(key)) found++;
+    long bstLookup = System.nanoTime() - start;
+
+    System.out.printf("%s n=%d: AVLTree insert %d ns/op lookup %d ns/op (height %d), "
+            + "BinarySearchTree insert %d ns/op lookup %d ns/op (found %d)%n",
+        name, keys.length, avlInsert / keys.length, avlLookup / keys.length, avl.height(),
+        bstInsert / keys.length, bstLookup / keys.length, found);
+  }
+}
@@ -0,0 +1,199 @@
+package dev.aybarsacar.datastructures.trees.balancedtrees;
+
+import dev.aybarsacar.datastructures.trees.utils.TreeTraversalOrder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class AVLTreeTest
+{
+  AVLTree<Integer, String> tree;
+
+  @BeforeEach
+  public void init()
+  {
+    tree = new AVLTree<>()
+    {{
+      put(10, "ten");
+      put(1234, "1234");
+      put(93, "93");
+      put(2, "two");
+      put(39, "39");
+      put(-1, "minus one");
+      put(1349, "1349");
+      put(5, "five");
+      put(100, "hundred");
+    }};
+  }
+
+  private static List<Integer> toList(Iterator<Integer> iterator)
+  {
+    List<Integer> lst = new ArrayList<>();
+    iterator.forEachRemaining(lst::add);
+    return lst;
+  }
+
+  @Test
+  public void printsAVLTree()
+  {
+    Assertions.assertEquals(9, tree.size());
+    Assertions.assertTrue(tree.isValidAVL());
+    System.out.println(tree);
+  }
+
+  @Test
+  public void putReplacesExistingValues()
+  {
+    Assertions.assertEquals("hundred", tree.put(100, "100"));
+    Assertions.assertEquals("100", tree.get(100));
+    Assertions.assertEquals(9, tree.size());
+    Assertions.assertNull(tree.get(101));
+  }
+
+  @Test
+  public void sortedInsertsStayBalanced()
+  {
+    AVLTree<Integer, Integer> sorted = new AVLTree<>();
+    for (int i = 0; i < 1_000_000; i++) sorted.put(i, i);
+
+    Assertions.assertTrue(sorted.height() <= 21);
+    Assertions.assertEquals(1_000_000, sorted.size());
+  }
+
+  @Test
+  public void fromSortedBuildsBalancedTree()
+  {
+    for (int n = 0; n <= 64; n++)
+    {
+      Integer[] keys = new Integer[n];
+      String[] values = new String[n];
+      for (int i = 0; i < n; i++) values[i] = String.valueOf(keys[i] = 2 * i);
+
+      AVLTree<Integer, String> built = AVLTree.fromSorted(keys, values);
+
+      Assertions.assertTrue(built.isValidAVL());
+      Assertions.assertEquals(n == 0 ? 0 : 32 - Integer.numberOfLeadingZeros(n), built.height());
+      Assertions.assertEquals(List.of(keys), toList(built.iterator()));
+      for (int i = 0; i < n; i++) Assertions.assertEquals(values[i], built.get(keys[i]));
+    }
+
+    TreeMap<Integer, String> source = new TreeMap<>();
+    for (int i = 0; i < 1000; i++) source.put(i * 7, "v" + i);
+
+    AVLTree<Integer, String> copy = AVLTree.fromSorted(source.entrySet().iterator());
+    Assertions.assertTrue(copy.isValidAVL());
+    Assertions.assertEquals("v500", copy.get(3500));
+    Assertions.assertNull(copy.put(1, "one"));
+    Assertions.assertEquals("v0", copy.remove(0));
+    Assertions.assertTrue(copy.isValidAVL());
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> AVLTree.fromSorted(new Integer[]{2, 1}, new String[2]));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> AVLTree.fromSorted(new Integer[]{1}, new String[2]));
+  }
+
+  @Test
+  public void matchesTreeMapUnderRandomOperations()
+  {
+    AVLTree<Integer, Integer> avl = new AVLTree<>();
+    TreeMap<Integer, Integer> expected = new TreeMap<>();
+    Random random = new Random(5);
+
+    for (int i = 0; i < 20_000; i++)
+    {
+      int key = random.nextInt(2000);
+      if (random.nextBoolean()) Assertions.assertEquals(expected.put(key, i), avl.put(key, i));
+      else Assertions.assertEquals(expected.remove(key), avl.remove(key));
+    }
+
+    Assertions.assertTrue(avl.isValidAVL());
+    Assertions.assertEquals(new ArrayList<>(expected.keySet()), toList(avl.iterator()));
+    Assertions.assertEquals(expected.floorKey(1000), avl.floorKey(1000));
+    Assertions.assertEquals(expected.ceilingKey(1000), avl.ceilingKey(1000));
+    Assertions.assertEquals(new ArrayList<>(expected.subMap(300, true, 700, true).keySet()), toList(avl.rangeIterator(300, 700)));
+  }
+
+  @Test
+  public void floorAndCeilingTest()
+  {
+    Assertions.assertEquals(5, tree.floorKey(9));
+    Assertions.assertEquals(10, tree.ceilingKey(9));
+    Assertions.assertEquals(10, tree.floorKey(10));
+    Assertions.assertNull(tree.floorKey(-2));
+    Assertions.assertNull(tree.ceilingKey(1350));
+    Assertions.assertEquals(-1, tree.firstKey());
+    Assertions.assertEquals(1349, tree.lastKey());
+  }
+
+  @Test
+  public void traversesInEveryOrder()
+  {
+    AVLTree<Integer, Integer> small = new AVLTree<>();
+    for (int i = 1; i <= 7; i++) small.put(i, i);
+
+    Assertions.assertEquals(List.of(4, 2, 1, 3, 6, 5, 7), toList(small.traverse(TreeTraversalOrder.PRE_ORDER)));
+    Assertions.assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), toList(small.traverse(TreeTraversalOrder.IN_ORDER)));
+    Assertions.assertEquals(List.of(1, 3, 2, 5, 7, 6, 4), toList(small.traverse(TreeTraversalOrder.POST_ORDER)));
+    Assertions.assertEquals(List.of(4, 2, 6, 1, 3, 5, 7), toList(small.traverse(TreeTraversalOrder.LEVEL_ORDER)));
+  }
+
+  @Test
+  public void removesNodeWithTwoChildren()
+  {
+    Assertions.assertEquals("ten", tree.remove(10));
+    Assertions.assertNull(tree.remove(1042));
+    Assertions.assertFalse(tree.containsKey(10));
+    Assertions.assertTrue(tree.isValidAVL());
+  }
+
+  @Test
+  public void orderStatisticsMatchSortedKeys()
+  {
+    AVLTree<Integer, Integer> tree = new AVLTree<>();
+    TreeMap<Integer, Integer> expected = new TreeMap<>();
+    Random random = new Random(11);
+
+    for (int i = 0; i < 20_000; i++)
+    {
+      int key = random.nextInt(2000);
+      if (random.nextInt(3) != 0)
+      {
+        tree.put(key, i);
+        expected.put(key, i);
+      }
+      else
+      {
+        tree.remove(key);
+        expected.remove(key);
+      }
+    }
+
+    Assertions.assertTrue(tree.isValidAVL());
+
+    List<Integer> keys = new ArrayList<>(expected.keySet());
+    for (int rank = 0; rank < keys.size(); rank++)
+    {
+      Assertions.assertEquals(keys.get(rank), tree.select(rank));
+      Assertions.assertEquals(rank, tree.rank(keys.get(rank)));
+    }
+
+    for (int lo = -5; lo <= 2005; lo += 37)
+    {
+      Assertions.assertEquals(expected.headMap(lo).size(), tree.rank(lo));
+      for (int hi = lo; hi <= 2005; hi += 211)
+        Assertions.assertEquals(expected.subMap(lo, true, hi, true).size(), tree.countRange(lo, hi));
+    }
+    Assertions.assertEquals(0, tree.countRange(10, 5));
+
+    int from = keys.size() / 3;
+    Assertions.assertEquals(keys.subList(from, keys.size()), toList(tree.iteratorFromRank(from)));
+    Assertions.assertFalse(tree.iteratorFromRank(keys.size()).hasNext());
+    Assertions.assertThrows(IllegalArgumentException.class, () -> tree.select(keys.size()));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> tree.iteratorFromRank(-1));
+  }
+}
@@ -0,0 +1,134 @@
+package dev.aybarsacar.datastructures.trees.balancedtrees;
+
+import dev.aybarsacar.datastructures.trees.bst.BinarySearchTree;
+
+import java.util.Random;
+
+/**
+ * Write heavy and read heavy mixed workloads over random keys for RedBlackTree, AVLTree and
+ * BinarySearchTree
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class BalancedTreeBenchmark
+{
+  private static final int KEYS = 1_000_000;
+  private static final int OPS = 2_000_000;
+  private static final int ROUNDS = 3;
+
+  public static void main(String[] args)
+  {
+    for (int round = 0; round < ROUNDS; round++)
+    {
+      run("write heavy (90% writes)", 90);
+      run("read heavy (10% writes)", 10);
+    }
+  }
+
+  private static void run(String name, int writePercent)
+  {
+    RedBlackTree<Integer, Integer> rb = new RedBlackTree<>();
+    long start = System.nanoTime();
+    int rbFound = workload(writePercent, new Random(1), new Operations()
+    {
+      @Override
+      public void put(int key)
+      {
+        rb.put(key, key);
+      }
+
+      @Override
+      public void remove(int key)
+      {
+        rb.remove(key);
+      }
+
+      @Override
+      public boolean contains(int key)
+      {
+        return rb.containsKey(key);
+      }
+    });
+    long rbTime = System.nanoTime() - start;
+
+    AVLTree<Integer, Integer> avl = new AVLTree<>();
+    start = System.nanoTime();
+    int avlFound = workload(writePercent, new Random(1), new Operations()
+    {
+      @Override
+      public void put(int key)
+      {
+        avl.put(key, key);
+      }
+
+      @Override
+      public void remove(int key)
+      {
+        avl.remove(key);
+      }
+
+      @Override
+      public boolean contains(int key)
+      {
+        return avl.containsKey(key);
+      }
+    });
+    long avlTime = System.nanoTime() - start;
+
+    BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+    start = System.nanoTime();
+    int bstFound = workload(writePercent, new Random(1), new Operations()
+    {
+      @Override
+      public void put(int key)
+      {
+        bst.insert(key);
+      }
+
+      @Override
+      public void remove(int key)
+      {
+        bst.remove(key);
+      }
+
+      @Override
+      public boolean contains(int key)
+      {
+        return bst.contains(key);
+      }
+    });
+    long bstTime = System.nanoTime() - start;
+
+    if (rbFound != avlFound || rbFound != bstFound) throw new IllegalStateException("trees disagree");
+
+    System.out.printf("%s: RedBlackTree %d ns/op, AVLTree %d ns/op, BinarySearchTree %d ns/op%n",
+        name, rbTime / OPS, avlTime / OPS, bstTime / OPS);
+  }
+
+  private interface Operations
+  {
+    void put(int key);
+
+    void remove(int key);
+
+    boolean contains(int key);
+  }
+
+  /**
+   * writes are half inserts and half removals so the size stays around KEYS / 2
+   */
+  private static int workload(int writePercent, Random random, Operations operations)
+  {
+    int found = 0;
+    for (int i = 0; i < OPS; i++)
+    {
+      int key = random.nextInt(KEYS);
+      int dice = random.nextInt(100);
+
+      if (dice < writePercent / 2) operations.put(key);
+      else if (dice < writePercent) operations.remove(key);
+      else if (operations.contains(key)) found++;
+    }
+    return found;
+  }
+}
@@ -0,0 +1,179 @@
+package dev.aybarsacar.datastructures.trees.balancedtrees;
+
+import dev.aybarsacar.datastructures.trees.utils.TreeTraversalOrder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class RedBlackTreeTest
+{
+  private static List<Integer> toList(Iterator<Integer> iterator)
+  {
+    List<Integer> lst = new ArrayList<>();
+    iterator.forEachRemaining(lst::add);
+    return lst;
+  }
+
+  @Test
+  public void matchesTreeMapUnderRandomOperations()
+  {
+    RedBlackTree<Integer, Integer> tree = new RedBlackTree<>();
+    TreeMap<Integer, Integer> expected = new TreeMap<>();
+    Random random = new Random(9);
+
+    for (int i = 0; i < 50_000; i++)
+    {
+      int key = random.nextInt(3000);
+      if (random.nextInt(3) != 0) Assertions.assertEquals(expected.put(key, i), tree.put(key, i));
+      else Assertions.assertEquals(expected.remove(key), tree.remove(key));
+
+      if (i % 5000 == 0) Assertions.assertTrue(tree.isValidRedBlack());
+    }
+
+    Assertions.assertTrue(tree.isValidRedBlack());
+    Assertions.assertEquals(expected.size(), tree.size());
+    Assertions.assertEquals(new ArrayList<>(expected.keySet()), toList(tree.iterator()));
+    Assertions.assertEquals(new ArrayList<>(expected.descendingKeySet()), toList(tree.descendingIterator()));
+
+    for (int key = -1; key <= 3001; key += 13)
+    {
+      Assertions.assertEquals(expected.floorKey(key), tree.floorKey(key));
+      Assertions.assertEquals(expected.ceilingKey(key), tree.ceilingKey(key));
+      Assertions.assertEquals(expected.lowerKey(key), tree.lowerKey(key));
+      Assertions.assertEquals(expected.higherKey(key), tree.higherKey(key));
+    }
+  }
+
+  @Test
+  public void sortedInsertsStayBalanced()
+  {
+    RedBlackTree<Integer, Integer> tree = new RedBlackTree<>();
+    for (int i = 0; i < 100_000; i++) tree.put(i, i);
+
+    Assertions.assertTrue(tree.isValidRedBlack());
+    Assertions.assertTrue(tree.height() <= 34);
+  }
+
+  @Test
+  public void fromSortedBuildsValidTree()
+  {
+    for (int n = 0; n <= 130; n++)
+    {
+      Integer[] keys = new Integer[n];
+      Integer[] values = new Integer[n];
+      for (int i = 0; i < n; i++) values[i] = -(keys[i] = 5 * i);
+
+      RedBlackTree<Integer, Integer> tree = RedBlackTree.fromSorted(keys, values);
+
+      Assertions.assertTrue(tree.isValidRedBlack());
+      Assertions.assertEquals(n == 0 ? 0 : 32 - Integer.numberOfLeadingZeros(n), tree.height());
+      Assertions.assertEquals(List.of(keys), toList(tree.iterator()));
+      if (n > 0) Assertions.assertEquals(keys[n / 3], tree.select(n / 3));
+    }
+
+    TreeMap<Integer, Integer> expected = new TreeMap<>();
+    for (int i = 0; i < 3000; i += 2) expected.put(i, i);
+    RedBlackTree<Integer, Integer> tree = RedBlackTree.fromSorted(expected.entrySet().iterator());
+
+//    the built tree keeps working as a normal tree
+    Random random = new Random(4);
+    for (int i = 0; i < 5000; i++)
+    {
+      int key = random.nextInt(3000);
+      if (random.nextBoolean()) Assertions.assertEquals(expected.put(key, i), tree.put(key, i));
+      else Assertions.assertEquals(expected.remove(key), tree.remove(key));
+    }
+    Assertions.assertTrue(tree.isValidRedBlack());
+    Assertions.assertEquals(new ArrayList<>(expected.keySet()), toList(tree.iterator()));
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> RedBlackTree.fromSorted(new Integer[]{1, null}, new Integer[2]));
+  }
+
+  @Test
+  public void rangeViewsAreLive()
+  {
+    RedBlackTree<Integer, String> tree = new RedBlackTree<>();
+    for (int i = 0; i < 10; i++) tree.put(i * 10, "v" + i);
+
+    RedBlackTree<Integer, String>.RangeView head = tree.headMap(30);
+    RedBlackTree<Integer, String>.RangeView tail = tree.tailMap(70);
+    RedBlackTree<Integer, String>.RangeView sub = tree.subMap(25, 55);
+
+    Assertions.assertEquals(List.of(0, 10, 20), toList(head.iterator()));
+    Assertions.assertEquals(List.of(70, 80, 90), toList(tail.iterator()));
+    Assertions.assertEquals(List.of(30, 40, 50), toList(sub.iterator()));
+    Assertions.assertEquals(30, sub.firstKey());
+    Assertions.assertEquals(50, sub.lastKey());
+
+    sub.put(35, "new");
+    tree.remove(40);
+    Assertions.assertEquals(List.of(30, 35, 50), toList(sub.iterator()));
+    Assertions.assertEquals(3, sub.size());
+    Assertions.assertNull(sub.get(60));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> sub.put(60, "out"));
+    Assertions.assertTrue(tree.subMap(41, 49).isEmpty());
+  }
+
+  @Test
+  public void traversesInEveryOrder()
+  {
+    RedBlackTree<Integer, Integer> tree = new RedBlackTree<>();
+    for (int i : new int[]{4, 2, 6, 1, 3, 5, 7}) tree.put(i, i);
+
+    Assertions.assertEquals(List.of(4, 2, 1, 3, 6, 5, 7), toList(tree.traverse(TreeTraversalOrder.PRE_ORDER)));
+    Assertions.assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), toList(tree.traverse(TreeTraversalOrder.IN_ORDER)));
+    Assertions.assertEquals(List.of(1, 3, 2, 5, 7, 6, 4), toList(tree.traverse(TreeTraversalOrder.POST_ORDER)));
+    Assertions.assertEquals(List.of(4, 2, 6, 1, 3, 5, 7), toList(tree.traverse(TreeTraversalOrder.LEVEL_ORDER)));
+  }
+
+  @Test
+  public void orderStatisticsMatchSortedKeys()
+  {
+    RedBlackTree<Integer, Integer> tree = new RedBlackTree<>();
+    TreeMap<Integer, Integer> expected = new TreeMap<>();
+    Random random = new Random(13);
+
+    for (int i = 0; i < 20_000; i++)
+    {
+      int key = random.nextInt(2000);
+      if (random.nextInt(3) != 0)
+      {
+        tree.put(key, i);
+        expected.put(key, i);
+      }
+      else
+      {
+        tree.remove(key);
+        expected.remove(key);
+      }
+    }
+
+    Assertions.assertTrue(tree.isValidRedBlack());
+
+    List<Integer> keys = new ArrayList<>(expected.keySet());
+    for (int rank = 0; rank < keys.size(); rank++)
+    {
+      Assertions.assertEquals(keys.get(rank), tree.select(rank));
+      Assertions.assertEquals(rank, tree.rank(keys.get(rank)));
+    }
+
+    for (int lo = -5; lo <= 2005; lo += 37)
+    {
+      Assertions.assertEquals(expected.headMap(lo).size(), tree.rank(lo));
+      for (int hi = lo; hi <= 2005; hi += 211)
+        Assertions.assertEquals(expected.subMap(lo, true, hi, true).size(), tree.countRange(lo, hi));
+    }
+    Assertions.assertEquals(0, tree.countRange(10, 5));
+
+    int from = keys.size() / 3;
+    Assertions.assertEquals(keys.subList(from, keys.size()), toList(tree.iteratorFromRank(from)));
+    Assertions.assertFalse(tree.iteratorFromRank(keys.size()).hasNext());
+    Assertions.assertThrows(IllegalArgumentException.class, () -> tree.select(keys.size()));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> tree.iteratorFromRank(-1));
+  }
+}
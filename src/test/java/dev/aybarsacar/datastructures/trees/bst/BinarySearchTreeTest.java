@@ -1,9 +1,16 @@
 package dev.aybarsacar.datastructures.trees.bst;
 
+import dev.aybarsacar.datastructures.trees.utils.TreeTraversalOrder;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
 public class BinarySearchTreeTest
 {
   BinarySearchTree<Integer> bst;
@@ -25,6 +32,18 @@ public class BinarySearchTreeTest
     }};
   }
 
+  private static List<Integer> toList(Iterator<Integer> iterator)
+  {
+    List<Integer> values = new ArrayList<>();
+    iterator.forEachRemaining(values::add);
+    return values;
+  }
+
+  private List<Integer> collect(TreeTraversalOrder order)
+  {
+    return toList(bst.traverse(order));
+  }
+
   @Test
   public void printsBST()
   {
@@ -74,4 +93,163 @@ public class BinarySearchTreeTest
   {
     Assertions.assertEquals(1349, bst.findMax());
   }
+
+  @Test
+  public void traversesInEveryOrder()
+  {
+    Assertions.assertEquals(List.of(10, 2, -1, 5, 1234, 93, 39, 100, 1349), collect(TreeTraversalOrder.PRE_ORDER));
+    Assertions.assertEquals(List.of(-1, 2, 5, 10, 39, 93, 100, 1234, 1349), collect(TreeTraversalOrder.IN_ORDER));
+    Assertions.assertEquals(List.of(-1, 5, 2, 39, 100, 93, 1349, 1234, 10), collect(TreeTraversalOrder.POST_ORDER));
+    Assertions.assertEquals(List.of(10, 1234, 2, 1349, 93, 5, -1, 100, 39), collect(TreeTraversalOrder.LEVEL_ORDER));
+  }
+
+  @Test
+  public void traversesAnEmptyTree()
+  {
+    bst.clear();
+
+    Assertions.assertEquals(0, bst.size());
+    Assertions.assertEquals(0, bst.height());
+
+    for (TreeTraversalOrder order : TreeTraversalOrder.values())
+      Assertions.assertFalse(bst.traverse(order).hasNext());
+  }
+
+  @Test
+  public void heightCountsNodesOnTheLongestPath()
+  {
+    Assertions.assertEquals(4, bst.height());
+
+    BinarySearchTree<Integer> single = new BinarySearchTree<>();
+    single.insert(1);
+    Assertions.assertEquals(1, single.height());
+  }
+
+  @Test
+  public void handlesDegenerateTreeWithoutRecursion()
+  {
+    BinarySearchTree<Integer> chain = new BinarySearchTree<>();
+    int n = 10_000;
+
+    for (int i = 0; i < n; i++) chain.insert(i);
+
+    Assertions.assertEquals(n, chain.height());
+    Assertions.assertTrue(chain.contains(n - 1));
+
+    Iterator<Integer> it = chain.traverse(TreeTraversalOrder.IN_ORDER);
+    for (int i = 0; i < n; i++) Assertions.assertEquals(i, it.next());
+    Assertions.assertFalse(it.hasNext());
+
+    for (int i = 0; i < n; i += 2) Assertions.assertTrue(chain.remove(i));
+    Assertions.assertEquals(n / 2, chain.size());
+    Assertions.assertEquals(1, chain.findMin());
+  }
+
+  @Test
+  public void removesKeepInOrderSorted()
+  {
+    Assertions.assertTrue(bst.remove(1234));
+    Assertions.assertTrue(bst.remove(10));
+    Assertions.assertTrue(bst.remove(-1));
+
+    Assertions.assertEquals(List.of(2, 5, 39, 93, 100, 1349), collect(TreeTraversalOrder.IN_ORDER));
+    Assertions.assertEquals(6, bst.size());
+  }
+
+  @Test
+  public void iteratorFailsOnConcurrentModification()
+  {
+    Iterator<Integer> it = bst.traverse(TreeTraversalOrder.PRE_ORDER);
+    it.next();
+    bst.insert(7);
+
+    Assertions.assertThrows(ConcurrentModificationException.class, it::hasNext);
+  }
+
+  @Test
+  public void orderStatisticsTest()
+  {
+    Assertions.assertTrue(bst.isValidBST());
+
+    Assertions.assertEquals(-1, bst.select(0));
+    Assertions.assertEquals(39, bst.select(4));
+    Assertions.assertEquals(1349, bst.select(8));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> bst.select(9));
+
+    Assertions.assertEquals(0, bst.rank(-1));
+    Assertions.assertEquals(4, bst.rank(39));
+    Assertions.assertEquals(4, bst.rank(20));
+    Assertions.assertEquals(9, bst.rank(5000));
+
+    Assertions.assertEquals(5, bst.countRange(2, 93));
+    Assertions.assertEquals(4, bst.countRange(3, 99));
+    Assertions.assertEquals(0, bst.countRange(93, 2));
+
+    Assertions.assertEquals(List.of(93, 100, 1234, 1349), toList(bst.iteratorFromRank(5)));
+    Assertions.assertFalse(bst.iteratorFromRank(9).hasNext());
+  }
+
+  @Test
+  public void sizesSurviveRemovals()
+  {
+    bst.remove(10);
+    bst.remove(1349);
+    bst.remove(2);
+
+    Assertions.assertTrue(bst.isValidBST());
+    Assertions.assertEquals(List.of(-1, 5, 39, 93, 100, 1234), toList(bst.iteratorFromRank(0)));
+    Assertions.assertEquals(3, bst.rank(93));
+    Assertions.assertEquals(100, bst.select(4));
+  }
+
+  @Test
+  public void fromSortedBuildsPerfectlyBalancedTree()
+  {
+    for (int n = 0; n <= 64; n++)
+    {
+      Integer[] values = new Integer[n];
+      for (int i = 0; i < n; i++) values[i] = 3 * i;
+
+      BinarySearchTree<Integer> tree = BinarySearchTree.fromSorted(values);
+
+      Assertions.assertTrue(tree.isValidBST());
+      Assertions.assertEquals(n, tree.size());
+      Assertions.assertEquals(n == 0 ? 0 : 32 - Integer.numberOfLeadingZeros(n), tree.height());
+      Assertions.assertEquals(List.of(values), toList(tree.traverse(TreeTraversalOrder.IN_ORDER)));
+    }
+
+    BinarySearchTree<Integer> large = BinarySearchTree.fromSorted(IntStream.range(0, 1_000_000).boxed().iterator());
+    Assertions.assertEquals(20, large.height());
+    Assertions.assertEquals(500_000, large.rank(500_000));
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> BinarySearchTree.fromSorted(new Integer[]{1, 3, 3}));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> BinarySearchTree.fromSorted(new Integer[]{1, null}));
+  }
+
+  @Test
+  public void rebalanceFixesDegenerateTree()
+  {
+    BinarySearchTree<Integer> chain = new BinarySearchTree<>();
+    for (int i = 0; i < 10_000; i++) chain.insert(i);
+    Assertions.assertEquals(10_000, chain.height());
+
+    chain.rebalance();
+
+    Assertions.assertTrue(chain.isValidBST());
+    Assertions.assertEquals(14, chain.height());
+    Assertions.assertEquals(10_000, chain.size());
+    Assertions.assertEquals(9_999, chain.findMax());
+
+    Assertions.assertTrue(chain.insert(-5));
+    Assertions.assertTrue(chain.remove(5_000));
+    Assertions.assertTrue(chain.isValidBST());
+
+    bst.rebalance();
+    Assertions.assertEquals(List.of(-1, 2, 5, 10, 39, 93, 100, 1234, 1349), collect(TreeTraversalOrder.IN_ORDER));
+    Assertions.assertEquals(4, bst.height());
+
+    BinarySearchTree<Integer> empty = new BinarySearchTree<>();
+    empty.rebalance();
+    Assertions.assertTrue(empty.isEmpty());
+  }
 }
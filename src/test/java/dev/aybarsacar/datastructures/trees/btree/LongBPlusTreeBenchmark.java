@@ -0,0 +1,128 @@
+package dev.aybarsacar.datastructures.trees.btree;
+
+import dev.aybarsacar.datastructures.trees.balancedtrees.RedBlackTree;
+import dev.aybarsacar.datastructures.trees.bst.BinarySearchTree;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * Builds, point lookups and range scans over random keys for LongBPlusTree, RedBlackTree and
+ * BinarySearchTree
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class LongBPlusTreeBenchmark
+{
+  private static final int KEYS = 2_000_000;
+  private static final int LOOKUPS = 2_000_000;
+  private static final int SCANS = 20_000;
+  private static final int SCAN_WIDTH = 1_000;
+  private static final int ROUNDS = 3;
+
+  public static void main(String[] args)
+  {
+    Random random = new Random(1);
+
+    int[] keys = new int[KEYS];
+    for (int i = 0; i < KEYS; i++) keys[i] = random.nextInt(Integer.MAX_VALUE);
+
+    int[] probes = new int[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++) probes[i] = keys[random.nextInt(KEYS)];
+
+    int[] sorted = Arrays.stream(keys).sorted().distinct().toArray();
+    int[] scanStarts = new int[SCANS];
+    for (int i = 0; i < SCANS; i++) scanStarts[i] = random.nextInt(Integer.MAX_VALUE);
+    int scanSpan = (int) ((long) Integer.MAX_VALUE * SCAN_WIDTH / sorted.length);
+
+    for (int round = 0; round < ROUNDS; round++)
+    {
+      System.out.printf("round %d, %d keys, scans of ~%d keys%n", round, sorted.length, SCAN_WIDTH);
+
+//      B+ tree built by inserts and by bulk load
+      long start = System.nanoTime();
+      LongBPlusTree<Integer> bTree = new LongBPlusTree<>();
+      for (int key : keys) bTree.put(key, key);
+      long insertTime = System.nanoTime() - start;
+
+      long[] sortedLongs = new long[sorted.length];
+      Integer[] values = new Integer[sorted.length];
+      for (int i = 0; i < sorted.length; i++) values[i] = (int) (sortedLongs[i] = sorted[i]);
+
+      start = System.nanoTime();
+      LongBPlusTree<Integer> bulkTree = LongBPlusTree.bulkLoad(sortedLongs, values);
+      long bulkTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      long found = 0;
+      for (int probe : probes) if (bulkTree.get(probe) != null) found++;
+      long lookupTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      long scanned = 0;
+      for (int lo : scanStarts)
+      {
+        LongBPlusTree<Integer>.Cursor cursor = bulkTree.range(lo, (long) lo + scanSpan);
+        while (cursor.next()) scanned += cursor.key();
+      }
+      long scanTime = System.nanoTime() - start;
+
+      System.out.printf("  %-18s insert %6d ms  bulk load %4d ms  lookups %5d ms  scans %5d ms  (%d, %d)%n",
+          "LongBPlusTree", insertTime / 1_000_000, bulkTime / 1_000_000, lookupTime / 1_000_000,
+          scanTime / 1_000_000, found, scanned);
+
+//      red black tree
+      start = System.nanoTime();
+      RedBlackTree<Integer, Integer> rb = new RedBlackTree<>();
+      for (int key : keys) rb.put(key, key);
+      insertTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      found = 0;
+      for (int probe : probes) if (rb.get(probe) != null) found++;
+      lookupTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      scanned = 0;
+      for (int lo : scanStarts)
+      {
+        int hi = (int) Math.min(Integer.MAX_VALUE, (long) lo + scanSpan);
+        for (int key : rb.subMap(lo, true, hi, true)) scanned += key;
+      }
+      scanTime = System.nanoTime() - start;
+
+      System.out.printf("  %-18s insert %6d ms  bulk load    -     lookups %5d ms  scans %5d ms  (%d, %d)%n",
+          "RedBlackTree", insertTime / 1_000_000, lookupTime / 1_000_000, scanTime / 1_000_000, found, scanned);
+
+//      unbalanced binary search tree, random keys keep it ~2.99 log(n) deep
+      start = System.nanoTime();
+      BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+      for (int key : keys) bst.insert(key);
+      insertTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      found = 0;
+      for (int probe : probes) if (bst.contains(probe)) found++;
+      lookupTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      scanned = 0;
+      for (int lo : scanStarts)
+      {
+        long hi = (long) lo + scanSpan;
+        Iterator<Integer> it = bst.iteratorFromRank(bst.rank(lo));
+        while (it.hasNext())
+        {
+          int key = it.next();
+          if (key > hi) break;
+          scanned += key;
+        }
+      }
+      scanTime = System.nanoTime() - start;
+
+      System.out.printf("  %-18s insert %6d ms  bulk load    -     lookups %5d ms  scans %5d ms  (%d, %d)%n",
+          "BinarySearchTree", insertTime / 1_000_000, lookupTime / 1_000_000, scanTime / 1_000_000, found, scanned);
+    }
+  }
+}
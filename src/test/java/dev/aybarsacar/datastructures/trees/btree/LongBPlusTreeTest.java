@@ -0,0 +1,136 @@
+package dev.aybarsacar.datastructures.trees.btree;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class LongBPlusTreeTest
+{
+  private static List<Long> keys(LongBPlusTree<?>.Cursor cursor)
+  {
+    List<Long> lst = new ArrayList<>();
+    while (cursor.next()) lst.add(cursor.key());
+    return lst;
+  }
+
+  @Test
+  public void emptyTreeTest()
+  {
+    LongBPlusTree<String> tree = new LongBPlusTree<>();
+
+    Assertions.assertTrue(tree.isEmpty());
+    Assertions.assertNull(tree.get(1));
+    Assertions.assertNull(tree.remove(1));
+    Assertions.assertFalse(tree.cursor().next());
+    Assertions.assertThrows(NoSuchElementException.class, tree::firstKey);
+    Assertions.assertTrue(tree.isValidBPlusTree());
+  }
+
+  @Test
+  public void putReplacesExistingValues()
+  {
+    LongBPlusTree<String> tree = new LongBPlusTree<>(4);
+
+    for (long key = 0; key < 100; key++) Assertions.assertNull(tree.put(key, "a" + key));
+    Assertions.assertEquals("a42", tree.put(42, "b42"));
+
+    Assertions.assertEquals(100, tree.size());
+    Assertions.assertEquals("b42", tree.get(42));
+    Assertions.assertEquals(0, tree.firstKey());
+    Assertions.assertEquals(99, tree.lastKey());
+    Assertions.assertTrue(tree.height() > 2);
+    Assertions.assertTrue(tree.isValidBPlusTree());
+  }
+
+  @Test
+  public void matchesTreeMapUnderRandomOperations()
+  {
+    for (int maxKeys : new int[]{3, 4, 7, 32})
+    {
+      LongBPlusTree<Integer> tree = new LongBPlusTree<>(maxKeys);
+      TreeMap<Long, Integer> expected = new TreeMap<>();
+      Random random = new Random(maxKeys);
+
+      for (int i = 0; i < 50_000; i++)
+      {
+        long key = random.nextInt(3000) - 1500;
+        if (random.nextInt(3) != 0) Assertions.assertEquals(expected.put(key, i), tree.put(key, i));
+        else Assertions.assertEquals(expected.remove(key), tree.remove(key));
+
+        if (i % 5000 == 0) Assertions.assertTrue(tree.isValidBPlusTree());
+      }
+
+      Assertions.assertTrue(tree.isValidBPlusTree());
+      Assertions.assertEquals(expected.size(), tree.size());
+      Assertions.assertEquals(new ArrayList<>(expected.keySet()), keys(tree.cursor()));
+
+      for (Map.Entry<Long, Integer> entry : expected.entrySet())
+        Assertions.assertEquals(entry.getValue(), tree.get(entry.getKey()));
+
+//      drain the tree to exercise every merge down to an empty root
+      for (long key : new ArrayList<>(expected.keySet())) Assertions.assertNotNull(tree.remove(key));
+      Assertions.assertTrue(tree.isEmpty());
+      Assertions.assertEquals(1, tree.height());
+      Assertions.assertTrue(tree.isValidBPlusTree());
+    }
+  }
+
+  @Test
+  public void rangeCursorTest()
+  {
+    LongBPlusTree<String> tree = new LongBPlusTree<>(4);
+    for (long key = 0; key < 1000; key += 10) tree.put(key, String.valueOf(key));
+
+    Assertions.assertEquals(List.of(100L, 110L, 120L), keys(tree.range(95, 120)));
+    Assertions.assertEquals(List.of(0L, 10L), keys(tree.range(Long.MIN_VALUE, 15)));
+    Assertions.assertEquals(List.of(990L), keys(tree.range(985, Long.MAX_VALUE)));
+    Assertions.assertEquals(List.of(), keys(tree.range(991, 2000)));
+    Assertions.assertEquals(List.of(), keys(tree.range(500, 400)));
+
+    LongBPlusTree<String>.Cursor cursor = tree.range(500, 510);
+    Assertions.assertTrue(cursor.next());
+    Assertions.assertEquals("500", cursor.value());
+
+    tree.put(505, "505");
+    Assertions.assertThrows(ConcurrentModificationException.class, cursor::next);
+  }
+
+  @Test
+  public void bulkLoadBuildsAValidTree()
+  {
+    for (int n : new int[]{0, 1, 32, 33, 100, 1057, 40_000})
+    {
+      long[] keys = new long[n];
+      Long[] values = new Long[n];
+      for (int i = 0; i < n; i++) values[i] = keys[i] = 3L * i - n;
+
+      LongBPlusTree<Long> tree = LongBPlusTree.bulkLoad(keys, values);
+
+      Assertions.assertTrue(tree.isValidBPlusTree());
+      Assertions.assertEquals(n, tree.size());
+      for (int i = 0; i < n; i += 7) Assertions.assertEquals(values[i], tree.get(keys[i]));
+
+//      the bulk loaded tree stays valid under updates
+      for (long key = -n; key < 2L * n; key += 2)
+        if (key % 3 == 0) tree.remove(key);
+        else tree.put(key, key);
+      Assertions.assertTrue(tree.isValidBPlusTree());
+    }
+  }
+
+  @Test
+  public void bulkLoadRejectsUnsortedKeys()
+  {
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> LongBPlusTree.bulkLoad(new long[]{1, 3, 3}, new String[3]));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> LongBPlusTree.bulkLoad(new long[]{1, 2}, new String[3]));
+  }
+}
@@ -0,0 +1,110 @@
+package dev.aybarsacar.datastructures.trees.btree;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Bulk load, random inserts with a checkpoint, point lookups and range scans over a file backed
+ * LongDiskBPlusTree, with the page cache cold (freshly opened) and warm (same queries again)
+ * <p>
+ * cold only means cold for the page cache, the operating system may still hold the file in memory
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class LongDiskBPlusTreeBenchmark
+{
+  private static final int KEYS = 4_000_000;
+  private static final int INSERTS = 200_000;
+  private static final int LOOKUPS = 200_000;
+  private static final int SCANS = 2_000;
+  private static final int SCAN_WIDTH = 10_000;
+
+  //  ~160 MiB of 4 KiB pages, enough to hold every page once the inserts have split the full
+  //  bulk loaded leaves
+  private static final int CACHE_PAGES = 40_000;
+
+  public static void main(String[] args) throws IOException
+  {
+    Path file = Files.createTempFile("bplustree", ".db");
+    file.toFile().deleteOnExit();
+
+    Random random = new Random(1);
+
+    long[] keys = new long[KEYS], values = new long[KEYS];
+    for (int i = 0; i < KEYS; i++)
+    {
+      keys[i] = 4L * i;
+      values[i] = i;
+    }
+
+    long[] probes = new long[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++) probes[i] = keys[random.nextInt(KEYS)];
+
+    long[] scanStarts = new long[SCANS];
+    for (int i = 0; i < SCANS; i++) scanStarts[i] = 4L * random.nextInt(KEYS - SCAN_WIDTH);
+
+    try (LongDiskBPlusTree tree = LongDiskBPlusTree.open(file, CACHE_PAGES))
+    {
+      long start = System.nanoTime();
+      tree.bulkLoad(keys, values);
+      tree.checkpoint();
+      System.out.printf("bulk load of %d keys + checkpoint: %d ms, %d pages, height %d%n",
+          KEYS, (System.nanoTime() - start) / 1_000_000, tree.pageCount(), tree.height());
+
+      start = System.nanoTime();
+      for (int i = 0; i < INSERTS; i++) tree.put(4L * random.nextInt(KEYS) + 1 + random.nextInt(3), i);
+      long insertTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      tree.checkpoint();
+      System.out.printf("%d random inserts: %d ms, checkpoint: %d ms, %d pages%n",
+          INSERTS, insertTime / 1_000_000, (System.nanoTime() - start) / 1_000_000, tree.pageCount());
+    }
+
+    try (LongDiskBPlusTree tree = LongDiskBPlusTree.open(file, CACHE_PAGES))
+    {
+      for (String pass : new String[]{"cold", "warm"})
+      {
+        long hits = tree.cacheHits(), misses = tree.cacheMisses();
+
+        long start = System.nanoTime();
+        long found = 0;
+        for (long probe : probes) if (tree.containsKey(probe)) found++;
+        long lookupTime = System.nanoTime() - start;
+
+        System.out.printf("%s lookups: %6d ms  %6.2f us/lookup  hits %d  misses %d  (%d)%n",
+            pass, lookupTime / 1_000_000, lookupTime / 1000.0 / LOOKUPS,
+            tree.cacheHits() - hits, tree.cacheMisses() - misses, found);
+      }
+    }
+
+    try (LongDiskBPlusTree tree = LongDiskBPlusTree.open(file, CACHE_PAGES))
+    {
+      for (String pass : new String[]{"cold", "warm"})
+      {
+        long hits = tree.cacheHits(), misses = tree.cacheMisses();
+
+        long start = System.nanoTime();
+        long scanned = 0, sum = 0;
+        for (long lo : scanStarts)
+        {
+          LongDiskBPlusTree.Cursor cursor = tree.range(lo, lo + 4L * SCAN_WIDTH);
+          while (cursor.next())
+          {
+            scanned++;
+            sum += cursor.value();
+          }
+        }
+        long scanTime = System.nanoTime() - start;
+
+        System.out.printf("%s scans:   %6d ms  %6.1f M entries/s  hits %d  misses %d  (%d, %d)%n",
+            pass, scanTime / 1_000_000, scanned * 1000.0 / scanTime,
+            tree.cacheHits() - hits, tree.cacheMisses() - misses, scanned, sum);
+      }
+    }
+
+    Files.delete(file);
+  }
+}
@@ -0,0 +1,218 @@
+package dev.aybarsacar.datastructures.trees.btree;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class LongDiskBPlusTreeTest
+{
+  //  small pages and a small cache so every test splits pages and evicts dirty pages
+  private static final int PAGE_SIZE = 128;
+  private static final int CACHE_PAGES = 4;
+
+  @TempDir
+  Path dir;
+
+  private static List<Long> keys(LongDiskBPlusTree.Cursor cursor)
+  {
+    List<Long> lst = new ArrayList<>();
+    while (cursor.next()) lst.add(cursor.key());
+    return lst;
+  }
+
+  /**
+   * copies the tree file and its journal as a crash would leave them and opens the copy
+   */
+  private LongDiskBPlusTree openAfterCrash(Path file) throws IOException
+  {
+    Path copy = dir.resolve("crashed-" + file.getFileName());
+    Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+    Files.copy(file.resolveSibling(file.getFileName() + LongDiskBPlusTree.JOURNAL_SUFFIX),
+        copy.resolveSibling(copy.getFileName() + LongDiskBPlusTree.JOURNAL_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+
+    return LongDiskBPlusTree.open(copy, PAGE_SIZE, CACHE_PAGES);
+  }
+
+  private static void assertCheckpoint(LongDiskBPlusTree tree)
+  {
+    Assertions.assertTrue(tree.isValidBPlusTree());
+    Assertions.assertEquals(2000, tree.size());
+    for (long key = 0; key < 2000; key++) Assertions.assertEquals(key, tree.get(key, -1));
+  }
+
+  @Test
+  public void matchesTreeMapUnderRandomOperations() throws IOException
+  {
+    TreeMap<Long, Long> expected = new TreeMap<>();
+    Random random = new Random(3);
+
+    try (LongDiskBPlusTree tree = LongDiskBPlusTree.open(dir.resolve("random.db"), PAGE_SIZE, CACHE_PAGES))
+    {
+      for (int i = 0; i < 30_000; i++)
+      {
+        long key = random.nextInt(4000) - 2000;
+        if (random.nextInt(3) != 0) Assertions.assertEquals(expected.put(key, (long) i) == null, tree.put(key, i));
+        else Assertions.assertEquals(expected.remove(key) != null, tree.remove(key));
+
+        if (i % 5000 == 0) Assertions.assertTrue(tree.isValidBPlusTree());
+      }
+
+      Assertions.assertTrue(tree.isValidBPlusTree());
+      Assertions.assertEquals(expected.size(), tree.size());
+      Assertions.assertEquals(new ArrayList<>(expected.keySet()), keys(tree.cursor()));
+
+      for (Map.Entry<Long, Long> entry : expected.entrySet())
+        Assertions.assertEquals(entry.getValue(), tree.get(entry.getKey(), -1));
+      Assertions.assertEquals(-1, tree.get(5000, -1));
+
+      Assertions.assertTrue(tree.cacheMisses() > 0);
+      Assertions.assertTrue(tree.pagesWritten() > 0);
+    }
+  }
+
+  @Test
+  public void reopensFromCheckpoint() throws IOException
+  {
+    Path file = dir.resolve("reopen.db");
+
+    try (LongDiskBPlusTree tree = LongDiskBPlusTree.open(file, PAGE_SIZE, CACHE_PAGES))
+    {
+      for (long key = 0; key < 5000; key++) tree.put(key * 7 % 5000, key);
+      tree.remove(42);
+    }
+
+    try (LongDiskBPlusTree tree = LongDiskBPlusTree.open(file, PAGE_SIZE, CACHE_PAGES))
+    {
+      Assertions.assertEquals(4999, tree.size());
+      Assertions.assertTrue(tree.isValidBPlusTree());
+      Assertions.assertFalse(tree.containsKey(42));
+      Assertions.assertEquals(1, tree.get(7, -1));
+      Assertions.assertEquals(List.of(4997L, 4998L, 4999L), keys(tree.range(4997, 10_000)));
+      Assertions.assertEquals((long) tree.pageCount() * PAGE_SIZE, Files.size(file));
+    }
+
+    Assertions.assertThrows(IOException.class, () -> LongDiskBPlusTree.open(file, 256, CACHE_PAGES));
+  }
+
+  @Test
+  public void rangeCursorSkipsEmptiedLeaves() throws IOException
+  {
+    try (LongDiskBPlusTree tree = LongDiskBPlusTree.open(dir.resolve("range.db"), PAGE_SIZE, CACHE_PAGES))
+    {
+      for (long key = 0; key < 1000; key++) tree.put(key, -key);
+      for (long key = 100; key < 900; key++) tree.remove(key);
+
+      Assertions.assertEquals(List.of(98L, 99L, 900L, 901L), keys(tree.range(98, 901)));
+      Assertions.assertEquals(List.of(), keys(tree.range(200, 800)));
+      Assertions.assertEquals(List.of(), keys(tree.range(10, 5)));
+
+      LongDiskBPlusTree.Cursor cursor = tree.range(0, 10);
+      Assertions.assertTrue(cursor.next());
+      Assertions.assertEquals(0, cursor.key());
+      Assertions.assertTrue(cursor.next());
+      Assertions.assertEquals(-1, cursor.value());
+
+      tree.put(5000, 0);
+      Assertions.assertThrows(ConcurrentModificationException.class, cursor::next);
+    }
+  }
+
+  @Test
+  public void bulkLoadWritesSequentialLeaves() throws IOException
+  {
+    Path file = dir.resolve("bulk.db");
+    int n = 20_000;
+
+    long[] keys = new long[n], values = new long[n];
+    for (int i = 0; i < n; i++)
+    {
+      keys[i] = 5L * i;
+      values[i] = i;
+    }
+
+    try (LongDiskBPlusTree tree = LongDiskBPlusTree.open(file, PAGE_SIZE, CACHE_PAGES))
+    {
+      tree.put(1, 1);
+      Assertions.assertThrows(IllegalStateException.class, () -> tree.bulkLoad(keys, values));
+      tree.remove(1);
+
+      tree.bulkLoad(keys, values);
+
+      Assertions.assertEquals(n, tree.size());
+      Assertions.assertTrue(tree.isValidBPlusTree());
+      Assertions.assertEquals(List.of(50L, 55L, 60L), keys(tree.range(48, 62)));
+    }
+
+    try (LongDiskBPlusTree tree = LongDiskBPlusTree.open(file, PAGE_SIZE, CACHE_PAGES))
+    {
+      for (int i = 0; i < n; i += 97) Assertions.assertEquals(i, tree.get(keys[i], -1));
+
+//      the bulk loaded tree stays valid under updates
+      for (long key = 0; key < 5L * n; key += 3) tree.put(key, key);
+      Assertions.assertTrue(tree.isValidBPlusTree());
+
+      tree.clear();
+      Assertions.assertTrue(tree.isEmpty());
+      Assertions.assertEquals(2, tree.pageCount());
+      Assertions.assertFalse(tree.cursor().next());
+    }
+  }
+
+  @Test
+  public void crashRollsBackToTheLastCheckpoint() throws IOException
+  {
+    Path file = dir.resolve("crash.db");
+    LongDiskBPlusTree tree = LongDiskBPlusTree.open(file, PAGE_SIZE, CACHE_PAGES);
+
+    for (long key = 0; key < 2000; key++) tree.put(key, key);
+    tree.checkpoint();
+
+//    evictions overwrite pages of the checkpoint in place
+    long written = tree.pagesWritten();
+    for (long key = 0; key < 3000; key++) tree.put(key, -key);
+    Assertions.assertTrue(tree.pagesWritten() > written);
+
+    try (LongDiskBPlusTree crashed = openAfterCrash(file))
+    {
+      assertCheckpoint(crashed);
+    }
+
+//    clear and bulkLoad reuse the pages of the checkpoint
+    tree.clear();
+    long[] keys = new long[500], values = new long[500];
+    for (int i = 0; i < 500; i++) keys[i] = 3L * i;
+    tree.bulkLoad(keys, values);
+    for (long key = 1; key < 1500; key += 3) tree.put(key, key);
+
+    try (LongDiskBPlusTree crashed = openAfterCrash(file))
+    {
+      assertCheckpoint(crashed);
+    }
+
+//    a new checkpoint replaces the old one
+    tree.clear();
+    for (long key = 0; key < 2000; key++) tree.put(key, key);
+    tree.checkpoint();
+    for (long key = 0; key < 1000; key++) tree.remove(key);
+
+    try (LongDiskBPlusTree crashed = openAfterCrash(file))
+    {
+      assertCheckpoint(crashed);
+      Assertions.assertEquals((long) crashed.pageCount() * PAGE_SIZE, Files.size(dir.resolve("crashed-crash.db")));
+    }
+
+    tree.close();
+    Assertions.assertFalse(Files.exists(dir.resolve("crash.db" + LongDiskBPlusTree.JOURNAL_SUFFIX)));
+  }
+}
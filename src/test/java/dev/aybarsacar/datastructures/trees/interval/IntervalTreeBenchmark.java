@@ -0,0 +1,76 @@
+package dev.aybarsacar.datastructures.trees.interval;
+
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * Overlap queries for short time windows over millions of reservations, answered by IntervalTree,
+ * by StaticIntervalTree and by a full scan of the interval arrays, which is what an ordered
+ * structure without the max augmentation has to fall back to
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class IntervalTreeBenchmark
+{
+  private static final int INTERVALS = 2_000_000;
+  private static final long HORIZON = 100_000_000L;
+  private static final int QUERIES = 100_000;
+  private static final int SCAN_QUERIES = 200;
+  private static final int ROUNDS = 3;
+
+  public static void main(String[] args)
+  {
+    Random random = new Random(1);
+
+//    reservations mostly last minutes to hours, a few last much longer
+    long[] los = new long[INTERVALS], his = new long[INTERVALS];
+    for (int i = 0; i < INTERVALS; i++)
+    {
+      los[i] = (long) (random.nextDouble() * HORIZON);
+      his[i] = los[i] + (random.nextInt(100) == 0 ? random.nextInt(1_000_000) : random.nextInt(10_000));
+    }
+
+    long[] queryLos = new long[QUERIES], queryHis = new long[QUERIES];
+    for (int i = 0; i < QUERIES; i++)
+    {
+      queryLos[i] = (long) (random.nextDouble() * HORIZON);
+      queryHis[i] = queryLos[i] + random.nextInt(5_000);
+    }
+
+    long start = System.nanoTime();
+    IntervalTree<Integer> tree = new IntervalTree<>();
+    for (int i = 0; i < INTERVALS; i++) tree.put(los[i], his[i], i);
+    System.out.printf("IntervalTree of %d intervals built in %d ms, height %d%n",
+        tree.size(), (System.nanoTime() - start) / 1_000_000, tree.height());
+
+    start = System.nanoTime();
+    StaticIntervalTree staticTree = new StaticIntervalTree(los, his);
+    System.out.printf("StaticIntervalTree built in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+
+    for (int round = 0; round < ROUNDS; round++)
+    {
+      long found = 0;
+
+      start = System.nanoTime();
+      for (int q = 0; q < QUERIES; q++)
+      {
+        for (Iterator<IntervalTree.Interval<Integer>> it = tree.overlapping(queryLos[q], queryHis[q]); it.hasNext(); it.next()) found++;
+      }
+      long treeTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int q = 0; q < QUERIES; q++) found += staticTree.countOverlapping(queryLos[q], queryHis[q]);
+      long staticTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int q = 0; q < SCAN_QUERIES; q++)
+      {
+        for (int i = 0; i < INTERVALS; i++) if (los[i] <= queryHis[q] && his[i] >= queryLos[q]) found++;
+      }
+      long scanTime = System.nanoTime() - start;
+
+      System.out.printf("round %d: IntervalTree %6.2f us/query  StaticIntervalTree %6.2f us/query  full scan %8.1f us/query  (%d)%n",
+          round, treeTime / 1000.0 / QUERIES, staticTime / 1000.0 / QUERIES, scanTime / 1000.0 / SCAN_QUERIES, found);
+    }
+  }
+}
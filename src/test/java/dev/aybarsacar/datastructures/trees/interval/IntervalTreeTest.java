@@ -0,0 +1,117 @@
+package dev.aybarsacar.datastructures.trees.interval;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class IntervalTreeTest
+{
+  private static List<String> toList(Iterator<IntervalTree.Interval<Integer>> iterator)
+  {
+    List<String> lst = new ArrayList<>();
+    iterator.forEachRemaining(interval -> lst.add(interval.toString()));
+    return lst;
+  }
+
+  /**
+   * the intervals of expected overlapping [lo, hi], in (lo, hi) order
+   */
+  private static List<String> bruteForce(TreeMap<List<Long>, Integer> expected, long lo, long hi)
+  {
+    List<String> lst = new ArrayList<>();
+    expected.forEach((interval, value) ->
+    {
+      if (interval.get(0) <= hi && interval.get(1) >= lo) lst.add("[" + interval.get(0) + ", " + interval.get(1) + "]=" + value);
+    });
+    return lst;
+  }
+
+  @Test
+  public void reservationsTest()
+  {
+    IntervalTree<Integer> tree = new IntervalTree<>();
+    tree.put(10, 20, 1);
+    tree.put(15, 25, 2);
+    tree.put(30, 40, 3);
+    tree.put(5, 8, 4);
+    tree.put(18, 18, 5);
+
+    Assertions.assertTrue(tree.isValidIntervalTree());
+    Assertions.assertEquals(List.of("[10, 20]=1", "[15, 25]=2", "[18, 18]=5"), toList(tree.stab(18)));
+    Assertions.assertEquals(List.of("[15, 25]=2", "[30, 40]=3"), toList(tree.overlapping(21, 30)));
+    Assertions.assertEquals(List.of(), toList(tree.overlapping(26, 29)));
+    Assertions.assertFalse(tree.overlapsAny(26, 29));
+    Assertions.assertTrue(tree.overlapsAny(0, 5));
+
+    Assertions.assertEquals(2, tree.put(15, 25, 20));
+    Assertions.assertEquals(20, tree.get(15, 25));
+    Assertions.assertNull(tree.get(15, 24));
+    Assertions.assertEquals(5, tree.size());
+
+    Assertions.assertEquals(1, tree.remove(10, 20));
+    Assertions.assertNull(tree.remove(10, 20));
+    Assertions.assertEquals(List.of("[15, 25]=20", "[18, 18]=5"), toList(tree.stab(18)));
+    Assertions.assertTrue(tree.isValidIntervalTree());
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> tree.put(5, 4, 0));
+  }
+
+  @Test
+  public void matchesBruteForceOnRandomIntervals()
+  {
+    Random random = new Random(6);
+    IntervalTree<Integer> tree = new IntervalTree<>();
+    TreeMap<List<Long>, Integer> expected = new TreeMap<>((a, b) ->
+        !a.get(0).equals(b.get(0)) ? Long.compare(a.get(0), b.get(0)) : Long.compare(a.get(1), b.get(1)));
+
+    for (int i = 0; i < 20_000; i++)
+    {
+      long lo = random.nextInt(10_000), hi = lo + random.nextInt(random.nextBoolean() ? 10 : 1000);
+
+      if (random.nextInt(4) != 0) Assertions.assertEquals(expected.put(List.of(lo, hi), i), tree.put(lo, hi, i));
+      else
+      {
+//        remove an existing interval most of the time
+        List<Long> key = expected.isEmpty() || random.nextInt(5) == 0 ? List.of(lo, hi) : expected.ceilingKey(List.of(lo, hi));
+        if (key == null) key = List.of(lo, hi);
+        Assertions.assertEquals(expected.remove(key), tree.remove(key.get(0), key.get(1)));
+      }
+    }
+
+    Assertions.assertTrue(tree.isValidIntervalTree());
+    Assertions.assertEquals(expected.size(), tree.size());
+    Assertions.assertTrue(tree.height() <= 1.45 * Math.log(tree.size() + 2) / Math.log(2));
+
+    for (int i = 0; i < 500; i++)
+    {
+      long lo = random.nextInt(11_000) - 500, hi = lo + random.nextInt(100);
+
+      List<String> overlapping = bruteForce(expected, lo, hi);
+      Assertions.assertEquals(overlapping, toList(tree.overlapping(lo, hi)));
+      Assertions.assertEquals(!overlapping.isEmpty(), tree.overlapsAny(lo, hi));
+      Assertions.assertEquals(bruteForce(expected, lo, lo), toList(tree.stab(lo)));
+    }
+
+    Assertions.assertEquals(bruteForce(expected, Long.MIN_VALUE, Long.MAX_VALUE), toList(tree.iterator()));
+  }
+
+  @Test
+  public void iteratorFailsFastAfterModification()
+  {
+    IntervalTree<Integer> tree = new IntervalTree<>();
+    tree.put(1, 2, 1);
+    tree.put(3, 4, 2);
+
+    Iterator<IntervalTree.Interval<Integer>> it = tree.iterator();
+    it.next();
+    tree.put(5, 6, 3);
+
+    Assertions.assertThrows(ConcurrentModificationException.class, it::hasNext);
+  }
+}
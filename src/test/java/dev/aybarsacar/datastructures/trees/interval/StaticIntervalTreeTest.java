@@ -0,0 +1,69 @@
+package dev.aybarsacar.datastructures.trees.interval;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+public class StaticIntervalTreeTest
+{
+  private static List<Integer> toList(PrimitiveIterator.OfInt iterator)
+  {
+    List<Integer> lst = new ArrayList<>();
+    while (iterator.hasNext()) lst.add(iterator.nextInt());
+    return lst;
+  }
+
+  @Test
+  public void smallTreeTest()
+  {
+    long[] los = {30, 10, 15, 5, 18};
+    long[] his = {40, 20, 25, 8, 18};
+    StaticIntervalTree tree = new StaticIntervalTree(los, his);
+
+    Assertions.assertTrue(tree.isValidStaticIntervalTree());
+    Assertions.assertEquals(5, tree.size());
+    Assertions.assertEquals(List.of(1, 2, 4), toList(tree.stab(18)));
+    Assertions.assertEquals(List.of(2, 0), toList(tree.overlapping(21, 30)));
+    Assertions.assertEquals(0, tree.countOverlapping(26, 29));
+    Assertions.assertEquals(List.of(), toList(new StaticIntervalTree(new long[0], new long[0]).stab(1)));
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new StaticIntervalTree(new long[]{2}, new long[]{1}));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new StaticIntervalTree(new long[]{1}, new long[0]));
+  }
+
+  @Test
+  public void matchesBruteForceOnRandomIntervals()
+  {
+    Random random = new Random(4);
+    int n = 30_000;
+    long[] los = new long[n], his = new long[n];
+
+    for (int i = 0; i < n; i++)
+    {
+      los[i] = random.nextInt(100_000);
+      his[i] = los[i] + random.nextInt(random.nextInt(10) == 0 ? 10_000 : 100);
+    }
+
+    StaticIntervalTree tree = new StaticIntervalTree(los, his);
+    Assertions.assertTrue(tree.isValidStaticIntervalTree());
+
+    for (int q = 0; q < 300; q++)
+    {
+      long lo = random.nextInt(101_000) - 500, hi = lo + random.nextInt(200);
+
+      List<Integer> actual = toList(tree.overlapping(lo, hi));
+      List<Integer> expected = new ArrayList<>();
+      for (int i = 0; i < n; i++) if (los[i] <= hi && his[i] >= lo) expected.add(i);
+
+//      results come in order of lo, compare them as sets and check that order
+      for (int i = 1; i < actual.size(); i++) Assertions.assertTrue(los[actual.get(i - 1)] <= los[actual.get(i)]);
+      actual.sort(null);
+      Assertions.assertEquals(expected, actual);
+      Assertions.assertEquals(expected.size(), tree.countOverlapping(lo, hi));
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package dev.aybarsacar.datastructures.trees.persistent;
+
+import dev.aybarsacar.datastructures.trees.bst.BinarySearchTree;
+import dev.aybarsacar.datastructures.trees.utils.TreeTraversalOrder;
+
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * Taking a read only snapshot after every batch of updates, by deep copying a BinarySearchTree
+ * (reinserting it in level order, which keeps its shape) or by keeping the current
+ * PersistentTreeMap, and applying the batches with persistent puts or with a Transient
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class PersistentTreeMapBenchmark
+{
+  private static final int KEYS = 1_000_000;
+  private static final int BATCHES = 20;
+  private static final int BATCH_SIZE = 10_000;
+  private static final int ROUNDS = 3;
+
+  public static void main(String[] args)
+  {
+    for (int round = 0; round < ROUNDS; round++)
+    {
+      System.out.printf("round %d%n", round);
+
+      Random random = new Random(1);
+      BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+      PersistentTreeMap.Transient<Integer, Integer> load = PersistentTreeMap.<Integer, Integer>empty().asTransient();
+      for (int i = 0; i < KEYS; i++)
+      {
+        int key = random.nextInt();
+        bst.insert(key);
+        load.put(key, key);
+      }
+      PersistentTreeMap<Integer, Integer> initial = load.persistent();
+
+      int[][] batches = new int[BATCHES][BATCH_SIZE];
+      for (int[] batch : batches) for (int i = 0; i < BATCH_SIZE; i++) batch[i] = random.nextInt();
+
+      long start = System.nanoTime();
+      BinarySearchTree<Integer> snapshot = bst;
+      for (int[] batch : batches)
+      {
+        for (int key : batch) bst.insert(key);
+        snapshot = deepCopy(bst);
+      }
+      long bstTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      PersistentTreeMap<Integer, Integer> map = initial, persistentSnapshot = map;
+      for (int[] batch : batches)
+      {
+        for (int key : batch) map = map.put(key, key);
+        persistentSnapshot = map;
+      }
+      long persistentTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      PersistentTreeMap<Integer, Integer> batched = initial, transientSnapshot = batched;
+      for (int[] batch : batches)
+      {
+        PersistentTreeMap.Transient<Integer, Integer> updates = batched.asTransient();
+        for (int key : batch) updates.put(key, key);
+        batched = updates.persistent();
+        transientSnapshot = batched;
+      }
+      long transientTime = System.nanoTime() - start;
+
+      System.out.printf("  %d batches of %d puts over %d keys, snapshot after each batch%n", BATCHES, BATCH_SIZE, KEYS);
+      System.out.printf("  BinarySearchTree + deep copy:  %6d ms  (%d)%n", bstTime / 1_000_000, snapshot.size());
+      System.out.printf("  PersistentTreeMap.put:         %6d ms  (%d)%n", persistentTime / 1_000_000, persistentSnapshot.size());
+      System.out.printf("  PersistentTreeMap.Transient:   %6d ms  (%d)%n", transientTime / 1_000_000, transientSnapshot.size());
+    }
+  }
+
+  private static BinarySearchTree<Integer> deepCopy(BinarySearchTree<Integer> tree)
+  {
+    BinarySearchTree<Integer> copy = new BinarySearchTree<>();
+    for (Iterator<Integer> it = tree.traverse(TreeTraversalOrder.LEVEL_ORDER); it.hasNext(); ) copy.insert(it.next());
+    return copy;
+  }
+}
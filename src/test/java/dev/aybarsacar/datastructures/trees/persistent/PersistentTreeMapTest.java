@@ -0,0 +1,166 @@
+package dev.aybarsacar.datastructures.trees.persistent;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class PersistentTreeMapTest
+{
+  private static <T> List<T> toList(Iterator<T> iterator)
+  {
+    List<T> lst = new ArrayList<>();
+    iterator.forEachRemaining(lst::add);
+    return lst;
+  }
+
+  private static void assertSameContents(TreeMap<Integer, Integer> expected, PersistentTreeMap<Integer, Integer> map)
+  {
+    Assertions.assertTrue(map.isValidWeightBalanced());
+    Assertions.assertEquals(expected.size(), map.size());
+    Assertions.assertEquals(new ArrayList<>(expected.keySet()), toList(map.iterator()));
+    for (Integer key : expected.keySet()) Assertions.assertEquals(expected.get(key), map.get(key));
+  }
+
+  @Test
+  public void matchesTreeMapAndKeepsEveryVersion()
+  {
+    Random random = new Random(3);
+    TreeMap<Integer, Integer> expected = new TreeMap<>();
+    PersistentTreeMap<Integer, Integer> map = PersistentTreeMap.empty();
+
+    List<TreeMap<Integer, Integer>> expectedVersions = new ArrayList<>();
+    List<PersistentTreeMap<Integer, Integer>> versions = new ArrayList<>();
+
+    for (int i = 0; i < 20_000; i++)
+    {
+      int key = random.nextInt(2000);
+
+      if (random.nextInt(3) != 0)
+      {
+        expected.put(key, i);
+        map = map.put(key, i);
+      }
+      else
+      {
+        expected.remove(key);
+        map = map.remove(key);
+      }
+
+      if (i % 1000 == 0)
+      {
+        expectedVersions.add(new TreeMap<>(expected));
+        versions.add(map);
+      }
+    }
+
+    assertSameContents(expected, map);
+
+//    later updates did not change any earlier version
+    for (int i = 0; i < versions.size(); i++) assertSameContents(expectedVersions.get(i), versions.get(i));
+  }
+
+  @Test
+  public void unchangedMapIsReturnedAsIs()
+  {
+    PersistentTreeMap<Integer, String> map = PersistentTreeMap.<Integer, String>empty().put(1, "one").put(2, "two");
+    String two = map.get(2);
+
+    Assertions.assertSame(map, map.put(2, two));
+    Assertions.assertSame(map, map.remove(3));
+    Assertions.assertNotSame(map, map.put(2, "TWO"));
+    Assertions.assertEquals("two", map.get(2));
+  }
+
+  @Test
+  public void orderedQueriesTest()
+  {
+    PersistentTreeMap.Transient<Integer, Integer> batch = PersistentTreeMap.<Integer, Integer>empty().asTransient();
+    for (int i = 0; i < 100; i++) batch.put(2 * i, i);
+    PersistentTreeMap<Integer, Integer> map = batch.persistent();
+
+    Assertions.assertEquals(0, map.firstKey());
+    Assertions.assertEquals(198, map.lastKey());
+    Assertions.assertEquals(10, map.floorKey(11));
+    Assertions.assertEquals(12, map.ceilingKey(11));
+    Assertions.assertNull(map.floorKey(-1));
+    Assertions.assertNull(map.ceilingKey(199));
+
+    Assertions.assertEquals(6, map.rank(11));
+    Assertions.assertEquals(22, map.select(11));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> map.select(100));
+
+    Assertions.assertEquals(List.of(10, 12, 14), toList(map.rangeIterator(9, 15)));
+  }
+
+  @Test
+  public void emptyMapTest()
+  {
+    PersistentTreeMap<Integer, Integer> map = PersistentTreeMap.empty();
+
+    Assertions.assertTrue(map.isEmpty());
+    Assertions.assertEquals(0, map.height());
+    Assertions.assertNull(map.get(1));
+    Assertions.assertSame(map, map.remove(1));
+    Assertions.assertFalse(map.iterator().hasNext());
+    Assertions.assertThrows(NoSuchElementException.class, map::firstKey);
+    Assertions.assertThrows(IllegalArgumentException.class, () -> map.put(null, 1));
+  }
+
+  @Test
+  public void transientAppliesBatchesWithoutTouchingTheSource()
+  {
+    Random random = new Random(5);
+    TreeMap<Integer, Integer> expected = new TreeMap<>();
+    PersistentTreeMap<Integer, Integer> source = PersistentTreeMap.empty();
+
+    for (int i = 0; i < 1000; i++)
+    {
+      expected.put(i, i);
+      source = source.put(i, i);
+    }
+    TreeMap<Integer, Integer> expectedSource = new TreeMap<>(expected);
+
+    PersistentTreeMap.Transient<Integer, Integer> batch = source.asTransient();
+    for (int i = 0; i < 20_000; i++)
+    {
+      int key = random.nextInt(3000);
+
+      if (random.nextBoolean()) Assertions.assertEquals(expected.put(key, -i), batch.put(key, -i));
+      else Assertions.assertEquals(expected.remove(key), batch.remove(key));
+    }
+    Assertions.assertEquals(expected.size(), batch.size());
+
+    PersistentTreeMap<Integer, Integer> result = batch.persistent();
+
+    assertSameContents(expected, result);
+    assertSameContents(expectedSource, source);
+
+    Assertions.assertThrows(IllegalStateException.class, () -> batch.put(1, 1));
+    Assertions.assertThrows(IllegalStateException.class, batch::persistent);
+
+//    a second batch on the result must not change the nodes the first batch published
+    PersistentTreeMap.Transient<Integer, Integer> second = result.asTransient();
+    for (int key = 0; key < 3000; key++) second.put(key, key);
+
+    assertSameContents(expected, result);
+    Assertions.assertEquals(3000, second.persistent().size());
+  }
+
+  @Test
+  public void heightStaysLogarithmicForSortedInput()
+  {
+    PersistentTreeMap.Transient<Integer, Integer> batch = PersistentTreeMap.<Integer, Integer>empty().asTransient();
+    for (int i = 0; i < 100_000; i++) batch.put(i, i);
+
+    PersistentTreeMap<Integer, Integer> map = batch.persistent();
+
+    Assertions.assertTrue(map.isValidWeightBalanced());
+    Assertions.assertTrue(map.height() <= 2 * 17, "height " + map.height());
+  }
+}
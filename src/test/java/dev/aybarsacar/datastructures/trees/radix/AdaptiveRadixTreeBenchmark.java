@@ -0,0 +1,131 @@
+package dev.aybarsacar.datastructures.trees.radix;
+
+import dev.aybarsacar.datastructures.hashtables.HashTableLinearProbing;
+import dev.aybarsacar.datastructures.hashtables.HashTableSeparateChaining;
+import dev.aybarsacar.datastructures.trees.bst.BinarySearchTree;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * Inserts, point lookups and prefix scans over prefix heavy keys shaped like "tenant/0042/order/001337"
+ * for AdaptiveRadixTree over the UTF-8 bytes of the keys, and BinarySearchTree, HashTableSeparateChaining
+ * and HashTableLinearProbing over the strings
+ * the hash tables have no order, so they take no part in the prefix scans
+ * HashTableSeparateChaining does not grow, so it is created with room for every key
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class AdaptiveRadixTreeBenchmark
+{
+  private static final int TENANTS = 2_000;
+  private static final int ORDERS_PER_TENANT = 250;
+  private static final int LOOKUPS = 1_000_000;
+  private static final int SCANS = 20_000;
+  private static final int ROUNDS = 3;
+
+  public static void main(String[] args)
+  {
+    int n = TENANTS * ORDERS_PER_TENANT;
+    Random random = new Random(1);
+
+    String[] keys = new String[n];
+    for (int tenant = 0, i = 0; tenant < TENANTS; tenant++)
+    {
+      for (int order = 0; order < ORDERS_PER_TENANT; order++) keys[i++] = String.format("tenant/%04d/order/%06d", tenant, random.nextInt(1_000_000));
+    }
+
+//    insert in random order
+    for (int i = n - 1; i > 0; i--)
+    {
+      int j = random.nextInt(i + 1);
+      String tmp = keys[i];
+      keys[i] = keys[j];
+      keys[j] = tmp;
+    }
+
+    byte[][] byteKeys = new byte[n][];
+    for (int i = 0; i < n; i++) byteKeys[i] = keys[i].getBytes(StandardCharsets.UTF_8);
+
+    int[] probes = new int[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++) probes[i] = random.nextInt(n);
+
+    String[] prefixes = new String[SCANS];
+    for (int i = 0; i < SCANS; i++) prefixes[i] = String.format("tenant/%04d/", random.nextInt(TENANTS));
+
+    for (int round = 0; round < ROUNDS; round++)
+    {
+      System.out.printf("round %d: %d keys%n", round, n);
+
+      long start = System.nanoTime();
+      AdaptiveRadixTree<Integer> art = new AdaptiveRadixTree<>();
+      for (int i = 0; i < n; i++) art.put(byteKeys[i], i);
+      long artInsert = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      BinarySearchTree<String> bst = new BinarySearchTree<>();
+      for (String key : keys) bst.insert(key);
+      long bstInsert = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      HashTableSeparateChaining<String, Integer> chaining = new HashTableSeparateChaining<>(2 * n);
+      for (int i = 0; i < n; i++) chaining.put(keys[i], i);
+      long chainingInsert = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      HashTableLinearProbing<String, Integer> probing = new HashTableLinearProbing<>();
+      for (int i = 0; i < n; i++) probing.put(keys[i], i);
+      long probingInsert = System.nanoTime() - start;
+
+      long found = 0;
+
+//      look up fresh copies of the keys so that no cached String hash codes help the hash tables
+      start = System.nanoTime();
+      for (int probe : probes) if (art.get(keys[probe].getBytes(StandardCharsets.UTF_8)) != null) found++;
+      long artLookup = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int probe : probes) if (bst.contains(new String(byteKeys[probe], StandardCharsets.UTF_8))) found++;
+      long bstLookup = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int probe : probes) if (chaining.get(new String(byteKeys[probe], StandardCharsets.UTF_8)) != null) found++;
+      long chainingLookup = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int probe : probes) if (probing.get(new String(byteKeys[probe], StandardCharsets.UTF_8)) != null) found++;
+      long probingLookup = System.nanoTime() - start;
+
+      long scanned = 0;
+
+      start = System.nanoTime();
+      for (String prefix : prefixes)
+      {
+        AdaptiveRadixTree<Integer>.Cursor cursor = art.prefix(prefix.getBytes(StandardCharsets.UTF_8));
+        while (cursor.next()) scanned++;
+      }
+      long artScan = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (String prefix : prefixes)
+      {
+        for (Iterator<String> it = bst.iteratorFromRank(bst.rank(prefix)); it.hasNext(); )
+        {
+          if (!it.next().startsWith(prefix)) break;
+          scanned++;
+        }
+      }
+      long bstScan = System.nanoTime() - start;
+
+      System.out.printf("  %-26s insert %5d ms  lookup %5d ms  prefix scan %5d ms%n", "AdaptiveRadixTree",
+          artInsert / 1_000_000, artLookup / 1_000_000, artScan / 1_000_000);
+      System.out.printf("  %-26s insert %5d ms  lookup %5d ms  prefix scan %5d ms%n", "BinarySearchTree",
+          bstInsert / 1_000_000, bstLookup / 1_000_000, bstScan / 1_000_000);
+      System.out.printf("  %-26s insert %5d ms  lookup %5d ms%n", "HashTableSeparateChaining",
+          chainingInsert / 1_000_000, chainingLookup / 1_000_000);
+      System.out.printf("  %-26s insert %5d ms  lookup %5d ms  (%d, %d)%n", "HashTableLinearProbing",
+          probingInsert / 1_000_000, probingLookup / 1_000_000, found, scanned);
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package dev.aybarsacar.datastructures.trees.radix;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class AdaptiveRadixTreeTest
+{
+  private static byte[] bytes(String s)
+  {
+    return s.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static List<String> keys(AdaptiveRadixTree<?>.Cursor cursor)
+  {
+    List<String> keys = new ArrayList<>();
+    while (cursor.next()) keys.add(new String(cursor.key(), StandardCharsets.UTF_8));
+    return keys;
+  }
+
+  /**
+   * random keys over a small alphabet so many keys share prefixes and many are prefixes of others
+   */
+  private static byte[] randomKey(Random random)
+  {
+    byte[] key = new byte[random.nextInt(6)];
+    for (int i = 0; i < key.length; i++) key[i] = (byte) (random.nextInt(3) == 0 ? random.nextInt(256) : 'a' + random.nextInt(3));
+    return key;
+  }
+
+  @Test
+  public void matchesTreeMapWithUnsignedByteOrder()
+  {
+    Random random = new Random(11);
+    AdaptiveRadixTree<Integer> tree = new AdaptiveRadixTree<>();
+    TreeMap<byte[], Integer> expected = new TreeMap<>(Arrays::compareUnsigned);
+
+    for (int i = 0; i < 60_000; i++)
+    {
+      byte[] key = randomKey(random);
+
+      if (random.nextInt(3) != 0) Assertions.assertEquals(expected.put(key, i), tree.put(key, i));
+      else Assertions.assertEquals(expected.remove(key), tree.remove(key));
+
+      if (i % 5000 == 0) Assertions.assertTrue(tree.isValidART());
+    }
+
+    Assertions.assertTrue(tree.isValidART());
+    Assertions.assertEquals(expected.size(), tree.size());
+
+    AdaptiveRadixTree<Integer>.Cursor cursor = tree.cursor();
+    for (Map.Entry<byte[], Integer> entry : expected.entrySet())
+    {
+      Assertions.assertTrue(cursor.next());
+      Assertions.assertArrayEquals(entry.getKey(), cursor.key());
+      Assertions.assertEquals(entry.getValue(), cursor.value());
+      Assertions.assertEquals(entry.getValue(), tree.get(entry.getKey()));
+    }
+    Assertions.assertFalse(cursor.next());
+
+//    remove everything so every node type shrinks back down
+    for (byte[] key : new ArrayList<>(expected.keySet())) Assertions.assertEquals(expected.remove(key), tree.remove(key));
+    Assertions.assertTrue(tree.isEmpty());
+    Assertions.assertTrue(tree.isValidART());
+  }
+
+  @Test
+  public void prefixScanTest()
+  {
+    AdaptiveRadixTree<String> tree = new AdaptiveRadixTree<>();
+    for (String word : new String[]{"romane", "romanus", "romulus", "rubens", "ruber", "rubicon", "rubicundus", "rub", "r"})
+    {
+      tree.put(bytes(word), word);
+    }
+
+    Assertions.assertTrue(tree.isValidART());
+    Assertions.assertEquals(List.of("rub", "rubens", "ruber", "rubicon", "rubicundus"), keys(tree.prefix(bytes("rub"))));
+    Assertions.assertEquals(List.of("romane", "romanus"), keys(tree.prefix(bytes("roma"))));
+    Assertions.assertEquals(List.of("rubicon"), keys(tree.prefix(bytes("rubico"))));
+    Assertions.assertEquals(List.of(), keys(tree.prefix(bytes("rubx"))));
+    Assertions.assertEquals(List.of(), keys(tree.prefix(bytes("romanesque"))));
+    Assertions.assertEquals(9, keys(tree.prefix(new byte[0])).size());
+
+    Assertions.assertEquals("rub", tree.get(bytes("rub")));
+    Assertions.assertNull(tree.get(bytes("ru")));
+    Assertions.assertEquals("rub", tree.remove(bytes("rub")));
+    Assertions.assertEquals(List.of("rubens", "ruber", "rubicon", "rubicundus"), keys(tree.prefix(bytes("rub"))));
+  }
+
+  @Test
+  public void longKeysIterateInNumericOrder()
+  {
+    Random random = new Random(2);
+    AdaptiveRadixTree<Long> tree = new AdaptiveRadixTree<>();
+    TreeMap<Long, Long> expected = new TreeMap<>();
+
+    for (long key : new long[]{Long.MIN_VALUE, -1, 0, 1, Long.MAX_VALUE}) expected.put(key, key);
+    for (int i = 0; i < 20_000; i++)
+    {
+      long key = random.nextBoolean() ? random.nextLong() : random.nextInt(1000) - 500;
+      expected.put(key, key);
+    }
+    for (long key : expected.keySet()) tree.put(key, key);
+
+    Assertions.assertTrue(tree.isValidART());
+
+    AdaptiveRadixTree<Long>.Cursor cursor = tree.cursor();
+    for (long key : expected.keySet())
+    {
+      Assertions.assertTrue(cursor.next());
+      Assertions.assertEquals(key, cursor.longKey());
+      Assertions.assertEquals(key, AdaptiveRadixTree.decodeLong(AdaptiveRadixTree.encodeLong(key)));
+    }
+    Assertions.assertFalse(cursor.next());
+
+    Assertions.assertEquals(-1L, tree.get(-1L));
+    Assertions.assertTrue(tree.containsKey(Long.MIN_VALUE));
+    Assertions.assertEquals(0L, tree.remove(0L));
+    Assertions.assertFalse(tree.containsKey(0L));
+  }
+
+  @Test
+  public void nodesGrowAndShrinkThroughEveryType()
+  {
+    AdaptiveRadixTree<Integer> tree = new AdaptiveRadixTree<>();
+
+    for (int b = 0; b < 256; b++)
+    {
+      tree.put(new byte[]{7, (byte) b}, b);
+      Assertions.assertTrue(tree.isValidART());
+    }
+
+    for (int b = 255; b >= 0; b -= 2) Assertions.assertEquals(b, tree.remove(new byte[]{7, (byte) b}));
+    Assertions.assertTrue(tree.isValidART());
+
+    for (int b = 0; b < 256; b += 2) Assertions.assertEquals(b, tree.remove(new byte[]{7, (byte) b}));
+    Assertions.assertTrue(tree.isValidART());
+    Assertions.assertTrue(tree.isEmpty());
+    Assertions.assertFalse(tree.cursor().next());
+  }
+
+  @Test
+  public void cursorFailsFastAfterModification()
+  {
+    AdaptiveRadixTree<Integer> tree = new AdaptiveRadixTree<>();
+    tree.put(bytes("a"), 1);
+    tree.put(bytes("b"), 2);
+
+    AdaptiveRadixTree<Integer>.Cursor cursor = tree.cursor();
+    Assertions.assertTrue(cursor.next());
+    tree.put(bytes("c"), 3);
+
+    Assertions.assertThrows(java.util.ConcurrentModificationException.class, cursor::next);
+    Assertions.assertThrows(IllegalArgumentException.class, () -> tree.put(null, 1));
+  }
+}
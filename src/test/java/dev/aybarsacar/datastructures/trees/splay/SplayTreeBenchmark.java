@@ -0,0 +1,120 @@
+package dev.aybarsacar.datastructures.trees.splay;
+
+import dev.aybarsacar.datastructures.trees.balancedtrees.AVLTree;
+import dev.aybarsacar.datastructures.trees.bst.BinarySearchTree;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Lookups of a million keys under uniform, sequential and Zipfian access for SplayTree,
+ * BinarySearchTree and AVLTree, the trees hold the same keys inserted in the same random order
+ * the popularity ranks are spread over the key space at random, so the hot keys are not neighbours
+ * and only the splay tree can move them up
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class SplayTreeBenchmark
+{
+  private static final int KEYS = 1_000_000;
+  private static final int LOOKUPS = 2_000_000;
+  private static final double[] ZIPF_EXPONENTS = {0.8, 1.0, 1.2};
+  private static final int ROUNDS = 2;
+
+  public static void main(String[] args)
+  {
+    Random random = new Random(1);
+
+    Integer[] keys = new Integer[KEYS];
+    for (int i = 0; i < KEYS; i++) keys[i] = i;
+    shuffle(keys, random);
+
+    SplayTree<Integer> splay = new SplayTree<>();
+    BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+    AVLTree<Integer, Integer> avl = new AVLTree<>();
+    for (Integer key : keys)
+    {
+      splay.insert(key);
+      bst.insert(key);
+      avl.put(key, key);
+    }
+
+//    the key with popularity rank r is keys[r], a random key
+    int[] uniform = new int[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++) uniform[i] = random.nextInt(KEYS);
+
+//    ascending scans of the whole key space, which a splay tree serves in O(1) amortised a key
+    Integer[] sequential = new Integer[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++) sequential[i] = i % KEYS;
+
+    for (int round = 0; round < ROUNDS; round++)
+    {
+      System.out.printf("round %d, %d keys%n", round, KEYS);
+      run("uniform", toKeys(uniform, keys), splay, bst, avl);
+      run("sequential", sequential, splay, bst, avl);
+
+      for (double exponent : ZIPF_EXPONENTS)
+      {
+        int[] ranks = zipf(exponent, new Random(round));
+        run(String.format("zipf s=%.1f", exponent), toKeys(ranks, keys), splay, bst, avl);
+      }
+    }
+  }
+
+  private static void run(String name, Integer[] lookups, SplayTree<Integer> splay, BinarySearchTree<Integer> bst,
+                          AVLTree<Integer, Integer> avl)
+  {
+    long start = System.nanoTime();
+    int found = 0;
+    for (Integer key : lookups) if (splay.contains(key)) found++;
+    long splayTime = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    for (Integer key : lookups) if (bst.contains(key)) found--;
+    long bstTime = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    for (Integer key : lookups) if (avl.containsKey(key)) found++;
+    long avlTime = System.nanoTime() - start;
+
+    System.out.printf("  %-12s SplayTree %6.1f ns  BinarySearchTree %6.1f ns  AVLTree %6.1f ns  (%d)%n", name,
+        splayTime / (double) LOOKUPS, bstTime / (double) LOOKUPS, avlTime / (double) LOOKUPS, found);
+  }
+
+  /**
+   * samples popularity ranks where rank r is drawn with probability proportional to 1 / (r + 1)^exponent
+   * by binary searching the cumulative distribution
+   */
+  private static int[] zipf(double exponent, Random random)
+  {
+    double[] cumulative = new double[KEYS];
+    double total = 0;
+    for (int r = 0; r < KEYS; r++) cumulative[r] = total += 1 / Math.pow(r + 1, exponent);
+
+    int[] ranks = new int[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++)
+    {
+      int r = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+      ranks[i] = Math.min(r >= 0 ? r : -r - 1, KEYS - 1);
+    }
+    return ranks;
+  }
+
+  private static Integer[] toKeys(int[] ranks, Integer[] keys)
+  {
+    Integer[] lookups = new Integer[ranks.length];
+    for (int i = 0; i < ranks.length; i++) lookups[i] = keys[ranks[i]];
+    return lookups;
+  }
+
+  private static void shuffle(Integer[] values, Random random)
+  {
+    for (int i = values.length - 1; i > 0; i--)
+    {
+      int j = random.nextInt(i + 1);
+      Integer tmp = values[i];
+      values[i] = values[j];
+      values[j] = tmp;
+    }
+  }
+}
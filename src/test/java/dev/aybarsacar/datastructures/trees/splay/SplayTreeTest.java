@@ -0,0 +1,201 @@
+package dev.aybarsacar.datastructures.trees.splay;
+
+import dev.aybarsacar.datastructures.trees.utils.TreeTraversalOrder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class SplayTreeTest
+{
+  SplayTree<Integer> tree;
+
+  @BeforeEach
+  public void init()
+  {
+    tree = new SplayTree<>()
+    {{
+      insert(10);
+      insert(1234);
+      insert(93);
+      insert(2);
+      insert(39);
+      insert(-1);
+      insert(1349);
+      insert(5);
+      insert(100);
+    }};
+  }
+
+  private static List<Integer> toList(Iterator<Integer> iterator)
+  {
+    List<Integer> values = new ArrayList<>();
+    iterator.forEachRemaining(values::add);
+    return values;
+  }
+
+  @Test
+  public void accessesSplayToTheRoot()
+  {
+    Assertions.assertEquals(9, tree.size());
+    Assertions.assertEquals(100, tree.root());
+
+    Assertions.assertTrue(tree.contains(39));
+    Assertions.assertEquals(39, tree.root());
+
+    Assertions.assertFalse(tree.contains(40));
+    Assertions.assertTrue(tree.root() == 39 || tree.root() == 93);
+
+    Assertions.assertEquals(-1, tree.findMin());
+    Assertions.assertEquals(-1, tree.root());
+    Assertions.assertEquals(1349, tree.findMax());
+    Assertions.assertEquals(1349, tree.root());
+
+    Assertions.assertFalse(tree.insert(100));
+    Assertions.assertTrue(tree.isValidSplayTree());
+    System.out.println(tree);
+  }
+
+  @Test
+  public void traversesInEveryOrder()
+  {
+    List<Integer> sorted = List.of(-1, 2, 5, 10, 39, 93, 100, 1234, 1349);
+    Assertions.assertEquals(sorted, toList(tree.traverse(TreeTraversalOrder.IN_ORDER)));
+
+    for (TreeTraversalOrder order : TreeTraversalOrder.values())
+    {
+      List<Integer> values = toList(tree.traverse(order));
+      values.sort(null);
+      Assertions.assertEquals(sorted, values);
+    }
+
+    Assertions.assertEquals(100, toList(tree.traverse(TreeTraversalOrder.PRE_ORDER)).get(0));
+    Assertions.assertEquals(100, toList(tree.traverse(TreeTraversalOrder.LEVEL_ORDER)).get(0));
+    Assertions.assertEquals(100, toList(tree.traverse(TreeTraversalOrder.POST_ORDER)).get(8));
+  }
+
+  @Test
+  public void matchesTreeSetUnderRandomOperations()
+  {
+    SplayTree<Integer> splay = new SplayTree<>();
+    TreeSet<Integer> expected = new TreeSet<>();
+    Random random = new Random(11);
+
+    for (int i = 0; i < 50_000; i++)
+    {
+      int value = random.nextInt(2000);
+
+      switch (random.nextInt(4))
+      {
+        case 0:
+          Assertions.assertEquals(expected.add(value), splay.insert(value));
+          break;
+        case 1:
+          Assertions.assertEquals(expected.remove(value), splay.remove(value));
+          break;
+        case 2:
+          Assertions.assertEquals(expected.contains(value), splay.contains(value));
+          break;
+        default:
+          Assertions.assertEquals(expected.headSet(value).size(), splay.rank(value));
+      }
+
+      if (i % 5000 == 0) Assertions.assertTrue(splay.isValidSplayTree());
+    }
+
+    Assertions.assertTrue(splay.isValidSplayTree());
+    Assertions.assertEquals(expected.size(), splay.size());
+    Assertions.assertEquals(new ArrayList<>(expected), toList(splay.traverse(TreeTraversalOrder.IN_ORDER)));
+
+    List<Integer> sorted = new ArrayList<>(expected);
+    for (int rank = 0; rank < sorted.size(); rank += 37) Assertions.assertEquals(sorted.get(rank), splay.select(rank));
+    Assertions.assertEquals(expected.subSet(300, true, 900, true).size(), splay.countRange(300, 900));
+    Assertions.assertTrue(splay.isValidSplayTree());
+  }
+
+  @Test
+  public void handlesSequentialAccessChain()
+  {
+    SplayTree<Integer> chain = new SplayTree<>();
+    int n = 100_000;
+
+//    ascending inserts leave a left chain as long as the tree
+    for (int i = 0; i < n; i++) chain.insert(i);
+    Assertions.assertEquals(n, chain.height());
+    Assertions.assertTrue(chain.isValidSplayTree());
+
+//    one access halves the depth of the path it walks
+    Assertions.assertTrue(chain.contains(0));
+    Assertions.assertTrue(chain.height() < n / 2 + 2);
+    Assertions.assertTrue(chain.isValidSplayTree());
+
+    chain.rebalance();
+    Assertions.assertEquals(17, chain.height());
+    Assertions.assertEquals(n, chain.size());
+
+    SplayTree<Integer> built = SplayTree.fromSorted(chain.traverse(TreeTraversalOrder.IN_ORDER));
+    Assertions.assertEquals(17, built.height());
+    Assertions.assertTrue(built.isValidSplayTree());
+  }
+
+  @Test
+  public void orderStatisticsTest()
+  {
+    Assertions.assertEquals(-1, tree.select(0));
+    Assertions.assertEquals(39, tree.select(4));
+    Assertions.assertEquals(1349, tree.select(8));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> tree.select(9));
+
+    Assertions.assertEquals(0, tree.rank(-1));
+    Assertions.assertEquals(4, tree.rank(39));
+    Assertions.assertEquals(4, tree.rank(20));
+    Assertions.assertEquals(9, tree.rank(5000));
+
+    Assertions.assertEquals(5, tree.countRange(2, 93));
+    Assertions.assertEquals(4, tree.countRange(3, 99));
+    Assertions.assertEquals(0, tree.countRange(93, 2));
+
+    Assertions.assertEquals(List.of(93, 100, 1234, 1349), toList(tree.iteratorFromRank(5)));
+    Assertions.assertFalse(tree.iteratorFromRank(9).hasNext());
+    Assertions.assertTrue(tree.isValidSplayTree());
+  }
+
+  @Test
+  public void removesAndEmptyTree()
+  {
+    Assertions.assertTrue(tree.remove(10));
+    Assertions.assertTrue(tree.remove(-1));
+    Assertions.assertTrue(tree.remove(1349));
+    Assertions.assertFalse(tree.remove(1042));
+    Assertions.assertFalse(tree.remove(null));
+
+    Assertions.assertEquals(List.of(2, 5, 39, 93, 100, 1234), toList(tree.traverse(TreeTraversalOrder.IN_ORDER)));
+    Assertions.assertTrue(tree.isValidSplayTree());
+
+    tree.clear();
+    Assertions.assertTrue(tree.isEmpty());
+    Assertions.assertEquals(0, tree.height());
+    Assertions.assertEquals(0, tree.rank(5));
+    Assertions.assertFalse(tree.contains(5));
+    Assertions.assertThrows(NoSuchElementException.class, tree::findMin);
+    for (TreeTraversalOrder order : TreeTraversalOrder.values())
+      Assertions.assertFalse(tree.traverse(order).hasNext());
+  }
+
+  @Test
+  public void lookupsInvalidateIterators()
+  {
+    Iterator<Integer> it = tree.traverse(TreeTraversalOrder.IN_ORDER);
+    it.next();
+    tree.contains(93);
+
+    Assertions.assertThrows(ConcurrentModificationException.class, it::hasNext);
+  }
+}
@@ -0,0 +1,99 @@
+package dev.aybarsacar.datastructures.trees.trie;
+
+import dev.aybarsacar.datastructures.priorityqueue.TopKLongHeap;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Top 10 completions of short prefixes over a million random terms with skewed scores, answered by
+ * PatriciaTrie.topK and by scanning the range of the prefix in a sorted array into a TopKLongHeap
+ * the scan touches every term with the prefix while topK only expands the subtrees that can hold
+ * one of the best terms, so the gap grows as the prefixes get shorter
+ * <p>
+ * not a unit test, run the main method directly
+ */
+public class PatriciaTrieBenchmark
+{
+  private static final int TERMS = 1_000_000;
+  private static final int QUERIES = 2_000;
+  private static final int K = 10;
+  private static final int ROUNDS = 2;
+
+  public static void main(String[] args)
+  {
+    Random random = new Random(1);
+
+    String[] terms = new String[TERMS];
+    for (int i = 0; i < TERMS; i++)
+    {
+      char[] chars = new char[4 + random.nextInt(9)];
+      for (int j = 0; j < chars.length; j++) chars[j] = (char) ('a' + Math.min(random.nextInt(26), random.nextInt(26)));
+      terms[i] = new String(chars);
+    }
+
+    long start = System.nanoTime();
+    PatriciaTrie trie = new PatriciaTrie();
+    for (String term : terms) trie.put(term, scoreOf(term));
+    System.out.printf("built a trie of %d terms in %d ms: %d nodes, %d label chars%n",
+        trie.size(), (System.nanoTime() - start) / 1_000_000, trie.nodeCount(), trie.labelChars());
+
+    String[] sorted = Arrays.stream(terms).distinct().sorted().toArray(String[]::new);
+    long[] scores = new long[sorted.length];
+    for (int i = 0; i < sorted.length; i++) scores[i] = scoreOf(sorted[i]);
+
+    for (int prefixLength = 1; prefixLength <= 3; prefixLength++)
+    {
+      String[] prefixes = new String[QUERIES];
+      for (int i = 0; i < QUERIES; i++) prefixes[i] = terms[random.nextInt(TERMS)].substring(0, prefixLength);
+
+      for (int round = 0; round < ROUNDS; round++)
+      {
+        long checksum = 0;
+
+        start = System.nanoTime();
+        for (String prefix : prefixes)
+        {
+          List<String> top = trie.topK(prefix, K);
+          checksum += top.size();
+        }
+        long trieTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        TopKLongHeap heap = new TopKLongHeap(K);
+        for (String prefix : prefixes)
+        {
+          heap.clear();
+          for (int i = lowerBound(sorted, prefix); i < sorted.length && sorted[i].startsWith(prefix); i++) heap.offer(i, scores[i]);
+          checksum += heap.size();
+        }
+        long scanTime = System.nanoTime() - start;
+
+        System.out.printf("  prefix length %d: PatriciaTrie.topK %6.2f us/query  sorted range scan %8.2f us/query  (%d)%n",
+            prefixLength, trieTime / 1000.0 / QUERIES, scanTime / 1000.0 / QUERIES, checksum);
+      }
+    }
+  }
+
+  /**
+   * a skewed but deterministic score, most terms score low and a few score very high
+   */
+  private static long scoreOf(String term)
+  {
+    long hash = term.hashCode() * 0x9E3779B97F4A7C15L;
+    return Long.numberOfTrailingZeros(hash | 1L << 40) * 1_000_000L + (hash >>> 44);
+  }
+
+  private static int lowerBound(String[] sorted, String key)
+  {
+    int lo = 0, hi = sorted.length;
+    while (lo < hi)
+    {
+      int mid = (lo + hi) >>> 1;
+      if (sorted[mid].compareTo(key) < 0) lo = mid + 1;
+      else hi = mid;
+    }
+    return lo;
+  }
+}
@@ -0,0 +1,122 @@
+package dev.aybarsacar.datastructures.trees.trie;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+public class PatriciaTrieTest
+{
+  private static List<String> toList(Iterator<String> iterator)
+  {
+    List<String> lst = new ArrayList<>();
+    iterator.forEachRemaining(lst::add);
+    return lst;
+  }
+
+  private static String randomTerm(Random random)
+  {
+    char[] chars = new char[1 + random.nextInt(7)];
+    for (int i = 0; i < chars.length; i++) chars[i] = (char) ('a' + random.nextInt(4));
+    return new String(chars);
+  }
+
+  @Test
+  public void wordsTest()
+  {
+    PatriciaTrie trie = new PatriciaTrie();
+    String[] words = {"romane", "romanus", "romulus", "rubens", "ruber", "rubicon", "rubicundus", "rub"};
+    for (int i = 0; i < words.length; i++) Assertions.assertTrue(trie.put(words[i], i));
+
+    Assertions.assertTrue(trie.isValidTrie());
+    Assertions.assertEquals(8, trie.size());
+    Assertions.assertTrue(trie.nodeCount() <= 2 * trie.size() + 1);
+
+    Assertions.assertTrue(trie.contains("rub"));
+    Assertions.assertFalse(trie.contains("ru"));
+    Assertions.assertFalse(trie.contains("rubicons"));
+    Assertions.assertEquals(4, trie.getScore("ruber", -1));
+    Assertions.assertEquals(-1, trie.getScore("rome", -1));
+
+    Assertions.assertEquals(List.of("rub", "rubens", "ruber", "rubicon", "rubicundus"), toList(trie.prefixIterator("rub")));
+    Assertions.assertEquals(List.of("rubicon", "rubicundus"), toList(trie.prefixIterator("rubic")));
+    Assertions.assertEquals(List.of("romane", "romanus"), toList(trie.prefixIterator("roman")));
+    Assertions.assertEquals(List.of(), toList(trie.prefixIterator("rx")));
+    Assertions.assertEquals(8, toList(trie.prefixIterator("")).size());
+
+    Assertions.assertEquals(List.of("rub", "rubicundus", "rubicon"), trie.topK("ru", 3));
+    Assertions.assertEquals(List.of("romulus", "romanus", "romane"), trie.topK("rom", 10));
+    Assertions.assertEquals(List.of(), trie.topK("x", 3));
+
+//    lowering the best score moves the term down
+    Assertions.assertFalse(trie.put("rubicundus", -10));
+    Assertions.assertTrue(trie.isValidTrie());
+    Assertions.assertEquals(List.of("rub", "rubicon", "ruber"), trie.topK("ru", 3));
+  }
+
+  @Test
+  public void matchesBruteForceOnRandomTerms()
+  {
+    Random random = new Random(8);
+    PatriciaTrie trie = new PatriciaTrie();
+    TreeMap<String, Long> expected = new TreeMap<>();
+
+    for (int i = 0; i < 20_000; i++)
+    {
+      String term = randomTerm(random);
+      long score = random.nextInt(1_000_000);
+
+      Assertions.assertEquals(!expected.containsKey(term), trie.put(term, score));
+      expected.put(term, score);
+    }
+
+    Assertions.assertTrue(trie.isValidTrie());
+    Assertions.assertEquals(expected.size(), trie.size());
+    Assertions.assertEquals(new ArrayList<>(expected.keySet()), toList(trie.prefixIterator("")));
+
+    for (int i = 0; i < 200; i++)
+    {
+      String source = randomTerm(random), prefix = source.substring(0, Math.min(source.length(), random.nextInt(3)));
+      int k = 1 + random.nextInt(20);
+
+      List<String> withPrefix = expected.keySet().stream().filter(t -> t.startsWith(prefix)).collect(Collectors.toList());
+      Assertions.assertEquals(withPrefix, toList(trie.prefixIterator(prefix)));
+
+      List<Long> expectedScores = withPrefix.stream().map(expected::get)
+          .sorted(Comparator.reverseOrder()).limit(k).collect(Collectors.toList());
+      List<String> top = trie.topK(prefix, k);
+
+      Assertions.assertEquals(expectedScores, top.stream().map(expected::get).collect(Collectors.toList()));
+      for (String term : top) Assertions.assertTrue(term.startsWith(prefix));
+    }
+
+    for (Map.Entry<String, Long> entry : expected.entrySet())
+    {
+      Assertions.assertEquals(entry.getValue(), trie.getScore(entry.getKey(), -1));
+    }
+  }
+
+  @Test
+  public void emptyTrieTest()
+  {
+    PatriciaTrie trie = new PatriciaTrie();
+
+    Assertions.assertTrue(trie.isEmpty());
+    Assertions.assertFalse(trie.contains(""));
+    Assertions.assertFalse(trie.prefixIterator("").hasNext());
+    Assertions.assertEquals(List.of(), trie.topK("", 5));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> trie.topK("", 0));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> trie.put(null, 1));
+
+    Assertions.assertTrue(trie.put("", 3));
+    Assertions.assertEquals(List.of(""), trie.topK("", 5));
+    Assertions.assertTrue(trie.isValidTrie());
+  }
+}